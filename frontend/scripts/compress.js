@@ -0,0 +1,44 @@
+// Writes gzip (.gz) and brotli (.br) copies of the compressible files in build/,
+// so the backend can serve them as they are instead of compressing on every request.
+// Run after "npm run build"; copies that would not be smaller are skipped.
+const fs = require("fs");
+const path = require("path");
+const zlib = require("zlib");
+
+const BUILD_DIR = path.join(__dirname, "..", "build");
+const COMPRESSIBLE = /\.(html|js|css|json|map|svg|txt|ico)$/;
+const MIN_SIZE = 1024;
+
+function* files(dir) {
+  for (const entry of fs.readdirSync(dir, { withFileTypes: true })) {
+    const file = path.join(dir, entry.name);
+    if (entry.isDirectory()) {
+      yield* files(file);
+    } else if (COMPRESSIBLE.test(entry.name)) {
+      yield file;
+    }
+  }
+}
+
+let count = 0;
+for (const file of files(BUILD_DIR)) {
+  const content = fs.readFileSync(file);
+  if (content.length < MIN_SIZE) {
+    continue;
+  }
+  const gzip = zlib.gzipSync(content, { level: zlib.constants.Z_BEST_COMPRESSION });
+  if (gzip.length < content.length) {
+    fs.writeFileSync(file + ".gz", gzip);
+  }
+  const brotli = zlib.brotliCompressSync(content, {
+    params: {
+      [zlib.constants.BROTLI_PARAM_QUALITY]: zlib.constants.BROTLI_MAX_QUALITY,
+      [zlib.constants.BROTLI_PARAM_SIZE_HINT]: content.length,
+    },
+  });
+  if (brotli.length < content.length) {
+    fs.writeFileSync(file + ".br", brotli);
+  }
+  count++;
+}
+console.log(`compressed ${count} files in ${BUILD_DIR}`);
@@ -1,13 +1,13 @@
 import BasicLayout from "main/layouts/BasicLayout/BasicLayout";
 import RequestsTable from "main/components/RecommendationRequest/RecommendationRequestTable";
 
-import { useBackend } from "main/utils/useBackend";
+import { useBackendPages } from "main/utils/useBackend";
 const AdminRequestsPage = () => {
   const {
     data: requests,
     error: _error,
     status: _status,
-  } = useBackend(
+  } = useBackendPages(
     // Stryker disable next-line all : don't test internal caching of React Query
     ["/api/recommendationrequest/admin/all"],
     { method: "GET", url: "/api/recommendationrequest/admin/all" },
@@ -1,5 +1,5 @@
 import BasicLayout from "main/layouts/BasicLayout/BasicLayout";
-import { useBackend } from "main/utils/useBackend";
+import { useBackendPages } from "main/utils/useBackend";
 import RecommendationRequestTable from "main/components/RecommendationRequest/RecommendationRequestTable";
 import { hasRole, useCurrentUser } from "main/utils/currentUser";
 
@@ -14,7 +14,7 @@ export default function CompletedRequestsPage() {
     data: requests,
     error: _error,
     status: _status,
-  } = useBackend(
+  } = useBackendPages(
     // Stryker disable next-line all : don't test internal caching of React Query
     [apiEndpoint],
     {
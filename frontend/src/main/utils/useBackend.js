@@ -45,6 +45,47 @@ export function useBackend(queryKey, axiosParameters, initialData) {
   );
 }
 
+// For the keyset paginated lists, e.g. "/api/recommendationrequest/requester/all":
+// every page is requested with a size, and the next one with the cursor that
+// the backend returns in the X-Next-Cursor header, until there is none.
+//
+// useBackendPages(
+//     ["/api/recommendationrequest/admin/all"],
+//     { method: "GET", url: "/api/recommendationrequest/admin/all" },
+//     []
+// );
+
+export const PAGE_SIZE = 1000;
+
+export function useBackendPages(queryKey, axiosParameters, initialData) {
+  return useQuery(
+    queryKey,
+    async () => {
+      try {
+        let rows = [];
+        let cursor = undefined;
+        do {
+          const response = await axios({
+            ...axiosParameters,
+            params: { ...axiosParameters.params, size: PAGE_SIZE, cursor },
+          });
+          rows = rows.concat(response.data);
+          cursor = response.headers["x-next-cursor"];
+        } while (cursor);
+        return rows;
+      } catch (e) {
+        const errorMessage = `Error communicating with backend via ${axiosParameters.method} on ${axiosParameters.url}`;
+        toast(errorMessage);
+        console.error(errorMessage, e);
+        throw e;
+      }
+    },
+    {
+      initialData,
+    },
+  );
+}
+
 // const wrappedParams = async (params) =>
 //   await ( await axios(params)).data;
 
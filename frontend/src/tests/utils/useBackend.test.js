@@ -3,7 +3,12 @@ import { renderHook, waitFor, act } from "@testing-library/react";
 
 import axios from "axios";
 import AxiosMockAdapter from "axios-mock-adapter";
-import { useBackend, useBackendMutation } from "main/utils/useBackend";
+import {
+  PAGE_SIZE,
+  useBackend,
+  useBackendMutation,
+  useBackendPages,
+} from "main/utils/useBackend";
 
 jest.mock("react-router-dom");
 
@@ -234,4 +239,124 @@ describe("utils/useBackend tests", () => {
       expect(errorMessage2).toMatch(/onError from mutation.mutate called!/);
     });
   });
+  describe("utils/useBackend useBackendPages tests", () => {
+    const queryClient = () =>
+      new QueryClient({
+        defaultOptions: {
+          queries: {
+            retry: false,
+          },
+        },
+      });
+
+    test("useBackendPages follows the next cursor until the last page", async () => {
+      const client = queryClient();
+      const wrapper = ({ children }) => (
+        <QueryClientProvider client={client}>{children}</QueryClientProvider>
+      );
+
+      const axiosMock = new AxiosMockAdapter(axios);
+      axiosMock
+        .onGet("/api/recommendationrequest/admin/all")
+        .replyOnce(200, [{ id: 3 }, { id: 2 }], { "x-next-cursor": "abc" })
+        .onGet("/api/recommendationrequest/admin/all")
+        .replyOnce(200, [{ id: 1 }]);
+
+      const { result } = renderHook(
+        () =>
+          useBackendPages(
+            ["/api/recommendationrequest/admin/all"],
+            { method: "GET", url: "/api/recommendationrequest/admin/all" },
+            [],
+          ),
+        { wrapper },
+      );
+
+      await waitFor(() => expect(result.current.isSuccess).toBe(true));
+
+      expect(result.current.data).toEqual([{ id: 3 }, { id: 2 }, { id: 1 }]);
+      expect(axiosMock.history.get.length).toBe(2);
+      expect(axiosMock.history.get[0].params).toEqual({
+        size: PAGE_SIZE,
+        cursor: undefined,
+      });
+      expect(axiosMock.history.get[1].params).toEqual({
+        size: PAGE_SIZE,
+        cursor: "abc",
+      });
+    });
+
+    test("useBackendPages keeps the caller's params", async () => {
+      const client = queryClient();
+      const wrapper = ({ children }) => (
+        <QueryClientProvider client={client}>{children}</QueryClientProvider>
+      );
+
+      const axiosMock = new AxiosMockAdapter(axios);
+      axiosMock
+        .onGet("/api/recommendationrequest/professor/filtered")
+        .reply(200, [{ id: 1 }]);
+
+      const { result } = renderHook(
+        () =>
+          useBackendPages(
+            ["/api/recommendationrequest/professor/filtered"],
+            {
+              method: "GET",
+              url: "/api/recommendationrequest/professor/filtered",
+              params: { status: "PENDING" },
+            },
+            [],
+          ),
+        { wrapper },
+      );
+
+      await waitFor(() => expect(result.current.isSuccess).toBe(true));
+
+      expect(result.current.data).toEqual([{ id: 1 }]);
+      expect(axiosMock.history.get[0].params).toEqual({
+        status: "PENDING",
+        size: PAGE_SIZE,
+        cursor: undefined,
+      });
+    });
+
+    test("useBackendPages handles 404 error correctly", async () => {
+      const client = queryClient();
+      const wrapper = ({ children }) => (
+        <QueryClientProvider client={client}>{children}</QueryClientProvider>
+      );
+
+      const axiosMock = new AxiosMockAdapter(axios);
+      axiosMock
+        .onGet("/api/recommendationrequest/requester/all")
+        .replyOnce(200, [{ id: 2 }], { "x-next-cursor": "abc" })
+        .onGet("/api/recommendationrequest/requester/all")
+        .replyOnce(404, {});
+
+      const { result } = renderHook(
+        () =>
+          useBackendPages(
+            ["/api/recommendationrequest/requester/all"],
+            {
+              method: "GET",
+              url: "/api/recommendationrequest/requester/all",
+            },
+            ["initialData"],
+          ),
+        { wrapper },
+      );
+
+      await waitFor(() => expect(result.current.isError).toBe(true));
+
+      expect(result.current.data).toEqual(["initialData"]);
+      expect(mockToast).toHaveBeenCalledWith(
+        "Error communicating with backend via GET on /api/recommendationrequest/requester/all",
+      );
+      const errorMessage = console.error.mock.calls[0][0];
+      expect(errorMessage).toMatch(
+        "Error communicating with backend via GET on /api/recommendationrequest/requester/all",
+      );
+    });
+  });
 });
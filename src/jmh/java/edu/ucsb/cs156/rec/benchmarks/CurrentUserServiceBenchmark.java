@@ -0,0 +1,74 @@
+package edu.ucsb.cs156.rec.benchmarks;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import edu.ucsb.cs156.rec.entities.User;
+import edu.ucsb.cs156.rec.models.CurrentUser;
+import edu.ucsb.cs156.rec.services.CurrentUserCache;
+import edu.ucsb.cs156.rec.services.CurrentUserServiceImpl;
+import edu.ucsb.cs156.rec.services.GrantedAuthoritiesService;
+
+/**
+ * CurrentUserServiceImpl.getCurrentUser for a logged in user, at each level of caching.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CurrentUserServiceBenchmark {
+
+  CurrentUserServiceImpl currentUserService;
+  CurrentUserCache currentUserCache;
+
+  @Setup
+  public void setup() {
+    User user = Fixtures.user(1, false);
+    currentUserCache = new CurrentUserCache(Duration.ofMinutes(5), 10000);
+    currentUserService = new CurrentUserServiceImpl();
+    ReflectionTestUtils.setField(currentUserService, "userRepository", Fixtures.userRepository(user));
+    ReflectionTestUtils.setField(currentUserService, "grantedAuthoritiesService", new GrantedAuthoritiesService());
+    ReflectionTestUtils.setField(currentUserService, "currentUserCache", currentUserCache);
+    SecurityContextHolder.getContext().setAuthentication(Fixtures.authentication(user.getEmail(), "ROLE_USER"));
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+  }
+
+  /** Repeated calls while handling one request: the user is memoized on the request */
+  @Benchmark
+  public CurrentUser sameRequest() {
+    return currentUserService.getCurrentUser();
+  }
+
+  /** First call of a new request: the user comes from CurrentUserCache */
+  @Benchmark
+  public CurrentUser newRequest() {
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    return currentUserService.getCurrentUser();
+  }
+
+  /** First call of a new request after the user was evicted: the user is looked up in the repository */
+  @Benchmark
+  public CurrentUser userCacheMiss() {
+    currentUserCache.invalidateAll();
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    return currentUserService.getCurrentUser();
+  }
+}
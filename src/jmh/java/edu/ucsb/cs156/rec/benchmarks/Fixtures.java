@@ -0,0 +1,111 @@
+package edu.ucsb.cs156.rec.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+
+import edu.ucsb.cs156.rec.entities.RecommendationRequest;
+import edu.ucsb.cs156.rec.entities.User;
+import edu.ucsb.cs156.rec.repositories.UserRepository;
+
+/**
+ * Test data shared by the benchmarks.
+ */
+final class Fixtures {
+
+  private Fixtures() {
+  }
+
+  /**
+   * @param i number used to make the user unique
+   * @param professor whether the user is a professor
+   * @return a user with every field filled in, as after a Google login
+   */
+  static User user(long i, boolean professor) {
+    return User.builder()
+        .id(i)
+        .email("user" + i + "@ucsb.edu")
+        .googleSub("1158569482342984" + i)
+        .pictureUrl("https://lh3.googleusercontent.com/a/ACg8ocJpOe2SqIpirdIMx7KTj1W4OQ45t6FwpUo40K2V2JON=s96-c")
+        .fullName("Full Name " + i)
+        .givenName("Given")
+        .familyName("Family")
+        .emailVerified(true)
+        .locale("en")
+        .hostedDomain("ucsb.edu")
+        .professor(professor)
+        .build();
+  }
+
+  /**
+   * @param rows number of requests
+   * @return requests from distinct students to one professor
+   */
+  static List<RecommendationRequest> recommendationRequests(int rows) {
+    User professor = user(0, true);
+    LocalDateTime now = LocalDateTime.parse("2025-05-01T10:00:00");
+    List<RecommendationRequest> requests = new ArrayList<>(rows);
+    for (int i = 1; i <= rows; i++) {
+      requests.add(RecommendationRequest.builder()
+          .id(i)
+          .requester(user(i, false))
+          .professor(professor)
+          .recommendationType("PhD program")
+          .details("Applying to the PhD program in Computer Science")
+          .status("PENDING")
+          .dueDate(now.plusDays(30))
+          .submissionDate(now.minusMinutes(i))
+          .lastModifiedDate(now.minusMinutes(i))
+          .build());
+    }
+    return requests;
+  }
+
+  /**
+   * @param email email of the logged in user
+   * @param roles authorities of the logged in user
+   * @return an OAuth2 authentication like the one created at login
+   */
+  static OAuth2AuthenticationToken authentication(String email, String... roles) {
+    List<SimpleGrantedAuthority> authorities = new ArrayList<>();
+    for (String role : roles) {
+      authorities.add(new SimpleGrantedAuthority(role));
+    }
+    Map<String, Object> attributes = Map.of(
+        "sub", "115856948234298493496",
+        "email", email,
+        "name", "Full Name",
+        "email_verified", true);
+    return new OAuth2AuthenticationToken(new DefaultOAuth2User(authorities, attributes, "sub"),
+        authorities, "google");
+  }
+
+  /**
+   * A UserRepository that only answers findByEmail, from memory.  It is
+   * cheaper than a Mockito mock, so it does not distort the measurements.
+   * @param users the users to find
+   * @return the repository
+   */
+  static UserRepository userRepository(User... users) {
+    return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+        new Class<?>[] { UserRepository.class },
+        (proxy, method, args) -> {
+          if (!method.getName().equals("findByEmail")) {
+            throw new UnsupportedOperationException(method.getName());
+          }
+          for (User user : users) {
+            if (user.getEmail().equals(args[0])) {
+              return Optional.of(user);
+            }
+          }
+          return Optional.empty();
+        });
+  }
+}
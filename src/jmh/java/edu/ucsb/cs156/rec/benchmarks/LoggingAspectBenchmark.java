@@ -0,0 +1,65 @@
+package edu.ucsb.cs156.rec.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import edu.ucsb.cs156.rec.aop.LoggingAspect;
+
+/**
+ * The cost of the LoggingAspect advice: the same controller method called
+ * directly and through a proxy advised by LoggingAspect.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggingAspectBenchmark {
+
+  /** A controller method matched by the LoggingAspect pointcut */
+  public static class SampleController {
+    @GetMapping("/api/sample")
+    public String sample() {
+      return "ok";
+    }
+  }
+
+  SampleController target;
+  SampleController advised;
+
+  @Setup
+  public void setup() {
+    target = new SampleController();
+    AspectJProxyFactory factory = new AspectJProxyFactory(target);
+    factory.addAspect(new LoggingAspect());
+    advised = factory.getProxy();
+    RequestContextHolder.setRequestAttributes(
+        new ServletRequestAttributes(new MockHttpServletRequest("GET", "/api/sample")));
+  }
+
+  @Benchmark
+  public String direct() {
+    return target.sample();
+  }
+
+  @Benchmark
+  public String advised() {
+    return advised.sample();
+  }
+}
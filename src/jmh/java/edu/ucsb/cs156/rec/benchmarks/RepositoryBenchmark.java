@@ -0,0 +1,145 @@
+package edu.ucsb.cs156.rec.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import edu.ucsb.cs156.rec.entities.RecommendationRequest;
+import edu.ucsb.cs156.rec.entities.User;
+import edu.ucsb.cs156.rec.models.PageCursor;
+import edu.ucsb.cs156.rec.models.ProfessorSummary;
+import edu.ucsb.cs156.rec.models.RecommendationRequestSummary;
+import edu.ucsb.cs156.rec.repositories.RecommendationRequestRepository;
+import edu.ucsb.cs156.rec.repositories.UserRepository;
+
+/**
+ * The repository queries behind the busiest endpoints, against an in-memory
+ * H2 database created by the Liquibase changelog and seeded with one
+ * professor's requests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+  /** Only the JPA part of the application: entities, repositories, Liquibase and auditing */
+  @SpringBootConfiguration
+  @EnableAutoConfiguration
+  @EntityScan(basePackageClasses = User.class)
+  @EnableJpaRepositories(basePackageClasses = UserRepository.class)
+  @EnableJpaAuditing
+  static class JpaOnly {
+  }
+
+  static final int STUDENTS = 200;
+  static final int PAGE_SIZE = 25;
+
+  @Param({ "5000" })
+  int requests;
+
+  ConfigurableApplicationContext context;
+  UserRepository userRepository;
+  RecommendationRequestRepository recommendationRequestRepository;
+  User professor;
+
+  @Setup
+  public void setup() {
+    context = new SpringApplicationBuilder(JpaOnly.class).run(
+        "--spring.profiles.active=benchmark",
+        "--spring.main.web-application-type=none",
+        "--spring.datasource.url=jdbc:h2:mem:benchmark",
+        "--spring.devtools.restart.enabled=false");
+    userRepository = context.getBean(UserRepository.class);
+    recommendationRequestRepository = context.getBean(RecommendationRequestRepository.class);
+
+    List<User> users = new ArrayList<>();
+    for (int i = 0; i <= STUDENTS; i++) {
+      User user = Fixtures.user(i, i == 0);
+      user.setId(0);
+      users.add(user);
+    }
+    // new entities are persisted in place, so the list now holds their generated ids
+    userRepository.saveAll(users);
+    professor = users.get(0);
+
+    LocalDateTime due = LocalDateTime.parse("2025-06-01T00:00:00");
+    List<RecommendationRequest> rows = new ArrayList<>(requests);
+    for (int i = 0; i < requests; i++) {
+      rows.add(RecommendationRequest.builder()
+          .requester(users.get(1 + i % STUDENTS))
+          .professor(professor)
+          .recommendationType("PhD program")
+          .details("Applying to the PhD program in Computer Science")
+          .status(i % 3 == 0 ? "COMPLETED" : "PENDING")
+          .dueDate(due)
+          .build());
+    }
+    recommendationRequestRepository.saveAll(rows);
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  /** First page of a professor's requests as entities, with requester and professor fetched */
+  @Benchmark
+  public List<RecommendationRequest> findPageByProfessorId() {
+    PageCursor first = PageCursor.FIRST;
+    return recommendationRequestRepository.findPageByProfessorId(professor.getId(),
+        first.submissionDate(), first.id(), Limit.of(PAGE_SIZE + 1));
+  }
+
+  /** First page of a professor's requests as summary projections */
+  @Benchmark
+  public List<RecommendationRequestSummary> findSummaryPageByProfessorId() {
+    PageCursor first = PageCursor.FIRST;
+    return recommendationRequestRepository.findSummaryPageByProfessorId(professor.getId(),
+        first.submissionDate(), first.id(), Limit.of(PAGE_SIZE + 1));
+  }
+
+  /** First page of a professor's pending requests as summary projections */
+  @Benchmark
+  public List<RecommendationRequestSummary> findSummaryPageByProfessorIdAndStatus() {
+    PageCursor first = PageCursor.FIRST;
+    return recommendationRequestRepository.findSummaryPageByProfessorIdAndStatus(professor.getId(), "PENDING",
+        first.submissionDate(), first.id(), Limit.of(PAGE_SIZE + 1));
+  }
+
+  @Benchmark
+  public List<ProfessorSummary> findProfessorSummaries() {
+    return userRepository.findProfessorSummaries();
+  }
+
+  /** The lookup done when roles or the current user are not cached */
+  @Benchmark
+  public Optional<User> findByEmail() {
+    return userRepository.findByEmail(professor.getEmail());
+  }
+}
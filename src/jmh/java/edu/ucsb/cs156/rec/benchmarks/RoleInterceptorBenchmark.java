@@ -0,0 +1,77 @@
+package edu.ucsb.cs156.rec.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import edu.ucsb.cs156.rec.entities.User;
+import edu.ucsb.cs156.rec.interceptors.RoleInterceptor;
+import edu.ucsb.cs156.rec.services.RoleResolutionService;
+
+/**
+ * RoleInterceptor.preHandle, which runs on every request, for a logged in professor.
+ * The users table is a mock here, so this only measures the interceptor; what
+ * caching roles saves on a whole request is measured by RequesterListThroughputIT.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoleInterceptorBenchmark {
+
+  RoleResolutionService roleResolutionService;
+  RoleInterceptor interceptor;
+  MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/currentUser");
+  MockHttpServletResponse response = new MockHttpServletResponse();
+  Authentication upToDate;
+  Authentication stale;
+
+  @Setup
+  public void setup() {
+    User professor = Fixtures.user(1, true);
+    roleResolutionService = new RoleResolutionService();
+    ReflectionTestUtils.setField(roleResolutionService, "userRepository", Fixtures.userRepository(professor));
+    interceptor = new RoleInterceptor();
+    ReflectionTestUtils.setField(interceptor, "roleResolutionService", roleResolutionService);
+    upToDate = Fixtures.authentication(professor.getEmail(), "ROLE_USER", "ROLE_PROFESSOR");
+    stale = Fixtures.authentication(professor.getEmail(), "ROLE_USER");
+  }
+
+  /** The common case: roles are cached and match the session */
+  @Benchmark
+  public boolean rolesCached() {
+    SecurityContextHolder.getContext().setAuthentication(upToDate);
+    return interceptor.preHandle(request, response, null);
+  }
+
+  /** Roles were invalidated, so they are looked up again */
+  @Benchmark
+  public boolean rolesReloaded() {
+    roleResolutionService.invalidateAll();
+    SecurityContextHolder.getContext().setAuthentication(upToDate);
+    return interceptor.preHandle(request, response, null);
+  }
+
+  /** Roles differ from the session, so the Authentication is rebuilt */
+  @Benchmark
+  public boolean rolesChanged() {
+    SecurityContextHolder.getContext().setAuthentication(stale);
+    return interceptor.preHandle(request, response, null);
+  }
+}
@@ -0,0 +1,74 @@
+package edu.ucsb.cs156.rec.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import edu.ucsb.cs156.rec.entities.RecommendationRequest;
+import edu.ucsb.cs156.rec.entities.User;
+import edu.ucsb.cs156.rec.models.RecommendationRequestSummary;
+
+/**
+ * Jackson serialization of the lists returned by the list endpoints, with an
+ * ObjectMapper configured the way Spring Boot configures the one used for
+ * responses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+  @Param({ "100", "1000" })
+  int rows;
+
+  ObjectMapper mapper;
+  List<RecommendationRequest> recommendationRequests;
+  List<RecommendationRequestSummary> summaries;
+  List<User> users;
+
+  @Setup
+  public void setup() {
+    mapper = Jackson2ObjectMapperBuilder.json().build();
+    recommendationRequests = Fixtures.recommendationRequests(rows);
+    summaries = recommendationRequests.stream()
+        .map(r -> new RecommendationRequestSummary(r.getId(),
+            r.getRequester().getId(), r.getRequester().getFullName(), r.getRequester().getEmail(),
+            r.getProfessor().getId(), r.getProfessor().getFullName(), r.getProfessor().getEmail(),
+            r.getRecommendationType(), r.getDetails(), r.getStatus(), r.getCompletionDate(),
+            r.getDueDate(), r.getSubmissionDate(), r.getLastModifiedDate()))
+        .toList();
+    users = recommendationRequests.stream().map(RecommendationRequest::getRequester).toList();
+  }
+
+  @Benchmark
+  public byte[] recommendationRequests() throws Exception {
+    return mapper.writeValueAsBytes(recommendationRequests);
+  }
+
+  @Benchmark
+  public byte[] recommendationRequestSummaries() throws Exception {
+    return mapper.writeValueAsBytes(summaries);
+  }
+
+  @Benchmark
+  public byte[] users() throws Exception {
+    return mapper.writeValueAsBytes(users);
+  }
+}
@@ -12,6 +12,7 @@ import org.springframework.context.annotation.Profile;
 import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 
+import edu.ucsb.cs156.rec.services.SyntheticDataGenerator;
 import edu.ucsb.cs156.rec.services.wiremock.WiremockService;
 import lombok.extern.slf4j.Slf4j;
 
@@ -59,6 +60,21 @@ public class ExampleApplication {
     };
   }
 
+  /**
+   * When using the generate profile, this method fills the database with synthetic data
+   * @param syntheticDataGenerator the generator, only defined with the generate profile
+   * @return the runner
+   */
+  @Profile("generate")
+  @Bean
+  public ApplicationRunner generateApplicationRunner(SyntheticDataGenerator syntheticDataGenerator) {
+    return arg -> {
+      log.info("generate mode");
+      syntheticDataGenerator.generate();
+      log.info("generateApplicationRunner completed");
+    };
+  }
+
    /**
    * The main method is the entry point for the application.
    * @param args command line arguments, typically unused for Spring Boot applications
@@ -5,18 +5,29 @@ import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.lang.reflect.Method;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * This class is an Aspect that logs all invocations of controller methods that are annotated
  * with {@code @RequestMapping}, {@code @GetMapping}, {@code @PostMapping}, {@code @PutMapping}, {@code @DeleteMapping},
  * or {@code @PatchMapping}.
+ *
+ * Whether a method is logged, and the names it is logged with, are worked out
+ * once per method and cached.  Only a fraction {@code app.requestLogging.sampleRate}
+ * of the calls is logged, and nothing is done at all when INFO is disabled
+ * for this class.
  * 
  * For more information on Aspect Oriented Programming (AOP)
  * and AspectJ, including what a {@code JoinPoint} is, 
@@ -38,8 +49,31 @@ public class LoggingAspect {
       @annotation(org.springframework.web.bind.annotation.PatchMapping)
       """;
 
-  private ArrayList<String> stoplist = new ArrayList<String>(Arrays.asList(
-      "edu.ucsb.cs156.rec.controllers.FrontendProxyController"));
+  private static final Set<String> stoplist = Set.of(
+      "edu.ucsb.cs156.rec.controllers.FrontendProxyController");
+
+  /**
+   * What to log for a controller method
+   * @param logged false for methods of classes on the stoplist
+   * @param handler method name
+   * @param declaringTypeName fully qualified name of the controller
+   */
+  record Decision(boolean logged, String handler, String declaringTypeName) {
+  }
+
+  private final Map<Method, Decision> decisions = new ConcurrentHashMap<>();
+
+  @Value("${app.requestLogging.sampleRate:1.0}")
+  double sampleRate = 1.0;
+
+  /**
+   * Pointcut matching every controller method that is annotated with
+   * {@code @RequestMapping}, {@code @GetMapping}, {@code @PostMapping}, {@code @PutMapping}, {@code @DeleteMapping},
+   * or {@code @PatchMapping}; it is shared with MetricsAspect.
+   */
+  @Pointcut(pointcut)
+  public void controllerMethods() {
+  }
 
   /**
    * This method is called before any controller method that is annotated with
@@ -47,16 +81,24 @@ public class LoggingAspect {
    * or {@code @PatchMapping}.
    * @param joinPoint the join point (injected by Spring framework)
    */
-  @Before(pointcut)
+  @Before("controllerMethods()")
   public void logControllers(JoinPoint joinPoint) {
+    if (!log.isInfoEnabled()) {
+      return;
+    }
+    Decision decision = decisions.computeIfAbsent(((MethodSignature) joinPoint.getSignature()).getMethod(),
+        LoggingAspect::decide);
+    if (!decision.logged() || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+      return;
+    }
     getCurrentHttpRequest().ifPresent(
-        request -> {
-          String declaringTypeName = joinPoint.getSignature().getDeclaringTypeName();
-          if (!stoplist.contains(declaringTypeName)) {
-            log.info("===== %s %s handled by %s in %s".formatted(request.getMethod(), request.getRequestURI(),
-                joinPoint.getSignature().getName(), declaringTypeName));
-          }
-        });
+        request -> log.info("===== {} {} handled by {} in {}", request.getMethod(), request.getRequestURI(),
+            decision.handler(), decision.declaringTypeName()));
+  }
+
+  private static Decision decide(Method method) {
+    String declaringTypeName = method.getDeclaringClass().getName();
+    return new Decision(!stoplist.contains(declaringTypeName), method.getName(), declaringTypeName);
   }
 
   /**
@@ -0,0 +1,54 @@
+package edu.ucsb.cs156.rec.aop;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * This class is an Aspect that times all invocations of the controller methods
+ * matched by {@link LoggingAspect#controllerMethods()}.
+ *
+ * Each method gets a {@code rec.controller.invocations} timer tagged with the
+ * controller class, the method and the exception thrown (or {@code none}).
+ * Unlike {@code http.server.requests}, it measures only the controller method,
+ * without the security filters and response serialization around it.
+ */
+
+@Aspect
+@Component
+public class MetricsAspect {
+
+  static final String TIMER = "rec.controller.invocations";
+
+  @Autowired
+  MeterRegistry meterRegistry;
+
+  /**
+   * This method wraps every controller method in a timer.
+   * @param joinPoint the join point (injected by Spring framework)
+   * @return the value returned by the controller method
+   * @throws Throwable whatever the controller method throws
+   */
+  @Around("edu.ucsb.cs156.rec.aop.LoggingAspect.controllerMethods()")
+  public Object timeControllers(ProceedingJoinPoint joinPoint) throws Throwable {
+    Timer.Sample sample = Timer.start(meterRegistry);
+    String exception = "none";
+    try {
+      return joinPoint.proceed();
+    } catch (Throwable t) {
+      exception = t.getClass().getSimpleName();
+      throw t;
+    } finally {
+      sample.stop(Timer.builder(TIMER)
+          .description("Time spent in controller methods")
+          .tag("class", joinPoint.getSignature().getDeclaringType().getSimpleName())
+          .tag("method", joinPoint.getSignature().getName())
+          .tag("exception", exception)
+          .register(meterRegistry));
+    }
+  }
+}
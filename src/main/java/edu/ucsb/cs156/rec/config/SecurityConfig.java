@@ -1,7 +1,7 @@
 package edu.ucsb.cs156.rec.config;
 
-import edu.ucsb.cs156.rec.entities.User;
-import edu.ucsb.cs156.rec.repositories.UserRepository;
+import edu.ucsb.cs156.rec.services.RoleResolutionService;
+import edu.ucsb.cs156.rec.services.RoleResolutionService.UserRoles;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -64,7 +64,7 @@ public class SecurityConfig {
 
 
   @Autowired
-  UserRepository userRepository;
+  RoleResolutionService roleResolutionService;
 
   /**
    * The `filterChain` method in this Java code configures various security
@@ -104,19 +104,20 @@ public class SecurityConfig {
   private GrantedAuthoritiesMapper userAuthoritiesMapper() {
     return (authorities) -> {
       Set<GrantedAuthority> mappedAuthorities = new HashSet<>();
-      log.info("********** authorities={}", authorities);
+      log.debug("********** authorities={}", authorities);
 
       authorities.forEach(authority -> {
-        log.info("********** authority={}", authority);
+        log.debug("********** authority={}", authority);
         mappedAuthorities.add(authority);
         if (authority instanceof OAuth2UserAuthority oauth2UserAuthority) {
           Map<String, Object> userAttributes = oauth2UserAuthority.getAttributes();
-          log.info("********** userAttributes={}", userAttributes);
+          log.debug("********** email={}", userAttributes.get("email"));
 
           mappedAuthorities.add(new SimpleGrantedAuthority("ROLE_USER"));
 
           String email = (String) userAttributes.get("email");
-          if (getAdmin(email)) {
+          Optional<UserRoles> roles = roleResolutionService.getRoles(email);
+          if (adminEmails.contains(email) || roles.map(UserRoles::admin).orElse(false)) {
             mappedAuthorities.add(new SimpleGrantedAuthority("ROLE_ADMIN"));
           }
 
@@ -124,13 +125,13 @@ public class SecurityConfig {
             mappedAuthorities.add(new SimpleGrantedAuthority("ROLE_MEMBER"));
           }
 
-          if(getProfessor(email)){
+          if (roles.map(UserRoles::professor).orElse(false)) {
             mappedAuthorities.add(new SimpleGrantedAuthority("ROLE_PROFESSOR"));
           }
         }
 
       });
-      log.info("********** mappedAuthorities={}", mappedAuthorities);
+      log.debug("********** mappedAuthorities={}", mappedAuthorities);
       return mappedAuthorities;
     };
   }
@@ -147,13 +148,17 @@ public class SecurityConfig {
     if (adminEmails.contains(email)) {
       return true;
     }
-    Optional<User> u = userRepository.findByEmail(email);
-    return u.isPresent() && u.get().getAdmin();
+    return roleResolutionService.getRoles(email).map(UserRoles::admin).orElse(false);
   }
 
+  /**
+   * This method checks if the given email belongs to a professor.
+   *
+   * @param email email address of the user
+   * @return whether the user with the given email is a professor
+   */
   public boolean getProfessor(String email) {
-    Optional<User> u = userRepository.findByEmail(email);
-    return u.isPresent() && u.get().getProfessor();
+    return roleResolutionService.getRoles(email).map(UserRoles::professor).orElse(false);
   }
 }
 
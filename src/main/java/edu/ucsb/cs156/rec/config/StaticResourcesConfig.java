@@ -0,0 +1,68 @@
+package edu.ucsb.cs156.rec.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+
+/**
+ * The `StaticResourcesConfig` class serves the built frontend from {@code classpath:/public}
+ * (it replaces Spring Boot's default static resource mapping, see
+ * {@code spring.web.resources.add-mappings}).
+ *
+ * The bundles under {@code /static} have a content hash in their names, so they
+ * are cached by browsers for a year and never revalidated.  Everything else,
+ * in particular index.html, must be revalidated on every use and carries an
+ * ETag computed from its contents.  When the client accepts it, the
+ * {@code .br} or {@code .gz} copy written at build time by
+ * {@code npm run compress} is served instead of the file.
+ */
+@Configuration
+public class StaticResourcesConfig implements WebMvcConfigurer {
+
+  static final String LOCATION = "classpath:/public/";
+
+  /** ETags of the files outside /static, which do not change while the app runs */
+  private final Map<String, String> etags = new ConcurrentHashMap<>();
+
+  @Override
+  public void addResourceHandlers(ResourceHandlerRegistry registry) {
+    registry.addResourceHandler("/static/**")
+        .addResourceLocations(LOCATION + "static/")
+        .setCacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+        .resourceChain(true)
+        .addResolver(new EncodedResourceResolver());
+
+    registry.addResourceHandler("/**")
+        .addResourceLocations(LOCATION)
+        .setCacheControl(CacheControl.noCache())
+        .setEtagGenerator(this::etag)
+        .resourceChain(true)
+        .addResolver(new EncodedResourceResolver());
+  }
+
+  /**
+   * This method returns the ETag of a static file, computed once from its contents.
+   * @param resource the file
+   * @return strong ETag value, without quotes
+   */
+  String etag(Resource resource) {
+    return etags.computeIfAbsent(resource.getDescription(), description -> {
+      try (InputStream content = resource.getInputStream()) {
+        return DigestUtils.md5DigestAsHex(content);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+  }
+}
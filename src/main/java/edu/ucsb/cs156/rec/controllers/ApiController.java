@@ -6,11 +6,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import edu.ucsb.cs156.rec.models.CurrentUser;
 import edu.ucsb.cs156.rec.services.CurrentUserService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
+import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * This is an abstract class that provides common functionality for all API controllers.
@@ -18,9 +24,17 @@ import java.util.Map;
 
 @Slf4j
 public abstract class ApiController {
+  /**
+   * Name of the response header that carries the cursor of the next page
+   */
+  public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
   @Autowired
   private CurrentUserService currentUserService;
 
+  @Value("${app.pagination.maxPageSize:1000}")
+  private int maxPageSize = 1000;
+
   /**
    * This method returns the current user.
    * @return the current user
@@ -38,6 +52,56 @@ public abstract class ApiController {
     return Map.of("message", message);
   }
 
+  /**
+   * This method returns the page size to use for a keyset paginated list.
+   * @param size the requested page size, or null for the largest allowed page
+   * @return the requested size, capped at {@code app.pagination.maxPageSize}
+   * @throws IllegalArgumentException if the size is not positive
+   */
+  protected int pageSize(Integer size) {
+    if (size == null) {
+      return maxPageSize;
+    }
+    if (size < 1) {
+      throw new IllegalArgumentException("size must be positive");
+    }
+    return Math.min(size, maxPageSize);
+  }
+
+  /**
+   * This method returns the query limit for a page: one extra row is fetched
+   * to find out whether there is a next page.
+   * @param pageSize the page size returned by {@link #pageSize(Integer)}
+   * @return the limit to pass to the repository
+   */
+  protected Limit pageLimit(int pageSize) {
+    return Limit.of(pageSize + 1);
+  }
+
+  /**
+   * This method builds the response for one keyset paginated page.
+   * The body is the list of rows; when there are more rows, the cursor of
+   * the next page is returned in the {@value #NEXT_CURSOR_HEADER} header.
+   * Clients may keep the page but must revalidate it, since list endpoints
+   * answer conditional GETs.
+   * @param <T> type of the rows
+   * @param rows the rows fetched with {@link #pageLimit(int)}
+   * @param pageSize the page size
+   * @param cursorOf function that returns the encoded cursor position of a row
+   * @return the response entity
+   */
+  protected <T> ResponseEntity<List<T>> keysetPage(List<T> rows, int pageSize, Function<T, String> cursorOf) {
+    CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+    if (rows.size() <= pageSize) {
+      return ResponseEntity.ok().cacheControl(cacheControl).body(rows);
+    }
+    List<T> page = rows.subList(0, pageSize);
+    return ResponseEntity.ok()
+        .cacheControl(cacheControl)
+        .header(NEXT_CURSOR_HEADER, cursorOf.apply(page.get(pageSize - 1)))
+        .body(page);
+  }
+
   /**
    * This method handles the EntityNotFoundException.
    * @param e the exception
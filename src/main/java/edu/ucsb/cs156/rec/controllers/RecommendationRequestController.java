@@ -4,19 +4,55 @@ import edu.ucsb.cs156.rec.entities.RecommendationRequest;
 import edu.ucsb.cs156.rec.entities.RequestType;
 import edu.ucsb.cs156.rec.entities.User;
 import edu.ucsb.cs156.rec.errors.EntityNotFoundException;
+import edu.ucsb.cs156.rec.models.BulkStatusUpdate;
+import edu.ucsb.cs156.rec.models.BulkStatusUpdateResult;
+import edu.ucsb.cs156.rec.models.CsvImportResult;
 import edu.ucsb.cs156.rec.models.CurrentUser;
+import edu.ucsb.cs156.rec.models.ListVersion;
+import edu.ucsb.cs156.rec.models.PageCursor;
+import edu.ucsb.cs156.rec.models.QueryCursor;
+import edu.ucsb.cs156.rec.models.RecommendationRequestEvent;
+import edu.ucsb.cs156.rec.models.RecommendationRequestFilter;
+import edu.ucsb.cs156.rec.models.RecommendationRequestQuery;
+import edu.ucsb.cs156.rec.models.RecommendationRequestSort;
+import edu.ucsb.cs156.rec.models.RecommendationRequestSummary;
+import edu.ucsb.cs156.rec.models.RequestParticipants;
+import edu.ucsb.cs156.rec.models.SearchCursor;
+import edu.ucsb.cs156.rec.models.SearchHit;
 import edu.ucsb.cs156.rec.repositories.RecommendationRequestRepository;
-import edu.ucsb.cs156.rec.repositories.RequestTypeRepository;
 import edu.ucsb.cs156.rec.repositories.UserRepository;
+import edu.ucsb.cs156.rec.services.RecommendationRequestEvents;
+import edu.ucsb.cs156.rec.services.RecommendationRequestExporter;
+import edu.ucsb.cs156.rec.services.RecommendationRequestImporter;
+import edu.ucsb.cs156.rec.services.RecommendationRequestTextSearch;
+import edu.ucsb.cs156.rec.services.RequestTypeCatalog;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -25,14 +61,48 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * This is a REST controller for RecommendationRequest.
+ *
+ * Reads answer conditional GETs: a single request has an ETag derived from its
+ * id and lastModifiedDate, and a list an ETag derived from the number of rows
+ * and their latest lastModifiedDate (see ListVersion), read with one aggregate
+ * query.  When the ETag matches If-None-Match, a 304 is returned without
+ * reading the page or serializing anything.  The version is read before the
+ * rows, so a change that lands in between gives a newer body with an older
+ * ETag, which only costs the client one extra full response.
+ *
+ * Creating, updating and deleting a request publishes a
+ * RecommendationRequestEvent, which is streamed to its requester and
+ * professor from /events (see RecommendationRequestEvents).
+ */
 @Tag(name = "RecommendationRequest")
 @RequestMapping("/api/recommendationrequest")
 @RestController
 @Slf4j
 public class RecommendationRequestController extends ApiController {
+
+    /**
+     * Value of the view parameter for lists of RecommendationRequestSummary (the default)
+     */
+    static final String SUMMARY_VIEW = "summary";
+
+    /**
+     * Value of the view parameter for lists of complete RecommendationRequest entities
+     */
+    static final String FULL_VIEW = "full";
+
+    /**
+     * Statuses a professor can set
+     */
+    static final Set<String> STATUSES = Set.of("PENDING", "COMPLETED", "DENIED");
   
     @Autowired
     RecommendationRequestRepository recommendationRequestRepository;
@@ -41,17 +111,56 @@ public class RecommendationRequestController extends ApiController {
     UserRepository userRepository;
 
     @Autowired
-    RequestTypeRepository requestTypeRepository;
+    RequestTypeCatalog requestTypeCatalog;
+
+    @Autowired
+    RecommendationRequestEvents recommendationRequestEvents;
+
+    @Autowired
+    ApplicationEventPublisher applicationEventPublisher;
+
+    @Autowired
+    RecommendationRequestImporter recommendationRequestImporter;
+
+    @Autowired
+    RecommendationRequestExporter recommendationRequestExporter;
+
+    @Autowired
+    RecommendationRequestTextSearch recommendationRequestTextSearch;
+
+    @Value("${app.bulkUpdate.maxSize:500}")
+    int maxBulkUpdateSize = 500;
 
     /**
-     * This method returns a list of all Recommendation Requests requested
-     * @return a list of all Recommendation Requests requested by all students
+     * This method returns one page of all Recommendation Requests, newest first
+     * @param cursor cursor of the page to return, or null for the first page
+     * @param size page size, or null for the largest allowed page
+     * @param view summary or full
+     * @param webRequest the request, for its If-None-Match header
+     * @return a page of all Recommendation Requests requested by all students
      */
     @Operation(summary = "An admin can list all Recommendation Requests")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @GetMapping("/admin/all")
-    public Iterable<RecommendationRequest> getAllRecommendationRequests() {
-        return recommendationRequestRepository.findAll();
+    public ResponseEntity<? extends List<?>> getAllRecommendationRequests(
+            @Parameter(name = "cursor", description = "cursor returned in the X-Next-Cursor header of the previous page; omit for the first page") @RequestParam(required = false) String cursor,
+            @Parameter(name = "size", description = "page size (capped by app.pagination.maxPageSize)") @RequestParam(required = false) Integer size,
+            @Parameter(name = "view", description = "summary (default) for the list view of each request, or full for the complete requester and professor") @RequestParam(defaultValue = SUMMARY_VIEW) String view,
+            WebRequest webRequest) {
+        PageCursor after = PageCursor.decode(cursor);
+        int pageSize = pageSize(size);
+        boolean fullView = isFullView(view);
+        if (webRequest.checkNotModified(recommendationRequestRepository.findListVersion().etag(after, pageSize, fullView))) {
+            return null;
+        }
+        if (fullView) {
+            List<RecommendationRequest> rows = recommendationRequestRepository.findPage(
+                after.submissionDate(), after.id(), pageLimit(pageSize));
+            return keysetPage(rows, pageSize, RecommendationRequestController::cursorOf);
+        }
+        List<RecommendationRequestSummary> rows = recommendationRequestRepository.findSummaryPage(
+            after.submissionDate(), after.id(), pageLimit(pageSize));
+        return keysetPage(rows, pageSize, RecommendationRequestController::cursorOf);
     }
 
     /**
@@ -70,6 +179,7 @@ public class RecommendationRequestController extends ApiController {
             .orElseThrow(() -> new EntityNotFoundException(RecommendationRequest.class, id));
 
         recommendationRequestRepository.delete(recommendationRequest);
+        publish(RecommendationRequestEvent.Type.DELETED, recommendationRequest);
 
         return genericMessage("RecommendationRequest with id %s deleted".formatted(id));
     }
@@ -91,6 +201,7 @@ public class RecommendationRequestController extends ApiController {
             .orElseThrow(() -> new EntityNotFoundException(RecommendationRequest.class, id));
 
         recommendationRequestRepository.delete(recommendationRequest);
+        publish(RecommendationRequestEvent.Type.DELETED, recommendationRequest);
 
         return genericMessage("RecommendationRequest with id %s deleted".formatted(id));
     }
@@ -118,6 +229,7 @@ public class RecommendationRequestController extends ApiController {
         recommendationRequest.setDetails(incoming.getDetails());
 
         recommendationRequestRepository.save(recommendationRequest);
+        publish(RecommendationRequestEvent.Type.UPDATED, recommendationRequest);
            
         return recommendationRequest;    
     }
@@ -148,56 +260,148 @@ public class RecommendationRequestController extends ApiController {
         }
 
         recommendationRequestRepository.save(recommendationRequest);
+        publish(RecommendationRequestEvent.Type.UPDATED, recommendationRequest);
 
         return recommendationRequest;
     }
 
     /**
-     * This method returns a list of all Recommendation Requests requested by current student.
-     * @return a list of all Recommendation Requests requested by the current user
+     * A professor can set the status of many of their recommendation requests at once.
+     * The requests are checked and updated with one query each, and COMPLETED or
+     * DENIED requests get the current time as their completion date, as with the
+     * single update.
+     *
+     * @param update ids of the requests (at most {@code app.bulkUpdate.maxSize}) and their new status
+     * @return the outcome for each distinct id, in the order given
+     */
+    @Operation(summary = "A Professor can update the status of many of their recommendation requests")
+    @PreAuthorize("hasRole('ROLE_PROFESSOR')")
+    @PutMapping("/professor/bulk")
+    @Transactional
+    public List<BulkStatusUpdateResult> updateRecommendationRequestStatuses(@RequestBody BulkStatusUpdate update) {
+        if (update.status() == null || !STATUSES.contains(update.status())) {
+            throw new IllegalArgumentException("Invalid status: " + update.status());
+        }
+        if (update.ids() == null || update.ids().isEmpty() || update.ids().contains(null)) {
+            throw new IllegalArgumentException("ids must be a non-empty list of ids");
+        }
+        Set<Long> ids = new LinkedHashSet<>(update.ids());
+        if (ids.size() > maxBulkUpdateSize) {
+            throw new IllegalArgumentException("at most %d ids can be updated at once".formatted(maxBulkUpdateSize));
+        }
+
+        Long professorId = getCurrentUser().getUser().getId();
+        Map<Long, RequestParticipants> owned = recommendationRequestRepository
+            .findParticipantsByIdInAndProfessorId(ids, professorId).stream()
+            .collect(Collectors.toMap(RequestParticipants::id, Function.identity()));
+        if (!owned.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime completionDate = "PENDING".equals(update.status()) ? null : now;
+            recommendationRequestRepository.updateStatusByIdInAndProfessorId(
+                owned.keySet(), professorId, update.status(), completionDate, now);
+            owned.values().forEach(participants -> applicationEventPublisher.publishEvent(new RecommendationRequestEvent(
+                RecommendationRequestEvent.Type.UPDATED, participants.id(), update.status(),
+                participants.requesterId(), participants.professorId())));
+        }
+
+        return ids.stream()
+            .map(id -> new BulkStatusUpdateResult(id, owned.containsKey(id)
+                ? BulkStatusUpdateResult.Outcome.UPDATED
+                : BulkStatusUpdateResult.Outcome.NOT_FOUND))
+            .toList();
+    }
+
+    /**
+     * This method returns one page of the Recommendation Requests requested by current student, newest first.
+     * @param cursor cursor of the page to return, or null for the first page
+     * @param size page size, or null for the largest allowed page
+     * @param view summary or full
+     * @param webRequest the request, for its If-None-Match header
+     * @return a page of the Recommendation Requests requested by the current user
      */
     @Operation(summary = "List all Recommendation Requests requested by current user")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("/requester/all")
-    public Iterable<RecommendationRequest> allRequesterRecommendationRequests(
-    ) {
+    public ResponseEntity<? extends List<?>> allRequesterRecommendationRequests(
+            @Parameter(name = "cursor", description = "cursor returned in the X-Next-Cursor header of the previous page; omit for the first page") @RequestParam(required = false) String cursor,
+            @Parameter(name = "size", description = "page size (capped by app.pagination.maxPageSize)") @RequestParam(required = false) Integer size,
+            @Parameter(name = "view", description = "summary (default) for the list view of each request, or full for the complete requester and professor") @RequestParam(defaultValue = SUMMARY_VIEW) String view,
+            WebRequest webRequest) {
         // toyed with having this only be ROLE_STUDENT but I think even professors should be able to submit requests so they can see which ones they have submitted too
         User currentUser = getCurrentUser().getUser();
-        Iterable<RecommendationRequest> recommendationRequests = recommendationRequestRepository.findAllByRequesterId(currentUser.getId());
-        return recommendationRequests;
+        PageCursor after = PageCursor.decode(cursor);
+        int pageSize = pageSize(size);
+        boolean fullView = isFullView(view);
+        ListVersion version = recommendationRequestRepository.findListVersionByRequesterId(currentUser.getId());
+        if (webRequest.checkNotModified(version.etag(currentUser.getId(), after, pageSize, fullView))) {
+            return null;
+        }
+        if (fullView) {
+            List<RecommendationRequest> rows = recommendationRequestRepository.findPageByRequesterId(
+                currentUser.getId(), after.submissionDate(), after.id(), pageLimit(pageSize));
+            return keysetPage(rows, pageSize, RecommendationRequestController::cursorOf);
+        }
+        List<RecommendationRequestSummary> rows = recommendationRequestRepository.findSummaryPageByRequesterId(
+            currentUser.getId(), after.submissionDate(), after.id(), pageLimit(pageSize));
+        return keysetPage(rows, pageSize, RecommendationRequestController::cursorOf);
     }
 
     /**
-     * This method returns a list of all Recommendation Requests intended for current user who is a professor.
-     * @return a list of all Recommendation Requests intended for the current user who is a professor
+     * This method returns one page of the Recommendation Requests intended for current user who is a professor, newest first.
+     * @param cursor cursor of the page to return, or null for the first page
+     * @param size page size, or null for the largest allowed page
+     * @param view summary or full
+     * @param webRequest the request, for its If-None-Match header
+     * @return a page of the Recommendation Requests intended for the current user who is a professor
      */
     @Operation(summary = "List all Recommendation Requests for professor")
     @PreAuthorize("hasRole('ROLE_PROFESSOR')")
     @GetMapping("/professor/all")
-    public Iterable<RecommendationRequest> allProfessorRecommendationRequests(
-    ) {
+    public ResponseEntity<? extends List<?>> allProfessorRecommendationRequests(
+            @Parameter(name = "cursor", description = "cursor returned in the X-Next-Cursor header of the previous page; omit for the first page") @RequestParam(required = false) String cursor,
+            @Parameter(name = "size", description = "page size (capped by app.pagination.maxPageSize)") @RequestParam(required = false) Integer size,
+            @Parameter(name = "view", description = "summary (default) for the list view of each request, or full for the complete requester and professor") @RequestParam(defaultValue = SUMMARY_VIEW) String view,
+            WebRequest webRequest) {
         User currentUser = getCurrentUser().getUser();
-        Iterable<RecommendationRequest> recommendationRequests = recommendationRequestRepository.findAllByProfessorId(currentUser.getId());
-        return recommendationRequests;
+        PageCursor after = PageCursor.decode(cursor);
+        int pageSize = pageSize(size);
+        boolean fullView = isFullView(view);
+        ListVersion version = recommendationRequestRepository.findListVersionByProfessorId(currentUser.getId());
+        if (webRequest.checkNotModified(version.etag(currentUser.getId(), after, pageSize, fullView))) {
+            return null;
+        }
+        if (fullView) {
+            List<RecommendationRequest> rows = recommendationRequestRepository.findPageByProfessorId(
+                currentUser.getId(), after.submissionDate(), after.id(), pageLimit(pageSize));
+            return keysetPage(rows, pageSize, RecommendationRequestController::cursorOf);
+        }
+        List<RecommendationRequestSummary> rows = recommendationRequestRepository.findSummaryPageByProfessorId(
+            currentUser.getId(), after.submissionDate(), after.id(), pageLimit(pageSize));
+        return keysetPage(rows, pageSize, RecommendationRequestController::cursorOf);
     }
 
     /**
      * This method returns a single recommendation request where the current user is either the requester or the professor.
      * @param id id of the Recommendation Requests to get
+     * @param webRequest the request, for its If-None-Match header
      * @return a single recommendation request where the current user is either the requester or the professor
      */
     @Operation(summary = "Get a single recommendation request where the current user is either the requester or the professor")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("")
-    public RecommendationRequest getById(
-            @Parameter(name = "id") @RequestParam Long id) {
+    public ResponseEntity<RecommendationRequest> getById(
+            @Parameter(name = "id") @RequestParam Long id,
+            WebRequest webRequest) {
             Long currentUserId = getCurrentUser().getUser().getId();
             RecommendationRequest recommendationRequest = recommendationRequestRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(RecommendationRequest.class, id));
             if (recommendationRequest.getRequester().getId() != currentUserId && recommendationRequest.getProfessor().getId() != currentUserId) {
                 throw new EntityNotFoundException(RecommendationRequest.class, id);
             }
-        return recommendationRequest;
+            if (webRequest.checkNotModified(etagOf(recommendationRequest))) {
+                return null;
+            }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).body(recommendationRequest);
     }
 
     /**
@@ -222,7 +426,7 @@ public class RecommendationRequestController extends ApiController {
         CurrentUser currentUser = getCurrentUser();
         RecommendationRequest recommendationRequest = new RecommendationRequest();
         if (!recommendationType.equals("Other")) {
-            requestTypeRepository.findByRequestType(recommendationType).orElseThrow(() -> new EntityNotFoundException(RequestType.class, recommendationType));
+            requestTypeCatalog.findByRequestType(recommendationType).orElseThrow(() -> new EntityNotFoundException(RequestType.class, recommendationType));
         }
         recommendationRequest.setRecommendationType(recommendationType);
         recommendationRequest.setDetails(details);
@@ -233,21 +437,297 @@ public class RecommendationRequestController extends ApiController {
         recommendationRequest.setDueDate(dueDate);
 
         RecommendationRequest savedRecommendationRequest = recommendationRequestRepository.save(recommendationRequest);
+        publish(RecommendationRequestEvent.Type.CREATED, savedRecommendationRequest);
         return savedRecommendationRequest;
     }
 
     /**
-     * This method returns a list of recommendation requests with specified status for a professor.
-     * @return a list of recommendation requests with specified status for a professor.
+     * An admin can import many recommendation requests from a CSV file sent as the request body
+     * (Content-Type text/csv, read as UTF-8).  The file is parsed as it is
+     * received; see RecommendationRequestImporter for the columns.
+     * @param request the request whose body is the CSV file
+     * @return number of requests imported and the rows that were not, with the reason
+     * @throws IOException if the body cannot be read
+     */
+    @Operation(summary = "An admin can import recommendation requests from CSV")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping(value = "/admin/import", consumes = "text/csv")
+    public CsvImportResult importRecommendationRequests(HttpServletRequest request) throws IOException {
+        return recommendationRequestImporter.importCsv(request.getReader());
+    }
+
+    /**
+     * An admin can download the recommendation requests that match a filter, newest first, as
+     * a CSV or XLSX file.  The rows are streamed from the database to the response; see
+     * RecommendationRequestExporter for the columns.
+     * @param format csv or xlsx
+     * @param professorId id of the professor, or null for all professors
+     * @param status status, or null for all statuses
+     * @param from earliest submission date (inclusive), or null
+     * @param to latest submission date (exclusive), or null
+     * @param response the response the file is written to
+     * @throws IOException if the file cannot be written
+     */
+    @Operation(summary = "An admin can export recommendation requests as CSV or XLSX")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/admin/export")
+    public void exportRecommendationRequestsAsAdmin(
+            @Parameter(name = "format", description = "csv (default) or xlsx") @RequestParam(defaultValue = "csv") String format,
+            @Parameter(name = "professorId") @RequestParam(required = false) Long professorId,
+            @Parameter(name = "status", description = "PENDING, COMPLETED or DENIED") @RequestParam(required = false) String status,
+            @Parameter(name = "from", description = "earliest submission date, inclusive") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(name = "to", description = "latest submission date, exclusive") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            HttpServletResponse response) throws IOException {
+        export(format, new RecommendationRequestFilter(professorId, status, from, to), response);
+    }
+
+    /**
+     * A professor can download the recommendation requests addressed to them that match a
+     * filter, newest first, as a CSV or XLSX file.
+     * @param format csv or xlsx
+     * @param status status, or null for all statuses
+     * @param from earliest submission date (inclusive), or null
+     * @param to latest submission date (exclusive), or null
+     * @param response the response the file is written to
+     * @throws IOException if the file cannot be written
+     */
+    @Operation(summary = "A professor can export their recommendation requests as CSV or XLSX")
+    @PreAuthorize("hasRole('ROLE_PROFESSOR')")
+    @GetMapping("/professor/export")
+    public void exportRecommendationRequestsAsProfessor(
+            @Parameter(name = "format", description = "csv (default) or xlsx") @RequestParam(defaultValue = "csv") String format,
+            @Parameter(name = "status", description = "PENDING, COMPLETED or DENIED") @RequestParam(required = false) String status,
+            @Parameter(name = "from", description = "earliest submission date, inclusive") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(name = "to", description = "latest submission date, exclusive") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            HttpServletResponse response) throws IOException {
+        Long professorId = getCurrentUser().getUser().getId();
+        export(format, new RecommendationRequestFilter(professorId, status, from, to), response);
+    }
+
+    /**
+     * This method returns one page of recommendation requests with specified status for a professor, newest first.
+     * @param status the status to filter on
+     * @param cursor cursor of the page to return, or null for the first page
+     * @param size page size, or null for the largest allowed page
+     * @param view summary or full
+     * @param webRequest the request, for its If-None-Match header
+     * @return a page of recommendation requests with specified status for a professor.
      */
     @Operation(summary = "Get all recommendation requests with specified status for a professor")
     @GetMapping("/professor/filtered")
     @PreAuthorize("hasRole('ROLE_PROFESSOR')")
-    public Iterable<RecommendationRequest> getRecommendationRequestByStatusForProfessor(
-        @RequestParam String status) {
+    public ResponseEntity<? extends List<?>> getRecommendationRequestByStatusForProfessor(
+            @RequestParam String status,
+            @Parameter(name = "cursor", description = "cursor returned in the X-Next-Cursor header of the previous page; omit for the first page") @RequestParam(required = false) String cursor,
+            @Parameter(name = "size", description = "page size (capped by app.pagination.maxPageSize)") @RequestParam(required = false) Integer size,
+            @Parameter(name = "view", description = "summary (default) for the list view of each request, or full for the complete requester and professor") @RequestParam(defaultValue = SUMMARY_VIEW) String view,
+            WebRequest webRequest) {
         User currentUser = getCurrentUser().getUser();
+        PageCursor after = PageCursor.decode(cursor);
+        int pageSize = pageSize(size);
+        boolean fullView = isFullView(view);
+        ListVersion version = recommendationRequestRepository.findListVersionByProfessorIdAndStatus(currentUser.getId(), status);
+        if (webRequest.checkNotModified(version.etag(currentUser.getId(), status, after, pageSize, fullView))) {
+            return null;
+        }
+        if (fullView) {
+            List<RecommendationRequest> rows = recommendationRequestRepository.findPageByProfessorIdAndStatus(
+                currentUser.getId(), status, after.submissionDate(), after.id(), pageLimit(pageSize));
+            return keysetPage(rows, pageSize, RecommendationRequestController::cursorOf);
+        }
+        List<RecommendationRequestSummary> rows = recommendationRequestRepository.findSummaryPageByProfessorIdAndStatus(
+            currentUser.getId(), status, after.submissionDate(), after.id(), pageLimit(pageSize));
+        return keysetPage(rows, pageSize, RecommendationRequestController::cursorOf);
+    }
+
+    /**
+     * A professor can query the recommendation requests addressed to them: filter them, sort
+     * them by submission date (newest first) or due date (soonest first, then those without one)
+     * and read them one keyset page at a time.  Every sort is backed by an index, and only the
+     * list view of each request is returned.
+     * @param status statuses to include; all if omitted
+     * @param recommendationType type of recommendation
+     * @param requester text that the requester's name or email contains, ignoring case
+     * @param dueFrom earliest due date (inclusive)
+     * @param dueBefore latest due date (exclusive)
+     * @param submittedFrom earliest submission date (inclusive)
+     * @param submittedBefore latest submission date (exclusive)
+     * @param sort submissionDate or dueDate
+     * @param cursor cursor of the page to return, or null for the first page
+     * @param size page size, or null for the largest allowed page
+     * @return a page of the matching recommendation requests
+     */
+    @Operation(summary = "A professor can filter, sort and page through their recommendation requests")
+    @PreAuthorize("hasRole('ROLE_PROFESSOR')")
+    @GetMapping("/professor/query")
+    public ResponseEntity<List<RecommendationRequestSummary>> queryProfessorRecommendationRequests(
+            @Parameter(name = "status", description = "PENDING, COMPLETED or DENIED; may be repeated") @RequestParam(required = false) Set<String> status,
+            @Parameter(name = "recommendationType") @RequestParam(required = false) String recommendationType,
+            @Parameter(name = "requester", description = "text that the requester's name or email contains") @RequestParam(required = false) String requester,
+            @Parameter(name = "dueFrom", description = "earliest due date, inclusive") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueFrom,
+            @Parameter(name = "dueBefore", description = "latest due date, exclusive") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueBefore,
+            @Parameter(name = "submittedFrom", description = "earliest submission date, inclusive") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime submittedFrom,
+            @Parameter(name = "submittedBefore", description = "latest submission date, exclusive") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime submittedBefore,
+            @Parameter(name = "sort", description = "submissionDate (default, newest first) or dueDate (soonest first)") @RequestParam(defaultValue = "submissionDate") String sort,
+            @Parameter(name = "cursor", description = "cursor returned in the X-Next-Cursor header of the previous page; omit for the first page") @RequestParam(required = false) String cursor,
+            @Parameter(name = "size", description = "page size (capped by app.pagination.maxPageSize)") @RequestParam(required = false) Integer size) {
+        Long professorId = getCurrentUser().getUser().getId();
+        return query(new RecommendationRequestQuery(professorId, status, recommendationType, requester,
+            dueFrom, dueBefore, submittedFrom, submittedBefore), sort, cursor, size);
+    }
+
+    /**
+     * An admin can query every recommendation request, as a professor queries theirs.
+     * @param professorId id of the professor; all professors if omitted
+     * @param status statuses to include; all if omitted
+     * @param recommendationType type of recommendation
+     * @param requester text that the requester's name or email contains, ignoring case
+     * @param dueFrom earliest due date (inclusive)
+     * @param dueBefore latest due date (exclusive)
+     * @param submittedFrom earliest submission date (inclusive)
+     * @param submittedBefore latest submission date (exclusive)
+     * @param sort submissionDate or dueDate
+     * @param cursor cursor of the page to return, or null for the first page
+     * @param size page size, or null for the largest allowed page
+     * @return a page of the matching recommendation requests
+     */
+    @Operation(summary = "An admin can filter, sort and page through all recommendation requests")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/admin/query")
+    public ResponseEntity<List<RecommendationRequestSummary>> queryAllRecommendationRequests(
+            @Parameter(name = "professorId") @RequestParam(required = false) Long professorId,
+            @Parameter(name = "status", description = "PENDING, COMPLETED or DENIED; may be repeated") @RequestParam(required = false) Set<String> status,
+            @Parameter(name = "recommendationType") @RequestParam(required = false) String recommendationType,
+            @Parameter(name = "requester", description = "text that the requester's name or email contains") @RequestParam(required = false) String requester,
+            @Parameter(name = "dueFrom", description = "earliest due date, inclusive") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueFrom,
+            @Parameter(name = "dueBefore", description = "latest due date, exclusive") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueBefore,
+            @Parameter(name = "submittedFrom", description = "earliest submission date, inclusive") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime submittedFrom,
+            @Parameter(name = "submittedBefore", description = "latest submission date, exclusive") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime submittedBefore,
+            @Parameter(name = "sort", description = "submissionDate (default, newest first) or dueDate (soonest first)") @RequestParam(defaultValue = "submissionDate") String sort,
+            @Parameter(name = "cursor", description = "cursor returned in the X-Next-Cursor header of the previous page; omit for the first page") @RequestParam(required = false) String cursor,
+            @Parameter(name = "size", description = "page size (capped by app.pagination.maxPageSize)") @RequestParam(required = false) Integer size) {
+        return query(new RecommendationRequestQuery(professorId, status, recommendationType, requester,
+            dueFrom, dueBefore, submittedFrom, submittedBefore), sort, cursor, size);
+    }
 
-        return recommendationRequestRepository.findAllByProfessorIdAndStatus(
-            currentUser.getId(), status);
+    private ResponseEntity<List<RecommendationRequestSummary>> query(RecommendationRequestQuery query,
+            String sortProperty, String cursor, Integer size) {
+        if (query.statuses() != null) {
+            for (String status : query.statuses()) {
+                if (!STATUSES.contains(status)) {
+                    throw new IllegalArgumentException("Invalid status: " + status);
+                }
+            }
+        }
+        RecommendationRequestSort sort = RecommendationRequestSort.of(sortProperty);
+        QueryCursor after = QueryCursor.decode(cursor, sort);
+        int pageSize = pageSize(size);
+        List<RecommendationRequestSummary> rows = recommendationRequestRepository.findSummaries(query, after, sort, pageLimit(pageSize));
+        return keysetPage(rows, pageSize, row -> sort.cursorOf(row).encode());
+    }
+
+    /**
+     * A professor can search the details of the recommendation requests addressed to them,
+     * e.g. for a course or program.  Results are ranked, best match first, and returned one
+     * keyset page at a time.
+     * @param q the words to search for; every one must appear in the details
+     * @param cursor cursor of the page to return, or null for the first page
+     * @param size page size, or null for the largest allowed page
+     * @return a page of the matching recommendation requests, with their ranks
+     */
+    @Operation(summary = "A professor can search the details of their recommendation requests")
+    @PreAuthorize("hasRole('ROLE_PROFESSOR')")
+    @GetMapping("/professor/search")
+    public ResponseEntity<List<SearchHit>> searchProfessorRecommendationRequests(
+            @Parameter(name = "q", description = "words to search for in the details") @RequestParam String q,
+            @Parameter(name = "cursor", description = "cursor returned in the X-Next-Cursor header of the previous page; omit for the first page") @RequestParam(required = false) String cursor,
+            @Parameter(name = "size", description = "page size (capped by app.pagination.maxPageSize)") @RequestParam(required = false) Integer size) {
+        return search(q, getCurrentUser().getUser().getId(), cursor, size);
+    }
+
+    /**
+     * An admin can search the details of every recommendation request, as a professor searches theirs.
+     * @param q the words to search for; every one must appear in the details
+     * @param professorId id of the professor; all professors if omitted
+     * @param cursor cursor of the page to return, or null for the first page
+     * @param size page size, or null for the largest allowed page
+     * @return a page of the matching recommendation requests, with their ranks
+     */
+    @Operation(summary = "An admin can search the details of all recommendation requests")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/admin/search")
+    public ResponseEntity<List<SearchHit>> searchAllRecommendationRequests(
+            @Parameter(name = "q", description = "words to search for in the details") @RequestParam String q,
+            @Parameter(name = "professorId") @RequestParam(required = false) Long professorId,
+            @Parameter(name = "cursor", description = "cursor returned in the X-Next-Cursor header of the previous page; omit for the first page") @RequestParam(required = false) String cursor,
+            @Parameter(name = "size", description = "page size (capped by app.pagination.maxPageSize)") @RequestParam(required = false) Integer size) {
+        return search(q, professorId, cursor, size);
+    }
+
+    private ResponseEntity<List<SearchHit>> search(String q, Long professorId, String cursor, Integer size) {
+        if (q.isBlank()) {
+            throw new IllegalArgumentException("q must not be blank");
+        }
+        SearchCursor after = SearchCursor.decode(cursor);
+        int pageSize = pageSize(size);
+        List<SearchHit> hits = recommendationRequestTextSearch.search(q, professorId, after, pageLimit(pageSize));
+        return keysetPage(hits, pageSize, hit -> new SearchCursor(hit.rank(), hit.request().id()).encode());
+    }
+
+    /**
+     * This method opens a server-sent event stream of the changes to the current user's
+     * recommendation requests, as requester or as professor.
+     * @return the event stream
+     */
+    @Operation(summary = "Stream changes to the current user's recommendation requests")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events() {
+        return recommendationRequestEvents.subscribe(getCurrentUser().getUser().getId());
+    }
+
+    private void export(String format, RecommendationRequestFilter filter, HttpServletResponse response)
+            throws IOException {
+        RecommendationRequestExporter.Format exportFormat = RecommendationRequestExporter.Format.of(format);
+        if (filter.status() != null && !STATUSES.contains(filter.status())) {
+            throw new IllegalArgumentException("Invalid status: " + filter.status());
+        }
+        String filename = "recommendation-requests-" + LocalDate.now() + "." + exportFormat.getExtension();
+        response.setContentType(exportFormat.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString());
+        try {
+            recommendationRequestExporter.export(exportFormat, filter, response.getOutputStream());
+        } catch (IllegalArgumentException e) {
+            // nothing has been written; drop the file headers so the error is sent as JSON
+            response.reset();
+            throw e;
+        }
+    }
+
+    private void publish(RecommendationRequestEvent.Type type, RecommendationRequest recommendationRequest) {
+        applicationEventPublisher.publishEvent(RecommendationRequestEvent.of(type, recommendationRequest));
+    }
+
+    private static String etagOf(RecommendationRequest recommendationRequest) {
+        String raw = recommendationRequest.getId() + "|" + recommendationRequest.getLastModifiedDate();
+        return DigestUtils.md5DigestAsHex(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String cursorOf(RecommendationRequest recommendationRequest) {
+        return new PageCursor(recommendationRequest.getSubmissionDate(), recommendationRequest.getId()).encode();
+    }
+
+    private static String cursorOf(RecommendationRequestSummary summary) {
+        return new PageCursor(summary.submissionDate(), summary.id()).encode();
+    }
+
+    private static boolean isFullView(String view) {
+        if (FULL_VIEW.equals(view)) {
+            return true;
+        }
+        if (SUMMARY_VIEW.equals(view)) {
+            return false;
+        }
+        throw new IllegalArgumentException("Invalid view: " + view);
     }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package edu.ucsb.cs156.rec.controllers;
 import edu.ucsb.cs156.rec.entities.RequestType;
 import edu.ucsb.cs156.rec.errors.EntityNotFoundException;
 import edu.ucsb.cs156.rec.repositories.RequestTypeRepository;
+import edu.ucsb.cs156.rec.services.RequestTypeCatalog;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,6 +13,9 @@ import lombok.extern.slf4j.Slf4j;
 import com.fasterxml.jackson.core.JsonProcessingException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -24,6 +28,8 @@ import org.springframework.web.bind.annotation.RestController;
 
 import jakarta.validation.Valid;
 
+import java.util.List;
+
 /**
  * This is a REST controller for RequestType
  */
@@ -37,18 +43,26 @@ public class RequestTypeController extends ApiController {
     @Autowired
     RequestTypeRepository requestTypeRepository;
 
+    @Autowired
+    RequestTypeCatalog requestTypeCatalog;
+
 
     /**
-     * This method returns a list of all Request Types.
+     * This method returns a list of all Request Types, from the in-memory catalogue.
+     * The response carries an ETag, so clients that send it back in
+     * If-None-Match get a 304 until an admin changes the catalogue.
      * @return a list of all Request Types.
      */
     @Operation(summary = "List all request types")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("/all")
-    public Iterable<RequestType> allRequestTypes(
+    public ResponseEntity<List<RequestType>> allRequestTypes(
     ) {
-        Iterable<RequestType> requestTypes = requestTypeRepository.findAll();
-        return requestTypes;
+        RequestTypeCatalog.Snapshot snapshot = requestTypeCatalog.getSnapshot();
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(snapshot.etag())
+                .body(snapshot.requestTypes());
     }
 
         /**
@@ -62,7 +76,7 @@ public class RequestTypeController extends ApiController {
     @GetMapping("")
     public RequestType getById(
             @Parameter(name="id") @RequestParam Long id) {
-        RequestType requestType = requestTypeRepository.findById(id)
+        RequestType requestType = requestTypeCatalog.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(RequestType.class, id));
 
         return requestType;
@@ -84,18 +98,16 @@ public class RequestTypeController extends ApiController {
         log.info("requestType={}", requestType);
 
         // Check for duplicates
-        Iterable<RequestType> existingRequestTypes = requestTypeRepository.findAll();
-        for (RequestType existing : existingRequestTypes) {
-            if (existing.getRequestType().equals(requestType)) {
-                throw new IllegalArgumentException("Duplicate request type: " + requestType);
-            }
+        if (requestTypeRepository.existsByRequestType(requestType)) {
+            throw new IllegalArgumentException("Duplicate request type: " + requestType);
         }
 
         // Create new request type
         RequestType requestTypeNew = new RequestType();
         requestTypeNew.setRequestType(requestType);
 
-        RequestType savedRequestType = requestTypeRepository.save(requestTypeNew);
+        RequestType savedRequestType = saveUnique(requestTypeNew, requestType);
+        requestTypeCatalog.refresh();
 
         return savedRequestType;
     }
@@ -115,6 +127,7 @@ public class RequestTypeController extends ApiController {
                 .orElseThrow(() -> new EntityNotFoundException(RequestType.class, id));
 
         requestTypeRepository.delete(requestType);
+        requestTypeCatalog.refresh();
         return genericMessage("Request type with id %s deleted".formatted(id));
     }
 
@@ -136,21 +149,37 @@ public class RequestTypeController extends ApiController {
                 .orElseThrow(() -> new EntityNotFoundException(RequestType.class, id));
 
 
-        // Check for duplicates
-        Iterable<RequestType> existingRequestTypes = requestTypeRepository.findAll();
-        for (RequestType existing : existingRequestTypes) {
-            if (incoming.getRequestType().isEmpty()){
-                throw new IllegalArgumentException("Request type cannot be empty");
-            }
-            if (existing.getRequestType().equals(incoming.getRequestType())) {
-                throw new IllegalArgumentException("Duplicate request type: " + incoming);
-            }
+        if (incoming.getRequestType().isEmpty()) {
+            throw new IllegalArgumentException("Request type cannot be empty");
+        }
+
+        // Check for duplicates; keeping the current name is not a duplicate
+        if (requestTypeRepository.existsByRequestTypeAndIdNot(incoming.getRequestType(), id)) {
+            throw new IllegalArgumentException("Duplicate request type: " + incoming);
         }
 
         // Update and save the request type
         requestType.setRequestType(incoming.getRequestType());
-        requestTypeRepository.save(requestType);
+        saveUnique(requestType, incoming);
+        requestTypeCatalog.refresh();
 
         return requestType;
     }
+
+    /**
+     * Save a request type, reporting a violation of the unique index on
+     * requestType as a duplicate.  The existence checks above give the usual
+     * error message; this covers two admins saving the same name at once.
+     *
+     * @param requestType the request type to save
+     * @param description what to name in the error message
+     * @return the saved request type
+     */
+    private RequestType saveUnique(RequestType requestType, Object description) {
+        try {
+            return requestTypeRepository.save(requestType);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalArgumentException("Duplicate request type: " + description);
+        }
+    }
 }
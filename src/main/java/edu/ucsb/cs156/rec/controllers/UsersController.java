@@ -1,16 +1,21 @@
 package edu.ucsb.cs156.rec.controllers;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.io.IOException;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -20,11 +25,17 @@ import org.springframework.web.bind.annotation.RestController;
 
 import edu.ucsb.cs156.rec.entities.RecommendationRequest;
 import edu.ucsb.cs156.rec.entities.User;
+import edu.ucsb.cs156.rec.models.ProfessorSummary;
 import edu.ucsb.cs156.rec.repositories.UserRepository;
+import edu.ucsb.cs156.rec.services.CurrentUserCache;
+import edu.ucsb.cs156.rec.services.ProfessorDirectory;
+import edu.ucsb.cs156.rec.services.RoleResolutionService;
 import io.swagger.v3.core.util.Json;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.http.HttpServletResponse;
 
 import org.springframework.web.bind.annotation.RequestParam;
 
@@ -46,40 +57,82 @@ public class UsersController extends ApiController {
     @Autowired
     ObjectMapper mapper;
 
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    CurrentUserCache currentUserCache;
+
+    @Autowired
+    RoleResolutionService roleResolutionService;
+
+    @Autowired
+    ProfessorDirectory professorDirectory;
+
     /**
-     * This method returns a list of all users.  Accessible only to users with the role "ROLE_ADMIN".
-     * @return a list of all users
-     * @throws JsonProcessingException if there is an error processing the JSON
+     * This method returns a list of all users, in id order.  Accessible only to users with the role "ROLE_ADMIN".
+     *
+     * The users are streamed from the database and written to the response one
+     * at a time, so neither the list nor its JSON is held in memory.  Without a
+     * size every user is returned; with a size one page is returned, and the
+     * id to pass as the cursor of the next page is sent in the
+     * {@value #NEXT_CURSOR_HEADER} header when there are more users.
+     * @param cursor id of the last user of the previous page, or null to start at the first user
+     * @param size page size, or null for all users
+     * @param response the response the JSON array is written to
+     * @throws IOException if the response cannot be written
      */
     @Operation(summary= "Get a list of all users")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @GetMapping("")
-    public ResponseEntity<String> users()
-            throws JsonProcessingException {
-        Iterable<User> users = userRepository.findAll();
-        String body = mapper.writeValueAsString(users);
-        return ResponseEntity.ok().body(body);
+    @Transactional(readOnly = true)
+    public void users(
+            @Parameter(name = "cursor", description = "id of the last user of the previous page, from the X-Next-Cursor header; omit to start at the first user") @RequestParam(required = false) Long cursor,
+            @Parameter(name = "size", description = "page size (capped by app.pagination.maxPageSize); omit for all users") @RequestParam(required = false) Integer size,
+            HttpServletResponse response)
+            throws IOException {
+        long afterId = cursor == null ? 0 : cursor;
+        Limit limit = Limit.unlimited();
+        if (size != null) {
+            int pageSize = pageSize(size);
+            List<Long> ids = userRepository.findIdsByIdGreaterThan(afterId, pageLimit(pageSize));
+            if (ids.size() > pageSize) {
+                response.setHeader(NEXT_CURSOR_HEADER, String.valueOf(ids.get(pageSize - 1)));
+            }
+            limit = Limit.of(pageSize);
+        }
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try (Stream<User> users = userRepository.streamByIdGreaterThan(afterId, limit);
+                JsonGenerator generator = mapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.writeStartArray();
+            for (Iterator<User> it = users.iterator(); it.hasNext();) {
+                User user = it.next();
+                generator.writeObject(user);
+                // written users are not needed again, so keep the persistence context small
+                entityManager.detach(user);
+            }
+            generator.writeEndArray();
+        }
     }
 
     /**
-     * This method returns a list of all Recommendation Requests requested by current student.
-     * @return a list of all Recommendation Requests requested by the current user
+     * This method returns the id and full name of every professor.
+     * The list is precomputed by ProfessorDirectory and sent with an ETag,
+     * so clients that send it back in If-None-Match get a 304 until it changes.
+     * @return a list of the id and full name of every professor
      */
     @Operation(summary = "List all professors")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("/professors")
-    public Iterable<Map<String, Object>> allProfessors(
+    public ResponseEntity<List<ProfessorSummary>> allProfessors(
     ) {
-        Iterable<User> professors = userRepository.professorIsTrue();
         // to add privacy, only return professor_id and professor_name
-        List<Map<String, Object>> limited_list = new ArrayList<>();
-        for (User professor : professors) {
-            Map<String, Object> map = new HashMap<>();
-            map.put("id", professor.getId());
-            map.put("fullName", professor.getFullName());
-            limited_list.add(map);
-        }
-        return limited_list;
+        ProfessorDirectory.Listing listing = professorDirectory.getListing();
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(listing.etag())
+                .body(listing.professors());
     }
 
     @Operation(summary= "Get user by id")
@@ -100,6 +153,9 @@ public class UsersController extends ApiController {
         @Parameter(name="id", description="Long, id number of user to delete", example="1", required=true) @RequestParam Long id) {
         User user = userRepository.findById(id).orElseThrow(() -> new EntityNotFoundException(User.class, id));
         userRepository.delete(user);
+        currentUserCache.invalidate(user);
+        roleResolutionService.invalidate(user);
+        professorDirectory.invalidate();
         return genericMessage("User with id %s has been deleted.".formatted(id));
     }
 
@@ -112,6 +168,8 @@ public class UsersController extends ApiController {
 
         user.setAdmin(!user.getAdmin());
         userRepository.save(user);
+        currentUserCache.invalidate(user);
+        roleResolutionService.invalidate(user);
         return genericMessage("User with id %s has toggled admin status to %s".formatted(id, user.getAdmin()));
     }
 
@@ -124,6 +182,9 @@ public class UsersController extends ApiController {
 
         user.setProfessor(!user.getProfessor());
         userRepository.save(user);
+        currentUserCache.invalidate(user);
+        roleResolutionService.invalidate(user);
+        professorDirectory.invalidate();
         return genericMessage("User with id %s has toggled professor status to %s".formatted(id, user.getProfessor()));
     }
 }
\ No newline at end of file
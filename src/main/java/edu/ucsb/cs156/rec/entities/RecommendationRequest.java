@@ -7,6 +7,9 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.SequenceGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -20,6 +23,9 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 /**
  * This is a JPA entity that represents a Recommendation Request
+ *
+ * Ids come from RECOMMENDATIONREQUEST_SEQ, 50 at a time, rather than from the
+ * identity column, so that Hibernate can batch inserts.
  */
 
 @Data
@@ -28,9 +34,14 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 @Builder
 @Entity(name = "recommendationrequest")
 @EntityListeners(AuditingEntityListener.class)
+@NamedEntityGraph(name = "RecommendationRequest.withUsers", attributeNodes = {
+  @NamedAttributeNode("requester"),
+  @NamedAttributeNode("professor")
+})
 public class RecommendationRequest {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recommendationrequest_seq")
+  @SequenceGenerator(name = "recommendationrequest_seq", sequenceName = "RECOMMENDATIONREQUEST_SEQ", allocationSize = 50)
   private long id;
 
   @ManyToOne
@@ -4,6 +4,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -12,6 +13,8 @@ import lombok.NoArgsConstructor;
 
 /**
  * This is a JPA entity that represents a Request Type.
+ *
+ * Ids come from REQUESTTYPE_SEQ 50 at a time, so that inserts can be batched.
  */
 
 @Data
@@ -21,7 +24,8 @@ import lombok.NoArgsConstructor;
 @Entity(name = "requesttype")
 public class RequestType {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requesttype_seq")
+  @SequenceGenerator(name = "requesttype_seq", sequenceName = "REQUESTTYPE_SEQ", allocationSize = 50)
   private long id;
 
   private String requestType;
@@ -5,7 +5,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.ModelAndView;
 
-import edu.ucsb.cs156.rec.repositories.UserRepository;
+import edu.ucsb.cs156.rec.services.RoleResolutionService;
+import edu.ucsb.cs156.rec.services.RoleResolutionService.UserRoles;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -26,14 +27,21 @@ import java.util.HashSet;
 import java.util.Set;
 import java.util.Collection;
 import java.util.stream.Collectors;
-import edu.ucsb.cs156.rec.entities.User;
 
+/**
+ * This interceptor keeps the ROLE_ADMIN and ROLE_PROFESSOR authorities of the
+ * logged in user in sync with the admin and professor flags in the database,
+ * so that changes made by an admin take effect without logging out.
+ *
+ * The flags come from RoleResolutionService, so the common request does no
+ * database work, and the Authentication is only rebuilt when the roles differ.
+ */
 @Slf4j
 @Component
 public class RoleInterceptor implements HandlerInterceptor {
 
     @Autowired
-    UserRepository userRepository;
+    RoleResolutionService roleResolutionService;
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
@@ -42,18 +50,23 @@ public class RoleInterceptor implements HandlerInterceptor {
         if (authentication.getClass() == OAuth2AuthenticationToken.class) {
             OAuth2User principal = ((OAuth2AuthenticationToken) authentication).getPrincipal();
             String email = principal.getAttribute("email");
-            Optional<User> optionalUser = userRepository.findByEmail(email);
-            if (optionalUser.isPresent()) {
-                User user = optionalUser.get();
+            Optional<UserRoles> optionalRoles = roleResolutionService.getRoles(email);
+            if (optionalRoles.isPresent()) {
+                UserRoles roles = optionalRoles.get();
                 Collection<? extends GrantedAuthority> authorities = authentication.getAuthorities();
+                if (hasAuthority(authorities, "ROLE_ADMIN") == roles.admin()
+                        && hasAuthority(authorities, "ROLE_PROFESSOR") == roles.professor()
+                        && hasAuthority(authorities, "ROLE_USER")) {
+                    return true;
+                }
                 Set<GrantedAuthority> revisedAuthorities = authorities.stream().filter(
                         grantedAuth -> !grantedAuth.getAuthority().equals("ROLE_ADMIN")
                                 && !grantedAuth.getAuthority().equals("ROLE_PROFESSOR"))
                         .collect(Collectors.toSet());
-                if (user.getAdmin()) {
+                if (roles.admin()) {
                     revisedAuthorities.add(new SimpleGrantedAuthority("ROLE_ADMIN"));
                 }
-                if (user.getProfessor()) {
+                if (roles.professor()) {
                     revisedAuthorities.add(new SimpleGrantedAuthority("ROLE_PROFESSOR"));
                 }
                 revisedAuthorities.add(new SimpleGrantedAuthority("ROLE_USER"));
@@ -64,4 +77,13 @@ public class RoleInterceptor implements HandlerInterceptor {
         }
         return true;
     }
+
+    private static boolean hasAuthority(Collection<? extends GrantedAuthority> authorities, String role) {
+        for (GrantedAuthority authority : authorities) {
+            if (role.equals(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
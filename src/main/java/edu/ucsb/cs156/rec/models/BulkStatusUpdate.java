@@ -0,0 +1,13 @@
+package edu.ucsb.cs156.rec.models;
+
+import java.util.List;
+
+/**
+ * This is a model class for the body of a bulk status update: the new status
+ * of many recommendation requests addressed to the current professor.
+ *
+ * @param ids ids of the requests to update
+ * @param status the new status, PENDING, COMPLETED or DENIED
+ */
+public record BulkStatusUpdate(List<Long> ids, String status) {
+}
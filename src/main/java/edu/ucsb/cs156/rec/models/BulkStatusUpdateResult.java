@@ -0,0 +1,20 @@
+package edu.ucsb.cs156.rec.models;
+
+/**
+ * This is a model class for the result of a bulk status update for one id.
+ *
+ * @param id id of the request
+ * @param outcome whether the request was updated
+ */
+public record BulkStatusUpdateResult(long id, Outcome outcome) {
+
+  /**
+   * Outcomes of the update of one request
+   */
+  public enum Outcome {
+    /** the status was set */
+    UPDATED,
+    /** there is no request with this id addressed to the current professor */
+    NOT_FOUND
+  }
+}
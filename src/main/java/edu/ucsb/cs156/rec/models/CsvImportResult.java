@@ -0,0 +1,21 @@
+package edu.ucsb.cs156.rec.models;
+
+import java.util.List;
+
+/**
+ * This is a model class for the result of a CSV import of recommendation requests.
+ *
+ * @param imported number of requests created
+ * @param errors the rows that were not imported, and why
+ */
+public record CsvImportResult(long imported, List<RowError> errors) {
+
+  /**
+   * A row of the CSV file that was not imported
+   *
+   * @param row number of the row, 1 for the first row after the header
+   * @param message what is wrong with it
+   */
+  public record RowError(long row, String message) {
+  }
+}
@@ -0,0 +1,34 @@
+package edu.ucsb.cs156.rec.models;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import org.springframework.util.DigestUtils;
+
+/**
+ * This is a model class for the version of a list of recommendation requests,
+ * read with one aggregate query before the list itself.
+ *
+ * Every create, update and delete of a row in the list changes either the
+ * number of rows or the latest modification date, so the two together
+ * identify the contents of the list and can be turned into an ETag without
+ * reading the rows.
+ *
+ * @param count number of rows in the list
+ * @param lastModified latest modification date of a row, or null if the list is empty
+ */
+public record ListVersion(Long count, LocalDateTime lastModified) {
+
+  /**
+   * This method returns a strong ETag for one representation of the list.
+   * @param variant whatever else selects the representation, e.g. the page cursor, size and view
+   * @return the ETag value, without quotes
+   */
+  public String etag(Object... variant) {
+    String raw = count + "|" + lastModified + "|"
+        + Arrays.stream(variant).map(String::valueOf).collect(Collectors.joining("|"));
+    return DigestUtils.md5DigestAsHex(raw.getBytes(StandardCharsets.UTF_8));
+  }
+}
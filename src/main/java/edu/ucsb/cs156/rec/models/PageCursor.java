@@ -0,0 +1,54 @@
+package edu.ucsb.cs156.rec.models;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * This is a model class for an opaque keyset pagination cursor.
+ *
+ * Lists of recommendation requests are ordered newest first by
+ * (submissionDate, id); a cursor holds the position of the last row of a page,
+ * and the next page is every row that sorts strictly after it.  Unlike an
+ * OFFSET, this lets the database seek straight to the page with an index.
+ *
+ * @param submissionDate submission date of the last row returned
+ * @param id id of the last row returned
+ */
+public record PageCursor(LocalDateTime submissionDate, long id) {
+
+  /**
+   * Cursor positioned before the first row, i.e. the position used for the first page
+   */
+  public static final PageCursor FIRST = new PageCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+  /**
+   * This method encodes the cursor as an opaque, URL safe string.
+   * @return the encoded cursor
+   */
+  public String encode() {
+    String raw = submissionDate + "|" + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * This method decodes a cursor produced by {@link #encode()}.
+   * @param cursor the encoded cursor, or null for the first page
+   * @return the decoded cursor
+   * @throws IllegalArgumentException if the cursor is malformed
+   */
+  public static PageCursor decode(String cursor) {
+    if (cursor == null || cursor.isEmpty()) {
+      return FIRST;
+    }
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      int separator = raw.lastIndexOf('|');
+      return new PageCursor(LocalDateTime.parse(raw.substring(0, separator)),
+          Long.parseLong(raw.substring(separator + 1)));
+    } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+      throw new IllegalArgumentException("Invalid cursor: " + cursor);
+    }
+  }
+}
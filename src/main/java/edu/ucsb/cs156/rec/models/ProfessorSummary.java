@@ -0,0 +1,12 @@
+package edu.ucsb.cs156.rec.models;
+
+/**
+ * This is a model class for an entry in the professor directory shown to
+ * students when they create a recommendation request.  To keep professors'
+ * other details private, it only has the id and the full name.
+ *
+ * @param id id of the professor
+ * @param fullName full name of the professor
+ */
+public record ProfessorSummary(long id, String fullName) {
+}
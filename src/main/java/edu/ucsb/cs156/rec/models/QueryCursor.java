@@ -0,0 +1,56 @@
+package edu.ucsb.cs156.rec.models;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * This is a model class for an opaque keyset pagination cursor of a
+ * recommendation request query.
+ *
+ * Like PageCursor, it holds the position of the last row of a page, but in
+ * the order of the query: the value of the sorted date, which is null for a
+ * request without a due date, and the id.  It also holds the sort, so that a
+ * cursor is not used with another order.
+ *
+ * @param sort order of the query
+ * @param date sorted date of the last row returned, possibly null
+ * @param id id of the last row returned
+ */
+public record QueryCursor(RecommendationRequestSort sort, LocalDateTime date, long id) {
+
+  /**
+   * This method encodes the cursor as an opaque, URL safe string.
+   * @return the encoded cursor
+   */
+  public String encode() {
+    String raw = sort.name() + "|" + (date == null ? "" : date) + "|" + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * This method decodes a cursor produced by {@link #encode()}.
+   * @param cursor the encoded cursor, or null for the first page
+   * @param sort order of the query the cursor must belong to
+   * @return the decoded cursor, or null for the first page
+   * @throws IllegalArgumentException if the cursor is malformed or belongs to another order
+   */
+  public static QueryCursor decode(String cursor, RecommendationRequestSort sort) {
+    if (cursor == null || cursor.isEmpty()) {
+      return null;
+    }
+    try {
+      String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", -1);
+      // only requests without a due date have no sorted date
+      if (parts.length == 3 && sort.name().equals(parts[0])
+          && (!parts[1].isEmpty() || sort == RecommendationRequestSort.DUE_DATE)) {
+        return new QueryCursor(sort, parts[1].isEmpty() ? null : LocalDateTime.parse(parts[1]),
+            Long.parseLong(parts[2]));
+      }
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      // reported below
+    }
+    throw new IllegalArgumentException("Invalid cursor: " + cursor);
+  }
+}
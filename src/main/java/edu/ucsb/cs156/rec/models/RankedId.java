@@ -0,0 +1,11 @@
+package edu.ucsb.cs156.rec.models;
+
+/**
+ * This is a model class for a recommendation request found by a full-text
+ * search, before its summary is loaded.
+ *
+ * @param id id of the request
+ * @param rank how well its details match the search; higher is better
+ */
+public record RankedId(long id, float rank) {
+}
@@ -0,0 +1,37 @@
+package edu.ucsb.cs156.rec.models;
+
+import edu.ucsb.cs156.rec.entities.RecommendationRequest;
+
+/**
+ * This is a model class for a change to a recommendation request, pushed to
+ * its requester and professor over the server-sent event stream.
+ *
+ * It only identifies the request and its new status; clients refetch the
+ * request or list they show if they need more.
+ *
+ * @param type what happened to the request
+ * @param id id of the request
+ * @param status status of the request after the change
+ * @param requesterId id of the requester
+ * @param professorId id of the professor
+ */
+public record RecommendationRequestEvent(Type type, Long id, String status, Long requesterId, Long professorId) {
+
+  /**
+   * Kinds of change
+   */
+  public enum Type {
+    CREATED, UPDATED, DELETED
+  }
+
+  /**
+   * This method returns the event for a change to a recommendation request.
+   * @param type what happened to the request
+   * @param recommendationRequest the request, as saved or as it was before it was deleted
+   * @return the event
+   */
+  public static RecommendationRequestEvent of(Type type, RecommendationRequest recommendationRequest) {
+    return new RecommendationRequestEvent(type, recommendationRequest.getId(), recommendationRequest.getStatus(),
+        recommendationRequest.getRequester().getId(), recommendationRequest.getProfessor().getId());
+  }
+}
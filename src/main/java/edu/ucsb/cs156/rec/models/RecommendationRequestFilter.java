@@ -0,0 +1,16 @@
+package edu.ucsb.cs156.rec.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * This is a model class for the criteria that select recommendation requests
+ * to export.  A null criterion matches every request.
+ *
+ * @param professorId id of the professor the requests are addressed to
+ * @param status status of the requests
+ * @param submittedFrom earliest submission date, inclusive
+ * @param submittedBefore latest submission date, exclusive
+ */
+public record RecommendationRequestFilter(Long professorId, String status, LocalDateTime submittedFrom,
+    LocalDateTime submittedBefore) {
+}
@@ -0,0 +1,29 @@
+package edu.ucsb.cs156.rec.models;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * This is a model class for the criteria of a recommendation request query
+ * (see RecommendationRequestSpecifications).  A null or empty criterion
+ * matches every request.
+ *
+ * @param professorId id of the professor the requests are addressed to
+ * @param statuses statuses the requests may have
+ * @param recommendationType type of recommendation
+ * @param requester text that the requester's name or email contains, ignoring case
+ * @param dueFrom earliest due date, inclusive
+ * @param dueBefore latest due date, exclusive
+ * @param submittedFrom earliest submission date, inclusive
+ * @param submittedBefore latest submission date, exclusive
+ */
+public record RecommendationRequestQuery(
+    Long professorId,
+    Set<String> statuses,
+    String recommendationType,
+    String requester,
+    LocalDateTime dueFrom,
+    LocalDateTime dueBefore,
+    LocalDateTime submittedFrom,
+    LocalDateTime submittedBefore) {
+}
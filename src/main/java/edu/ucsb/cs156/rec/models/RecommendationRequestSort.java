@@ -0,0 +1,53 @@
+package edu.ucsb.cs156.rec.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * This is an enum for the orders a recommendation request query can return
+ * rows in.  Each one is the order of an index ending in ID, so a page is read
+ * in index order, and ties are broken by id.
+ */
+public enum RecommendationRequestSort {
+  /** Newest first */
+  SUBMISSION_DATE("submissionDate"),
+  /** Soonest due first, then the requests without a due date */
+  DUE_DATE("dueDate");
+
+  private final String property;
+
+  RecommendationRequestSort(String property) {
+    this.property = property;
+  }
+
+  /**
+   * @return name of the RecommendationRequest property sorted on
+   */
+  public String getProperty() {
+    return property;
+  }
+
+  /**
+   * This method returns the sort on a property.
+   * @param property submissionDate or dueDate
+   * @return the sort
+   * @throws IllegalArgumentException if there is no such sort
+   */
+  public static RecommendationRequestSort of(String property) {
+    for (RecommendationRequestSort sort : values()) {
+      if (sort.property.equals(property)) {
+        return sort;
+      }
+    }
+    throw new IllegalArgumentException("Invalid sort: " + property);
+  }
+
+  /**
+   * This method returns the cursor positioned on a row.
+   * @param summary the row
+   * @return the cursor of the page after the row
+   */
+  public QueryCursor cursorOf(RecommendationRequestSummary summary) {
+    LocalDateTime date = this == SUBMISSION_DATE ? summary.submissionDate() : summary.dueDate();
+    return new QueryCursor(this, date, summary.id());
+  }
+}
@@ -0,0 +1,61 @@
+package edu.ucsb.cs156.rec.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * This is a model class for the list view of a recommendation request.
+ *
+ * It has the same shape as the RecommendationRequest entity, but the requester
+ * and professor only carry the fields that the request tables display, so a
+ * list of requests does not serialize every field of two User entities per row.
+ * It is built directly by a JPQL constructor expression in
+ * RecommendationRequestRepository.
+ *
+ * @param id id of the request
+ * @param requester the student who made the request
+ * @param professor the professor the request is addressed to
+ * @param recommendationType type of recommendation
+ * @param details details entered by the requester
+ * @param status status of the request
+ * @param completionDate when the request was completed or denied
+ * @param dueDate when the recommendation is due
+ * @param submissionDate when the request was submitted
+ * @param lastModifiedDate when the request was last changed
+ */
+public record RecommendationRequestSummary(
+    long id,
+    UserSummary requester,
+    UserSummary professor,
+    String recommendationType,
+    String details,
+    String status,
+    LocalDateTime completionDate,
+    LocalDateTime dueDate,
+    LocalDateTime submissionDate,
+    LocalDateTime lastModifiedDate) {
+
+  /**
+   * The fields of a User shown in request lists
+   *
+   * @param id id of the user
+   * @param fullName full name of the user
+   * @param email email address of the user
+   */
+  public record UserSummary(long id, String fullName, String email) {
+  }
+
+  /**
+   * Constructor used by the JPQL constructor expressions, which can only pass flat values
+   */
+  public RecommendationRequestSummary(long id,
+      Long requesterId, String requesterFullName, String requesterEmail,
+      Long professorId, String professorFullName, String professorEmail,
+      String recommendationType, String details, String status,
+      LocalDateTime completionDate, LocalDateTime dueDate,
+      LocalDateTime submissionDate, LocalDateTime lastModifiedDate) {
+    this(id,
+        requesterId == null ? null : new UserSummary(requesterId, requesterFullName, requesterEmail),
+        professorId == null ? null : new UserSummary(professorId, professorFullName, professorEmail),
+        recommendationType, details, status, completionDate, dueDate, submissionDate, lastModifiedDate);
+  }
+}
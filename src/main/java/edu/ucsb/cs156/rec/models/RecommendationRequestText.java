@@ -0,0 +1,13 @@
+package edu.ucsb.cs156.rec.models;
+
+/**
+ * This is a model class for the searchable text of a recommendation request,
+ * as indexed by RecommendationRequestTextSearch when the database has no
+ * full-text search.
+ *
+ * @param id id of the request
+ * @param professorId id of its professor, or null
+ * @param details its details, or null
+ */
+public record RecommendationRequestText(long id, Long professorId, String details) {
+}
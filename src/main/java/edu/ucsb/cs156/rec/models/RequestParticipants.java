@@ -0,0 +1,13 @@
+package edu.ucsb.cs156.rec.models;
+
+/**
+ * This is a model class for the id of a recommendation request and of the
+ * users it concerns, i.e. what is needed to check ownership and to address
+ * a RecommendationRequestEvent without loading the entity.
+ *
+ * @param id id of the request
+ * @param requesterId id of the requester
+ * @param professorId id of the professor
+ */
+public record RequestParticipants(long id, Long requesterId, Long professorId) {
+}
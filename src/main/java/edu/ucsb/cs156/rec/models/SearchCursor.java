@@ -0,0 +1,62 @@
+package edu.ucsb.cs156.rec.models;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * This is a model class for an opaque keyset pagination cursor of a
+ * full-text search.
+ *
+ * Search results are ordered by rank, highest first, then by id; like
+ * PageCursor, a cursor holds the position of the last row of a page, and the
+ * next page is every row that sorts strictly after it.  Ranks are only
+ * comparable within one search, so a cursor must be used with the same text.
+ *
+ * @param rank rank of the last row returned
+ * @param id id of the last row returned
+ */
+public record SearchCursor(float rank, long id) {
+
+  /**
+   * Cursor positioned before the first row, i.e. the position used for the first page
+   */
+  public static final SearchCursor FIRST = new SearchCursor(Float.MAX_VALUE, Long.MAX_VALUE);
+
+  /**
+   * This method encodes the cursor as an opaque, URL safe string.
+   * @return the encoded cursor
+   */
+  public String encode() {
+    String raw = rank + "|" + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * This method decodes a cursor produced by {@link #encode()}.
+   * @param cursor the encoded cursor, or null for the first page
+   * @return the decoded cursor
+   * @throws IllegalArgumentException if the cursor is malformed
+   */
+  public static SearchCursor decode(String cursor) {
+    if (cursor == null || cursor.isEmpty()) {
+      return FIRST;
+    }
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      int separator = raw.lastIndexOf('|');
+      return new SearchCursor(Float.parseFloat(raw.substring(0, separator)),
+          Long.parseLong(raw.substring(separator + 1)));
+    } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+      throw new IllegalArgumentException("Invalid cursor: " + cursor);
+    }
+  }
+
+  /**
+   * @param rank rank of a row
+   * @param id id of the row
+   * @return whether the row sorts strictly after the cursor
+   */
+  public boolean isFollowedBy(float rank, long id) {
+    return rank < this.rank || (rank == this.rank && id < this.id);
+  }
+}
@@ -0,0 +1,12 @@
+package edu.ucsb.cs156.rec.models;
+
+/**
+ * This is a model class for a result of a full-text search of recommendation
+ * requests.
+ *
+ * @param request the request, as in request lists
+ * @param rank how well its details match the search; higher is better, and
+ * ranks are only comparable within one search
+ */
+public record SearchHit(RecommendationRequestSummary request, float rank) {
+}
@@ -0,0 +1,11 @@
+package edu.ucsb.cs156.rec.models;
+
+/**
+ * This is a model class for the id and email of a user, used to resolve
+ * users by email without loading User entities.
+ *
+ * @param id id of the user
+ * @param email email of the user
+ */
+public record UserEmail(long id, String email) {
+}
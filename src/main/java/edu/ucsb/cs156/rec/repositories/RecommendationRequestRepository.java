@@ -2,45 +2,340 @@ package edu.ucsb.cs156.rec.repositories;
 
 import edu.ucsb.cs156.rec.entities.RecommendationRequest;
 import edu.ucsb.cs156.rec.entities.User;
+import edu.ucsb.cs156.rec.models.ListVersion;
+import edu.ucsb.cs156.rec.models.RecommendationRequestSummary;
+import edu.ucsb.cs156.rec.models.RecommendationRequestText;
+import edu.ucsb.cs156.rec.models.RequestParticipants;
+import java.util.Collection;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
  * The RecommendationRequestRepository is a repository for RecommendationRequest entities.
+ *
+ * Every method that returns a list loads the requester and professor with the
+ * {@value #WITH_USERS} entity graph, i.e. in the same query as the requests,
+ * so the number of queries does not grow with the number of rows.
  */
 
 @Repository
-public interface RecommendationRequestRepository extends CrudRepository<RecommendationRequest, Long> {
-   Optional<RecommendationRequest> findByIdAndRequester(long id, User requester_id);
- /**
-   * This method returns an iterable of recommendation requests with given requester_id.
-   * @param requester_id requester_id within RecommendationRequest that maps to id in User table
-   * @return iterable of RecommendationRequests with requester_id == requester_id
+public interface RecommendationRequestRepository extends CrudRepository<RecommendationRequest, Long>,
+    RecommendationRequestSearch {
+  /**
+   * Name of the entity graph that fetches the requester and professor with the request
    */
-  Iterable<RecommendationRequest> findAllByRequesterId(Long requester_id);
+  String WITH_USERS = "RecommendationRequest.withUsers";
 
   /**
-   * This method returns an iterable of recommendation requests with given professor_id.
-   * @param professor_id professor_id within RecommendationRequest that maps to id in User table
-   * @return iterable of RecommendationRequests with professor_id == professor_id
+   * Select clause and joins shared by the queries that return RecommendationRequestSummary
    */
-  Iterable<RecommendationRequest> findAllByProfessorId(Long professor_id);
+  String SUMMARY = """
+      SELECT new edu.ucsb.cs156.rec.models.RecommendationRequestSummary(
+        r.id, req.id, req.fullName, req.email, prof.id, prof.fullName, prof.email,
+        r.recommendationType, r.details, r.status,
+        r.completionDate, r.dueDate, r.submissionDate, r.lastModifiedDate)
+      FROM recommendationrequest r LEFT JOIN r.requester req LEFT JOIN r.professor prof
+      """;
 
   /**
-   * Find all recommendation requests by professor ID and status.
-   *
-   * @param professor_id professor_id within RecommendationRequest that maps to id in User table
-   * @param status the status of recommendation request
-   * @return a list of recommendation requests matching the criteria
+   * Select clause shared by the queries that return the ListVersion of a list
    */
-  Iterable<RecommendationRequest> findAllByProfessorIdAndStatus(Long professor_id, String status);
+  String LIST_VERSION = """
+      SELECT new edu.ucsb.cs156.rec.models.ListVersion(COUNT(r), MAX(r.lastModifiedDate))
+      FROM recommendationrequest r
+      """;
+
+   Optional<RecommendationRequest> findByIdAndRequester(long id, User requester_id);
 
   /**
    * Find all recommendation requests as an admin.
    *
    * @return a list of all recommendation requests.
    */
+  @EntityGraph(WITH_USERS)
   Iterable<RecommendationRequest> findAll();
 
-}
\ No newline at end of file
+  /*
+   * Keyset pagination: every page query orders by (submissionDate, id) descending
+   * and returns the rows strictly after the cursor (submissionDate, id).  The
+   * redundant "submissionDate <= :submissionDate" term gives the database a range
+   * it can seek to in the (..., submission_date, id) indexes.  The first page is
+   * requested with PageCursor.FIRST.  submission_date is NOT NULL (see
+   * RecommendationRequest005-requireSubmissionDate), so no request is left out.
+   */
+
+  /**
+   * Find one page of all recommendation requests, newest first.
+   *
+   * @param submissionDate submission date of the cursor
+   * @param id id of the cursor
+   * @param limit maximum number of rows to return
+   * @return the recommendation requests that sort after the cursor
+   */
+  @EntityGraph(WITH_USERS)
+  @Query("""
+      SELECT r FROM recommendationrequest r
+      WHERE r.submissionDate <= :submissionDate AND (r.submissionDate < :submissionDate OR r.id < :id)
+      ORDER BY r.submissionDate DESC, r.id DESC
+      """)
+  List<RecommendationRequest> findPage(@Param("submissionDate") LocalDateTime submissionDate,
+      @Param("id") long id, Limit limit);
+
+  /**
+   * Find one page of the recommendation requests made by a requester, newest first.
+   *
+   * @param requesterId id of the requester
+   * @param submissionDate submission date of the cursor
+   * @param id id of the cursor
+   * @param limit maximum number of rows to return
+   * @return the recommendation requests that sort after the cursor
+   */
+  @EntityGraph(WITH_USERS)
+  @Query("""
+      SELECT r FROM recommendationrequest r
+      WHERE r.requester.id = :requesterId
+        AND r.submissionDate <= :submissionDate AND (r.submissionDate < :submissionDate OR r.id < :id)
+      ORDER BY r.submissionDate DESC, r.id DESC
+      """)
+  List<RecommendationRequest> findPageByRequesterId(@Param("requesterId") Long requesterId,
+      @Param("submissionDate") LocalDateTime submissionDate, @Param("id") long id, Limit limit);
+
+  /**
+   * Find one page of the recommendation requests addressed to a professor, newest first.
+   *
+   * @param professorId id of the professor
+   * @param submissionDate submission date of the cursor
+   * @param id id of the cursor
+   * @param limit maximum number of rows to return
+   * @return the recommendation requests that sort after the cursor
+   */
+  @EntityGraph(WITH_USERS)
+  @Query("""
+      SELECT r FROM recommendationrequest r
+      WHERE r.professor.id = :professorId
+        AND r.submissionDate <= :submissionDate AND (r.submissionDate < :submissionDate OR r.id < :id)
+      ORDER BY r.submissionDate DESC, r.id DESC
+      """)
+  List<RecommendationRequest> findPageByProfessorId(@Param("professorId") Long professorId,
+      @Param("submissionDate") LocalDateTime submissionDate, @Param("id") long id, Limit limit);
+
+  /**
+   * Find one page of the recommendation requests addressed to a professor with a given status, newest first.
+   *
+   * @param professorId id of the professor
+   * @param status the status of recommendation request
+   * @param submissionDate submission date of the cursor
+   * @param id id of the cursor
+   * @param limit maximum number of rows to return
+   * @return the recommendation requests that sort after the cursor
+   */
+  @EntityGraph(WITH_USERS)
+  @Query("""
+      SELECT r FROM recommendationrequest r
+      WHERE r.professor.id = :professorId AND r.status = :status
+        AND r.submissionDate <= :submissionDate AND (r.submissionDate < :submissionDate OR r.id < :id)
+      ORDER BY r.submissionDate DESC, r.id DESC
+      """)
+  List<RecommendationRequest> findPageByProfessorIdAndStatus(@Param("professorId") Long professorId,
+      @Param("status") String status, @Param("submissionDate") LocalDateTime submissionDate,
+      @Param("id") long id, Limit limit);
+
+  /*
+   * The same pages as above, projected to RecommendationRequestSummary so that
+   * only the columns shown in request lists are read and serialized.
+   */
+
+  /**
+   * Find one page of summaries of all recommendation requests, newest first.
+   *
+   * @param submissionDate submission date of the cursor
+   * @param id id of the cursor
+   * @param limit maximum number of rows to return
+   * @return summaries of the recommendation requests that sort after the cursor
+   */
+  @Query(SUMMARY + """
+      WHERE r.submissionDate <= :submissionDate AND (r.submissionDate < :submissionDate OR r.id < :id)
+      ORDER BY r.submissionDate DESC, r.id DESC
+      """)
+  List<RecommendationRequestSummary> findSummaryPage(@Param("submissionDate") LocalDateTime submissionDate,
+      @Param("id") long id, Limit limit);
+
+  /**
+   * Find one page of summaries of the recommendation requests made by a requester, newest first.
+   *
+   * @param requesterId id of the requester
+   * @param submissionDate submission date of the cursor
+   * @param id id of the cursor
+   * @param limit maximum number of rows to return
+   * @return summaries of the recommendation requests that sort after the cursor
+   */
+  @Query(SUMMARY + """
+      WHERE r.requester.id = :requesterId
+        AND r.submissionDate <= :submissionDate AND (r.submissionDate < :submissionDate OR r.id < :id)
+      ORDER BY r.submissionDate DESC, r.id DESC
+      """)
+  List<RecommendationRequestSummary> findSummaryPageByRequesterId(@Param("requesterId") Long requesterId,
+      @Param("submissionDate") LocalDateTime submissionDate, @Param("id") long id, Limit limit);
+
+  /**
+   * Find one page of summaries of the recommendation requests addressed to a professor, newest first.
+   *
+   * @param professorId id of the professor
+   * @param submissionDate submission date of the cursor
+   * @param id id of the cursor
+   * @param limit maximum number of rows to return
+   * @return summaries of the recommendation requests that sort after the cursor
+   */
+  @Query(SUMMARY + """
+      WHERE r.professor.id = :professorId
+        AND r.submissionDate <= :submissionDate AND (r.submissionDate < :submissionDate OR r.id < :id)
+      ORDER BY r.submissionDate DESC, r.id DESC
+      """)
+  List<RecommendationRequestSummary> findSummaryPageByProfessorId(@Param("professorId") Long professorId,
+      @Param("submissionDate") LocalDateTime submissionDate, @Param("id") long id, Limit limit);
+
+  /**
+   * Find one page of summaries of the recommendation requests addressed to a professor with a given status, newest first.
+   *
+   * @param professorId id of the professor
+   * @param status the status of recommendation request
+   * @param submissionDate submission date of the cursor
+   * @param id id of the cursor
+   * @param limit maximum number of rows to return
+   * @return summaries of the recommendation requests that sort after the cursor
+   */
+  @Query(SUMMARY + """
+      WHERE r.professor.id = :professorId AND r.status = :status
+        AND r.submissionDate <= :submissionDate AND (r.submissionDate < :submissionDate OR r.id < :id)
+      ORDER BY r.submissionDate DESC, r.id DESC
+      """)
+  List<RecommendationRequestSummary> findSummaryPageByProfessorIdAndStatus(@Param("professorId") Long professorId,
+      @Param("status") String status, @Param("submissionDate") LocalDateTime submissionDate,
+      @Param("id") long id, Limit limit);
+
+  /*
+   * Versions of the same lists, used for their ETags: one aggregate query
+   * answers a conditional GET without reading the page.
+   */
+
+  /**
+   * Find the version of the list of all recommendation requests.
+   *
+   * @return count and latest modification date of all recommendation requests
+   */
+  @Query(LIST_VERSION)
+  ListVersion findListVersion();
+
+  /**
+   * Find the version of the list of recommendation requests made by a requester.
+   *
+   * @param requesterId id of the requester
+   * @return count and latest modification date of the requester's recommendation requests
+   */
+  @Query(LIST_VERSION + "WHERE r.requester.id = :requesterId")
+  ListVersion findListVersionByRequesterId(@Param("requesterId") Long requesterId);
+
+  /**
+   * Find the version of the list of recommendation requests addressed to a professor.
+   *
+   * @param professorId id of the professor
+   * @return count and latest modification date of the professor's recommendation requests
+   */
+  @Query(LIST_VERSION + "WHERE r.professor.id = :professorId")
+  ListVersion findListVersionByProfessorId(@Param("professorId") Long professorId);
+
+  /**
+   * Find the version of the list of recommendation requests addressed to a professor with a given status.
+   *
+   * @param professorId id of the professor
+   * @param status the status of recommendation request
+   * @return count and latest modification date of the matching recommendation requests
+   */
+  @Query(LIST_VERSION + "WHERE r.professor.id = :professorId AND r.status = :status")
+  ListVersion findListVersionByProfessorIdAndStatus(@Param("professorId") Long professorId,
+      @Param("status") String status);
+
+  /*
+   * Bulk status updates: the requests are checked and updated with one query
+   * each, whatever the number of ids.
+   */
+
+  /**
+   * Find the participants of the recommendation requests with the given ids that are addressed to a professor.
+   *
+   * @param ids ids of the requests
+   * @param professorId id of the professor
+   * @return ids, requester and professor of the matching recommendation requests
+   */
+  @Query("""
+      SELECT new edu.ucsb.cs156.rec.models.RequestParticipants(r.id, r.requester.id, r.professor.id)
+      FROM recommendationrequest r
+      WHERE r.id IN :ids AND r.professor.id = :professorId
+      """)
+  List<RequestParticipants> findParticipantsByIdInAndProfessorId(@Param("ids") Collection<Long> ids,
+      @Param("professorId") Long professorId);
+
+  /**
+   * Set the status of the recommendation requests with the given ids that are addressed to a professor.
+   * A bulk update bypasses JPA auditing, so the modification date is set here.
+   *
+   * @param ids ids of the requests
+   * @param professorId id of the professor
+   * @param status the new status
+   * @param completionDate the new completion date, or null to keep the current one
+   * @param lastModifiedDate the new modification date
+   * @return number of updated requests
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("""
+      UPDATE recommendationrequest r
+      SET r.status = :status,
+        r.completionDate = COALESCE(:completionDate, r.completionDate),
+        r.lastModifiedDate = :lastModifiedDate
+      WHERE r.id IN :ids AND r.professor.id = :professorId
+      """)
+  int updateStatusByIdInAndProfessorId(@Param("ids") Collection<Long> ids, @Param("professorId") Long professorId,
+      @Param("status") String status, @Param("completionDate") LocalDateTime completionDate,
+      @Param("lastModifiedDate") LocalDateTime lastModifiedDate);
+
+  /**
+   * This method returns the summaries of recommendation requests, e.g. those found by a search.
+   * @param ids ids of the requests
+   * @return their summaries, in no particular order
+   */
+  @Query(SUMMARY + "WHERE r.id IN :ids")
+  List<RecommendationRequestSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+  /**
+   * This method streams the searchable text of every recommendation request,
+   * to build the search index of databases without full-text search.
+   * The stream must be closed, inside a transaction.
+   * @return the text of every request
+   */
+  @Query("""
+      SELECT new edu.ucsb.cs156.rec.models.RecommendationRequestText(r.id, prof.id, r.details)
+      FROM recommendationrequest r LEFT JOIN r.professor prof
+      """)
+  Stream<RecommendationRequestText> streamTexts();
+
+  /**
+   * This method returns the searchable text of recommendation requests that changed.
+   * @param ids ids of the requests
+   * @return the text of those that still exist
+   */
+  @Query("""
+      SELECT new edu.ucsb.cs156.rec.models.RecommendationRequestText(r.id, prof.id, r.details)
+      FROM recommendationrequest r LEFT JOIN r.professor prof
+      WHERE r.id IN :ids
+      """)
+  List<RecommendationRequestText> findTextsByIdIn(@Param("ids") Collection<Long> ids);
+}
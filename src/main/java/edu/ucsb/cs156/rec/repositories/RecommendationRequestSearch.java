@@ -0,0 +1,71 @@
+package edu.ucsb.cs156.rec.repositories;
+
+import edu.ucsb.cs156.rec.models.QueryCursor;
+import edu.ucsb.cs156.rec.models.RankedId;
+import edu.ucsb.cs156.rec.models.RecommendationRequestFilter;
+import edu.ucsb.cs156.rec.models.RecommendationRequestQuery;
+import edu.ucsb.cs156.rec.models.RecommendationRequestSort;
+import edu.ucsb.cs156.rec.models.RecommendationRequestSummary;
+import edu.ucsb.cs156.rec.models.SearchCursor;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Limit;
+
+/**
+ * This is a fragment of RecommendationRequestRepository for queries built from
+ * Specifications (see RecommendationRequestSpecifications) that return
+ * RecommendationRequestSummary rather than entities.
+ */
+public interface RecommendationRequestSearch {
+
+  /**
+   * Find the summaries of the recommendation requests that match a query, one keyset page at a time.
+   *
+   * @param query the criteria
+   * @param after position of the last row of the previous page, or null for the first page
+   * @param sort order of the rows
+   * @param limit maximum number of rows to return
+   * @return the matching recommendation requests, in order
+   */
+  List<RecommendationRequestSummary> findSummaries(RecommendationRequestQuery query, QueryCursor after,
+      RecommendationRequestSort sort, Limit limit);
+
+  /**
+   * Stream the summaries of the recommendation requests that match a filter,
+   * newest first, for an export.  Only the criteria the filter gives are in
+   * the query, so the database can use the index of each one.  The rows are
+   * read from a forward-only cursor and are not managed entities, so memory
+   * does not grow with their number.  The stream must be consumed in a
+   * transaction and closed.
+   *
+   * @param filter which requests to return
+   * @return the matching recommendation requests
+   */
+  Stream<RecommendationRequestSummary> streamForExport(RecommendationRequestFilter filter);
+
+  /**
+   * Count the recommendation requests that streamForExport would return, so
+   * that an export that cannot hold them all fails before reading them.
+   *
+   * @param filter which requests to count
+   * @return number of matching recommendation requests
+   */
+  long countForExport(RecommendationRequestFilter filter);
+
+  /**
+   * Find the recommendation requests whose details match a full-text search,
+   * highest rank first, one keyset page at a time.
+   *
+   * This uses the DETAILS_TSV column and its GIN index, which only exist on
+   * PostgreSQL (see RecommendationRequest004-addDetailsSearch).
+   *
+   * @param text the words to search for; every one must match
+   * @param professorId id of the professor of the requests, or null for every professor
+   * @param after position of the last row of the previous page
+   * @param limit maximum number of rows to return
+   * @return the ids and ranks of the matching requests, in order
+   */
+  List<RankedId> searchDetails(String text, Long professorId, SearchCursor after, Limit limit);
+}
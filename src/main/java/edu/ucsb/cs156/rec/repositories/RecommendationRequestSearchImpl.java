@@ -0,0 +1,140 @@
+package edu.ucsb.cs156.rec.repositories;
+
+import edu.ucsb.cs156.rec.entities.RecommendationRequest;
+import edu.ucsb.cs156.rec.entities.User;
+import edu.ucsb.cs156.rec.models.QueryCursor;
+import edu.ucsb.cs156.rec.models.RankedId;
+import edu.ucsb.cs156.rec.models.RecommendationRequestFilter;
+import edu.ucsb.cs156.rec.models.RecommendationRequestQuery;
+import edu.ucsb.cs156.rec.models.RecommendationRequestSort;
+import edu.ucsb.cs156.rec.models.RecommendationRequestSummary;
+import edu.ucsb.cs156.rec.models.SearchCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Implementation of RecommendationRequestSearch with the Criteria API.  The
+ * select clause is the same as RecommendationRequestRepository.SUMMARY, and
+ * the requester and professor joins are made before the specification is
+ * applied, so that it can filter on them without joining the users again.
+ *
+ * The full-text search is a native query: the ranked rows are computed in a
+ * subquery so that ts_rank is evaluated once per matching row.
+ */
+class RecommendationRequestSearchImpl implements RecommendationRequestSearch {
+
+  static final String SEARCH_DETAILS = """
+      SELECT id, rank FROM (
+        SELECT r.id, ts_rank(r.details_tsv, q.query) AS rank
+        FROM recommendationrequest r CROSS JOIN plainto_tsquery('english', :text) AS q(query)
+        WHERE r.details_tsv @@ q.query %s
+      ) ranked
+      WHERE rank < :rank OR (rank = :rank AND id < :id)
+      ORDER BY rank DESC, id DESC
+      """;
+
+  /**
+   * Rows fetched from the database at a time by streamForExport
+   */
+  static final int EXPORT_FETCH_SIZE = 500;
+
+  @PersistenceContext
+  EntityManager entityManager;
+
+  @Override
+  public List<RecommendationRequestSummary> findSummaries(RecommendationRequestQuery criteria, QueryCursor after,
+      RecommendationRequestSort sort, Limit limit) {
+    Specification<RecommendationRequest> matching = RecommendationRequestSpecifications.matching(criteria);
+    if (sort == RecommendationRequestSort.SUBMISSION_DATE || (after != null && after.date() == null)) {
+      return summaries(Specification.allOf(matching, RecommendationRequestSpecifications.after(after)), sort)
+          .setMaxResults(limit.max()).getResultList();
+    }
+    // the requests with a due date, then, once they run out, those without (see after)
+    List<RecommendationRequestSummary> dated = summaries(Specification.allOf(matching,
+        RecommendationRequestSpecifications.hasDueDate(true), RecommendationRequestSpecifications.after(after)), sort)
+        .setMaxResults(limit.max()).getResultList();
+    if (dated.size() == limit.max()) {
+      return dated;
+    }
+    List<RecommendationRequestSummary> undated = summaries(Specification.allOf(matching,
+        RecommendationRequestSpecifications.hasDueDate(false)), sort)
+        .setMaxResults(limit.max() - dated.size()).getResultList();
+    return Stream.concat(dated.stream(), undated.stream()).toList();
+  }
+
+  @Override
+  public Stream<RecommendationRequestSummary> streamForExport(RecommendationRequestFilter filter) {
+    return summaries(RecommendationRequestSpecifications.exported(filter), RecommendationRequestSort.SUBMISSION_DATE)
+        .setHint(HibernateHints.HINT_FETCH_SIZE, EXPORT_FETCH_SIZE)
+        .getResultStream();
+  }
+
+  @Override
+  public long countForExport(RecommendationRequestFilter filter) {
+    HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+    CriteriaQuery<Long> query = cb.createQuery(Long.class);
+    Root<RecommendationRequest> root = query.from(RecommendationRequest.class);
+    query.select(cb.count(root));
+    Predicate predicate = RecommendationRequestSpecifications.exported(filter).toPredicate(root, query, cb);
+    if (predicate != null) {
+      query.where(predicate);
+    }
+    return entityManager.createQuery(query).getSingleResult();
+  }
+
+  private TypedQuery<RecommendationRequestSummary> summaries(Specification<RecommendationRequest> spec,
+      RecommendationRequestSort sort) {
+    HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+    CriteriaQuery<RecommendationRequestSummary> query = cb.createQuery(RecommendationRequestSummary.class);
+    Root<RecommendationRequest> root = query.from(RecommendationRequest.class);
+    Join<RecommendationRequest, User> requester = root.join("requester", JoinType.LEFT);
+    Join<RecommendationRequest, User> professor = root.join("professor", JoinType.LEFT);
+    query.select(cb.construct(RecommendationRequestSummary.class,
+        root.get("id"), requester.get("id"), requester.get("fullName"), requester.get("email"),
+        professor.get("id"), professor.get("fullName"), professor.get("email"),
+        root.get("recommendationType"), root.get("details"), root.get("status"),
+        root.get("completionDate"), root.get("dueDate"), root.get("submissionDate"), root.get("lastModifiedDate")));
+    Predicate predicate = spec.toPredicate(root, query, cb);
+    if (predicate != null) {
+      query.where(predicate);
+    }
+    if (sort == RecommendationRequestSort.SUBMISSION_DATE) {
+      query.orderBy(cb.desc(root.get("submissionDate")), cb.desc(root.get("id")));
+    } else {
+      query.orderBy(cb.asc(root.get("dueDate")), cb.asc(root.get("id")));
+    }
+    return entityManager.createQuery(query);
+  }
+
+  @Override
+  public List<RankedId> searchDetails(String text, Long professorId, SearchCursor after, Limit limit) {
+    Query query = entityManager.createNativeQuery(
+        SEARCH_DETAILS.formatted(professorId == null ? "" : "AND r.professor_id = :professorId"), Object[].class);
+    query.setParameter("text", text);
+    query.setParameter("rank", after.rank());
+    query.setParameter("id", after.id());
+    if (professorId != null) {
+      query.setParameter("professorId", professorId);
+    }
+    List<?> rows = query.setMaxResults(limit.max()).getResultList();
+    return rows.stream()
+        .map(row -> (Object[]) row)
+        .map(row -> new RankedId(((Number) row[0]).longValue(), ((Number) row[1]).floatValue()))
+        .toList();
+  }
+}
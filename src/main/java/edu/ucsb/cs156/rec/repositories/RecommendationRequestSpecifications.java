@@ -0,0 +1,191 @@
+package edu.ucsb.cs156.rec.repositories;
+
+import edu.ucsb.cs156.rec.entities.RecommendationRequest;
+import edu.ucsb.cs156.rec.entities.User;
+import edu.ucsb.cs156.rec.models.QueryCursor;
+import edu.ucsb.cs156.rec.models.RecommendationRequestFilter;
+import edu.ucsb.cs156.rec.models.RecommendationRequestQuery;
+import edu.ucsb.cs156.rec.models.RecommendationRequestSort;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * This class holds the JPA Specifications of recommendation requests used by
+ * the query endpoints.  Each method returns null when its criterion is not
+ * given, which Specification.allOf ignores.
+ */
+public final class RecommendationRequestSpecifications {
+
+  private RecommendationRequestSpecifications() {
+  }
+
+  /**
+   * @param query the criteria
+   * @return the requests that match every given criterion
+   */
+  public static Specification<RecommendationRequest> matching(RecommendationRequestQuery query) {
+    return Specification.allOf(
+        professorIs(query.professorId()),
+        statusIn(query.statuses()),
+        recommendationTypeIs(query.recommendationType()),
+        requesterContains(query.requester()),
+        dateBetween("dueDate", query.dueFrom(), query.dueBefore()),
+        dateBetween("submissionDate", query.submittedFrom(), query.submittedBefore()));
+  }
+
+  /**
+   * @param filter the criteria of an export
+   * @return the requests that match every given criterion
+   */
+  public static Specification<RecommendationRequest> exported(RecommendationRequestFilter filter) {
+    return Specification.allOf(
+        professorIs(filter.professorId()),
+        statusIn(filter.status() == null ? null : Set.of(filter.status())),
+        dateBetween("submissionDate", filter.submittedFrom(), filter.submittedBefore()));
+  }
+
+  /**
+   * @param professorId id of the professor, or null
+   * @return the requests addressed to the professor
+   */
+  public static Specification<RecommendationRequest> professorIs(Long professorId) {
+    if (professorId == null) {
+      return null;
+    }
+    return (root, query, cb) -> cb.equal(root.get("professor").get("id"), professorId);
+  }
+
+  /**
+   * @param statuses statuses, or null or empty
+   * @return the requests with one of the statuses
+   */
+  public static Specification<RecommendationRequest> statusIn(Collection<String> statuses) {
+    if (statuses == null || statuses.isEmpty()) {
+      return null;
+    }
+    return (root, query, cb) -> root.get("status").in(statuses);
+  }
+
+  /**
+   * @param recommendationType type of recommendation, or null
+   * @return the requests of the type
+   */
+  public static Specification<RecommendationRequest> recommendationTypeIs(String recommendationType) {
+    if (recommendationType == null) {
+      return null;
+    }
+    return (root, query, cb) -> cb.equal(root.get("recommendationType"), recommendationType);
+  }
+
+  /**
+   * @param text text to look for, or null or blank
+   * @return the requests whose requester's full name or email contains the text, ignoring case
+   */
+  public static Specification<RecommendationRequest> requesterContains(String text) {
+    if (text == null || text.isBlank()) {
+      return null;
+    }
+    String pattern = "%" + text.strip().toLowerCase()
+        .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    return (root, query, cb) -> {
+      From<?, User> requester = join(root, "requester");
+      return cb.or(
+          cb.like(cb.lower(requester.get("fullName")), pattern, '\\'),
+          cb.like(cb.lower(requester.get("email")), pattern, '\\'));
+    };
+  }
+
+  /**
+   * @param property name of a date property
+   * @param from earliest date (inclusive), or null
+   * @param before latest date (exclusive), or null
+   * @return the requests whose date is in the range
+   */
+  static Specification<RecommendationRequest> dateBetween(String property, LocalDateTime from,
+      LocalDateTime before) {
+    if (from == null && before == null) {
+      return null;
+    }
+    return (root, query, cb) -> {
+      Path<LocalDateTime> date = root.get(property);
+      if (from == null) {
+        return cb.lessThan(date, before);
+      }
+      if (before == null) {
+        return cb.greaterThanOrEqualTo(date, from);
+      }
+      return cb.and(cb.greaterThanOrEqualTo(date, from), cb.lessThan(date, before));
+    };
+  }
+
+  /**
+   * @param given whether to return the requests with a due date or those without
+   * @return one of the two keysets that the due date order is read as
+   */
+  public static Specification<RecommendationRequest> hasDueDate(boolean given) {
+    return (root, query, cb) -> given ? cb.isNotNull(root.get("dueDate")) : cb.isNull(root.get("dueDate"));
+  }
+
+  /**
+   * Keyset pagination: the requests that sort strictly after a cursor, in the
+   * order of its sort.  As in RecommendationRequestRepository, the redundant
+   * bound on the date lets the database seek to the page in an index.
+   *
+   * In the due date order, a cursor with a date only reaches the requests
+   * with a due date, and a cursor without one only those without: each is a
+   * range of the (DUE_DATE, ID) index, which a predicate ORed with
+   * {@code DUE_DATE IS NULL} would not be.  RecommendationRequestSearchImpl
+   * reads the second keyset once the first runs out.
+   *
+   * @param cursor position of the last row of the previous page, or null for the first page
+   * @return the requests after the cursor
+   */
+  public static Specification<RecommendationRequest> after(QueryCursor cursor) {
+    if (cursor == null) {
+      return null;
+    }
+    if (cursor.sort() == RecommendationRequestSort.SUBMISSION_DATE) {
+      // newest first
+      return (root, query, cb) -> {
+        Path<LocalDateTime> date = root.get("submissionDate");
+        return cb.and(
+            cb.lessThanOrEqualTo(date, cursor.date()),
+            cb.or(cb.lessThan(date, cursor.date()), cb.lessThan(root.get("id"), cursor.id())));
+      };
+    }
+    // soonest due first
+    return (root, query, cb) -> {
+      Path<LocalDateTime> date = root.get("dueDate");
+      if (cursor.date() == null) {
+        return cb.and(cb.isNull(date), cb.greaterThan(root.get("id"), cursor.id()));
+      }
+      return cb.and(
+          cb.greaterThanOrEqualTo(date, cursor.date()),
+          cb.or(cb.greaterThan(date, cursor.date()), cb.greaterThan(root.get("id"), cursor.id())));
+    };
+  }
+
+  /**
+   * This method returns the join of a user association, reusing the one the
+   * query already has (see RecommendationRequestSearchImpl) so that the user
+   * table is only joined once.
+   */
+  @SuppressWarnings("unchecked")
+  static From<?, User> join(Root<RecommendationRequest> root, String association) {
+    for (Join<RecommendationRequest, ?> join : root.getJoins()) {
+      if (join.getAttribute().getName().equals(association)) {
+        return (From<?, User>) join;
+      }
+    }
+    return root.join(association, JoinType.LEFT);
+  }
+}
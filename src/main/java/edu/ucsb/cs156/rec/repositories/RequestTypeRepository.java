@@ -19,4 +19,20 @@ public interface RequestTypeRepository extends CrudRepository<RequestType, Long>
    * @return all RequestType entities with a given requestType
    */
   Optional<RequestType> findByRequestType(String requestType);
-}
\ No newline at end of file
+
+  /**
+   * This method checks whether a request type with a given name exists.
+   * It is answered from the unique index on requestType.
+   * @param requestType name of the request type
+   * @return true if there is a request type with that name
+   */
+  boolean existsByRequestType(String requestType);
+
+  /**
+   * This method checks whether a request type other than the one with a given id has a given name.
+   * @param requestType name of the request type
+   * @param id id of the request type to ignore
+   * @return true if another request type has that name
+   */
+  boolean existsByRequestTypeAndIdNot(String requestType, long id);
+}
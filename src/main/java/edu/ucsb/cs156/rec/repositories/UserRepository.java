@@ -1,10 +1,21 @@
 package edu.ucsb.cs156.rec.repositories;
 
 import edu.ucsb.cs156.rec.entities.User;
+import edu.ucsb.cs156.rec.models.ProfessorSummary;
+import edu.ucsb.cs156.rec.models.UserEmail;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * The UserRepository is a repository for User entities.
@@ -18,9 +29,55 @@ public interface UserRepository extends CrudRepository<User, Long> {
    */
   Optional<User> findByEmail(String email);
 
-    /**
-   * This method returns a an iterable of User entities that have professor=true.
-   * @return Iterable of user entities with professor=true (empty if not found)
+  /**
+   * This method returns the id and full name of every user that has professor=true, ordered by id.
+   * Only those two columns are read, so no User entities are loaded.
+   * @return list of professor summaries (empty if not found)
+   */
+  @Query("SELECT new edu.ucsb.cs156.rec.models.ProfessorSummary(u.id, u.fullName) FROM users u WHERE u.professor = true ORDER BY u.id")
+  List<ProfessorSummary> findProfessorSummaries();
+
+  /**
+   * This method returns the id and email of every user that has professor=true.
+   * @return list of the professors' ids and emails
+   */
+  @Query("SELECT new edu.ucsb.cs156.rec.models.UserEmail(u.id, u.email) FROM users u WHERE u.professor = true")
+  List<UserEmail> findProfessorEmails();
+
+  /**
+   * This method returns the id and email of the users with the given emails.
+   * @param emails emails of the users
+   * @return list of the ids and emails of the users found
+   */
+  @Query("SELECT new edu.ucsb.cs156.rec.models.UserEmail(u.id, u.email) FROM users u WHERE u.email IN :emails")
+  List<UserEmail> findUserEmailsByEmailIn(@Param("emails") Collection<String> emails);
+
+  /**
+   * Number of rows fetched per round trip when streaming users
+   */
+  String STREAM_FETCH_SIZE = "100";
+
+  /**
+   * This method streams the users with an id greater than a given id, in id order.
+   * Rows are fetched in batches of {@value #STREAM_FETCH_SIZE} as the stream is read,
+   * so the stream must be consumed inside a transaction and closed afterwards.
+   * @param afterId only users with a greater id are returned
+   * @param limit maximum number of users to return
+   * @return stream of users
+   */
+  @QueryHints({
+      @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+      @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true") })
+  @Query("SELECT u FROM users u WHERE u.id > :afterId ORDER BY u.id")
+  Stream<User> streamByIdGreaterThan(@Param("afterId") long afterId, Limit limit);
+
+  /**
+   * This method returns the ids of the users with an id greater than a given id, in id order.
+   * It is answered from the primary key index alone.
+   * @param afterId only ids greater than this are returned
+   * @param limit maximum number of ids to return
+   * @return list of user ids
    */
-  Iterable<User> professorIsTrue();
+  @Query("SELECT u.id FROM users u WHERE u.id > :afterId ORDER BY u.id")
+  List<Long> findIdsByIdGreaterThan(@Param("afterId") long afterId, Limit limit);
 }
@@ -0,0 +1,273 @@
+package edu.ucsb.cs156.rec.services;
+
+import edu.ucsb.cs156.rec.entities.User;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * This is a bounded, time-limited cache of resolved users, keyed by email.
+ *
+ * It is used by CurrentUserServiceImpl so that resolving the logged in user
+ * does not hit the users table on every request.  Entries expire after
+ * {@code app.userCache.ttl} and are evicted explicitly whenever an admin
+ * changes or deletes a user.  Hits, misses, evictions and size are published
+ * as {@code rec.user.cache.*} metrics.
+ *
+ * Entries are kept in the order they were stored, which is also the order they
+ * expire in, so a full cache evicts its expired entries, or else its oldest
+ * one, without scanning.  A second map from user id to email lets an admin's
+ * change, which identifies the user by id, evict them directly.
+ *
+ * The cache holds an immutable snapshot of each user's columns rather than the
+ * entity itself, and every hit returns a new, detached User built from it, so
+ * that a request changing its User cannot affect the users seen by others.
+ */
+
+@Slf4j
+@Service("currentUserCache")
+public class CurrentUserCache implements MeterBinder {
+
+  private record Snapshot(long id, String email, String googleSub, String pictureUrl, String fullName,
+      String givenName, String familyName, boolean emailVerified, String locale, String hostedDomain,
+      Boolean admin, Boolean professor) {
+
+    static Snapshot of(User user) {
+      return new Snapshot(user.getId(), user.getEmail(), user.getGoogleSub(), user.getPictureUrl(),
+          user.getFullName(), user.getGivenName(), user.getFamilyName(), user.getEmailVerified(),
+          user.getLocale(), user.getHostedDomain(), user.getAdmin(), user.getProfessor());
+    }
+
+    User toUser() {
+      return User.builder()
+          .id(id)
+          .email(email)
+          .googleSub(googleSub)
+          .pictureUrl(pictureUrl)
+          .fullName(fullName)
+          .givenName(givenName)
+          .familyName(familyName)
+          .emailVerified(emailVerified)
+          .locale(locale)
+          .hostedDomain(hostedDomain)
+          .admin(admin)
+          .professor(professor)
+          .build();
+    }
+  }
+
+  private record Entry(Snapshot user, long expiresAt) {
+  }
+
+  // insertion order is expiry order, since every entry lives for the same ttl
+  private final Map<String, Entry> entries = new LinkedHashMap<>();
+  private final Map<Long, String> emailsById = new HashMap<>();
+  // a lock rather than synchronized, like RequestTypeCatalog, so a virtual thread does not pin its carrier
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  private final long ttlMillis;
+  private final int maxSize;
+  private final Clock clock;
+
+  /**
+   * Constructor used by Spring
+   * @param ttl how long an entry stays valid
+   * @param maxSize maximum number of users held at once
+   */
+  @Autowired
+  public CurrentUserCache(
+      @Value("${app.userCache.ttl:PT5M}") Duration ttl,
+      @Value("${app.userCache.maxSize:10000}") int maxSize) {
+    this(ttl, maxSize, Clock.systemUTC());
+  }
+
+  CurrentUserCache(Duration ttl, int maxSize, Clock clock) {
+    this.ttlMillis = ttl.toMillis();
+    this.maxSize = maxSize;
+    this.clock = clock;
+  }
+
+  /**
+   * This method returns the cached user for an email, if there is an unexpired entry.
+   * @param email email address of the user
+   * @return Optional of a new, detached User (empty on a miss)
+   */
+  public Optional<User> get(String email) {
+    Snapshot snapshot = email == null ? null : lookup(email);
+    if (snapshot == null) {
+      misses.incrementAndGet();
+      return Optional.empty();
+    }
+    hits.incrementAndGet();
+    return Optional.of(snapshot.toUser());
+  }
+
+  private Snapshot lookup(String email) {
+    lock.lock();
+    try {
+      Entry entry = entries.get(email);
+      if (entry != null && entry.expiresAt() > clock.millis()) {
+        return entry.user();
+      }
+      if (entry != null) {
+        remove(email);
+      }
+      return null;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * This method stores a snapshot of a user in the cache under their email.
+   * @param user the user to cache
+   */
+  public void put(User user) {
+    if (user.getEmail() == null) {
+      return;
+    }
+    Entry entry = new Entry(Snapshot.of(user), clock.millis() + ttlMillis);
+    lock.lock();
+    try {
+      // a replaced entry moves to the end, since its expiry starts over
+      remove(user.getEmail());
+      // the user has changed their email since they were cached
+      evict(emailsById.get(entry.user().id()));
+      if (!entries.isEmpty() && entries.size() >= maxSize) {
+        evictExpiredOrEldest();
+      }
+      entries.put(user.getEmail(), entry);
+      emailsById.put(entry.user().id(), user.getEmail());
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * This method evicts a user, e.g. after their admin or professor flag has changed.
+   * @param user the user to evict
+   */
+  public void invalidate(User user) {
+    lock.lock();
+    try {
+      evict(user.getEmail());
+      evict(emailsById.get(user.getId()));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * This method evicts every user.
+   */
+  public void invalidateAll() {
+    lock.lock();
+    try {
+      entries.clear();
+      emailsById.clear();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * This method removes the eldest entry, which has expired or is the next to
+   * expire, and the expired entries that follow it.
+   */
+  private void evictExpiredOrEldest() {
+    long now = clock.millis();
+    Iterator<Entry> it = entries.values().iterator();
+    Entry eldest = it.next();
+    do {
+      it.remove();
+      emailsById.remove(eldest.user().id());
+      evictions.incrementAndGet();
+    } while (it.hasNext() && (eldest = it.next()).expiresAt() <= now);
+  }
+
+  private void evict(String email) {
+    if (email != null && remove(email)) {
+      evictions.incrementAndGet();
+    }
+  }
+
+  private boolean remove(String email) {
+    Entry entry = entries.remove(email);
+    if (entry == null) {
+      return false;
+    }
+    emailsById.remove(entry.user().id());
+    return true;
+  }
+
+  /**
+   * @return number of lookups answered from the cache
+   */
+  public long getHits() {
+    return hits.get();
+  }
+
+  /**
+   * @return number of lookups that had to go to the database
+   */
+  public long getMisses() {
+    return misses.get();
+  }
+
+  /**
+   * @return number of entries removed by invalidation or to stay under the size bound
+   */
+  public long getEvictions() {
+    return evictions.get();
+  }
+
+  /**
+   * @return number of entries currently held
+   */
+  public int size() {
+    lock.lock();
+    try {
+      return entries.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    FunctionCounter.builder("rec.user.cache.requests", this, CurrentUserCache::getHits)
+        .description("Current user lookups by result")
+        .tag("result", "hit")
+        .register(registry);
+    FunctionCounter.builder("rec.user.cache.requests", this, CurrentUserCache::getMisses)
+        .description("Current user lookups by result")
+        .tag("result", "miss")
+        .register(registry);
+    FunctionCounter.builder("rec.user.cache.evictions", this, CurrentUserCache::getEvictions)
+        .description("Users removed from the cache")
+        .register(registry);
+    Gauge.builder("rec.user.cache.size", this, CurrentUserCache::size)
+        .description("Users currently cached")
+        .register(registry);
+  }
+}
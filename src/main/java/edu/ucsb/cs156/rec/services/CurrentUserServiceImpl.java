@@ -20,6 +20,8 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 /**
  * This is a service that provides information about the current user.
@@ -37,6 +39,14 @@ public class CurrentUserServiceImpl extends CurrentUserService {
   @Autowired
   GrantedAuthoritiesService grantedAuthoritiesService;
 
+  @Autowired
+  CurrentUserCache currentUserCache;
+
+  @Autowired
+  RoleResolutionService roleResolutionService;
+
+  private static final String REQUEST_ATTRIBUTE = CurrentUserServiceImpl.class.getName() + ".user";
+
   @Value("${app.admin.emails}")
   final private List<String> adminEmails = new ArrayList<String>();
 
@@ -49,7 +59,7 @@ public class CurrentUserServiceImpl extends CurrentUserService {
       .user(this.getUser())
       .roles(this.getRoles())
       .build();
-    log.info("getCurrentUser returns {}",cu);
+    log.debug("getCurrentUser returns {}",cu);
     return cu;
   }
 
@@ -76,8 +86,12 @@ public class CurrentUserServiceImpl extends CurrentUserService {
     String locale = oAuthUser.getAttribute("locale");
     String hostedDomain = oAuthUser.getAttribute("hd");
 
-    java.util.Map<java.lang.String,java.lang.Object> attrs = oAuthUser.getAttributes();
-    log.info("attrs={}",attrs);
+    log.debug("OAuth2 user email={} sub={}", email, googleSub);
+
+    Optional<User> cached = currentUserCache.get(email);
+    if (cached.isPresent()) {
+      return cached.get();
+    }
 
     Optional<User> ou = userRepository.findByEmail(email);
     if (ou.isPresent()) {
@@ -85,7 +99,9 @@ public class CurrentUserServiceImpl extends CurrentUserService {
       if (adminEmails.contains(email) && !u.getAdmin()) {
         u.setAdmin(true);
         userRepository.save(u);
+        roleResolutionService.invalidate(u);
       }
+      currentUserCache.put(u);
       return u;
     }
 
@@ -102,21 +118,37 @@ public class CurrentUserServiceImpl extends CurrentUserService {
         .admin(adminEmails.contains(email))
         .build();
     userRepository.save(u);
+    currentUserCache.put(u);
     return u;
   }
 
   /**
    * This method returns the current user as a User object.
+   *
+   * The user is memoized as a request attribute, so repeated calls while
+   * handling the same request resolve the user only once.
+   *
    * @return the current user
    */
   public User getUser() {
     SecurityContext securityContext = SecurityContextHolder.getContext();
     Authentication authentication = securityContext.getAuthentication();
 
-    if (authentication instanceof OAuth2AuthenticationToken) {
-      return getOAuth2AuthenticatedUser(securityContext, authentication);
+    if (!(authentication instanceof OAuth2AuthenticationToken)) {
+      return null;
+    }
+
+    RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+    if (requestAttributes != null
+        && requestAttributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof User memoized) {
+      return memoized;
     }
-    return null;
+
+    User u = getOAuth2AuthenticatedUser(securityContext, authentication);
+    if (requestAttributes != null) {
+      requestAttributes.setAttribute(REQUEST_ATTRIBUTE, u, RequestAttributes.SCOPE_REQUEST);
+    }
+    return u;
   }
 
   /**
@@ -0,0 +1,129 @@
+package edu.ucsb.cs156.rec.services;
+
+import edu.ucsb.cs156.rec.models.RankedId;
+import edu.ucsb.cs156.rec.models.RecommendationRequestText;
+import edu.ucsb.cs156.rec.models.SearchCursor;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This is an in-memory inverted index of the details of recommendation
+ * requests, used by RecommendationRequestTextSearch on databases without
+ * full-text search.
+ *
+ * Details are split into lower case words of letters and digits, without
+ * the most common English words; unlike PostgreSQL, words are not stemmed.
+ * A search matches the requests that contain every word of the text, ranked
+ * by tf-idf: words that are frequent in a request and rare in the others
+ * count most.  It is not thread safe.
+ */
+class InvertedIndex {
+
+  /** Words that are too common to be searched for */
+  static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "are", "as", "at", "be", "by", "for",
+      "from", "i", "in", "is", "it", "my", "of", "on", "or", "the", "to", "was", "with");
+
+  static final Comparator<RankedId> BY_RANK = Comparator.comparing(RankedId::rank)
+      .thenComparing(RankedId::id).reversed();
+
+  private record Document(Long professorId, Map<String, Integer> wordCounts) {
+  }
+
+  private final Map<Long, Document> documents = new HashMap<>();
+  private final Map<String, Set<Long>> postings = new HashMap<>();
+
+  /**
+   * @param text text to split, possibly null
+   * @return its words, in order, with repeats
+   */
+  static List<String> words(String text) {
+    if (text == null) {
+      return List.of();
+    }
+    return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+        .filter(word -> !word.isEmpty() && !STOP_WORDS.contains(word))
+        .toList();
+  }
+
+  /**
+   * This method indexes a request, replacing its previous text.
+   * @param text the text of the request
+   */
+  void put(RecommendationRequestText text) {
+    remove(text.id());
+    Map<String, Integer> wordCounts = new HashMap<>();
+    words(text.details()).forEach(word -> wordCounts.merge(word, 1, Integer::sum));
+    documents.put(text.id(), new Document(text.professorId(), wordCounts));
+    wordCounts.keySet().forEach(word -> postings.computeIfAbsent(word, w -> new HashSet<>()).add(text.id()));
+  }
+
+  /**
+   * This method removes a request from the index, if it is there.
+   * @param id id of the request
+   */
+  void remove(long id) {
+    Document document = documents.remove(id);
+    if (document == null) {
+      return;
+    }
+    for (String word : document.wordCounts().keySet()) {
+      Set<Long> ids = postings.get(word);
+      ids.remove(id);
+      if (ids.isEmpty()) {
+        postings.remove(word);
+      }
+    }
+  }
+
+  /**
+   * @return number of requests indexed
+   */
+  int size() {
+    return documents.size();
+  }
+
+  /**
+   * This method finds the requests that contain every word of a text.
+   * @param text the words to search for
+   * @param professorId id of the professor of the requests, or null for every professor
+   * @param after position of the last row of the previous page
+   * @param limit maximum number of rows to return
+   * @return the ids and ranks of the matching requests, highest rank first
+   */
+  List<RankedId> search(String text, Long professorId, SearchCursor after, int limit) {
+    Set<String> words = new LinkedHashSet<>(words(text));
+    if (words.isEmpty()) {
+      return List.of();
+    }
+    // candidates come from the rarest word
+    List<Set<Long>> matches = words.stream()
+        .map(word -> postings.getOrDefault(word, Set.of()))
+        .sorted(Comparator.comparingInt(Set::size))
+        .toList();
+    return matches.get(0).stream()
+        .filter(id -> matches.stream().allMatch(ids -> ids.contains(id)))
+        .filter(id -> professorId == null || professorId.equals(documents.get(id).professorId()))
+        .map(id -> new RankedId(id, rank(documents.get(id), words)))
+        .filter(hit -> after.isFollowedBy(hit.rank(), hit.id()))
+        .sorted(BY_RANK)
+        .limit(limit)
+        .toList();
+  }
+
+  private float rank(Document document, Set<String> words) {
+    double rank = 0;
+    for (String word : words) {
+      double idf = Math.log(1 + (double) documents.size() / postings.get(word).size());
+      rank += (1 + Math.log(document.wordCounts().get(word))) * idf;
+    }
+    return (float) rank;
+  }
+}
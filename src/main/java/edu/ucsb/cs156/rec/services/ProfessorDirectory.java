@@ -0,0 +1,86 @@
+package edu.ucsb.cs156.rec.services;
+
+import edu.ucsb.cs156.rec.models.ProfessorSummary;
+import edu.ucsb.cs156.rec.repositories.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+/**
+ * This is a precomputed list of the professors that students can address a
+ * recommendation request to.
+ *
+ * The list is loaded with a projection query and kept until an admin
+ * toggles a professor or deletes a user.  Like RoleResolutionService, it is
+ * stamped with a version; {@link #invalidate()} bumps the version, so a list
+ * that was being loaded while the change happened is never kept.
+ */
+
+@Slf4j
+@Service("professorDirectory")
+public class ProfessorDirectory {
+
+  /**
+   * An immutable copy of the professor directory
+   * @param professors the professors, ordered by id
+   * @param version the version the list was loaded at
+   * @param etag strong ETag of the list
+   */
+  public record Listing(List<ProfessorSummary> professors, long version, String etag) {
+  }
+
+  @Autowired
+  UserRepository userRepository;
+
+  private final AtomicLong version = new AtomicLong();
+  private final AtomicReference<Listing> listing = new AtomicReference<>();
+
+  /**
+   * This method returns the current professor directory, loading it if it was invalidated.
+   * @return the current listing
+   */
+  public Listing getListing() {
+    long current = version.get();
+    Listing cached = listing.get();
+    if (cached != null && cached.version() == current) {
+      return cached;
+    }
+
+    List<ProfessorSummary> professors = List.copyOf(userRepository.findProfessorSummaries());
+    Listing loaded = new Listing(professors, current, "\"" + etagOf(professors) + "\"");
+    if (version.get() == current) {
+      listing.set(loaded);
+    }
+    return loaded;
+  }
+
+  private static String etagOf(List<ProfessorSummary> professors) {
+    String raw = professors.stream()
+        .map(professor -> professor.id() + "|" + professor.fullName())
+        .collect(Collectors.joining("\n"));
+    return DigestUtils.md5DigestAsHex(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * This method marks the directory as stale, e.g. after a professor was toggled or a user deleted.
+   */
+  public void invalidate() {
+    log.debug("invalidating professor directory");
+    version.incrementAndGet();
+  }
+
+  /**
+   * @return the current version; it changes on every invalidation
+   */
+  public long getVersion() {
+    return version.get();
+  }
+}
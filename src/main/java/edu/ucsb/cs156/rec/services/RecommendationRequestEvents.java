@@ -0,0 +1,191 @@
+package edu.ucsb.cs156.rec.services;
+
+import edu.ucsb.cs156.rec.models.RecommendationRequestEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+/**
+ * This is the server-sent event stream of changes to recommendation requests.
+ *
+ * Every logged in user can subscribe; an event is only sent to the requester
+ * and the professor of the request that changed.  Controllers publish a
+ * RecommendationRequestEvent as a Spring application event, which is handled
+ * here after the transaction that saved the change commits.
+ *
+ * Publishing never blocks: each subscriber has a queue of
+ * {@code app.events.bufferSize} events that is sent by its own virtual thread.
+ * A subscriber whose queue is full is too slow to keep up and is disconnected;
+ * EventSource clients reconnect by themselves and should then refetch what
+ * they show, since missed events are not replayed.  A heartbeat comment is
+ * sent every {@code app.events.heartbeat} so that proxies keep idle streams
+ * open and dead connections are noticed.  The number of open streams is
+ * published as {@code rec.events.subscribers}.
+ */
+
+@Slf4j
+@Service("recommendationRequestEvents")
+public class RecommendationRequestEvents implements MeterBinder {
+
+  @Value("${app.events.bufferSize:64}")
+  int bufferSize = 64;
+
+  @Value("${app.events.heartbeat:PT15S}")
+  Duration heartbeat = Duration.ofSeconds(15);
+
+  @Value("${app.events.timeout:PT30M}")
+  Duration timeout = Duration.ofMinutes(30);
+
+  private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+  private final AtomicLong sequence = new AtomicLong();
+  private ScheduledExecutorService heartbeats;
+
+  /**
+   * A stream of one user, with its bounded queue of events waiting to be sent
+   * by its own virtual thread
+   */
+  final class Subscriber {
+    final long userId;
+    final SseEmitter emitter;
+    private final BlockingQueue<SseEventBuilder> queue = new ArrayBlockingQueue<>(bufferSize);
+    private final Thread sender;
+
+    Subscriber(long userId, SseEmitter emitter) {
+      this.userId = userId;
+      this.emitter = emitter;
+      this.sender = Thread.ofVirtual().name("sse-" + userId).unstarted(this::send);
+    }
+
+    void offer(SseEventBuilder event) {
+      if (!queue.offer(event)) {
+        log.debug("disconnecting slow event stream of user {}", userId);
+        remove(this);
+        emitter.complete();
+      }
+    }
+
+    private void send() {
+      try {
+        while (true) {
+          emitter.send(queue.take());
+        }
+      } catch (InterruptedException e) {
+        // the stream was closed
+      } catch (IOException | IllegalStateException e) {
+        // the client went away
+        remove(this);
+      }
+    }
+  }
+
+  /**
+   * This method starts the heartbeats.
+   */
+  @PostConstruct
+  public void start() {
+    heartbeats = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().factory());
+    heartbeats.scheduleAtFixedRate(this::sendHeartbeats,
+        heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * This method closes every stream and stops sending.
+   */
+  @PreDestroy
+  public void stop() {
+    heartbeats.shutdownNow();
+    subscribers.values().forEach(streams -> streams.forEach(s -> {
+      remove(s);
+      s.emitter.complete();
+    }));
+  }
+
+  /**
+   * This method opens a stream of the events that concern a user.
+   * @param userId id of the user
+   * @return the emitter to return from the controller
+   */
+  public SseEmitter subscribe(long userId) {
+    SseEmitter emitter = newEmitter();
+    Subscriber subscriber = new Subscriber(userId, emitter);
+    subscribers.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+    emitter.onCompletion(() -> remove(subscriber));
+    emitter.onTimeout(() -> remove(subscriber));
+    emitter.onError(e -> remove(subscriber));
+    subscriber.sender.start();
+    // sent at once, so the client knows the stream is open
+    subscriber.offer(SseEmitter.event().comment("connected").reconnectTime(heartbeat.toMillis()));
+    return emitter;
+  }
+
+  SseEmitter newEmitter() {
+    return new SseEmitter(timeout.toMillis());
+  }
+
+  /**
+   * This method sends an event to the requester and the professor of the request, once the change is committed.
+   * @param event the change
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void publish(RecommendationRequestEvent event) {
+    String id = Long.toString(sequence.incrementAndGet());
+    String name = event.type().name().toLowerCase();
+    send(event.requesterId(), () -> SseEmitter.event().id(id).name(name).data(event));
+    if (!event.professorId().equals(event.requesterId())) {
+      send(event.professorId(), () -> SseEmitter.event().id(id).name(name).data(event));
+    }
+  }
+
+  private void send(Long userId, Supplier<SseEventBuilder> event) {
+    // a builder can only be sent once, so every stream gets its own
+    subscribers.getOrDefault(userId, Set.of()).forEach(s -> s.offer(event.get()));
+  }
+
+  void sendHeartbeats() {
+    subscribers.values().forEach(streams -> streams.forEach(s -> s.offer(SseEmitter.event().comment("heartbeat"))));
+  }
+
+  private void remove(Subscriber subscriber) {
+    subscribers.computeIfPresent(subscriber.userId, (id, streams) -> {
+      streams.remove(subscriber);
+      subscriber.sender.interrupt();
+      return streams.isEmpty() ? null : streams;
+    });
+  }
+
+  /**
+   * @return number of open streams
+   */
+  public int getSubscriberCount() {
+    return subscribers.values().stream().mapToInt(Set::size).sum();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("rec.events.subscribers", this, RecommendationRequestEvents::getSubscriberCount)
+        .description("Open recommendation request event streams")
+        .register(registry);
+  }
+}
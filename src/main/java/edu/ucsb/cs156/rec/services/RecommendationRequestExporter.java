@@ -0,0 +1,253 @@
+package edu.ucsb.cs156.rec.services;
+
+import edu.ucsb.cs156.rec.models.RecommendationRequestFilter;
+import edu.ucsb.cs156.rec.models.RecommendationRequestSummary;
+import edu.ucsb.cs156.rec.repositories.RecommendationRequestRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * This is an exporter of recommendation requests to CSV or XLSX, for admins
+ * and professors who process them offline.
+ *
+ * Rows are read from a forward-only cursor (see
+ * RecommendationRequestRepository.streamForExport) and written as they are
+ * read, so memory stays flat whatever the number of rows: CSV goes through a
+ * {@value #WRITE_BUFFER_SIZE} character buffer straight to the response, and
+ * XLSX through a streaming workbook that keeps {@value #ROWS_IN_MEMORY} rows
+ * in memory and the others in a compressed temporary file until the workbook
+ * is written.  The CSV columns include those of RecommendationRequestImporter,
+ * so an export can be imported again.
+ *
+ * Text in a CSV cell that a spreadsheet would read as a formula (it starts with
+ * one of {@value #FORMULA_PREFIXES}) is prefixed with a single quote, see
+ * {@link #neutralize(String)}; the importer removes the quote again.  XLSX
+ * cells are written as strings, which spreadsheets never evaluate.
+ */
+
+@Slf4j
+@Service("recommendationRequestExporter")
+public class RecommendationRequestExporter {
+
+  /**
+   * Formats of an export, named by their file extension
+   */
+  public enum Format {
+    CSV("csv", "text/csv;charset=UTF-8"),
+    XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+    private final String extension;
+    private final String contentType;
+
+    Format(String extension, String contentType) {
+      this.extension = extension;
+      this.contentType = contentType;
+    }
+
+    public String getExtension() {
+      return extension;
+    }
+
+    public String getContentType() {
+      return contentType;
+    }
+
+    /**
+     * This method returns the format with a file extension.
+     * @param extension csv or xlsx
+     * @return the format
+     * @throws IllegalArgumentException if there is no such format
+     */
+    public static Format of(String extension) {
+      for (Format format : values()) {
+        if (format.extension.equals(extension)) {
+          return format;
+        }
+      }
+      throw new IllegalArgumentException("Invalid format: " + extension);
+    }
+  }
+
+  /**
+   * Header of the exported columns
+   */
+  static final List<String> COLUMNS = List.of("id", "requesterEmail", "requesterName", "professorEmail",
+      "professorName", "recommendationType", "details", "status", "submissionDate", "dueDate",
+      "completionDate", "lastModifiedDate");
+
+  /** Characters of CSV buffered before they are written to the response */
+  static final int WRITE_BUFFER_SIZE = 8192;
+
+  /** Rows of an XLSX sheet kept in memory before they are flushed to the temporary file */
+  static final int ROWS_IN_MEMORY = 100;
+
+  static final String SHEET_NAME = "Recommendation requests";
+
+  static final String DATE_FORMAT = "yyyy-mm-dd hh:mm:ss";
+
+  /**
+   * First characters that make a spreadsheet read a CSV cell as a formula, and
+   * the quote that neutralizes them
+   */
+  static final String FORMULA_PREFIXES = "=+-@\t\r'";
+
+  @Autowired
+  RecommendationRequestRepository recommendationRequestRepository;
+
+  /**
+   * Data rows an XLSX sheet can hold below its header
+   */
+  int maxXlsxRows = SpreadsheetVersion.EXCEL2007.getMaxRows() - 1;
+
+  /**
+   * This method writes the recommendation requests that match a filter, newest first.
+   * @param format CSV or XLSX
+   * @param filter which requests to write
+   * @param out where to write them; it is flushed but not closed
+   * @return number of requests written
+   * @throws IllegalArgumentException if there are more requests than an XLSX sheet can hold;
+   * nothing has been written then
+   * @throws IOException if the requests cannot be written
+   */
+  @Transactional(readOnly = true)
+  public long export(Format format, RecommendationRequestFilter filter, OutputStream out) throws IOException {
+    long start = System.nanoTime();
+    if (format == Format.XLSX && recommendationRequestRepository.countForExport(filter) > maxXlsxRows) {
+      throw tooManyRows();
+    }
+    long exported;
+    try (Stream<RecommendationRequestSummary> rows = recommendationRequestRepository.streamForExport(filter)) {
+      exported = format == Format.CSV ? writeCsv(rows.iterator(), out) : writeXlsx(rows.iterator(), out);
+    }
+    log.info("exported {} recommendation requests as {} in {} ms",
+        exported, format, (System.nanoTime() - start) / 1_000_000);
+    return exported;
+  }
+
+  private long writeCsv(Iterator<RecommendationRequestSummary> rows, OutputStream out) throws IOException {
+    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+    CSVPrinter printer = CSVFormat.DEFAULT.builder()
+        .setHeader(COLUMNS.toArray(String[]::new))
+        .build()
+        .print(writer);
+    long count = 0;
+    while (rows.hasNext()) {
+      printer.printRecord(values(rows.next()).stream()
+          .map(value -> value instanceof String text ? neutralize(text) : value)
+          .toList());
+      count++;
+    }
+    printer.flush();
+    return count;
+  }
+
+  private long writeXlsx(Iterator<RecommendationRequestSummary> rows, OutputStream out) throws IOException {
+    // closing the workbook deletes its temporary file
+    try (SXSSFWorkbook workbook = new SXSSFWorkbook(ROWS_IN_MEMORY)) {
+      workbook.setCompressTempFiles(true);
+      Sheet sheet = workbook.createSheet(SHEET_NAME);
+      CellStyle dateStyle = workbook.createCellStyle();
+      dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat(DATE_FORMAT));
+      Row header = sheet.createRow(0);
+      for (int i = 0; i < COLUMNS.size(); i++) {
+        header.createCell(i).setCellValue(COLUMNS.get(i));
+      }
+      int count = 0;
+      while (rows.hasNext()) {
+        // requests submitted since they were counted
+        if (count == maxXlsxRows) {
+          throw tooManyRows();
+        }
+        count++;
+        Row row = sheet.createRow(count);
+        List<Object> values = values(rows.next());
+        for (int i = 0; i < values.size(); i++) {
+          setCellValue(row.createCell(i), values.get(i), dateStyle);
+        }
+      }
+      workbook.write(out);
+      out.flush();
+      return count;
+    }
+  }
+
+  private IllegalArgumentException tooManyRows() {
+    return new IllegalArgumentException(
+        "more than %d recommendation requests match; export them as CSV or narrow the filter"
+            .formatted(maxXlsxRows));
+  }
+
+  /**
+   * This method keeps a spreadsheet from reading a CSV cell as a formula.
+   * @param text text of the cell
+   * @return the text, with a single quote before it if it starts with one of {@link #FORMULA_PREFIXES}
+   */
+  static String neutralize(String text) {
+    return !text.isEmpty() && FORMULA_PREFIXES.indexOf(text.charAt(0)) >= 0 ? "'" + text : text;
+  }
+
+  /**
+   * This method undoes {@link #neutralize(String)}.
+   * @param text text of a CSV cell
+   * @return the text without the single quote that neutralize added
+   */
+  static String restore(String text) {
+    return text.length() > 1 && text.charAt(0) == '\'' && FORMULA_PREFIXES.indexOf(text.charAt(1)) >= 0
+        ? text.substring(1) : text;
+  }
+
+  private static void setCellValue(Cell cell, Object value, CellStyle dateStyle) {
+    if (value instanceof Long number) {
+      cell.setCellValue(number);
+    } else if (value instanceof LocalDateTime date) {
+      cell.setCellValue(date);
+      cell.setCellStyle(dateStyle);
+    } else if (value != null) {
+      cell.setCellValue((String) value);
+    }
+  }
+
+  /**
+   * @return the values of a row, in the order of {@link #COLUMNS}
+   */
+  private static List<Object> values(RecommendationRequestSummary request) {
+    RecommendationRequestSummary.UserSummary requester = request.requester();
+    RecommendationRequestSummary.UserSummary professor = request.professor();
+    return Arrays.asList(
+        request.id(),
+        requester == null ? null : requester.email(),
+        requester == null ? null : requester.fullName(),
+        professor == null ? null : professor.email(),
+        professor == null ? null : professor.fullName(),
+        request.recommendationType(),
+        request.details(),
+        request.status(),
+        request.submissionDate(),
+        request.dueDate(),
+        request.completionDate(),
+        request.lastModifiedDate());
+  }
+}
@@ -0,0 +1,221 @@
+package edu.ucsb.cs156.rec.services;
+
+import edu.ucsb.cs156.rec.entities.RecommendationRequest;
+import edu.ucsb.cs156.rec.entities.User;
+import edu.ucsb.cs156.rec.models.CsvImportResult;
+import edu.ucsb.cs156.rec.models.CsvImportResult.RowError;
+import edu.ucsb.cs156.rec.models.RecommendationRequestEvent;
+import edu.ucsb.cs156.rec.models.UserEmail;
+import edu.ucsb.cs156.rec.repositories.UserRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * This is an importer of recommendation requests from CSV, for advising
+ * offices that submit many requests on behalf of students.
+ *
+ * The file must start with a header naming the columns {@link #COLUMNS};
+ * dueDate is an ISO date or date-time.  Text that RecommendationRequestExporter
+ * quoted to keep it from being read as a formula is unquoted.  It is parsed as it is read, and the
+ * valid rows are inserted {@code app.import.batchSize} at a time, one
+ * transaction per batch.  Professors and request types are resolved from maps
+ * loaded once per import, requesters with one query per batch, and the
+ * inserts of a batch are sent as one JDBC batch (request ids come from a
+ * sequence, see RecommendationRequest).  Invalid rows are skipped and
+ * reported with their row number; a malformed file stops the import at the
+ * row where it becomes unreadable, keeping the batches already inserted.
+ */
+
+@Slf4j
+@Service("recommendationRequestImporter")
+public class RecommendationRequestImporter {
+
+  static final String REQUESTER_EMAIL = "requesterEmail";
+  static final String PROFESSOR_EMAIL = "professorEmail";
+  static final String RECOMMENDATION_TYPE = "recommendationType";
+  static final String DETAILS = "details";
+  static final String DUE_DATE = "dueDate";
+
+  /**
+   * Columns the header must name, in any order
+   */
+  static final List<String> COLUMNS = List.of(REQUESTER_EMAIL, PROFESSOR_EMAIL, RECOMMENDATION_TYPE, DETAILS, DUE_DATE);
+
+  static final CSVFormat FORMAT = CSVFormat.DEFAULT.builder()
+      .setHeader()
+      .setSkipHeaderRecord(true)
+      .setIgnoreEmptyLines(true)
+      .setTrim(true)
+      .build();
+
+  @Autowired
+  EntityManager entityManager;
+
+  @Autowired
+  TransactionTemplate transactionTemplate;
+
+  @Autowired
+  UserRepository userRepository;
+
+  @Autowired
+  RequestTypeCatalog requestTypeCatalog;
+
+  @Autowired
+  ApplicationEventPublisher applicationEventPublisher;
+
+  @Value("${app.import.batchSize:50}")
+  int batchSize = 50;
+
+  /**
+   * What is resolved once per import
+   */
+  private record Lookups(Map<String, Long> professors, Set<String> requestTypes) {
+  }
+
+  /**
+   * This method imports recommendation requests from CSV.
+   * @param reader the CSV text, starting with the header
+   * @return number of requests imported and the rows that were not
+   * @throws IllegalArgumentException if the header does not name every column
+   * @throws IOException if the CSV cannot be read
+   */
+  public CsvImportResult importCsv(Reader reader) throws IOException {
+    long start = System.nanoTime();
+    try (CSVParser parser = FORMAT.parse(reader)) {
+      List<String> missing = COLUMNS.stream().filter(column -> !parser.getHeaderNames().contains(column)).toList();
+      if (!missing.isEmpty()) {
+        throw new IllegalArgumentException("CSV header is missing the columns " + String.join(", ", missing));
+      }
+      Lookups lookups = new Lookups(
+          userRepository.findProfessorEmails().stream()
+              .collect(Collectors.toMap(UserEmail::email, UserEmail::id)),
+          requestTypeCatalog.getSnapshot().byName().keySet());
+
+      long imported = 0;
+      List<RowError> errors = new ArrayList<>();
+      List<CSVRecord> batch = new ArrayList<>(batchSize);
+      try {
+        for (CSVRecord record : parser) {
+          batch.add(record);
+          if (batch.size() == batchSize) {
+            imported += importBatch(batch, lookups, errors);
+            batch.clear();
+          }
+        }
+      } catch (UncheckedIOException e) {
+        // commons-csv reports malformed input (e.g. an unterminated quote) this way
+        errors.add(new RowError(parser.getRecordNumber() + 1, "malformed CSV: " + e.getCause().getMessage()));
+      }
+      imported += importBatch(batch, lookups, errors);
+
+      log.info("imported {} recommendation requests, rejected {} rows, in {} ms",
+          imported, errors.size(), (System.nanoTime() - start) / 1_000_000);
+      return new CsvImportResult(imported, errors);
+    }
+  }
+
+  /**
+   * This method validates a batch of rows and inserts the valid ones in one transaction.
+   * @param batch the rows
+   * @param lookups professors and request types
+   * @param errors list the invalid rows are added to
+   * @return number of requests inserted
+   */
+  private int importBatch(List<CSVRecord> batch, Lookups lookups, List<RowError> errors) {
+    if (batch.isEmpty()) {
+      return 0;
+    }
+    Set<String> emails = batch.stream()
+        .filter(record -> record.isSet(REQUESTER_EMAIL))
+        .map(record -> record.get(REQUESTER_EMAIL))
+        .collect(Collectors.toSet());
+    Map<String, Long> requesters = userRepository.findUserEmailsByEmailIn(emails).stream()
+        .collect(Collectors.toMap(UserEmail::email, UserEmail::id));
+
+    Integer inserted = transactionTemplate.execute(status -> {
+      entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+      List<RecommendationRequest> requests = new ArrayList<>(batch.size());
+      for (CSVRecord record : batch) {
+        List<String> problems = new ArrayList<>();
+        RecommendationRequest request = toRequest(record, requesters, lookups, problems);
+        if (problems.isEmpty()) {
+          entityManager.persist(request);
+          requests.add(request);
+        } else {
+          errors.add(new RowError(record.getRecordNumber(), String.join("; ", problems)));
+        }
+      }
+      entityManager.flush();
+      requests.forEach(request -> applicationEventPublisher.publishEvent(
+          RecommendationRequestEvent.of(RecommendationRequestEvent.Type.CREATED, request)));
+      return requests.size();
+    });
+    return inserted;
+  }
+
+  private RecommendationRequest toRequest(CSVRecord record, Map<String, Long> requesters, Lookups lookups,
+      List<String> problems) {
+    if (!record.isConsistent()) {
+      problems.add("expected %d columns but found %d".formatted(record.getParser().getHeaderNames().size(),
+          record.size()));
+      return null;
+    }
+    Long requesterId = requesters.get(record.get(REQUESTER_EMAIL));
+    if (requesterId == null) {
+      problems.add("unknown requester " + record.get(REQUESTER_EMAIL));
+    }
+    Long professorId = lookups.professors().get(record.get(PROFESSOR_EMAIL));
+    if (professorId == null) {
+      problems.add("unknown professor " + record.get(PROFESSOR_EMAIL));
+    }
+    String recommendationType = RecommendationRequestExporter.restore(record.get(RECOMMENDATION_TYPE));
+    if (!recommendationType.equals("Other") && !lookups.requestTypes().contains(recommendationType)) {
+      problems.add("unknown recommendation type " + recommendationType);
+    }
+    LocalDateTime dueDate = parseDueDate(record.get(DUE_DATE));
+    if (dueDate == null) {
+      problems.add("invalid dueDate " + record.get(DUE_DATE));
+    }
+    if (!problems.isEmpty()) {
+      return null;
+    }
+    return RecommendationRequest.builder()
+        .requester(entityManager.getReference(User.class, requesterId))
+        .professor(entityManager.getReference(User.class, professorId))
+        .recommendationType(recommendationType)
+        .details(RecommendationRequestExporter.restore(record.get(DETAILS)))
+        .status("PENDING")
+        .dueDate(dueDate)
+        .build();
+  }
+
+  private static LocalDateTime parseDueDate(String value) {
+    try {
+      return value.contains("T") ? LocalDateTime.parse(value) : LocalDate.parse(value).atStartOfDay();
+    } catch (DateTimeParseException e) {
+      return null;
+    }
+  }
+}
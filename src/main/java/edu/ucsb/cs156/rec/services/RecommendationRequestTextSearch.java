@@ -0,0 +1,132 @@
+package edu.ucsb.cs156.rec.services;
+
+import edu.ucsb.cs156.rec.models.RankedId;
+import edu.ucsb.cs156.rec.models.RecommendationRequestEvent;
+import edu.ucsb.cs156.rec.models.RecommendationRequestSummary;
+import edu.ucsb.cs156.rec.models.RecommendationRequestText;
+import edu.ucsb.cs156.rec.models.SearchCursor;
+import edu.ucsb.cs156.rec.models.SearchHit;
+import edu.ucsb.cs156.rec.repositories.RecommendationRequestRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * This is the full-text search of the details of recommendation requests.
+ *
+ * On PostgreSQL the database does the work, with a generated tsvector column
+ * and its GIN index (see RecommendationRequestRepository.searchDetails).  On
+ * other databases, i.e. H2 in development and tests, the requests are found
+ * in an InvertedIndex kept in memory: it is built from the database on the
+ * first search, and after that only the requests named by a
+ * RecommendationRequestEvent since the previous search are read again, in one
+ * query, so saving a request costs nothing more than the event.  Requests
+ * written without an event, e.g. by SyntheticDataGenerator before the first
+ * search, are picked up by the initial build.
+ *
+ * Either way only the ids and ranks of one page are found first, and the
+ * summaries of that page are then loaded in one query.
+ */
+
+@Slf4j
+@Service("recommendationRequestTextSearch")
+public class RecommendationRequestTextSearch {
+
+  @Autowired
+  RecommendationRequestRepository recommendationRequestRepository;
+
+  @Autowired
+  EntityManagerFactory entityManagerFactory;
+
+  /** Whether the database does the search */
+  boolean postgres;
+
+  /** Ids of the requests changed since the previous search */
+  final Set<Long> changed = ConcurrentHashMap.newKeySet();
+
+  private final InvertedIndex index = new InvertedIndex();
+  private boolean indexed;
+
+  /**
+   * This method finds out whether the database can do the search.
+   */
+  @PostConstruct
+  public void detectDatabase() {
+    postgres = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices()
+        .getDialect() instanceof PostgreSQLDialect;
+    log.info("full-text search of recommendation requests in the database: {}", postgres);
+  }
+
+  /**
+   * This method finds the recommendation requests whose details contain every word of a text.
+   * @param text the words to search for
+   * @param professorId id of the professor of the requests, or null for every professor
+   * @param after position of the last row of the previous page
+   * @param limit maximum number of rows to return
+   * @return the matching requests, highest rank first
+   */
+  @Transactional(readOnly = true)
+  public List<SearchHit> search(String text, Long professorId, SearchCursor after, Limit limit) {
+    List<RankedId> ranked = postgres
+        ? recommendationRequestRepository.searchDetails(text, professorId, after, limit)
+        : searchIndex(text, professorId, after, limit.max());
+    if (ranked.isEmpty()) {
+      return List.of();
+    }
+    Map<Long, RecommendationRequestSummary> summaries = recommendationRequestRepository
+        .findSummariesByIdIn(ranked.stream().map(RankedId::id).toList()).stream()
+        .collect(Collectors.toMap(RecommendationRequestSummary::id, Function.identity()));
+    // a request may have been deleted since it was found
+    return ranked.stream()
+        .filter(hit -> summaries.containsKey(hit.id()))
+        .map(hit -> new SearchHit(summaries.get(hit.id()), hit.rank()))
+        .toList();
+  }
+
+  private synchronized List<RankedId> searchIndex(String text, Long professorId, SearchCursor after, int limit) {
+    if (!indexed) {
+      // changes committed from now on are read again at the next search
+      changed.clear();
+      try (Stream<RecommendationRequestText> texts = recommendationRequestRepository.streamTexts()) {
+        texts.forEach(index::put);
+      }
+      indexed = true;
+      log.info("indexed the details of {} recommendation requests", index.size());
+    } else if (!changed.isEmpty()) {
+      List<Long> ids = new ArrayList<>(changed);
+      changed.removeAll(ids);
+      ids.forEach(index::remove);
+      recommendationRequestRepository.findTextsByIdIn(ids).forEach(index::put);
+    }
+    return index.search(text, professorId, after, limit);
+  }
+
+  /**
+   * This method marks a request as changed, once the change is committed, so
+   * that the in-process index reads it again at the next search.
+   * @param event the change
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onChange(RecommendationRequestEvent event) {
+    if (!postgres) {
+      changed.add(event.id());
+    }
+  }
+}
@@ -0,0 +1,159 @@
+package edu.ucsb.cs156.rec.services;
+
+import edu.ucsb.cs156.rec.entities.RequestType;
+import edu.ucsb.cs156.rec.repositories.RequestTypeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+/**
+ * This is an in-memory copy of the request type catalogue.
+ *
+ * Request types are read on every page load and every request submission,
+ * but only change when an admin edits them.  The catalogue is held as an
+ * immutable snapshot that readers use without locking; RequestTypeController
+ * calls {@link #refresh()} after every create, update and delete, which
+ * builds a new snapshot from the database and swaps it in atomically.
+ * The age of the snapshot is published as {@code rec.requesttype.catalog.age}.
+ */
+
+@Slf4j
+@Service("requestTypeCatalog")
+public class RequestTypeCatalog implements MeterBinder {
+
+  /**
+   * An immutable snapshot of all request types.  The RequestType objects in
+   * it are copies owned by the snapshot and must not be modified.
+   *
+   * @param requestTypes all request types, in database order
+   * @param byId request types by id
+   * @param byName request types by name
+   * @param etag strong ETag of the list of request types
+   * @param builtAt when the snapshot was read from the database
+   */
+  public record Snapshot(List<RequestType> requestTypes, Map<Long, RequestType> byId,
+      Map<String, RequestType> byName, String etag, Instant builtAt) {
+  }
+
+  @Autowired
+  RequestTypeRepository requestTypeRepository;
+
+  Clock clock = Clock.systemUTC();
+
+  private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+  // a lock rather than synchronized, so a virtual thread reading the database does not pin its carrier
+  private final ReentrantLock refreshLock = new ReentrantLock();
+
+  /**
+   * This method returns the current snapshot, reading it from the database
+   * if there is none yet.
+   * @return the current snapshot
+   */
+  public Snapshot getSnapshot() {
+    // readers that race on an empty catalogue may each rebuild it; that is harmless
+    Snapshot current = snapshot.get();
+    return current != null ? current : refresh();
+  }
+
+  /**
+   * This method returns the request type with a given name.
+   * @param requestType name of the request type
+   * @return Optional of RequestType (empty if there is none)
+   */
+  public Optional<RequestType> findByRequestType(String requestType) {
+    return Optional.ofNullable(getSnapshot().byName().get(requestType));
+  }
+
+  /**
+   * This method returns the request type with a given id.
+   * @param id id of the request type
+   * @return Optional of RequestType (empty if there is none)
+   */
+  public Optional<RequestType> findById(long id) {
+    return Optional.ofNullable(getSnapshot().byId().get(id));
+  }
+
+  /**
+   * This method rebuilds the snapshot from the database and swaps it in.
+   * Rebuilds are serialized, so the last one to finish has read the latest data.
+   * @return the new snapshot
+   */
+  public Snapshot refresh() {
+    refreshLock.lock();
+    try {
+      return rebuild();
+    } finally {
+      refreshLock.unlock();
+    }
+  }
+
+  private Snapshot rebuild() {
+    List<RequestType> requestTypes = new ArrayList<>();
+    Map<Long, RequestType> byId = new HashMap<>();
+    Map<String, RequestType> byName = new HashMap<>();
+    for (RequestType requestType : requestTypeRepository.findAll()) {
+      RequestType copy = RequestType.builder()
+          .id(requestType.getId())
+          .requestType(requestType.getRequestType())
+          .build();
+      requestTypes.add(copy);
+      byId.put(copy.getId(), copy);
+      if (copy.getRequestType() != null) {
+        byName.putIfAbsent(copy.getRequestType(), copy);
+      }
+    }
+    Snapshot built = new Snapshot(List.copyOf(requestTypes), Map.copyOf(byId), Map.copyOf(byName),
+        "\"" + etagOf(requestTypes) + "\"", clock.instant());
+    snapshot.set(built);
+    log.info("request type catalogue rebuilt: {} request types, etag={}", requestTypes.size(), built.etag());
+    return built;
+  }
+
+  private static String etagOf(List<RequestType> requestTypes) {
+    String raw = requestTypes.stream()
+        .map(requestType -> requestType.getId() + "|" + requestType.getRequestType())
+        .collect(Collectors.joining("\n"));
+    return DigestUtils.md5DigestAsHex(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * This method drops the current snapshot; the next read rebuilds it.
+   */
+  public void invalidate() {
+    snapshot.set(null);
+  }
+
+  /**
+   * @return how long ago the current snapshot was read from the database (zero if there is none)
+   */
+  public Duration getAge() {
+    Snapshot current = snapshot.get();
+    return current == null ? Duration.ZERO : Duration.between(current.builtAt(), clock.instant());
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    TimeGauge.builder("rec.requesttype.catalog.age", this, TimeUnit.MILLISECONDS, c -> c.getAge().toMillis())
+        .description("Time since the request type catalogue was read from the database")
+        .register(registry);
+  }
+}
@@ -0,0 +1,206 @@
+package edu.ucsb.cs156.rec.services;
+
+import edu.ucsb.cs156.rec.entities.User;
+import edu.ucsb.cs156.rec.repositories.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * This is a service that resolves the admin and professor flags of a user by email.
+ * Users listed in {@code app.admin.emails} are always admins, whatever their
+ * admin column says.
+ *
+ * It is shared by the login-time authorities mapper in SecurityConfig and by
+ * RoleInterceptor, so the flags are read from the users table once and then
+ * served from memory.  {@link #invalidate(User)} evicts the user whose flags
+ * changed and bumps a version; roles are only stored if the version has not
+ * changed while they were read, so a lookup that raced with a role change can
+ * never be served afterwards.  Entries also expire after
+ * {@code app.roleCache.ttl}, so flags changed outside the app, e.g. directly in
+ * the database, are picked up eventually.  Entries are kept in the order they
+ * were stored, which is also the order they expire in, so a full cache evicts
+ * its expired entries, or else its oldest one, without scanning.
+ * Hits and misses are published as {@code rec.role.cache.requests}.
+ */
+
+@Slf4j
+@Service("roleResolution")
+public class RoleResolutionService implements MeterBinder {
+
+  /**
+   * The role flags stored on a user
+   * @param admin whether the user is an admin
+   * @param professor whether the user is a professor
+   */
+  public record UserRoles(boolean admin, boolean professor) {
+  }
+
+  private record Entry(UserRoles roles, long expiresAt) {
+  }
+
+  @Autowired
+  UserRepository userRepository;
+
+  @Value("${app.admin.emails}")
+  List<String> adminEmails = new ArrayList<>();
+
+  @Value("${app.roleCache.maxSize:10000}")
+  int maxSize = 10000;
+
+  @Value("${app.roleCache.ttl:PT1M}")
+  Duration ttl = Duration.ofMinutes(1);
+
+  Clock clock = Clock.systemUTC();
+
+  private final AtomicLong version = new AtomicLong();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  // insertion order is expiry order, since every entry lives for the same ttl
+  private final Map<String, Entry> entries = new LinkedHashMap<>();
+  // a lock rather than synchronized, like RequestTypeCatalog, so a virtual thread does not pin its carrier
+  private final ReentrantLock lock = new ReentrantLock();
+
+  /**
+   * This method returns the role flags of the user with a given email.
+   * Users that are not in the database yet are not cached.
+   * @param email email address of the user
+   * @return Optional of UserRoles (empty if there is no such user)
+   */
+  public Optional<UserRoles> getRoles(String email) {
+    long current;
+    lock.lock();
+    try {
+      current = version.get();
+      Entry entry = entries.get(email);
+      if (entry != null && entry.expiresAt() > clock.millis()) {
+        hits.incrementAndGet();
+        return Optional.of(entry.roles());
+      }
+      entries.remove(email);
+    } finally {
+      lock.unlock();
+    }
+    misses.incrementAndGet();
+
+    Optional<UserRoles> roles = userRepository.findByEmail(email)
+        .map(u -> new UserRoles(u.getAdmin() || adminEmails.contains(email), u.getProfessor()));
+    if (roles.isPresent()) {
+      lock.lock();
+      try {
+        if (version.get() == current) {
+          if (!entries.isEmpty() && entries.size() >= maxSize) {
+            evictExpiredOrEldest();
+          }
+          entries.put(email, new Entry(roles.get(), clock.millis() + ttl.toMillis()));
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+    return roles;
+  }
+
+  /**
+   * This method removes the eldest entry, which has expired or is the next to
+   * expire, and the expired entries that follow it.
+   */
+  private void evictExpiredOrEldest() {
+    long now = clock.millis();
+    Iterator<Entry> it = entries.values().iterator();
+    it.next();
+    it.remove();
+    while (it.hasNext() && it.next().expiresAt() <= now) {
+      it.remove();
+    }
+  }
+
+  /**
+   * This method evicts the cached roles of a user, e.g. after an admin changed their flags.
+   * @param user the user whose roles changed
+   */
+  public void invalidate(User user) {
+    log.debug("invalidating cached roles after change to user {}", user.getId());
+    lock.lock();
+    try {
+      version.incrementAndGet();
+      entries.remove(user.getEmail());
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * This method marks all cached roles as stale.
+   */
+  public void invalidateAll() {
+    lock.lock();
+    try {
+      version.incrementAndGet();
+      entries.clear();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return the current version; it changes on every invalidation
+   */
+  public long getVersion() {
+    return version.get();
+  }
+
+  /**
+   * @return number of lookups answered from the cache
+   */
+  public long getHits() {
+    return hits.get();
+  }
+
+  /**
+   * @return number of lookups that had to go to the database
+   */
+  public long getMisses() {
+    return misses.get();
+  }
+
+  /**
+   * @return number of entries currently held
+   */
+  public int size() {
+    lock.lock();
+    try {
+      return entries.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    FunctionCounter.builder("rec.role.cache.requests", this, RoleResolutionService::getHits)
+        .description("Role lookups by result")
+        .tag("result", "hit")
+        .register(registry);
+    FunctionCounter.builder("rec.role.cache.requests", this, RoleResolutionService::getMisses)
+        .description("Role lookups by result")
+        .tag("result", "miss")
+        .register(registry);
+  }
+}
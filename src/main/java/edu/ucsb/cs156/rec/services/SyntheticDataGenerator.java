@@ -0,0 +1,241 @@
+package edu.ucsb.cs156.rec.services;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * This is a generator of synthetic users and recommendation requests, used to
+ * measure pagination, indexes and caches at a realistic scale.
+ *
+ * It is only active with the {@code generate} profile, and runs once at
+ * startup (see application-generate.properties).  Rows are written with JDBC
+ * batch inserts, one transaction per batch, so millions of requests can be
+ * created without going through JPA.  The data is reproducible for a given
+ * {@code app.generate.seed}:
+ * <ul>
+ * <li>professors and students are numbered after the synthetic users already
+ * in the database, so the generator can be run again to add more;</li>
+ * <li>submission dates are spread over the last {@code app.generate.days} days;</li>
+ * <li>requests from the last 30 days are mostly pending, older ones are mostly
+ * completed or denied, with a completion date within 45 days of submission;</li>
+ * <li>a few professors receive most of the requests.</li>
+ * </ul>
+ * User and request ids are taken from USERS_SEQ and RECOMMENDATIONREQUEST_SEQ
+ * in blocks, the same way Hibernate does, so they never collide with ids of
+ * rows created by the application.
+ */
+
+@Slf4j
+@Service("syntheticDataGenerator")
+@Profile("generate")
+public class SyntheticDataGenerator {
+
+  static final String EMAIL_DOMAIN = "@synthetic.ucsb.edu";
+
+  static final String INSERT_USER = """
+      INSERT INTO users (id, email, google_sub, picture_url, full_name, given_name, family_name,
+        email_verified, locale, hosted_domain, admin, professor)
+      VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+      """;
+
+  static final String INSERT_REQUEST = """
+      INSERT INTO recommendationrequest (id, requester_id, professor_id, recommendation_type, details, status,
+        submission_date, completion_date, due_date, last_modified_date)
+      VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+      """;
+
+  static final int[] REQUEST_TYPES = { Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.VARCHAR,
+      Types.VARCHAR, Types.TIMESTAMP, Types.TIMESTAMP, Types.TIMESTAMP, Types.TIMESTAMP };
+
+  static final String USER_SEQUENCE = "USERS_SEQ";
+
+  static final String REQUEST_SEQUENCE = "RECOMMENDATIONREQUEST_SEQ";
+
+  /** Number of ids taken from a sequence at a time, the allocationSize of the entities */
+  static final int ID_BLOCK_SIZE = 50;
+
+  /** Requests submitted more recently than this are mostly still pending */
+  static final int RECENT_DAYS = 30;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  TransactionTemplate transactionTemplate;
+
+  @Autowired
+  EntityManagerFactory entityManagerFactory;
+
+  @Value("${app.generate.professors:50}")
+  int professors;
+
+  @Value("${app.generate.students:1000}")
+  int students;
+
+  @Value("${app.generate.requests:20000}")
+  long requests;
+
+  @Value("${app.generate.days:730}")
+  int days;
+
+  @Value("${app.generate.batchSize:1000}")
+  int batchSize;
+
+  @Value("${app.generate.seed:156}")
+  long seed;
+
+  Clock clock = Clock.systemUTC();
+
+  /**
+   * This method inserts the configured numbers of professors, students and recommendation requests.
+   * @throws IllegalArgumentException if requests are to be generated but there would be no
+   * synthetic professors or no synthetic students for them
+   */
+  public void generate() {
+    if (requests > 0 && (professors + existingUsers("professor") == 0 || students + existingUsers("student") == 0)) {
+      throw new IllegalArgumentException(("app.generate.requests is %d but there would be no synthetic professors "
+          + "or students; set app.generate.professors and app.generate.students above 0").formatted(requests));
+    }
+    long start = System.nanoTime();
+    SplittableRandom random = new SplittableRandom(seed);
+    log.info("generating {} professors, {} students and {} recommendation requests",
+        professors, students, requests);
+
+    long[] professorIds = insertUsers("professor", professors, true);
+    long[] studentIds = insertUsers("student", students, false);
+    List<String> requestTypes = jdbcTemplate.queryForList(
+        "SELECT request_type FROM requesttype ORDER BY id", String.class);
+    insertRequests(professorIds, studentIds, requestTypes, random);
+
+    log.info("synthetic data generated in {} s", (System.nanoTime() - start) / 1_000_000_000);
+  }
+
+  /**
+   * This method inserts synthetic users, numbered after the ones with the same role already present.
+   * @param role professor or student
+   * @param count number of users to insert
+   * @param professor whether the users are professors
+   * @return ids of all synthetic users with the role, including earlier ones
+   */
+  long[] insertUsers(String role, int count, boolean professor) {
+    String prefix = "synthetic-" + role + "-";
+    int existing = existingUsers(role);
+    SequenceIds ids = new SequenceIds(USER_SEQUENCE);
+    for (int first = 0; first < count; first += batchSize) {
+      List<Object[]> rows = new ArrayList<>();
+      for (int i = first; i < Math.min(first + batchSize, count); i++) {
+        int n = existing + i;
+        rows.add(new Object[] {
+            ids.next(), prefix + n + EMAIL_DOMAIN, prefix + n,
+            "https://lh3.googleusercontent.com/a/default-user=s96-c",
+            "Synthetic " + role + " " + n, "Synthetic", role + " " + n,
+            true, "en", "ucsb.edu", false, professor });
+      }
+      transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_USER, rows));
+    }
+    return jdbcTemplate.queryForList("SELECT id FROM users WHERE email LIKE ? ORDER BY id", Long.class,
+        prefix + "%").stream().mapToLong(Long::longValue).toArray();
+  }
+
+  /**
+   * @param role professor or student
+   * @return number of synthetic users with the role already in the database
+   */
+  int existingUsers(String role) {
+    return jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM users WHERE email LIKE ?", Integer.class, "synthetic-" + role + "-%");
+  }
+
+  /**
+   * This method inserts the recommendation requests in batches.
+   * @param professorIds ids of the professors to address the requests to
+   * @param studentIds ids of the students who submit the requests
+   * @param requestTypes names of the request types; "Other" is also used
+   * @param random source of randomness
+   */
+  void insertRequests(long[] professorIds, long[] studentIds, List<String> requestTypes, SplittableRandom random) {
+    LocalDateTime now = LocalDateTime.now(clock).truncatedTo(ChronoUnit.SECONDS);
+    SequenceIds ids = new SequenceIds(REQUEST_SEQUENCE);
+    long logEvery = Math.max(requests / 10, 1);
+    for (long first = 0; first < requests; first += batchSize) {
+      List<Object[]> rows = new ArrayList<>(batchSize);
+      for (long i = first; i < Math.min(first + batchSize, requests); i++) {
+        rows.add(request(ids.next(), professorIds, studentIds, requestTypes, now, random));
+      }
+      transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_REQUEST, rows, REQUEST_TYPES));
+      long done = first + rows.size();
+      if (done % logEvery < rows.size()) {
+        log.info("{} of {} recommendation requests inserted", done, requests);
+      }
+    }
+  }
+
+  private Object[] request(long id, long[] professorIds, long[] studentIds, List<String> requestTypes,
+      LocalDateTime now, SplittableRandom random) {
+    // squaring a uniform value favours the first professors, so a few of them get most requests
+    double r = random.nextDouble();
+    long professorId = professorIds[(int) (professorIds.length * r * r)];
+    long studentId = studentIds[random.nextInt(studentIds.length)];
+    String type = requestTypes.isEmpty() || random.nextInt(20) == 0
+        ? "Other"
+        : requestTypes.get(random.nextInt(requestTypes.size()));
+
+    long ageSeconds = random.nextLong(1, days * 86_400L);
+    LocalDateTime submitted = now.minusSeconds(ageSeconds);
+    LocalDateTime due = submitted.plusDays(random.nextInt(14, 91));
+    int percent = random.nextInt(100);
+    String status = ageSeconds < RECENT_DAYS * 86_400L
+        ? (percent < 70 ? "PENDING" : percent < 92 ? "COMPLETED" : "DENIED")
+        : (percent < 8 ? "PENDING" : percent < 88 ? "COMPLETED" : "DENIED");
+    LocalDateTime completed = status.equals("PENDING")
+        ? null
+        : submitted.plusSeconds(random.nextLong(Math.min(ageSeconds, 45 * 86_400L)) + 1);
+    LocalDateTime modified = completed == null ? submitted : completed;
+
+    return new Object[] {
+        id, studentId, professorId, type, "Synthetic request for " + type, status,
+        Timestamp.valueOf(submitted), completed == null ? null : Timestamp.valueOf(completed),
+        Timestamp.valueOf(due), Timestamp.valueOf(modified) };
+  }
+
+  /**
+   * Ids taken from a database sequence in blocks of {@value #ID_BLOCK_SIZE}: a
+   * value read from the sequence reserves it and the following ids, as with
+   * Hibernate's pooled-lo optimizer.
+   */
+  class SequenceIds {
+    private final String nextValueSql;
+    private long next;
+    private long end;
+
+    SequenceIds(String sequence) {
+      nextValueSql = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+          .getJdbcServices().getDialect().getSequenceSupport().getSequenceNextValString(sequence);
+    }
+
+    long next() {
+      if (next == end) {
+        next = jdbcTemplate.queryForObject(nextValueSql, Long.class);
+        end = next + ID_BLOCK_SIZE;
+      }
+      return next++;
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package edu.ucsb.cs156.rec.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+/**
+ * This is a monitor of virtual threads that block while pinned to their
+ * carrier thread, e.g. inside a {@code synchronized} block or a native call.
+ *
+ * It is only active with the {@code virtual} profile.  It listens to the JFR
+ * {@code jdk.VirtualThreadPinned} event in-process, so no JVM flags are
+ * needed: every pin longer than {@code app.virtualThreads.pinnedThreshold}
+ * is logged with its stack trace and counted in {@code rec.virtual.pinned}.
+ */
+
+@Slf4j
+@Service("virtualThreadPinningMonitor")
+@Profile("virtual")
+public class VirtualThreadPinningMonitor {
+
+  static final String EVENT = "jdk.VirtualThreadPinned";
+
+  /** Number of stack frames logged for each pin */
+  static final int MAX_FRAMES = 20;
+
+  @Autowired
+  MeterRegistry meterRegistry;
+
+  @Value("${app.virtualThreads.pinnedThreshold:PT0.02S}")
+  Duration threshold = Duration.ofMillis(20);
+
+  private Counter pinned;
+  private RecordingStream stream;
+
+  /**
+   * This method starts listening for pinned virtual threads.
+   */
+  @PostConstruct
+  public void start() {
+    pinned = Counter.builder("rec.virtual.pinned")
+        .description("Virtual threads that blocked while pinned to their carrier")
+        .register(meterRegistry);
+    stream = new RecordingStream();
+    stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+    stream.onEvent(EVENT, this::onPinned);
+    stream.startAsync();
+    log.info("monitoring virtual threads pinned for more than {} ms", threshold.toMillis());
+  }
+
+  /**
+   * This method stops listening.
+   */
+  @PreDestroy
+  public void stop() {
+    stream.close();
+  }
+
+  void onPinned(RecordedEvent event) {
+    pinned.increment();
+    String frames = event.getStackTrace() == null ? "  (no stack trace)"
+        : event.getStackTrace().getFrames().stream()
+            .limit(MAX_FRAMES)
+            .map(VirtualThreadPinningMonitor::format)
+            .collect(Collectors.joining("\n"));
+    log.warn("virtual thread pinned for {} ms:\n{}", event.getDuration().toMillis(), frames);
+  }
+
+  private static String format(RecordedFrame frame) {
+    return "  at " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+        + ":" + frame.getLineNumber();
+  }
+}
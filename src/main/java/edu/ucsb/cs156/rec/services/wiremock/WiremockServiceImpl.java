@@ -112,7 +112,7 @@ public class WiremockServiceImpl extends WiremockService {
   public void init() {
     log.info("WiremockServiceImpl.init() called");
 
-    WireMockServer wireMockServer = new WireMockServer(options()
+    wireMockServer = new WireMockServer(options()
         .port(8090).globalTemplating(true));
     setupOauthMocks(wireMockServer, true);
 
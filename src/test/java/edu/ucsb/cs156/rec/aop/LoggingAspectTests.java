@@ -0,0 +1,126 @@
+package edu.ucsb.cs156.rec.aop;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.cloud.gateway.mvc.ProxyExchange;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import edu.ucsb.cs156.rec.controllers.FrontendProxyController;
+
+class LoggingAspectTests {
+
+  /** Stands in for a controller */
+  static class SampleController {
+    @GetMapping("/api/sample")
+    public String get() {
+      return "ok";
+    }
+  }
+
+  Logger logger = (Logger) LoggerFactory.getLogger(LoggingAspect.class);
+  Level level;
+  ListAppender<ILoggingEvent> appender = new ListAppender<>();
+  LoggingAspect aspect;
+
+  @BeforeEach
+  void setup() {
+    level = logger.getLevel();
+    logger.setLevel(Level.INFO);
+    appender.start();
+    logger.addAppender(appender);
+    aspect = new LoggingAspect();
+    RequestContextHolder.setRequestAttributes(
+        new ServletRequestAttributes(new MockHttpServletRequest("GET", "/api/sample")));
+  }
+
+  @AfterEach
+  void teardown() {
+    logger.detachAppender(appender);
+    logger.setLevel(level);
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  private <T> T advise(T target) {
+    AspectJProxyFactory factory = new AspectJProxyFactory(target);
+    factory.addAspect(aspect);
+    return factory.getProxy();
+  }
+
+  private List<String> messages() {
+    return appender.list.stream().map(ILoggingEvent::getFormattedMessage).toList();
+  }
+
+  @Test
+  void controller_calls_are_logged_with_parameters() {
+    SampleController controller = advise(new SampleController());
+
+    controller.get();
+    controller.get();
+
+    assertEquals(2, appender.list.size());
+    assertEquals("===== {} {} handled by {} in {}", appender.list.get(0).getMessage());
+    assertEquals("===== GET /api/sample handled by get in " + SampleController.class.getName(), messages().get(1));
+  }
+
+  @Test
+  void stoplisted_controllers_are_not_logged() {
+    @SuppressWarnings("unchecked")
+    ProxyExchange<byte[]> proxy = mock(ProxyExchange.class);
+    when(proxy.path("/")).thenReturn("");
+    when(proxy.uri(anyString())).thenReturn(proxy);
+    when(proxy.get()).thenReturn(ResponseEntity.ok(new byte[0]));
+    FrontendProxyController controller = advise(new FrontendProxyController());
+
+    controller.proxy(proxy);
+
+    assertEquals(List.of(), messages());
+  }
+
+  @Test
+  void nothing_is_logged_when_sampled_out() {
+    aspect.sampleRate = 0;
+    SampleController controller = advise(new SampleController());
+
+    controller.get();
+
+    assertEquals(List.of(), messages());
+  }
+
+  @Test
+  void nothing_is_logged_when_info_is_disabled() {
+    logger.setLevel(Level.WARN);
+    SampleController controller = advise(new SampleController());
+
+    controller.get();
+
+    assertEquals(List.of(), messages());
+  }
+
+  @Test
+  void nothing_is_logged_outside_a_request() {
+    RequestContextHolder.resetRequestAttributes();
+    SampleController controller = advise(new SampleController());
+
+    controller.get();
+
+    assertEquals(List.of(), messages());
+  }
+}
@@ -0,0 +1,76 @@
+package edu.ucsb.cs156.rec.aop;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+
+import edu.ucsb.cs156.rec.errors.EntityNotFoundException;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class MetricsAspectTests {
+
+  /** Stands in for a controller */
+  static class SampleController {
+    @GetMapping("/api/sample")
+    public String get() {
+      return "ok";
+    }
+
+    @PostMapping("/api/sample")
+    public String post() {
+      throw new EntityNotFoundException(Object.class, 1L);
+    }
+
+    public String helper() {
+      return "helper";
+    }
+  }
+
+  SimpleMeterRegistry meterRegistry;
+  SampleController controller;
+
+  @BeforeEach
+  void setup() {
+    meterRegistry = new SimpleMeterRegistry();
+    MetricsAspect aspect = new MetricsAspect();
+    aspect.meterRegistry = meterRegistry;
+    AspectJProxyFactory factory = new AspectJProxyFactory(new SampleController());
+    factory.addAspect(aspect);
+    controller = factory.getProxy();
+  }
+
+  private Timer timer(String method, String exception) {
+    return meterRegistry.find(MetricsAspect.TIMER)
+        .tags("class", "SampleController", "method", method, "exception", exception)
+        .timer();
+  }
+
+  @Test
+  void controller_methods_are_timed() {
+    assertEquals("ok", controller.get());
+    assertEquals("ok", controller.get());
+
+    assertEquals(2, timer("get", "none").count());
+  }
+
+  @Test
+  void exceptions_are_tagged_and_rethrown() {
+    assertThrows(EntityNotFoundException.class, () -> controller.post());
+
+    assertEquals(1, timer("post", "EntityNotFoundException").count());
+  }
+
+  @Test
+  void methods_without_a_mapping_are_not_timed() {
+    assertEquals("helper", controller.helper());
+
+    assertNull(meterRegistry.find(MetricsAspect.TIMER).tag("method", "helper").timer());
+  }
+}
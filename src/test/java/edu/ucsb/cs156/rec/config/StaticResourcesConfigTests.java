@@ -0,0 +1,40 @@
+package edu.ucsb.cs156.rec.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+
+class StaticResourcesConfigTests {
+
+  StaticResourcesConfig staticResourcesConfig = new StaticResourcesConfig();
+
+  @Test
+  void etag_is_computed_once_per_file() {
+    ByteArrayResource original = new ByteArrayResource("one".getBytes(StandardCharsets.UTF_8), "index.html");
+    ByteArrayResource changed = new ByteArrayResource("two".getBytes(StandardCharsets.UTF_8), "index.html");
+
+    String etag = staticResourcesConfig.etag(original);
+
+    assertEquals(32, etag.length());
+    assertEquals(etag, staticResourcesConfig.etag(changed));
+  }
+
+  @Test
+  void unreadable_files_fail() {
+    ByteArrayResource unreadable = new ByteArrayResource(new byte[0], "unreadable") {
+      @Override
+      public InputStream getInputStream() throws IOException {
+        throw new IOException("unreadable");
+      }
+    };
+
+    assertThrows(UncheckedIOException.class, () -> staticResourcesConfig.etag(unreadable));
+  }
+}
@@ -0,0 +1,93 @@
+package edu.ucsb.cs156.rec.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.forwardedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.InputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MvcResult;
+
+import edu.ucsb.cs156.rec.ControllerTestCase;
+import edu.ucsb.cs156.rec.repositories.UserRepository;
+
+/**
+ * The frontend files used here are in src/test/resources/public.
+ */
+@WebMvcTest(controllers = FrontendController.class)
+public class FrontendControllerTests extends ControllerTestCase {
+
+  @MockBean
+  UserRepository userRepository;
+
+  @WithMockUser(roles = { "USER" })
+  @Test
+  public void frontend_routes_are_forwarded_to_index_html() throws Exception {
+    mockMvc.perform(get("/requests/edit/1"))
+        .andExpect(status().isOk())
+        .andExpect(forwardedUrl("/index.html"));
+  }
+
+  @Test
+  public void csrf_is_not_found() throws Exception {
+    mockMvc.perform(get("/csrf")).andExpect(status().isNotFound());
+  }
+
+  @Test
+  public void index_html_must_be_revalidated_and_has_an_etag() throws Exception {
+    MvcResult response = mockMvc.perform(get("/index.html"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Cache-Control", "no-cache"))
+        .andReturn();
+    String etag = response.getResponse().getHeader("ETag");
+
+    mockMvc.perform(get("/index.html").header("If-None-Match", etag))
+        .andExpect(status().isNotModified());
+  }
+
+  @Test
+  public void precompressed_index_html_is_served_when_accepted() throws Exception {
+    MvcResult plain = mockMvc.perform(get("/index.html")).andReturn();
+    MvcResult gzipped = mockMvc.perform(get("/index.html").header("Accept-Encoding", "gzip, deflate"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Content-Encoding", "gzip"))
+        .andExpect(header().string("Vary", "Accept-Encoding"))
+        .andReturn();
+
+    byte[] expected;
+    try (InputStream in = getClass().getResourceAsStream("/public/index.html.gz")) {
+      expected = in.readAllBytes();
+    }
+    assertEquals(expected.length, gzipped.getResponse().getContentAsByteArray().length);
+    assertNotEquals(plain.getResponse().getHeader("ETag"), gzipped.getResponse().getHeader("ETag"));
+  }
+
+  @Test
+  public void hashed_bundles_are_immutable() throws Exception {
+    mockMvc.perform(get("/static/js/main.1a2b3c4d.js"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"))
+        .andExpect(content().string("console.log(\"proj-rec test bundle\");\n"));
+
+    mockMvc.perform(get("/static/js/main.1a2b3c4d.js").header("Accept-Encoding", "gzip, deflate, br"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Content-Encoding", "br"))
+        .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"));
+  }
+
+  @Test
+  public void other_files_are_served_without_a_compressed_copy() throws Exception {
+    mockMvc.perform(get("/robots.txt").header("Accept-Encoding", "gzip, br"))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist("Content-Encoding"))
+        .andExpect(header().string("Cache-Control", "no-cache"));
+  }
+}
@@ -20,12 +20,16 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 import org.springframework.test.web.servlet.MvcResult;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -36,12 +40,20 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import edu.ucsb.cs156.rec.ControllerTestCase;
 import edu.ucsb.cs156.rec.entities.RecommendationRequest;
+import edu.ucsb.cs156.rec.models.ListVersion;
+import edu.ucsb.cs156.rec.models.PageCursor;
+import edu.ucsb.cs156.rec.models.RecommendationRequestEvent;
+import edu.ucsb.cs156.rec.models.RecommendationRequestEvent.Type;
 import edu.ucsb.cs156.rec.repositories.RecommendationRequestRepository;
+import edu.ucsb.cs156.rec.services.RecommendationRequestExporter;
+import edu.ucsb.cs156.rec.services.RecommendationRequestImporter;
+import edu.ucsb.cs156.rec.services.RecommendationRequestTextSearch;
 import edu.ucsb.cs156.rec.testconfig.TestConfig;
 import joptsimple.internal.OptionNameMap;
 
 @WebMvcTest(controllers = RecommendationRequestController.class)
 @Import(TestConfig.class)
+@RecordApplicationEvents
 public class RecommendationRequestControllerTest extends ControllerTestCase {
     @MockBean
     RecommendationRequestRepository recommendationRequestRepository;
@@ -49,6 +61,22 @@ public class RecommendationRequestControllerTest extends ControllerTestCase {
     @MockBean
     UserRepository userRepository;
 
+    @MockBean
+    RecommendationRequestImporter recommendationRequestImporter;
+
+    @MockBean
+    RecommendationRequestExporter recommendationRequestExporter;
+
+    @MockBean
+    RecommendationRequestTextSearch recommendationRequestTextSearch;
+
+    @Autowired
+    ApplicationEvents applicationEvents;
+
+    private void assertPublished(RecommendationRequestEvent expected) {
+        assertEquals(List.of(expected), applicationEvents.stream(RecommendationRequestEvent.class).toList());
+    }
+
     //User can delete their own recommendation request
     @WithMockUser(roles = { "USER" })
     @Test
@@ -91,6 +119,7 @@ public class RecommendationRequestControllerTest extends ControllerTestCase {
         // assert
         verify(recommendationRequestRepository, times(1)).findByIdAndRequester(15L, user);
         verify(recommendationRequestRepository, times(1)).delete(recReq);
+        assertPublished(new RecommendationRequestEvent(Type.DELETED, 15L, recReq.getStatus(), user.getId(), 22L));
 
         Map<String, Object> json = responseToJson(response);
         assertEquals("RecommendationRequest with id 15 deleted", json.get("message"));
@@ -185,6 +214,7 @@ public class RecommendationRequestControllerTest extends ControllerTestCase {
 
         // assert
         verify(recommendationRequestRepository, times(1)).findByIdAndRequester(67L, user1);
+        assertEquals(0, applicationEvents.stream(RecommendationRequestEvent.class).count());
         Map<String, Object> json = responseToJson(response);
         assertEquals("RecommendationRequest with id 67 not found", json.get("message"));
     }
@@ -230,6 +260,7 @@ public class RecommendationRequestControllerTest extends ControllerTestCase {
         // assert
         verify(recommendationRequestRepository, times(1)).findById(67L);
         verify(recommendationRequestRepository, times(1)).delete(any());
+        assertPublished(new RecommendationRequestEvent(Type.DELETED, 67L, "PENDING", 44L, 22L));
         Map<String, Object> json = responseToJson(response);
         assertEquals("RecommendationRequest with id 67 deleted", json.get("message"));
 
@@ -331,6 +362,7 @@ public class RecommendationRequestControllerTest extends ControllerTestCase {
         verify(recommendationRequestRepository, times(1)).findByIdAndRequester(63L, user1);
         verify(recommendationRequestRepository, times(1))
                 .save(rec_corrected); 
+        assertPublished(new RecommendationRequestEvent(Type.UPDATED, 63L, "PENDING", user1.getId(), 22L));
         String responseString = response.getResponse().getContentAsString();
         assertEquals(expectedReturn, responseString);
     }
@@ -521,6 +553,7 @@ public class RecommendationRequestControllerTest extends ControllerTestCase {
         //assert
         verify(recommendationRequestRepository, times(1)).findById(67L);
         verify(recommendationRequestRepository, times(1)).save(refEq(rec_corrected, "completionDate"));
+        assertPublished(new RecommendationRequestEvent(Type.UPDATED, 67L, "COMPLETED", 99L, 22L));
         
         String responseString = response.getResponse().getContentAsString();
         RecommendationRequest responseObject = mapper.readValue(responseString, RecommendationRequest.class);
@@ -777,16 +810,17 @@ public class RecommendationRequestControllerTest extends ControllerTestCase {
                 .build();
 
         List<RecommendationRequest> mockRequests = Arrays.asList(rec1, rec2);
-        when(recommendationRequestRepository.findAll()).thenReturn(mockRequests);
+        when(recommendationRequestRepository.findPage(PageCursor.FIRST.submissionDate(), PageCursor.FIRST.id(), Limit.of(1001))).thenReturn(mockRequests);
+        when(recommendationRequestRepository.findListVersion()).thenReturn(new ListVersion(2L, rec2.getLastModifiedDate()));
 
         MvcResult response = mockMvc.perform(
-                get("/api/recommendationrequest/admin/all")
+                get("/api/recommendationrequest/admin/all?view=full")
                 .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andReturn();
 
         // assert
-        verify(recommendationRequestRepository, times(1)).findAll();
+        verify(recommendationRequestRepository, times(1)).findPage(PageCursor.FIRST.submissionDate(), PageCursor.FIRST.id(), Limit.of(1001));
 
         String expectedJson = mapper.writeValueAsString(mockRequests);
         String responseString = response.getResponse().getContentAsString();
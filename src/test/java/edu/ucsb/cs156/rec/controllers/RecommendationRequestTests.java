@@ -6,20 +6,53 @@ import edu.ucsb.cs156.rec.ControllerTestCase;
 import edu.ucsb.cs156.rec.entities.RecommendationRequest;
 import edu.ucsb.cs156.rec.entities.RequestType;
 import edu.ucsb.cs156.rec.entities.User;
+import edu.ucsb.cs156.rec.models.BulkStatusUpdate;
+import edu.ucsb.cs156.rec.models.BulkStatusUpdateResult;
+import edu.ucsb.cs156.rec.models.CsvImportResult;
+import edu.ucsb.cs156.rec.models.ListVersion;
+import edu.ucsb.cs156.rec.models.PageCursor;
+import edu.ucsb.cs156.rec.models.QueryCursor;
+import edu.ucsb.cs156.rec.models.RecommendationRequestEvent;
+import edu.ucsb.cs156.rec.models.RecommendationRequestFilter;
+import edu.ucsb.cs156.rec.models.RecommendationRequestQuery;
+import edu.ucsb.cs156.rec.models.RecommendationRequestSort;
+import edu.ucsb.cs156.rec.models.RecommendationRequestSummary;
+import edu.ucsb.cs156.rec.models.RequestParticipants;
+import edu.ucsb.cs156.rec.models.SearchCursor;
+import edu.ucsb.cs156.rec.models.SearchHit;
 import edu.ucsb.cs156.rec.repositories.RecommendationRequestRepository;
 import edu.ucsb.cs156.rec.repositories.RequestTypeRepository;
-
+import edu.ucsb.cs156.rec.services.RecommendationRequestEvents;
+import edu.ucsb.cs156.rec.services.RecommendationRequestExporter;
+import edu.ucsb.cs156.rec.services.RecommendationRequestImporter;
+import edu.ucsb.cs156.rec.services.RecommendationRequestTextSearch;
+import edu.ucsb.cs156.rec.services.RequestTypeCatalog;
+
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
@@ -30,15 +63,21 @@ import static org.springframework.security.test.web.servlet.request.SecurityMock
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.notNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @WebMvcTest(controllers = RecommendationRequestController.class)
 @Import(TestConfig.class)
+@RecordApplicationEvents
 public class RecommendationRequestTests extends ControllerTestCase {
 
         @MockBean
@@ -50,6 +89,38 @@ public class RecommendationRequestTests extends ControllerTestCase {
         @MockBean
         RequestTypeRepository requestTypeRepository;
 
+        @MockBean
+        RecommendationRequestImporter recommendationRequestImporter;
+
+        @MockBean
+        RecommendationRequestExporter recommendationRequestExporter;
+
+        @MockBean
+        RecommendationRequestTextSearch recommendationRequestTextSearch;
+
+        @Autowired
+        RequestTypeCatalog requestTypeCatalog;
+
+        @Autowired
+        RecommendationRequestEvents recommendationRequestEvents;
+
+        @Autowired
+        ApplicationEvents applicationEvents;
+
+        @BeforeEach
+        public void resetRequestTypeCatalog() {
+                requestTypeCatalog.invalidate();
+        }
+
+        @BeforeEach
+        public void stubListVersions() {
+                ListVersion empty = new ListVersion(0L, null);
+                when(recommendationRequestRepository.findListVersion()).thenReturn(empty);
+                when(recommendationRequestRepository.findListVersionByRequesterId(anyLong())).thenReturn(empty);
+                when(recommendationRequestRepository.findListVersionByProfessorId(anyLong())).thenReturn(empty);
+                when(recommendationRequestRepository.findListVersionByProfessorIdAndStatus(anyLong(), anyString())).thenReturn(empty);
+        }
+
         // Authorization tests for /api/phones/admin/all
 
         @Test
@@ -245,15 +316,15 @@ public class RecommendationRequestTests extends ControllerTestCase {
                 ArrayList<RecommendationRequest> expectedRecommendationRequests = new ArrayList<>();
                 expectedRecommendationRequests.addAll(Arrays.asList(recommendationRequest1, recommendationRequest2));
 
-                when(recommendationRequestRepository.findAllByRequesterId(currentUser.getId())).thenReturn(expectedRecommendationRequests);
+                when(recommendationRequestRepository.findPageByRequesterId(currentUser.getId(), PageCursor.FIRST.submissionDate(), PageCursor.FIRST.id(), Limit.of(1001))).thenReturn(expectedRecommendationRequests);
 
                 // act
-                MvcResult response = mockMvc.perform(get("/api/recommendationrequest/requester/all"))
+                MvcResult response = mockMvc.perform(get("/api/recommendationrequest/requester/all?view=full"))
                                 .andExpect(status().isOk()).andReturn();
 
                 // assert
 
-                verify(recommendationRequestRepository, times(1)).findAllByRequesterId(currentUser.getId());
+                verify(recommendationRequestRepository, times(1)).findPageByRequesterId(currentUser.getId(), PageCursor.FIRST.submissionDate(), PageCursor.FIRST.id(), Limit.of(1001));
                 String expectedJson = mapper.writeValueAsString(expectedRecommendationRequests);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(expectedJson, responseString);
@@ -288,15 +359,15 @@ public class RecommendationRequestTests extends ControllerTestCase {
                 ArrayList<RecommendationRequest> expectedRecommendationRequests = new ArrayList<>();
                 expectedRecommendationRequests.addAll(Arrays.asList(recommendationRequest1, recommendationRequest2));
 
-                when(recommendationRequestRepository.findAllByProfessorId(currentUser.getId())).thenReturn(expectedRecommendationRequests);
+                when(recommendationRequestRepository.findPageByProfessorId(currentUser.getId(), PageCursor.FIRST.submissionDate(), PageCursor.FIRST.id(), Limit.of(1001))).thenReturn(expectedRecommendationRequests);
 
                 // act
-                MvcResult response = mockMvc.perform(get("/api/recommendationrequest/professor/all"))
+                MvcResult response = mockMvc.perform(get("/api/recommendationrequest/professor/all?view=full"))
                                 .andExpect(status().isOk()).andReturn();
 
                 // assert
 
-                verify(recommendationRequestRepository, times(1)).findAllByProfessorId(currentUser.getId());
+                verify(recommendationRequestRepository, times(1)).findPageByProfessorId(currentUser.getId(), PageCursor.FIRST.submissionDate(), PageCursor.FIRST.id(), Limit.of(1001));
                 String expectedJson = mapper.writeValueAsString(expectedRecommendationRequests);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(expectedJson, responseString);
@@ -331,6 +402,8 @@ public class RecommendationRequestTests extends ControllerTestCase {
                                 .andReturn();
                 // assert
                 verify(recommendationRequestRepository, times(1)).save(eq(recommendationRequest1));
+                assertEquals(List.of(new RecommendationRequestEvent(RecommendationRequestEvent.Type.CREATED, 0L, "PENDING", u.getId(), 7L)),
+                                applicationEvents.stream(RecommendationRequestEvent.class).toList());
                 String expectedJson = mapper.writeValueAsString(recommendationRequest1);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(expectedJson, responseString);
@@ -341,7 +414,7 @@ public class RecommendationRequestTests extends ControllerTestCase {
         public void a_user_can_post_a_new_recommendation_request_without_existing_professor() throws Exception {
                 // act
                 RequestType r = RequestType.builder().requestType("PhD program").build();
-                when(requestTypeRepository.findByRequestType("PhD program")).thenReturn(Optional.of(r));
+                when(requestTypeRepository.findAll()).thenReturn(List.of(r));
                 mockMvc.perform(
                                 post("/api/recommendationrequest/post")
                                 .param("recommendationType", "PhD program")
@@ -372,7 +445,7 @@ public class RecommendationRequestTests extends ControllerTestCase {
                 when(recommendationRequestRepository.save(eq(recommendationRequest1))).thenReturn(recommendationRequest1);
                 when(userRepository.findById(7L)).thenReturn(Optional.of(other));
                 RequestType r = RequestType.builder().requestType("CS Department BS/MS program").build();
-                when(requestTypeRepository.findByRequestType("CS Department BS/MS program")).thenReturn(Optional.of(r));
+                when(requestTypeRepository.findAll()).thenReturn(List.of(r));
                 // act
                 MvcResult response = mockMvc.perform(
                                 post("/api/recommendationrequest/post")
@@ -394,7 +467,7 @@ public class RecommendationRequestTests extends ControllerTestCase {
         @Test
         public void rec_type_not_table_and_not_other() throws Exception {
                 // act
-                when(requestTypeRepository.findByRequestType("Not correct")).thenReturn(Optional.empty());
+                when(requestTypeRepository.findAll()).thenReturn(List.of());
                 MvcResult response = mockMvc.perform(
                                 post("/api/recommendationrequest/post")
                                 .param("recommendationType", "CS Department BS/MS program")
@@ -423,17 +496,18 @@ public class RecommendationRequestTests extends ControllerTestCase {
                 List<RecommendationRequest> mockRequests = List.of(mockRequest1, mockRequest2);
 
                 when(userRepository.findByEmail("professor@ucsb.edu")).thenReturn(Optional.of(mockProfessor));
-                when(recommendationRequestRepository.findAllByProfessorIdAndStatus(1L, "completed")).thenReturn(mockRequests);
+                when(recommendationRequestRepository.findPageByProfessorIdAndStatus(1L, "completed", PageCursor.FIRST.submissionDate(), PageCursor.FIRST.id(), Limit.of(1001))).thenReturn(mockRequests);
 
                 // Act & Assert
                 mockMvc.perform(get("/api/recommendationrequest/professor/filtered")
-                        .param("status", "completed"))
+                        .param("status", "completed")
+                        .param("view", "full"))
                         .andExpect(status().isOk())
                         .andExpect(jsonPath("$.length()").value(2))
                         .andExpect(jsonPath("$[0].id").value(101))
                         .andExpect(jsonPath("$[1].id").value(102));
 
-                verify(recommendationRequestRepository, times(1)).findAllByProfessorIdAndStatus(1L, "completed");
+                verify(recommendationRequestRepository, times(1)).findPageByProfessorIdAndStatus(1L, "completed", PageCursor.FIRST.submissionDate(), PageCursor.FIRST.id(), Limit.of(1001));
         }
 
         @Test
@@ -448,16 +522,17 @@ public class RecommendationRequestTests extends ControllerTestCase {
                 List<RecommendationRequest> mockRequests = List.of();
 
                 when(userRepository.findByEmail("professor@ucsb.edu")).thenReturn(java.util.Optional.of(mockProfessor));
-                when(recommendationRequestRepository.findAllByProfessorIdAndStatus(1L, "completed"))
+                when(recommendationRequestRepository.findPageByProfessorIdAndStatus(1L, "completed", PageCursor.FIRST.submissionDate(), PageCursor.FIRST.id(), Limit.of(1001)))
                         .thenReturn(mockRequests);
 
                 // Act & Assert
                 mockMvc.perform(get("/api/recommendationrequest/professor/filtered")
-                        .param("status", "completed"))
+                        .param("status", "completed")
+                        .param("view", "full"))
                         .andExpect(status().isOk())
                         .andExpect(jsonPath("$.length()").value(0));
 
-                verify(recommendationRequestRepository, times(1)).findAllByProfessorIdAndStatus(1L, "completed");
+                verify(recommendationRequestRepository, times(1)).findPageByProfessorIdAndStatus(1L, "completed", PageCursor.FIRST.submissionDate(), PageCursor.FIRST.id(), Limit.of(1001));
         }
 
         @Test
@@ -468,6 +543,885 @@ public class RecommendationRequestTests extends ControllerTestCase {
                         .param("status", "completed"))
                         .andExpect(status().isForbidden());
 
-                verify(recommendationRequestRepository, times(0)).findAllByProfessorIdAndStatus(anyLong(), anyString());
+                verify(recommendationRequestRepository, times(0)).findPageByProfessorIdAndStatus(anyLong(), anyString(), any(), anyLong(), any());
+        }
+
+        // Keyset pagination
+
+        @WithMockUser(roles = { "USER", "PROFESSOR" })
+        @Test
+        public void professor_list_returns_next_cursor_when_there_are_more_rows() throws Exception {
+                // arrange
+                User currentUser = currentUserService.getCurrentUser().getUser();
+                RecommendationRequest newer = RecommendationRequest.builder()
+                                .id(9L).professor(currentUser).requester(currentUser)
+                                .submissionDate(LocalDateTime.parse("2025-05-02T10:00:00")).build();
+                RecommendationRequest older = RecommendationRequest.builder()
+                                .id(4L).professor(currentUser).requester(currentUser)
+                                .submissionDate(LocalDateTime.parse("2025-05-01T10:00:00")).build();
+
+                when(recommendationRequestRepository.findPageByProfessorId(currentUser.getId(),
+                                PageCursor.FIRST.submissionDate(), PageCursor.FIRST.id(), Limit.of(2)))
+                                .thenReturn(List.of(newer, older));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/recommendationrequest/professor/all?size=1&view=full"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.length()").value(1))
+                                .andExpect(jsonPath("$[0].id").value(9))
+                                .andReturn();
+
+                // assert
+                String nextCursor = response.getResponse().getHeader("X-Next-Cursor");
+                assertEquals(new PageCursor(LocalDateTime.parse("2025-05-02T10:00:00"), 9L), PageCursor.decode(nextCursor));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void requester_list_seeks_past_the_cursor() throws Exception {
+                // arrange
+                User currentUser = currentUserService.getCurrentUser().getUser();
+                PageCursor cursor = new PageCursor(LocalDateTime.parse("2025-05-02T10:00:00"), 9L);
+                RecommendationRequest older = RecommendationRequest.builder()
+                                .id(4L).professor(currentUser).requester(currentUser)
+                                .submissionDate(LocalDateTime.parse("2025-05-01T10:00:00")).build();
+
+                when(recommendationRequestRepository.findPageByRequesterId(currentUser.getId(),
+                                cursor.submissionDate(), 9L, Limit.of(11)))
+                                .thenReturn(List.of(older));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/recommendationrequest/requester/all")
+                                .param("cursor", cursor.encode())
+                                .param("size", "10")
+                                .param("view", "full"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.length()").value(1))
+                                .andReturn();
+
+                // assert
+                verify(recommendationRequestRepository, times(1)).findPageByRequesterId(currentUser.getId(),
+                                cursor.submissionDate(), 9L, Limit.of(11));
+                assertEquals(null, response.getResponse().getHeader("X-Next-Cursor"));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void page_size_is_capped() throws Exception {
+                User currentUser = currentUserService.getCurrentUser().getUser();
+
+                mockMvc.perform(get("/api/recommendationrequest/requester/all?size=5000&view=full"))
+                                .andExpect(status().isOk());
+
+                verify(recommendationRequestRepository, times(1)).findPageByRequesterId(currentUser.getId(),
+                                PageCursor.FIRST.submissionDate(), PageCursor.FIRST.id(), Limit.of(1001));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void page_size_must_be_positive() throws Exception {
+                MvcResult response = mockMvc.perform(get("/api/recommendationrequest/requester/all?size=0"))
+                                .andExpect(status().isBadRequest()).andReturn();
+
+                Map<String, Object> json = responseToJson(response);
+                assertEquals("size must be positive", json.get("message"));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void malformed_cursors_are_rejected() throws Exception {
+                MvcResult response = mockMvc.perform(get("/api/recommendationrequest/requester/all?cursor=not*base64"))
+                                .andExpect(status().isBadRequest()).andReturn();
+                assertEquals("Invalid cursor: not*base64", responseToJson(response).get("message"));
+
+                // "abc" has no separator
+                mockMvc.perform(get("/api/recommendationrequest/requester/all?cursor=YWJj"))
+                                .andExpect(status().isBadRequest());
+
+                // "abc|1" has no valid date
+                mockMvc.perform(get("/api/recommendationrequest/requester/all?cursor=YWJjfDE"))
+                                .andExpect(status().isBadRequest());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void empty_cursor_means_first_page() throws Exception {
+                User currentUser = currentUserService.getCurrentUser().getUser();
+                when(recommendationRequestRepository.findPageByRequesterId(currentUser.getId(),
+                                PageCursor.FIRST.submissionDate(), PageCursor.FIRST.id(), Limit.of(2)))
+                                .thenReturn(List.of());
+
+                mockMvc.perform(get("/api/recommendationrequest/requester/all?cursor=&size=1&view=full"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.length()").value(0))
+                                .andExpect(header().doesNotExist("X-Next-Cursor"));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void a_cursor_without_a_size_returns_the_largest_page() throws Exception {
+                User currentUser = currentUserService.getCurrentUser().getUser();
+                PageCursor cursor = new PageCursor(LocalDateTime.parse("2025-05-02T10:00:00"), 9L);
+                when(recommendationRequestRepository.findPageByRequesterId(currentUser.getId(),
+                                cursor.submissionDate(), 9L, Limit.of(1001)))
+                                .thenReturn(List.of());
+
+                mockMvc.perform(get("/api/recommendationrequest/requester/all")
+                                .param("cursor", cursor.encode())
+                                .param("view", "full"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.length()").value(0));
+
+                verify(recommendationRequestRepository, times(1)).findPageByRequesterId(currentUser.getId(),
+                                cursor.submissionDate(), 9L, Limit.of(1001));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void without_a_size_the_list_is_capped_at_the_largest_page() throws Exception {
+                User currentUser = currentUserService.getCurrentUser().getUser();
+                List<RecommendationRequest> rows = new ArrayList<>();
+                for (long id = 1001; id > 0; id--) {
+                        rows.add(RecommendationRequest.builder().id(id).requester(currentUser)
+                                        .submissionDate(LocalDateTime.parse("2025-05-01T10:00:00")).build());
+                }
+                when(recommendationRequestRepository.findPageByRequesterId(currentUser.getId(),
+                                PageCursor.FIRST.submissionDate(), PageCursor.FIRST.id(), Limit.of(1001)))
+                                .thenReturn(rows);
+
+                // an empty cursor is the same as none
+                mockMvc.perform(get("/api/recommendationrequest/requester/all?cursor=&view=full"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.length()").value(1000))
+                                .andExpect(header().string("X-Next-Cursor",
+                                                new PageCursor(LocalDateTime.parse("2025-05-01T10:00:00"), 2L).encode()));
+        }
+
+        // Summary view
+
+        private RecommendationRequestSummary summary(long id, User requester, User professor, LocalDateTime submissionDate) {
+                return new RecommendationRequestSummary(id,
+                                requester.getId(), requester.getFullName(), requester.getEmail(),
+                                professor.getId(), professor.getFullName(), professor.getEmail(),
+                                "PhD program", "details", "PENDING", null, null, submissionDate, submissionDate);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void requester_list_returns_summaries_by_default() throws Exception {
+                // arrange
+                User currentUser = currentUserService.getCurrentUser().getUser();
+                User professor = User.builder().id(7L).email("prof@ucsb.edu").fullName("Prof").googleSub("sub").build();
+                List<RecommendationRequestSummary> expected = List.of(
+                                summary(3L, currentUser, professor, LocalDateTime.parse("2025-05-01T10:00:00")));
+
+                when(recommendationRequestRepository.findSummaryPageByRequesterId(currentUser.getId(),
+                                PageCursor.FIRST.submissionDate(), PageCursor.FIRST.id(), Limit.of(1001)))
+                                .thenReturn(expected);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/recommendationrequest/requester/all"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$[0].professor.fullName").value("Prof"))
+                                .andExpect(jsonPath("$[0].professor.email").value("prof@ucsb.edu"))
+                                .andExpect(jsonPath("$[0].professor.googleSub").doesNotExist())
+                                .andReturn();
+
+                // assert
+                verify(recommendationRequestRepository, times(0)).findPageByRequesterId(anyLong(), any(), anyLong(), any());
+                assertEquals(mapper.writeValueAsString(expected), response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "USER", "PROFESSOR" })
+        @Test
+        public void professor_list_returns_summaries_with_next_cursor() throws Exception {
+                // arrange
+                User currentUser = currentUserService.getCurrentUser().getUser();
+                User student = User.builder().id(8L).email("student@ucsb.edu").fullName("Student").build();
+                RecommendationRequestSummary newer = summary(9L, student, currentUser, LocalDateTime.parse("2025-05-02T10:00:00"));
+                RecommendationRequestSummary older = summary(4L, student, currentUser, LocalDateTime.parse("2025-05-01T10:00:00"));
+
+                when(recommendationRequestRepository.findSummaryPageByProfessorId(currentUser.getId(),
+                                PageCursor.FIRST.submissionDate(), PageCursor.FIRST.id(), Limit.of(2)))
+                                .thenReturn(List.of(newer, older));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/recommendationrequest/professor/all?size=1"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.length()").value(1))
+                                .andExpect(jsonPath("$[0].requester.fullName").value("Student"))
+                                .andReturn();
+
+                // assert
+                String nextCursor = response.getResponse().getHeader("X-Next-Cursor");
+                assertEquals(new PageCursor(LocalDateTime.parse("2025-05-02T10:00:00"), 9L), PageCursor.decode(nextCursor));
+        }
+
+        @WithMockUser(roles = { "PROFESSOR" })
+        @Test
+        public void filtered_professor_list_returns_summaries_by_default() throws Exception {
+                // arrange
+                User currentUser = currentUserService.getCurrentUser().getUser();
+                List<RecommendationRequestSummary> expected = List.of(
+                                summary(5L, currentUser, currentUser, LocalDateTime.parse("2025-05-01T10:00:00")));
+
+                when(recommendationRequestRepository.findSummaryPageByProfessorIdAndStatus(currentUser.getId(), "PENDING",
+                                PageCursor.FIRST.submissionDate(), PageCursor.FIRST.id(), Limit.of(1001)))
+                                .thenReturn(expected);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/recommendationrequest/professor/filtered")
+                                .param("status", "PENDING"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                assertEquals(mapper.writeValueAsString(expected), response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void admin_list_returns_summaries_by_default() throws Exception {
+                // arrange
+                User currentUser = currentUserService.getCurrentUser().getUser();
+                List<RecommendationRequestSummary> expected = List.of(
+                                summary(5L, currentUser, currentUser, LocalDateTime.parse("2025-05-01T10:00:00")));
+
+                when(recommendationRequestRepository.findSummaryPage(
+                                PageCursor.FIRST.submissionDate(), PageCursor.FIRST.id(), Limit.of(1001)))
+                                .thenReturn(expected);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/recommendationrequest/admin/all?view=summary"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                assertEquals(mapper.writeValueAsString(expected), response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void unknown_views_are_rejected() throws Exception {
+                MvcResult response = mockMvc.perform(get("/api/recommendationrequest/requester/all?view=everything"))
+                                .andExpect(status().isBadRequest()).andReturn();
+
+                assertEquals("Invalid view: everything", responseToJson(response).get("message"));
+        }
+
+        // Conditional GET
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void get_by_id_is_not_modified_until_the_request_changes() throws Exception {
+                // arrange
+                User currentUser = currentUserService.getCurrentUser().getUser();
+                User professor = User.builder().id(7L).email("prof@ucsb.edu").fullName("Prof").build();
+                RecommendationRequest recommendationRequest = RecommendationRequest.builder()
+                                .id(7L)
+                                .professor(professor)
+                                .requester(currentUser)
+                                .recommendationType("PhD program")
+                                .lastModifiedDate(LocalDateTime.parse("2025-05-01T10:00:00"))
+                                .build();
+                when(recommendationRequestRepository.findById(eq(7L))).thenReturn(Optional.of(recommendationRequest));
+
+                // act
+                MvcResult first = mockMvc.perform(get("/api/recommendationrequest?id=7"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                                .andReturn();
+                String etag = first.getResponse().getHeader("ETag");
+                MvcResult unchanged = mockMvc.perform(get("/api/recommendationrequest?id=7").header("If-None-Match", etag))
+                                .andExpect(status().isNotModified())
+                                .andExpect(header().string("ETag", etag))
+                                .andReturn();
+                recommendationRequest.setLastModifiedDate(LocalDateTime.parse("2025-05-02T10:00:00"));
+                MvcResult changed = mockMvc.perform(get("/api/recommendationrequest?id=7").header("If-None-Match", etag))
+                                .andExpect(status().isOk())
+                                .andReturn();
+
+                // assert
+                assertEquals("", unchanged.getResponse().getContentAsString());
+                assertEquals(mapper.writeValueAsString(recommendationRequest), changed.getResponse().getContentAsString());
+                assertNotEquals(etag, changed.getResponse().getHeader("ETag"));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void get_by_id_of_someone_elses_request_is_not_found_even_with_an_etag() throws Exception {
+                User other = User.builder().id(99L).email("other@ucsb.edu").build();
+                RecommendationRequest recommendationRequest = RecommendationRequest.builder()
+                                .id(7L).professor(other).requester(other).build();
+                when(recommendationRequestRepository.findById(eq(7L))).thenReturn(Optional.of(recommendationRequest));
+
+                mockMvc.perform(get("/api/recommendationrequest?id=7").header("If-None-Match", "*"))
+                                .andExpect(status().isNotFound());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void requester_list_is_not_modified_without_reading_the_page() throws Exception {
+                // arrange
+                User currentUser = currentUserService.getCurrentUser().getUser();
+                when(recommendationRequestRepository.findListVersionByRequesterId(currentUser.getId()))
+                                .thenReturn(new ListVersion(3L, LocalDateTime.parse("2025-05-01T10:00:00")));
+                when(recommendationRequestRepository.findSummaryPageByRequesterId(anyLong(), any(), anyLong(), any()))
+                                .thenReturn(List.of());
+
+                // act
+                String etag = mockMvc.perform(get("/api/recommendationrequest/requester/all"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                                .andReturn().getResponse().getHeader("ETag");
+                mockMvc.perform(get("/api/recommendationrequest/requester/all").header("If-None-Match", etag))
+                                .andExpect(status().isNotModified())
+                                .andExpect(content().string(""));
+
+                // assert
+                verify(recommendationRequestRepository, times(2)).findListVersionByRequesterId(currentUser.getId());
+                verify(recommendationRequestRepository, times(1)).findSummaryPageByRequesterId(anyLong(), any(), anyLong(), any());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void list_etag_changes_with_the_version_and_the_representation() throws Exception {
+                // arrange
+                User currentUser = currentUserService.getCurrentUser().getUser();
+                when(recommendationRequestRepository.findListVersionByRequesterId(currentUser.getId()))
+                                .thenReturn(new ListVersion(3L, LocalDateTime.parse("2025-05-01T10:00:00")))
+                                .thenReturn(new ListVersion(3L, LocalDateTime.parse("2025-05-01T10:00:00")))
+                                .thenReturn(new ListVersion(2L, LocalDateTime.parse("2025-05-01T10:00:00")));
+                when(recommendationRequestRepository.findSummaryPageByRequesterId(anyLong(), any(), anyLong(), any()))
+                                .thenReturn(List.of());
+                when(recommendationRequestRepository.findPageByRequesterId(anyLong(), any(), anyLong(), any()))
+                                .thenReturn(List.of());
+
+                // act
+                String summaryEtag = mockMvc.perform(get("/api/recommendationrequest/requester/all"))
+                                .andReturn().getResponse().getHeader("ETag");
+                mockMvc.perform(get("/api/recommendationrequest/requester/all?view=full").header("If-None-Match", summaryEtag))
+                                .andExpect(status().isOk());
+                mockMvc.perform(get("/api/recommendationrequest/requester/all").header("If-None-Match", summaryEtag))
+                                .andExpect(status().isOk());
+        }
+
+        @WithMockUser(roles = { "PROFESSOR" })
+        @Test
+        public void professor_lists_are_not_modified_without_reading_the_page() throws Exception {
+                // arrange
+                User currentUser = currentUserService.getCurrentUser().getUser();
+                ListVersion version = new ListVersion(1L, LocalDateTime.parse("2025-05-01T10:00:00"));
+                when(recommendationRequestRepository.findListVersionByProfessorId(currentUser.getId())).thenReturn(version);
+                when(recommendationRequestRepository.findListVersionByProfessorIdAndStatus(currentUser.getId(), "PENDING"))
+                                .thenReturn(version);
+                when(recommendationRequestRepository.findSummaryPageByProfessorId(anyLong(), any(), anyLong(), any()))
+                                .thenReturn(List.of());
+                when(recommendationRequestRepository.findSummaryPageByProfessorIdAndStatus(anyLong(), anyString(), any(), anyLong(), any()))
+                                .thenReturn(List.of());
+
+                // act
+                String etag = mockMvc.perform(get("/api/recommendationrequest/professor/all"))
+                                .andReturn().getResponse().getHeader("ETag");
+                mockMvc.perform(get("/api/recommendationrequest/professor/all").header("If-None-Match", etag))
+                                .andExpect(status().isNotModified());
+                String filteredEtag = mockMvc.perform(get("/api/recommendationrequest/professor/filtered?status=PENDING"))
+                                .andReturn().getResponse().getHeader("ETag");
+                mockMvc.perform(get("/api/recommendationrequest/professor/filtered?status=PENDING").header("If-None-Match", filteredEtag))
+                                .andExpect(status().isNotModified());
+
+                // assert
+                assertNotEquals(etag, filteredEtag);
+                verify(recommendationRequestRepository, times(1)).findSummaryPageByProfessorId(anyLong(), any(), anyLong(), any());
+                verify(recommendationRequestRepository, times(1)).findSummaryPageByProfessorIdAndStatus(anyLong(), anyString(), any(), anyLong(), any());
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void admin_list_is_not_modified_without_reading_the_page() throws Exception {
+                // arrange
+                when(recommendationRequestRepository.findListVersion())
+                                .thenReturn(new ListVersion(10L, LocalDateTime.parse("2025-05-01T10:00:00")));
+                when(recommendationRequestRepository.findSummaryPage(any(), anyLong(), any())).thenReturn(List.of());
+
+                // act
+                String etag = mockMvc.perform(get("/api/recommendationrequest/admin/all"))
+                                .andReturn().getResponse().getHeader("ETag");
+                mockMvc.perform(get("/api/recommendationrequest/admin/all").header("If-None-Match", etag))
+                                .andExpect(status().isNotModified());
+
+                // assert
+                verify(recommendationRequestRepository, times(1)).findSummaryPage(any(), anyLong(), any());
+        }
+
+        // Tests for /api/recommendationrequest/events
+
+        @Test
+        public void logged_out_users_cannot_open_the_event_stream() throws Exception {
+                mockMvc.perform(get("/api/recommendationrequest/events"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_users_get_an_event_stream_of_their_requests() throws Exception {
+                int before = recommendationRequestEvents.getSubscriberCount();
+
+                MvcResult response = mockMvc.perform(get("/api/recommendationrequest/events")
+                                .accept(MediaType.TEXT_EVENT_STREAM))
+                                .andExpect(request().asyncStarted())
+                                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                                .andReturn();
+
+                assertEquals(before + 1, recommendationRequestEvents.getSubscriberCount());
+                response.getRequest().getAsyncContext().complete();
+        }
+
+        // Tests for /api/recommendationrequest/professor/bulk
+
+        private MvcResult putBulk(Object body) throws Exception {
+                return mockMvc.perform(put("/api/recommendationrequest/professor/bulk")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(mapper.writeValueAsString(body))
+                                .with(csrf()))
+                                .andReturn();
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void students_cannot_update_statuses_in_bulk() throws Exception {
+                assertEquals(403, putBulk(new BulkStatusUpdate(List.of(1L), "COMPLETED")).getResponse().getStatus());
+                verify(recommendationRequestRepository, times(0)).findParticipantsByIdInAndProfessorId(any(), any());
+        }
+
+        @WithMockUser(roles = { "PROFESSOR", "USER" })
+        @Test
+        public void professors_can_update_the_statuses_of_their_requests_in_bulk() throws Exception {
+                when(recommendationRequestRepository.findParticipantsByIdInAndProfessorId(Set.of(5L, 6L, 7L), 1L))
+                                .thenReturn(List.of(new RequestParticipants(5L, 11L, 1L), new RequestParticipants(7L, 12L, 1L)));
+
+                MvcResult response = putBulk(new BulkStatusUpdate(List.of(7L, 6L, 5L, 7L), "COMPLETED"));
+
+                assertEquals(200, response.getResponse().getStatus());
+                assertEquals(mapper.writeValueAsString(List.of(
+                                new BulkStatusUpdateResult(7L, BulkStatusUpdateResult.Outcome.UPDATED),
+                                new BulkStatusUpdateResult(6L, BulkStatusUpdateResult.Outcome.NOT_FOUND),
+                                new BulkStatusUpdateResult(5L, BulkStatusUpdateResult.Outcome.UPDATED))),
+                                response.getResponse().getContentAsString());
+                verify(recommendationRequestRepository, times(1)).updateStatusByIdInAndProfessorId(
+                                eq(Set.of(5L, 7L)), eq(1L), eq("COMPLETED"), notNull(), notNull());
+                assertEquals(Set.of(
+                                new RecommendationRequestEvent(RecommendationRequestEvent.Type.UPDATED, 5L, "COMPLETED", 11L, 1L),
+                                new RecommendationRequestEvent(RecommendationRequestEvent.Type.UPDATED, 7L, "COMPLETED", 12L, 1L)),
+                                applicationEvents.stream(RecommendationRequestEvent.class).collect(Collectors.toSet()));
+        }
+
+        @WithMockUser(roles = { "PROFESSOR", "USER" })
+        @Test
+        public void setting_pending_in_bulk_keeps_the_completion_dates() throws Exception {
+                when(recommendationRequestRepository.findParticipantsByIdInAndProfessorId(Set.of(5L), 1L))
+                                .thenReturn(List.of(new RequestParticipants(5L, 11L, 1L)));
+
+                assertEquals(200, putBulk(new BulkStatusUpdate(List.of(5L), "PENDING")).getResponse().getStatus());
+
+                verify(recommendationRequestRepository, times(1)).updateStatusByIdInAndProfessorId(
+                                eq(Set.of(5L)), eq(1L), eq("PENDING"), isNull(), notNull());
+        }
+
+        @WithMockUser(roles = { "PROFESSOR", "USER" })
+        @Test
+        public void nothing_is_updated_when_no_request_belongs_to_the_professor() throws Exception {
+                when(recommendationRequestRepository.findParticipantsByIdInAndProfessorId(Set.of(5L), 1L))
+                                .thenReturn(List.of());
+
+                MvcResult response = putBulk(new BulkStatusUpdate(List.of(5L), "DENIED"));
+
+                assertEquals(mapper.writeValueAsString(List.of(
+                                new BulkStatusUpdateResult(5L, BulkStatusUpdateResult.Outcome.NOT_FOUND))),
+                                response.getResponse().getContentAsString());
+                verify(recommendationRequestRepository, times(0)).updateStatusByIdInAndProfessorId(any(), any(), any(), any(), any());
+                assertEquals(0, applicationEvents.stream(RecommendationRequestEvent.class).count());
+        }
+
+        @WithMockUser(roles = { "PROFESSOR", "USER" })
+        @Test
+        public void invalid_bulk_updates_are_rejected() throws Exception {
+                List<Long> tooMany = LongStream.rangeClosed(1, 501).boxed().toList();
+                List<Long> withNull = new ArrayList<>(Arrays.asList(1L, null));
+
+                assertRejected(new BulkStatusUpdate(List.of(1L), "completed"), "Invalid status: completed");
+                assertRejected(new BulkStatusUpdate(List.of(1L), null), "Invalid status: null");
+                assertRejected(new BulkStatusUpdate(null, "DENIED"), "ids must be a non-empty list of ids");
+                assertRejected(new BulkStatusUpdate(List.of(), "DENIED"), "ids must be a non-empty list of ids");
+                assertRejected(new BulkStatusUpdate(withNull, "DENIED"), "ids must be a non-empty list of ids");
+                assertRejected(new BulkStatusUpdate(tooMany, "DENIED"), "at most 500 ids can be updated at once");
+                verify(recommendationRequestRepository, times(0)).findParticipantsByIdInAndProfessorId(any(), any());
+        }
+
+        @WithMockUser(roles = { "PROFESSOR", "USER" })
+        @Test
+        public void duplicate_ids_count_once_towards_the_limit() throws Exception {
+                List<Long> ids = new ArrayList<>(LongStream.rangeClosed(1, 500).boxed().toList());
+                ids.addAll(ids);
+                when(recommendationRequestRepository.findParticipantsByIdInAndProfessorId(any(), eq(1L))).thenReturn(List.of());
+
+                assertEquals(200, putBulk(new BulkStatusUpdate(ids, "DENIED")).getResponse().getStatus());
+        }
+
+        private void assertRejected(BulkStatusUpdate update, String message) throws Exception {
+                MvcResult response = putBulk(update);
+                assertEquals(400, response.getResponse().getStatus());
+                assertEquals(message, responseToJson(response).get("message"));
+        }
+
+        // Tests for /api/recommendationrequest/admin/import
+
+        private String importedText(String contentType, byte[] body) throws Exception {
+                ArgumentCaptor<Reader> reader = ArgumentCaptor.forClass(Reader.class);
+                CsvImportResult result = new CsvImportResult(1, List.of(new CsvImportResult.RowError(2, "unknown professor x")));
+                when(recommendationRequestImporter.importCsv(reader.capture())).thenReturn(result);
+
+                MvcResult response = mockMvc.perform(post("/api/recommendationrequest/admin/import")
+                                .contentType(contentType)
+                                .content(body)
+                                .with(csrf()))
+                                .andExpect(status().isOk())
+                                .andReturn();
+
+                assertEquals(mapper.writeValueAsString(result), response.getResponse().getContentAsString());
+                StringBuilder text = new StringBuilder();
+                reader.getValue().transferTo(new java.io.StringWriter() {
+                        @Override
+                        public void write(char[] chars, int offset, int length) {
+                                text.append(chars, offset, length);
+                        }
+                });
+                return text.toString();
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void admins_can_import_utf8_csv() throws Exception {
+                String csv = "requesterEmail\nJosé\n";
+                assertEquals(csv, importedText("text/csv", csv.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        @WithMockUser(roles = { "PROFESSOR", "USER" })
+        @Test
+        public void only_admins_can_import_csv() throws Exception {
+                mockMvc.perform(post("/api/recommendationrequest/admin/import")
+                                .contentType("text/csv")
+                                .content("requesterEmail\n")
+                                .with(csrf()))
+                                .andExpect(status().isForbidden());
+                verify(recommendationRequestImporter, times(0)).importCsv(any());
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void csv_with_a_bad_header_is_a_bad_request() throws Exception {
+                when(recommendationRequestImporter.importCsv(any()))
+                                .thenThrow(new IllegalArgumentException("CSV header is missing the columns dueDate"));
+
+                MvcResult response = mockMvc.perform(post("/api/recommendationrequest/admin/import")
+                                .contentType("text/csv")
+                                .content("requesterEmail\n")
+                                .with(csrf()))
+                                .andExpect(status().isBadRequest())
+                                .andReturn();
+
+                assertEquals("CSV header is missing the columns dueDate", responseToJson(response).get("message"));
+        }
+
+        // Tests for /api/recommendationrequest/admin/export and /professor/export
+
+        private void exporterWrites(String content) throws Exception {
+                doAnswer(invocation -> {
+                        invocation.getArgument(2, OutputStream.class).write(content.getBytes(StandardCharsets.UTF_8));
+                        return 1L;
+                }).when(recommendationRequestExporter).export(any(), any(), any());
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void admins_can_export_filtered_csv() throws Exception {
+                exporterWrites("id\n7\n");
+
+                MvcResult response = mockMvc.perform(get("/api/recommendationrequest/admin/export")
+                                .param("professorId", "7")
+                                .param("status", "PENDING")
+                                .param("from", "2026-02-01T00:00:00")
+                                .param("to", "2026-03-01T00:00:00"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+                                .andExpect(header().string("Content-Disposition",
+                                                "attachment; filename=\"recommendation-requests-" + LocalDate.now() + ".csv\""))
+                                .andReturn();
+
+                assertEquals("id\n7\n", response.getResponse().getContentAsString());
+                verify(recommendationRequestExporter).export(eq(RecommendationRequestExporter.Format.CSV),
+                                eq(new RecommendationRequestFilter(7L, "PENDING",
+                                                LocalDateTime.parse("2026-02-01T00:00:00"), LocalDateTime.parse("2026-03-01T00:00:00"))),
+                                any());
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void admins_can_export_everything_as_xlsx() throws Exception {
+                exporterWrites("PK");
+
+                mockMvc.perform(get("/api/recommendationrequest/admin/export").param("format", "xlsx"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("Content-Type",
+                                                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                                .andExpect(header().string("Content-Disposition",
+                                                "attachment; filename=\"recommendation-requests-" + LocalDate.now() + ".xlsx\""));
+
+                verify(recommendationRequestExporter).export(eq(RecommendationRequestExporter.Format.XLSX),
+                                eq(new RecommendationRequestFilter(null, null, null, null)), any());
+        }
+
+        @WithMockUser(roles = { "PROFESSOR", "USER" })
+        @Test
+        public void only_admins_can_export_every_professors_requests() throws Exception {
+                mockMvc.perform(get("/api/recommendationrequest/admin/export"))
+                                .andExpect(status().isForbidden());
+                verify(recommendationRequestExporter, times(0)).export(any(), any(), any());
+        }
+
+        @WithMockUser(roles = { "PROFESSOR", "USER" })
+        @Test
+        public void professors_export_only_their_own_requests() throws Exception {
+                exporterWrites("id\n");
+
+                mockMvc.perform(get("/api/recommendationrequest/professor/export")
+                                .param("status", "COMPLETED")
+                                .param("from", "2026-02-01T00:00:00"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"));
+
+                verify(recommendationRequestExporter).export(eq(RecommendationRequestExporter.Format.CSV),
+                                eq(new RecommendationRequestFilter(1L, "COMPLETED", LocalDateTime.parse("2026-02-01T00:00:00"), null)),
+                                any());
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void export_rejects_an_unknown_format_or_status() throws Exception {
+                MvcResult response = mockMvc.perform(get("/api/recommendationrequest/admin/export").param("format", "pdf"))
+                                .andExpect(status().isBadRequest()).andReturn();
+                assertEquals("Invalid format: pdf", responseToJson(response).get("message"));
+
+                response = mockMvc.perform(get("/api/recommendationrequest/admin/export").param("status", "LOST"))
+                                .andExpect(status().isBadRequest()).andReturn();
+                assertEquals("Invalid status: LOST", responseToJson(response).get("message"));
+
+                verify(recommendationRequestExporter, times(0)).export(any(), any(), any());
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void an_export_refused_by_the_exporter_is_a_bad_request_without_a_file() throws Exception {
+                when(recommendationRequestExporter.export(any(), any(), any())).thenThrow(new IllegalArgumentException(
+                                "more than 1048575 recommendation requests match; export them as CSV or narrow the filter"));
+
+                MvcResult response = mockMvc.perform(get("/api/recommendationrequest/admin/export").param("format", "xlsx"))
+                                .andExpect(status().isBadRequest())
+                                .andExpect(header().doesNotExist("Content-Disposition"))
+                                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                                .andReturn();
+
+                assertEquals("more than 1048575 recommendation requests match; export them as CSV or narrow the filter",
+                                responseToJson(response).get("message"));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void students_cannot_query_requests() throws Exception {
+                mockMvc.perform(get("/api/recommendationrequest/professor/query"))
+                                .andExpect(status().isForbidden());
+                mockMvc.perform(get("/api/recommendationrequest/admin/query"))
+                                .andExpect(status().isForbidden());
+                verify(recommendationRequestRepository, times(0)).findSummaries(any(), any(), any(), any());
+        }
+
+        @WithMockUser(roles = { "PROFESSOR", "USER" })
+        @Test
+        public void professors_query_only_their_own_requests_by_due_date() throws Exception {
+                // arrange
+                User currentUser = currentUserService.getCurrentUser().getUser();
+                User student = User.builder().id(8L).email("student@ucsb.edu").fullName("Student").build();
+                RecommendationRequestSummary first = summary(9L, student, currentUser, LocalDateTime.parse("2026-05-02T10:00:00"));
+                RecommendationRequestSummary second = summary(4L, student, currentUser, LocalDateTime.parse("2026-05-01T10:00:00"));
+                RecommendationRequestQuery query = new RecommendationRequestQuery(currentUser.getId(), Set.of("PENDING", "DENIED"),
+                                "PhD program", "stud", LocalDateTime.parse("2026-06-01T00:00:00"), LocalDateTime.parse("2026-07-01T00:00:00"),
+                                LocalDateTime.parse("2026-01-01T00:00:00"), LocalDateTime.parse("2026-02-01T00:00:00"));
+                QueryCursor after = new QueryCursor(RecommendationRequestSort.DUE_DATE, LocalDateTime.parse("2026-06-01T00:00:00"), 3L);
+
+                when(recommendationRequestRepository.findSummaries(query, after, RecommendationRequestSort.DUE_DATE, Limit.of(2)))
+                                .thenReturn(List.of(first, second));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/recommendationrequest/professor/query")
+                                .param("status", "PENDING", "DENIED")
+                                .param("recommendationType", "PhD program")
+                                .param("requester", "stud")
+                                .param("dueFrom", "2026-06-01T00:00:00")
+                                .param("dueBefore", "2026-07-01T00:00:00")
+                                .param("submittedFrom", "2026-01-01T00:00:00")
+                                .param("submittedBefore", "2026-02-01T00:00:00")
+                                .param("sort", "dueDate")
+                                .param("cursor", after.encode())
+                                .param("size", "1"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.length()").value(1))
+                                .andExpect(jsonPath("$[0].id").value(9))
+                                .andReturn();
+
+                // assert: the next page starts after the request without a due date
+                String nextCursor = response.getResponse().getHeader("X-Next-Cursor");
+                assertEquals(new QueryCursor(RecommendationRequestSort.DUE_DATE, null, 9L),
+                                QueryCursor.decode(nextCursor, RecommendationRequestSort.DUE_DATE));
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void admins_query_every_request_newest_first_by_default() throws Exception {
+                // arrange
+                User currentUser = currentUserService.getCurrentUser().getUser();
+                List<RecommendationRequestSummary> expected = List.of(
+                                summary(5L, currentUser, currentUser, LocalDateTime.parse("2026-05-01T10:00:00")));
+                RecommendationRequestQuery query = new RecommendationRequestQuery(null, null, null, null, null, null, null, null);
+
+                when(recommendationRequestRepository.findSummaries(query, null, RecommendationRequestSort.SUBMISSION_DATE, Limit.of(1001)))
+                                .thenReturn(expected);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/recommendationrequest/admin/query"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                                .andReturn();
+
+                // assert
+                assertEquals(mapper.writeValueAsString(expected), response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void admins_can_query_the_requests_of_one_professor() throws Exception {
+                RecommendationRequestQuery query = new RecommendationRequestQuery(7L, Set.of("COMPLETED"), null, null, null, null, null, null);
+                when(recommendationRequestRepository.findSummaries(query, null, RecommendationRequestSort.SUBMISSION_DATE, Limit.of(1001)))
+                                .thenReturn(List.of());
+
+                mockMvc.perform(get("/api/recommendationrequest/admin/query")
+                                .param("professorId", "7")
+                                .param("status", "COMPLETED"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.length()").value(0));
+
+                verify(recommendationRequestRepository).findSummaries(query, null, RecommendationRequestSort.SUBMISSION_DATE, Limit.of(1001));
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void query_rejects_an_unknown_sort_status_or_cursor() throws Exception {
+                MvcResult response = mockMvc.perform(get("/api/recommendationrequest/admin/query").param("sort", "status"))
+                                .andExpect(status().isBadRequest()).andReturn();
+                assertEquals("Invalid sort: status", responseToJson(response).get("message"));
+
+                response = mockMvc.perform(get("/api/recommendationrequest/admin/query").param("status", "PENDING", "LOST"))
+                                .andExpect(status().isBadRequest()).andReturn();
+                assertEquals("Invalid status: LOST", responseToJson(response).get("message"));
+
+                String submissionCursor = new QueryCursor(RecommendationRequestSort.SUBMISSION_DATE,
+                                LocalDateTime.parse("2026-05-01T10:00:00"), 5L).encode();
+                response = mockMvc.perform(get("/api/recommendationrequest/admin/query")
+                                .param("sort", "dueDate")
+                                .param("cursor", submissionCursor))
+                                .andExpect(status().isBadRequest()).andReturn();
+                assertEquals("Invalid cursor: " + submissionCursor, responseToJson(response).get("message"));
+
+                verify(recommendationRequestRepository, times(0)).findSummaries(any(), any(), any(), any());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void students_cannot_search_requests() throws Exception {
+                mockMvc.perform(get("/api/recommendationrequest/professor/search").param("q", "phd"))
+                                .andExpect(status().isForbidden());
+                mockMvc.perform(get("/api/recommendationrequest/admin/search").param("q", "phd"))
+                                .andExpect(status().isForbidden());
+                verify(recommendationRequestTextSearch, times(0)).search(any(), any(), any(), any());
+        }
+
+        @WithMockUser(roles = { "PROFESSOR", "USER" })
+        @Test
+        public void professors_search_only_their_own_requests() throws Exception {
+                // arrange
+                User currentUser = currentUserService.getCurrentUser().getUser();
+                User student = User.builder().id(8L).email("student@ucsb.edu").fullName("Student").build();
+                SearchHit best = new SearchHit(summary(9L, student, currentUser, LocalDateTime.parse("2026-05-02T10:00:00")), 0.6f);
+                SearchHit next = new SearchHit(summary(4L, student, currentUser, LocalDateTime.parse("2026-05-01T10:00:00")), 0.3f);
+                SearchCursor after = new SearchCursor(0.75f, 12L);
+
+                when(recommendationRequestTextSearch.search("cmpsc 156", currentUser.getId(), after, Limit.of(2)))
+                                .thenReturn(List.of(best, next));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/recommendationrequest/professor/search")
+                                .param("q", "cmpsc 156")
+                                .param("cursor", after.encode())
+                                .param("size", "1"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.length()").value(1))
+                                .andExpect(jsonPath("$[0].request.id").value(9))
+                                .andExpect(jsonPath("$[0].rank").value(0.6))
+                                .andReturn();
+
+                // assert
+                String nextCursor = response.getResponse().getHeader("X-Next-Cursor");
+                assertEquals(new SearchCursor(0.6f, 9L), SearchCursor.decode(nextCursor));
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void admins_search_every_request_or_those_of_one_professor() throws Exception {
+                // arrange
+                User currentUser = currentUserService.getCurrentUser().getUser();
+                List<SearchHit> expected = List.of(
+                                new SearchHit(summary(5L, currentUser, currentUser, LocalDateTime.parse("2026-05-01T10:00:00")), 0.1f));
+                when(recommendationRequestTextSearch.search("phd", null, SearchCursor.FIRST, Limit.of(1001))).thenReturn(expected);
+                when(recommendationRequestTextSearch.search("phd", 7L, SearchCursor.FIRST, Limit.of(1001))).thenReturn(List.of());
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/recommendationrequest/admin/search").param("q", "phd"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                                .andReturn();
+                mockMvc.perform(get("/api/recommendationrequest/admin/search").param("q", "phd").param("professorId", "7")
+                                .param("cursor", ""))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.length()").value(0));
+
+                // assert
+                assertEquals(mapper.writeValueAsString(expected), response.getResponse().getContentAsString());
+                verify(recommendationRequestTextSearch).search("phd", 7L, SearchCursor.FIRST, Limit.of(1001));
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void search_rejects_blank_text_and_bad_cursors() throws Exception {
+                MvcResult response = mockMvc.perform(get("/api/recommendationrequest/admin/search").param("q", "  "))
+                                .andExpect(status().isBadRequest()).andReturn();
+                assertEquals("q must not be blank", responseToJson(response).get("message"));
+
+                response = mockMvc.perform(get("/api/recommendationrequest/admin/search").param("q", "phd").param("cursor", "not*base64"))
+                                .andExpect(status().isBadRequest()).andReturn();
+                assertEquals("Invalid cursor: not*base64", responseToJson(response).get("message"));
+
+                String noSeparator = Base64.getUrlEncoder().encodeToString("0.5".getBytes(StandardCharsets.UTF_8));
+                response = mockMvc.perform(get("/api/recommendationrequest/admin/search").param("q", "phd").param("cursor", noSeparator))
+                                .andExpect(status().isBadRequest()).andReturn();
+                assertEquals("Invalid cursor: " + noSeparator, responseToJson(response).get("message"));
+
+                verify(recommendationRequestTextSearch, times(0)).search(any(), any(), any(), any());
         }
 }
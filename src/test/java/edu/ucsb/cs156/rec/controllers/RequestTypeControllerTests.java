@@ -5,14 +5,19 @@ import edu.ucsb.cs156.rec.testconfig.TestConfig;
 import edu.ucsb.cs156.rec.ControllerTestCase;
 import edu.ucsb.cs156.rec.entities.RequestType;
 import edu.ucsb.cs156.rec.repositories.RequestTypeRepository;
+import edu.ucsb.cs156.rec.services.RequestTypeCatalog;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
@@ -25,6 +30,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -40,6 +46,14 @@ public class RequestTypeControllerTests extends ControllerTestCase {
         @MockBean
         UserRepository userRepository;
 
+        @Autowired
+        RequestTypeCatalog requestTypeCatalog;
+
+        @BeforeEach
+        public void resetRequestTypeCatalog() {
+                requestTypeCatalog.invalidate();
+        }
+
         // Authorization tests for /api/requesttypes/admin/all
 
         @Test
@@ -113,10 +127,11 @@ public class RequestTypeControllerTests extends ControllerTestCase {
 
                 // arrange
                 RequestType requestType = RequestType.builder()
+                                .id(7L)
                                 .requestType("Internship")
                                 .build();
 
-                when(requestTypeRepository.findById(eq(7L))).thenReturn(Optional.of(requestType));
+                when(requestTypeRepository.findAll()).thenReturn(List.of(requestType));
 
                 // act
                 MvcResult response = mockMvc.perform(get("/api/requesttypes?id=7"))
@@ -124,7 +139,8 @@ public class RequestTypeControllerTests extends ControllerTestCase {
 
                 // assert
 
-                verify(requestTypeRepository, times(1)).findById(eq(7L));
+                verify(requestTypeRepository, times(1)).findAll();
+                verify(requestTypeRepository, times(0)).findById(anyLong());
                 String expectedJson = mapper.writeValueAsString(requestType);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(expectedJson, responseString);
@@ -135,7 +151,7 @@ public class RequestTypeControllerTests extends ControllerTestCase {
         public void test_that_logged_in_user_can_get_by_id_when_the_id_does_not_exist() throws Exception {
 
                 // arrange
-                when(requestTypeRepository.findById(eq(7L))).thenReturn(Optional.empty());
+                when(requestTypeRepository.findAll()).thenReturn(List.of());
 
                 // act
                 MvcResult response = mockMvc.perform(get("/api/requesttypes?id=7"))
@@ -143,7 +159,7 @@ public class RequestTypeControllerTests extends ControllerTestCase {
 
                 // assert
 
-                verify(requestTypeRepository, times(1)).findById(eq(7L));
+                verify(requestTypeRepository, times(1)).findAll();
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("EntityNotFoundException", json.get("type"));
                 assertEquals("RequestType with id 7 not found", json.get("message"));
@@ -216,10 +232,7 @@ public class RequestTypeControllerTests extends ControllerTestCase {
                                 .requestType("Internship")
                                 .build();
 
-                ArrayList<RequestType> expectedRequests = new ArrayList<>();
-                expectedRequests.addAll(Arrays.asList(requestType1, requestType2));
-
-                when(requestTypeRepository.findAll()).thenReturn(expectedRequests);
+                when(requestTypeRepository.existsByRequestType("Internship")).thenReturn(true);
 
                 // act
                 MvcResult response = mockMvc.perform(
@@ -228,7 +241,8 @@ public class RequestTypeControllerTests extends ControllerTestCase {
                                 .andExpect(status().is(400)).andReturn();
 
 
-                verify(requestTypeRepository, times(1)).findAll();
+                verify(requestTypeRepository, times(1)).existsByRequestType("Internship");
+                verify(requestTypeRepository, times(0)).save(any());
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("IllegalArgumentException", json.get("type"));
                 assertEquals("Duplicate request type: Internship", json.get("message"));
@@ -248,10 +262,7 @@ public class RequestTypeControllerTests extends ControllerTestCase {
                                 .build();
 
 
-                ArrayList<RequestType> expectedRequests = new ArrayList<>();
-                expectedRequests.addAll(Arrays.asList(requestType1));
-
-                when(requestTypeRepository.findAll()).thenReturn(expectedRequests);
+                when(requestTypeRepository.existsByRequestType("Research")).thenReturn(false);
 
                 when(requestTypeRepository.save(eq(requestType2))).thenReturn(requestType2);
                 
@@ -263,7 +274,7 @@ public class RequestTypeControllerTests extends ControllerTestCase {
                                 .andExpect(status().isOk()).andReturn();
 
 
-                verify(requestTypeRepository, times(1)).findAll();
+                verify(requestTypeRepository, times(1)).existsByRequestType("Research");
                 verify(requestTypeRepository, times(1)).save(requestType2);
                 String expectedJson = mapper.writeValueAsString(requestType2);
                 String responseString = response.getResponse().getContentAsString();
@@ -368,10 +379,7 @@ public class RequestTypeControllerTests extends ControllerTestCase {
 
                 String requestBody = mapper.writeValueAsString(requestTypeEdited);
 
-                ArrayList<RequestType> expectedRequests = new ArrayList<>();
-                expectedRequests.addAll(Arrays.asList(requestType1, requestTypeOrig));
-
-                when(requestTypeRepository.findAll()).thenReturn(expectedRequests);
+                when(requestTypeRepository.existsByRequestTypeAndIdNot("Internship", 67L)).thenReturn(true);
 
                 when(requestTypeRepository.findById(eq(67L))).thenReturn(Optional.of(requestTypeOrig));
 
@@ -385,7 +393,8 @@ public class RequestTypeControllerTests extends ControllerTestCase {
                                 .andExpect(status().is(400)).andReturn();
 
                 // assert
-                verify(requestTypeRepository, times(1)).findAll();
+                verify(requestTypeRepository, times(1)).existsByRequestTypeAndIdNot("Internship", 67L);
+                verify(requestTypeRepository, times(0)).save(any());
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("IllegalArgumentException", json.get("type"));
                 assertEquals("Duplicate request type: RequestType(id=67, requestType=Internship)", json.get("message"));
@@ -412,10 +421,7 @@ public class RequestTypeControllerTests extends ControllerTestCase {
 
                 String requestBody = mapper.writeValueAsString(requestTypeEdited);
 
-                ArrayList<RequestType> expectedRequests = new ArrayList<>();
-                expectedRequests.addAll(Arrays.asList(requestType1, requestTypeOrig));
-
-                when(requestTypeRepository.findAll()).thenReturn(expectedRequests);
+                when(requestTypeRepository.existsByRequestTypeAndIdNot("Research", 67L)).thenReturn(false);
 
                 when(requestTypeRepository.findById(eq(67L))).thenReturn(Optional.of(requestTypeOrig));
 
@@ -429,6 +435,7 @@ public class RequestTypeControllerTests extends ControllerTestCase {
                                 .andExpect(status().is(200)).andReturn();
 
                 // assert
+                verify(requestTypeRepository, times(1)).existsByRequestTypeAndIdNot("Research", 67L);
                 verify(requestTypeRepository, times(1)).findById(67L);
                 verify(requestTypeRepository, times(1)).save(requestTypeEdited); // should be saved with correct user
                 String responseString = response.getResponse().getContentAsString();
@@ -487,11 +494,6 @@ public class RequestTypeControllerTests extends ControllerTestCase {
 
                 String requestBody = mapper.writeValueAsString(requestTypeEdited);
 
-                ArrayList<RequestType> expectedRequests = new ArrayList<>();
-                expectedRequests.addAll(Arrays.asList(requestType1, requestTypeOrig));
-
-                when(requestTypeRepository.findAll()).thenReturn(expectedRequests);
-
                 when(requestTypeRepository.findById(eq(67L))).thenReturn(Optional.of(requestTypeOrig));
 
                 // act
@@ -504,7 +506,7 @@ public class RequestTypeControllerTests extends ControllerTestCase {
                                 .andExpect(status().is(400)).andReturn();
 
                 // assert
-                verify(requestTypeRepository, times(1)).findAll();
+                verify(requestTypeRepository, times(0)).existsByRequestTypeAndIdNot(any(), anyLong());
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("IllegalArgumentException", json.get("type"));
                 assertEquals("Request type cannot be empty", json.get("message"));
@@ -566,6 +568,51 @@ public class RequestTypeControllerTests extends ControllerTestCase {
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("RequestType with id 67 not found", json.get("message"));
         }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void concurrent_duplicate_post_is_rejected_by_unique_index() throws Exception {
+                // arrange: the existence check passes, but another admin inserted the same name first
+                when(requestTypeRepository.existsByRequestType("Internship")).thenReturn(false);
+                when(requestTypeRepository.save(any())).thenThrow(new DataIntegrityViolationException("REQUESTTYPE_REQUEST_TYPE_UNIQUE_IDX"));
+
+                // act
+                MvcResult response = mockMvc.perform(
+                                post("/api/requesttypes/post?requestType=Internship")
+                                                .with(csrf()))
+                                .andExpect(status().is(400)).andReturn();
+
+                // assert
+                Map<String, Object> json = responseToJson(response);
+                assertEquals("IllegalArgumentException", json.get("type"));
+                assertEquals("Duplicate request type: Internship", json.get("message"));
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void concurrent_duplicate_put_is_rejected_by_unique_index() throws Exception {
+                // arrange
+                RequestType requestTypeOrig = RequestType.builder().id(67).requestType("Grad School").build();
+                RequestType requestTypeEdited = RequestType.builder().id(67).requestType("Internship").build();
+
+                when(requestTypeRepository.findById(eq(67L))).thenReturn(Optional.of(requestTypeOrig));
+                when(requestTypeRepository.existsByRequestTypeAndIdNot("Internship", 67L)).thenReturn(false);
+                when(requestTypeRepository.save(any())).thenThrow(new DataIntegrityViolationException("REQUESTTYPE_REQUEST_TYPE_UNIQUE_IDX"));
+
+                // act
+                MvcResult response = mockMvc.perform(
+                                put("/api/requesttypes?id=67")
+                                                .contentType(MediaType.APPLICATION_JSON)
+                                                .characterEncoding("utf-8")
+                                                .content(mapper.writeValueAsString(requestTypeEdited))
+                                                .with(csrf()))
+                                .andExpect(status().is(400)).andReturn();
+
+                // assert
+                Map<String, Object> json = responseToJson(response);
+                assertEquals("Duplicate request type: RequestType(id=67, requestType=Internship)", json.get("message"));
+        }
+
         @Test
     public void logged_out_users_cannot_get_all_request_types() throws Exception {
             mockMvc.perform(get("/api/requesttypes/all"))
@@ -585,4 +632,73 @@ public class RequestTypeControllerTests extends ControllerTestCase {
             assertEquals(expectedJson, responseString);
     }
 
-}
\ No newline at end of file
+
+    // In-memory catalogue
+
+    @Test
+    @WithMockUser(roles = { "USER" })
+    public void request_types_are_read_from_the_database_once() throws Exception {
+            when(requestTypeRepository.findAll()).thenReturn(List.of(RequestType.builder().id(1L).requestType("Type A").build()));
+
+            mockMvc.perform(get("/api/requesttypes/all")).andExpect(status().isOk());
+            mockMvc.perform(get("/api/requesttypes/all")).andExpect(status().isOk());
+            mockMvc.perform(get("/api/requesttypes?id=1")).andExpect(status().isOk());
+
+            verify(requestTypeRepository, times(1)).findAll();
+    }
+
+    @Test
+    @WithMockUser(roles = { "USER" })
+    public void all_request_types_has_an_etag_and_returns_304_when_unchanged() throws Exception {
+            when(requestTypeRepository.findAll()).thenReturn(List.of(RequestType.builder().id(1L).requestType("Type A").build()));
+
+            MvcResult response = mockMvc.perform(get("/api/requesttypes/all"))
+                            .andExpect(status().isOk())
+                            .andExpect(header().string("Cache-Control", "no-cache"))
+                            .andReturn();
+            String etag = response.getResponse().getHeader("ETag");
+
+            mockMvc.perform(get("/api/requesttypes/all").header("If-None-Match", etag))
+                            .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @WithMockUser(roles = { "ADMIN", "USER" })
+    public void changes_rebuild_the_catalogue_and_change_the_etag() throws Exception {
+            RequestType typeA = RequestType.builder().id(1L).requestType("Type A").build();
+            RequestType typeB = RequestType.builder().id(2L).requestType("Type B").build();
+            when(requestTypeRepository.findAll()).thenReturn(List.of(typeA));
+            String etag = mockMvc.perform(get("/api/requesttypes/all"))
+                            .andReturn().getResponse().getHeader("ETag");
+
+            // post
+            when(requestTypeRepository.findAll()).thenReturn(List.of(typeA, typeB));
+            mockMvc.perform(post("/api/requesttypes/post?requestType=Type B").with(csrf()))
+                            .andExpect(status().isOk());
+            MvcResult response = mockMvc.perform(get("/api/requesttypes/all").header("If-None-Match", etag))
+                            .andExpect(status().isOk()).andReturn();
+            assertEquals(mapper.writeValueAsString(List.of(typeA, typeB)), response.getResponse().getContentAsString());
+
+            // put
+            RequestType renamed = RequestType.builder().id(2L).requestType("Type C").build();
+            when(requestTypeRepository.findById(2L)).thenReturn(Optional.of(typeB));
+            when(requestTypeRepository.findAll()).thenReturn(List.of(typeA, renamed));
+            mockMvc.perform(put("/api/requesttypes?id=2")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(mapper.writeValueAsString(renamed))
+                            .with(csrf()))
+                            .andExpect(status().isOk());
+            mockMvc.perform(get("/api/requesttypes?id=2"))
+                            .andExpect(jsonPath("$.requestType").value("Type C"));
+
+            // delete
+            when(requestTypeRepository.findAll()).thenReturn(List.of(typeA));
+            mockMvc.perform(delete("/api/requesttypes?id=2").with(csrf()))
+                            .andExpect(status().isOk());
+            mockMvc.perform(get("/api/requesttypes?id=2"))
+                            .andExpect(status().isNotFound());
+            mockMvc.perform(get("/api/requesttypes/all").header("If-None-Match", etag))
+                            .andExpect(status().isNotModified());
+    }
+
+}
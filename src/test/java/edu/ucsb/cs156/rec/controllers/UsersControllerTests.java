@@ -3,6 +3,10 @@ package edu.ucsb.cs156.rec.controllers;
 import edu.ucsb.cs156.rec.ControllerTestCase;
 import edu.ucsb.cs156.rec.entities.User;
 import edu.ucsb.cs156.rec.repositories.UserRepository;
+import edu.ucsb.cs156.rec.models.ProfessorSummary;
+import edu.ucsb.cs156.rec.services.CurrentUserCache;
+import edu.ucsb.cs156.rec.services.ProfessorDirectory;
+import edu.ucsb.cs156.rec.services.RoleResolutionService;
 import edu.ucsb.cs156.rec.testconfig.TestConfig;
 
 import org.junit.jupiter.api.Test;
@@ -10,6 +14,8 @@ import org.mockito.ArgumentCaptor;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
 
@@ -25,6 +31,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 
 
 import java.util.ArrayList;
@@ -32,6 +39,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.Map;
+import java.util.stream.Stream;
 
 @WebMvcTest(controllers = UsersController.class)
 @Import(TestConfig.class)
@@ -40,6 +48,15 @@ public class UsersControllerTests extends ControllerTestCase {
   @MockBean
   UserRepository userRepository;
 
+  @MockBean
+  CurrentUserCache currentUserCache;
+
+  @MockBean
+  RoleResolutionService roleResolutionService;
+
+  @MockBean
+  ProfessorDirectory professorDirectory;
+
   @Test
   public void users__logged_out() throws Exception {
     mockMvc.perform(get("/api/admin/users"))
@@ -66,22 +83,80 @@ public class UsersControllerTests extends ControllerTestCase {
     ArrayList<User> expectedUsers = new ArrayList<>();
     expectedUsers.addAll(Arrays.asList(u1, u2, u));
 
-    when(userRepository.findAll()).thenReturn(expectedUsers);
+    when(userRepository.streamByIdGreaterThan(0L, Limit.unlimited())).thenReturn(expectedUsers.stream());
     String expectedJson = mapper.writeValueAsString(expectedUsers);
     
     // act
 
     MvcResult response = mockMvc.perform(get("/api/admin/users"))
-        .andExpect(status().isOk()).andReturn();
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+        .andExpect(header().doesNotExist("X-Next-Cursor"))
+        .andReturn();
 
     // assert
 
-    verify(userRepository, times(1)).findAll();
+    verify(userRepository, times(1)).streamByIdGreaterThan(0L, Limit.unlimited());
+    verify(userRepository, times(0)).findIdsByIdGreaterThan(anyLong(), any());
     String responseString = response.getResponse().getContentAsString();
     assertEquals(expectedJson, responseString);
 
   }
 
+  @WithMockUser(roles = { "ADMIN", "USER" })
+  @Test
+  public void users__admin_can_page_through_users() throws Exception {
+
+    // arrange
+
+    User u3 = User.builder().id(3L).email("u3@ucsb.edu").build();
+    User u4 = User.builder().id(4L).email("u4@ucsb.edu").build();
+
+    when(userRepository.findIdsByIdGreaterThan(2L, Limit.of(3))).thenReturn(List.of(3L, 4L, 5L));
+    when(userRepository.streamByIdGreaterThan(2L, Limit.of(2))).thenReturn(Stream.of(u3, u4));
+
+    // act
+
+    MvcResult response = mockMvc.perform(get("/api/admin/users?cursor=2&size=2"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("X-Next-Cursor", "4"))
+        .andReturn();
+
+    // assert
+
+    assertEquals(mapper.writeValueAsString(List.of(u3, u4)), response.getResponse().getContentAsString());
+  }
+
+  @WithMockUser(roles = { "ADMIN", "USER" })
+  @Test
+  public void users__last_page_has_no_next_cursor() throws Exception {
+
+    // arrange
+
+    User u5 = User.builder().id(5L).email("u5@ucsb.edu").build();
+
+    when(userRepository.findIdsByIdGreaterThan(0L, Limit.of(3))).thenReturn(List.of(5L));
+    when(userRepository.streamByIdGreaterThan(0L, Limit.of(2))).thenReturn(Stream.of(u5));
+
+    // act
+
+    MvcResult response = mockMvc.perform(get("/api/admin/users?size=2"))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist("X-Next-Cursor"))
+        .andReturn();
+
+    // assert
+
+    assertEquals(mapper.writeValueAsString(List.of(u5)), response.getResponse().getContentAsString());
+  }
+
+  @WithMockUser(roles = { "ADMIN", "USER" })
+  @Test
+  public void users__page_size_must_be_positive() throws Exception {
+    mockMvc.perform(get("/api/admin/users?size=0"))
+        .andExpect(status().isBadRequest());
+  }
+
   @WithMockUser(roles = { "ADMIN", "USER" })
   @Test
   public void admin_can_get() throws Exception{
@@ -121,6 +196,9 @@ public class UsersControllerTests extends ControllerTestCase {
     
     verify(userRepository, times(1)).delete(user1);
     verify(userRepository, times(1)).findById(17L);
+    verify(currentUserCache, times(1)).invalidate(user1);
+    verify(roleResolutionService, times(1)).invalidate(user1);
+    verify(professorDirectory, times(1)).invalidate();
     Map<String, Object> json = responseToJson(response);
     assertEquals("User with id 17 has been deleted.", json.get("message"));
   }
@@ -148,6 +226,9 @@ public class UsersControllerTests extends ControllerTestCase {
              .andExpect(status().isOk()).andReturn();
     
     verify(userRepository, times(1)).findById(17L);
+    verify(currentUserCache, times(1)).invalidate(user1);
+    verify(roleResolutionService, times(1)).invalidate(user1);
+    verify(professorDirectory, times(0)).invalidate();
     Map<String, Object> json = responseToJson(response);
     assertEquals("User with id 17 has toggled admin status to true", json.get("message"));
   }
@@ -187,6 +268,9 @@ public class UsersControllerTests extends ControllerTestCase {
              .andExpect(status().isOk()).andReturn();
     
     verify(userRepository, times(1)).findById(17L);
+    verify(currentUserCache, times(1)).invalidate(user1);
+    verify(roleResolutionService, times(1)).invalidate(user1);
+    verify(professorDirectory, times(1)).invalidate();
     Map<String, Object> json = responseToJson(response);
     assertEquals("User with id 17 has toggled professor status to true", json.get("message"));
   }
@@ -220,16 +304,30 @@ public class UsersControllerTests extends ControllerTestCase {
   @WithMockUser(roles = { "USER" })
   @Test
   public void non_admin_can_get_all_professors() throws Exception{
-    User professor = User.builder().id(1L).professor(true).email("phtcon@ucsb.edu").fullName("Phill Conrad").familyName("Conrad").build();
-    Iterable<User> professors = Arrays.asList(professor);
-    when(userRepository.professorIsTrue()).thenReturn(professors);
+    List<ProfessorSummary> professors = List.of(new ProfessorSummary(1L, "Phill Conrad"));
+    when(professorDirectory.getListing()).thenReturn(new ProfessorDirectory.Listing(professors, 0L, "\"abc\""));
     MvcResult response = mockMvc.perform(get("/api/admin/users/professors").with(csrf()))
-             .andExpect(status().isOk()).andReturn();
-    verify(userRepository, times(1)).professorIsTrue();
+             .andExpect(status().isOk())
+             .andExpect(header().string("ETag", "\"abc\""))
+             .andExpect(header().string("Cache-Control", "no-cache"))
+             .andReturn();
+    verify(professorDirectory, times(1)).getListing();
     String responseString = response.getResponse().getContentAsString();
-    assertTrue(responseString.contains("Phill Conrad"));
-    assertTrue(responseString.contains("1"));
+    assertEquals("[{\"id\":1,\"fullName\":\"Phill Conrad\"}]", responseString);
     assertFalse(responseString.contains("email"));
   }
 
+  @WithMockUser(roles = { "USER" })
+  @Test
+  public void professors_returns_304_when_etag_matches() throws Exception{
+    List<ProfessorSummary> professors = List.of(new ProfessorSummary(1L, "Phill Conrad"));
+    when(professorDirectory.getListing()).thenReturn(new ProfessorDirectory.Listing(professors, 0L, "\"abc\""));
+
+    mockMvc.perform(get("/api/admin/users/professors").header("If-None-Match", "\"abc\""))
+             .andExpect(status().isNotModified())
+             .andExpect(content().string(""));
+    mockMvc.perform(get("/api/admin/users/professors").header("If-None-Match", "\"old\""))
+             .andExpect(status().isOk());
+  }
+
 }
@@ -9,6 +9,7 @@ import org.springframework.web.servlet.handler.HandlerMappingIntrospector;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
 
 import edu.ucsb.cs156.rec.repositories.UserRepository;
+import edu.ucsb.cs156.rec.services.RoleResolutionService;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -33,7 +34,10 @@ import java.util.Optional;
 import java.util.HashSet;
 import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Collection;
@@ -71,8 +75,13 @@ public class RoleInterceptorTests extends ControllerTestCase{
     @Autowired
     private HandlerMappingIntrospector mapping;
 
+    @Autowired
+    RoleResolutionService roleResolutionService;
+
     @BeforeEach
     public void testLogin(){
+        roleResolutionService.invalidateAll();
+
         HashMap<String, Object> values = new HashMap<>();
         values.put("email", "joegaucho@ucsb.edu");
         values.put("googleSub", "googleSub");
@@ -264,4 +273,143 @@ public class RoleInterceptorTests extends ControllerTestCase{
         assertTrue(role_user, "ROLE_USER should be in roles list");
     }
             
+
+    @Test
+    public void unchanged_roles_are_served_from_cache_without_rebuilding_authentication() throws Exception{
+        User user = User.builder()
+                .email("joegaucho@ucsb.edu")
+                .id(15L)
+                .admin(true)
+                .professor(true)
+                .build();
+
+        when(userRepository.findByEmail("joegaucho@ucsb.edu")).thenReturn(Optional.of(user));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/currentUser");
+        HandlerExecutionChain chain = mapping.getMatchableHandlerMapping(request).getHandler(request);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assert chain != null;
+        Optional<HandlerInterceptor> RoleInterceptor = chain.getInterceptorList()
+                        .stream()
+                        .filter(RoleInterceptor.class::isInstance)
+                        .findFirst();
+
+        Authentication before = SecurityContextHolder.getContext().getAuthentication();
+        RoleInterceptor.get().preHandle(request, response, chain.getHandler());
+        RoleInterceptor.get().preHandle(request, response, chain.getHandler());
+
+        verify(userRepository, times(1)).findByEmail("joegaucho@ucsb.edu");
+        assertSame(before, SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    public void missing_role_user_is_added_even_when_other_roles_match() throws Exception{
+        User user = User.builder()
+                .email("joegaucho@ucsb.edu")
+                .id(15L)
+                .admin(false)
+                .professor(false)
+                .build();
+
+        when(userRepository.findByEmail("joegaucho@ucsb.edu")).thenReturn(Optional.of(user));
+
+        OAuth2User principal = ((OAuth2AuthenticationToken) SecurityContextHolder.getContext().getAuthentication()).getPrincipal();
+        SecurityContextHolder.getContext().setAuthentication(
+                new OAuth2AuthenticationToken(principal, Set.of(), "google"));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/currentUser");
+        HandlerExecutionChain chain = mapping.getMatchableHandlerMapping(request).getHandler(request);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assert chain != null;
+        Optional<HandlerInterceptor> RoleInterceptor = chain.getInterceptorList()
+                        .stream()
+                        .filter(RoleInterceptor.class::isInstance)
+                        .findFirst();
+
+        RoleInterceptor.get().preHandle(request, response, chain.getHandler());
+
+        Collection<? extends GrantedAuthority> updatedAuthorities = SecurityContextHolder.getContext().getAuthentication().getAuthorities();
+        assertEquals(Set.of(new SimpleGrantedAuthority("ROLE_USER")), Set.copyOf(updatedAuthorities));
+    }
+
+    @Test
+    public void invalidation_reloads_roles_and_rebuilds_authentication() throws Exception{
+        User user = User.builder()
+                .email("joegaucho@ucsb.edu")
+                .id(15L)
+                .admin(true)
+                .professor(true)
+                .build();
+        User demoted = User.builder()
+                .email("joegaucho@ucsb.edu")
+                .id(15L)
+                .admin(true)
+                .professor(false)
+                .build();
+
+        when(userRepository.findByEmail("joegaucho@ucsb.edu")).thenReturn(Optional.of(user));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/currentUser");
+        HandlerExecutionChain chain = mapping.getMatchableHandlerMapping(request).getHandler(request);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assert chain != null;
+        Optional<HandlerInterceptor> RoleInterceptor = chain.getInterceptorList()
+                        .stream()
+                        .filter(RoleInterceptor.class::isInstance)
+                        .findFirst();
+
+        RoleInterceptor.get().preHandle(request, response, chain.getHandler());
+        Authentication before = SecurityContextHolder.getContext().getAuthentication();
+
+        when(userRepository.findByEmail("joegaucho@ucsb.edu")).thenReturn(Optional.of(demoted));
+        roleResolutionService.invalidate(demoted);
+        RoleInterceptor.get().preHandle(request, response, chain.getHandler());
+
+        verify(userRepository, times(2)).findByEmail("joegaucho@ucsb.edu");
+        Authentication after = SecurityContextHolder.getContext().getAuthentication();
+        assertNotSame(before, after);
+        boolean role_professor = after.getAuthorities().stream()
+            .anyMatch(grantedAuth -> grantedAuth.getAuthority().equals("ROLE_PROFESSOR"));
+        assertFalse(role_professor, "ROLE_PROFESSOR should not be in roles list");
+    }
+
+    @Test
+    public void admin_emails_keep_admin_when_the_database_flag_is_false() throws Exception{
+        // phtcon@ucsb.edu is in app.admin.emails
+        User user = User.builder()
+                .email("phtcon@ucsb.edu")
+                .id(16L)
+                .admin(false)
+                .professor(false)
+                .build();
+
+        when(userRepository.findByEmail("phtcon@ucsb.edu")).thenReturn(Optional.of(user));
+
+        HashMap<String, Object> values = new HashMap<>();
+        values.put("email", "phtcon@ucsb.edu");
+        Set<GrantedAuthority> credentials = Set.of(new SimpleGrantedAuthority("ROLE_USER"),
+                new SimpleGrantedAuthority("ROLE_ADMIN"));
+        OAuth2User principal = new DefaultOAuth2User(credentials, values, "email");
+        Authentication before = new OAuth2AuthenticationToken(principal, credentials, "google");
+        SecurityContextHolder.getContext().setAuthentication(before);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/currentUser");
+        HandlerExecutionChain chain = mapping.getMatchableHandlerMapping(request).getHandler(request);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assert chain != null;
+        Optional<HandlerInterceptor> RoleInterceptor = chain.getInterceptorList()
+                        .stream()
+                        .filter(RoleInterceptor.class::isInstance)
+                        .findFirst();
+
+        RoleInterceptor.get().preHandle(request, response, chain.getHandler());
+        RoleInterceptor.get().preHandle(request, response, chain.getHandler());
+
+        verify(userRepository, times(1)).findByEmail("phtcon@ucsb.edu");
+        assertSame(before, SecurityContextHolder.getContext().getAuthentication());
+    }
 }
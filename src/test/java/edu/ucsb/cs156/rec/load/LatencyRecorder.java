@@ -0,0 +1,105 @@
+package edu.ucsb.cs156.rec.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collects response times per endpoint during a load test and summarizes them
+ * as latency percentiles and throughput.
+ */
+class LatencyRecorder {
+
+  /**
+   * Latency and throughput of one endpoint
+   * @param endpoint method and path of the endpoint
+   * @param count number of responses
+   * @param errors number of responses that were not 2xx
+   * @param throughput responses per second
+   * @param p50 median latency in milliseconds
+   * @param p95 95th percentile latency in milliseconds
+   * @param p99 99th percentile latency in milliseconds
+   * @param max highest latency in milliseconds
+   */
+  record Summary(String endpoint, int count, int errors, double throughput,
+      double p50, double p95, double p99, double max) {
+  }
+
+  private final Map<String, List<Long>> latencies = new ConcurrentHashMap<>();
+  private final Map<String, AtomicInteger> errors = new ConcurrentHashMap<>();
+
+  /**
+   * @param endpoint method and path of the endpoint
+   * @param nanos time from when the request was due to be sent until the response was read
+   * @param ok whether the response was 2xx
+   */
+  void record(String endpoint, long nanos, boolean ok) {
+    latencies.computeIfAbsent(endpoint, e -> Collections.synchronizedList(new ArrayList<>())).add(nanos);
+    AtomicInteger failed = errors.computeIfAbsent(endpoint, e -> new AtomicInteger());
+    if (!ok) {
+      failed.incrementAndGet();
+    }
+  }
+
+  /**
+   * @return number of responses that were not 2xx, over all endpoints
+   */
+  int totalErrors() {
+    return errors.values().stream().mapToInt(AtomicInteger::get).sum();
+  }
+
+  /**
+   * @param elapsed how long the measurement ran
+   * @return one summary per endpoint, ordered by endpoint
+   */
+  List<Summary> summarize(Duration elapsed) {
+    Map<String, List<Long>> sorted = new TreeMap<>(latencies);
+    List<Summary> summaries = new ArrayList<>();
+    double seconds = elapsed.toNanos() / 1e9;
+    sorted.forEach((endpoint, recorded) -> {
+      long[] nanos;
+      synchronized (recorded) {
+        nanos = recorded.stream().mapToLong(Long::longValue).toArray();
+      }
+      Arrays.sort(nanos);
+      summaries.add(new Summary(endpoint, nanos.length, errors.get(endpoint).get(), nanos.length / seconds,
+          millis(percentile(nanos, 50)), millis(percentile(nanos, 95)), millis(percentile(nanos, 99)),
+          millis(nanos[nanos.length - 1])));
+    });
+    return summaries;
+  }
+
+  /**
+   * @param elapsed how long the measurement ran
+   * @return the summaries as a table
+   */
+  String report(Duration elapsed) {
+    StringBuilder table = new StringBuilder(String.format("%-48s %7s %6s %8s %9s %9s %9s %9s%n",
+        "endpoint", "count", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+    int count = 0;
+    for (Summary s : summarize(elapsed)) {
+      count += s.count();
+      table.append(String.format("%-48s %7d %6d %8.1f %9.1f %9.1f %9.1f %9.1f%n",
+          s.endpoint(), s.count(), s.errors(), s.throughput(), s.p50(), s.p95(), s.p99(), s.max()));
+    }
+    table.append(String.format("%-48s %7d %6d %8.1f%n", "total", count, totalErrors(),
+        count / (elapsed.toNanos() / 1e9)));
+    return table.toString();
+  }
+
+  /** Nearest-rank percentile of sorted values */
+  static long percentile(long[] sorted, double percent) {
+    int rank = (int) Math.ceil(percent / 100 * sorted.length);
+    return sorted[Math.max(rank, 1) - 1];
+  }
+
+  private static double millis(long nanos) {
+    return nanos / 1e6;
+  }
+}
@@ -0,0 +1,141 @@
+package edu.ucsb.cs156.rec.load;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.HttpCookie;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * One synthetic user of the load test: an HTTP session with its own cookies
+ * that logs in through the WireMock OAuth stubs the same way a browser does,
+ * then sends API calls with the session and CSRF cookies.
+ */
+class LoadTestClient {
+
+  static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private final String baseUrl;
+  private final String oauthUrl;
+  private final CookieManager cookies = new CookieManager();
+  private final HttpClient http;
+
+  private long userId;
+
+  /**
+   * @param baseUrl url of the application, e.g. http://localhost:8080
+   * @param oauthUrl url of the WireMock OAuth server, e.g. http://localhost:8090
+   */
+  LoadTestClient(String baseUrl, String oauthUrl) {
+    this.baseUrl = baseUrl;
+    this.oauthUrl = oauthUrl;
+    this.http = HttpClient.newBuilder()
+        .cookieHandler(cookies)
+        .followRedirects(HttpClient.Redirect.NEVER)
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+  }
+
+  /**
+   * Logs in with the authorization code flow: the application redirects to
+   * the authorize endpoint, the WireMock login form redirects back with a code,
+   * and the application exchanges the code and loads the user info.
+   * @param username the part of the email before @ucsb.edu
+   * @return the current user, as returned by /api/currentUser
+   */
+  JsonNode login(String username) throws IOException, InterruptedException {
+    HttpResponse<String> authorize = send(HttpRequest.newBuilder(
+        URI.create(baseUrl + "/oauth2/authorization/my-oauth-provider")).GET());
+    Map<String, String> query = query(location(authorize));
+
+    HttpResponse<String> loginForm = send(HttpRequest.newBuilder(URI.create(oauthUrl + "/login"))
+        .header("Content-Type", "application/x-www-form-urlencoded")
+        .POST(HttpRequest.BodyPublishers.ofString(form(Map.of(
+            "state", query.get("state"),
+            "redirectUri", query.get("redirect_uri"),
+            "username", username,
+            "password", "password")))));
+
+    HttpResponse<String> callback = send(HttpRequest.newBuilder(location(loginForm)).GET());
+    if (callback.statusCode() != 302 || location(callback).getQuery() != null) {
+      throw new IllegalStateException("login failed for " + username + ": " + callback.statusCode());
+    }
+
+    HttpResponse<String> currentUser = get("/api/currentUser");
+    JsonNode json = MAPPER.readTree(currentUser.body());
+    userId = json.get("user").get("id").asLong();
+    return json;
+  }
+
+  /**
+   * @return id of the logged in user
+   */
+  long getUserId() {
+    return userId;
+  }
+
+  HttpResponse<String> get(String path) throws IOException, InterruptedException {
+    return send(HttpRequest.newBuilder(URI.create(baseUrl + path)).GET());
+  }
+
+  HttpResponse<String> post(String path) throws IOException, InterruptedException {
+    return send(withCsrf(path).POST(HttpRequest.BodyPublishers.noBody()));
+  }
+
+  HttpResponse<String> put(String path, Object body) throws IOException, InterruptedException {
+    return send(withCsrf(path)
+        .header("Content-Type", "application/json")
+        .PUT(HttpRequest.BodyPublishers.ofString(MAPPER.writeValueAsString(body))));
+  }
+
+  private HttpRequest.Builder withCsrf(String path) {
+    HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path));
+    for (HttpCookie cookie : cookies.getCookieStore().getCookies()) {
+      if (cookie.getName().equals("XSRF-TOKEN")) {
+        builder.header("X-XSRF-TOKEN", cookie.getValue());
+      }
+    }
+    return builder;
+  }
+
+  private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+    return http.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+  }
+
+  private static URI location(HttpResponse<?> response) {
+    return URI.create(response.headers().firstValue("Location")
+        .orElseThrow(() -> new IllegalStateException("expected a redirect from " + response.uri()
+            + " but got " + response.statusCode())));
+  }
+
+  private static Map<String, String> query(URI uri) {
+    Map<String, String> params = new HashMap<>();
+    for (String pair : uri.getRawQuery().split("&")) {
+      int eq = pair.indexOf('=');
+      params.put(pair.substring(0, eq), URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+    }
+    return params;
+  }
+
+  static String form(Map<String, String> params) {
+    StringBuilder body = new StringBuilder();
+    params.forEach((name, value) -> {
+      if (body.length() > 0) {
+        body.append('&');
+      }
+      body.append(name).append('=').append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+    });
+    return body.toString();
+  }
+}
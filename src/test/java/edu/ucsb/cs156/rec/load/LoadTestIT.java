@@ -0,0 +1,304 @@
+package edu.ucsb.cs156.rec.load;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.temporaryRedirect;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.tomakehurst.wiremock.junit.Stubbing;
+
+import edu.ucsb.cs156.rec.services.wiremock.WiremockService;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Offline HTTP load test.
+ *
+ * The application runs with the wiremock and integration profiles: WireMock
+ * fakes Google OAuth on port 8090 and the database is an in-memory H2.  The
+ * test logs in an admin, students and professors as synthetic users, then
+ * sends a mix of request creation, professor status updates and list calls
+ * at a fixed rate, and reports latency percentiles and throughput per endpoint.
+ *
+ * It only runs when asked to, e.g.
+ * <pre>
+ * mvn test-compile failsafe:integration-test -Dit.test=LoadTestIT -Dloadtest=true -Dload.rate=100 -Dload.duration=PT1M
+ * </pre>
+ * The report is logged and written to target/load-test-report-platform.txt,
+ * or target/load-test-report-virtual.txt when requests are served on virtual
+ * threads (see VirtualThreadLoadTestIT).
+ */
+@Slf4j
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT, properties = {
+    // SQL logging of the integration profile would dominate the response times
+    "logging.level.sql=WARN",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@ActiveProfiles({ "wiremock", "integration" })
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext
+public class LoadTestIT {
+
+  static final String OAUTH_URL = "http://localhost:8090";
+
+  /** Number of synthetic students */
+  final int students = Integer.getInteger("load.students", 50);
+  /** Number of synthetic professors */
+  final int professors = Integer.getInteger("load.professors", 5);
+  /** Requests per second sent by all users together */
+  final int rate = Integer.getInteger("load.rate", 50);
+  /** Length of the warmup, which is not measured */
+  final Duration warmup = Duration.parse(System.getProperty("load.warmup", "PT10S"));
+  /** Length of the measurement */
+  final Duration duration = Duration.parse(System.getProperty("load.duration", "PT30S"));
+
+  /** The operations of the mix, with their relative weights */
+  enum Operation {
+    CURRENT_USER(20),
+    LIST_PROFESSORS(10),
+    CREATE_REQUEST(20),
+    LIST_REQUESTER_REQUESTS(20),
+    LIST_PROFESSOR_REQUESTS(15),
+    UPDATE_STATUS(15);
+
+    final int weight;
+
+    Operation(int weight) {
+      this.weight = weight;
+    }
+
+    static Operation pick() {
+      int total = 0;
+      for (Operation op : values()) {
+        total += op.weight;
+      }
+      int n = ThreadLocalRandom.current().nextInt(total);
+      for (Operation op : values()) {
+        n -= op.weight;
+        if (n < 0) {
+          return op;
+        }
+      }
+      throw new IllegalStateException();
+    }
+  }
+
+  @LocalServerPort
+  int port;
+
+  @Autowired
+  WiremockService wiremockService;
+
+  @Value("${spring.threads.virtual.enabled:false}")
+  boolean virtualThreads;
+
+  @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+  int poolSize;
+
+  List<LoadTestClient> studentClients = new ArrayList<>();
+  List<LoadTestClient> professorClients = new ArrayList<>();
+  List<String> requestTypes = new ArrayList<>();
+  /** Pending requests, by id of the professor they are addressed to */
+  Map<Long, Queue<Long>> pendingByProfessor = new ConcurrentHashMap<>();
+
+  /**
+   * Adds stubs on top of WiremockServiceImpl.setupOauthMocks that carry the
+   * username typed into the WireMock login form through the authorization
+   * code and access token, so every username logs in as its own user
+   * username@ucsb.edu.
+   * @param s the WireMock server
+   */
+  static void setupSyntheticUserMocks(Stubbing s) {
+    s.stubFor(post(urlPathEqualTo("/login")).atPriority(1)
+        .willReturn(temporaryRedirect(
+            "{{formData request.body 'form' urlDecode=true}}{{{form.redirectUri}}}?code={{{form.username}}}&state={{{form.state}}}")));
+
+    s.stubFor(post(urlPathEqualTo("/oauth/token")).atPriority(1)
+        .willReturn(okJson(
+            "{{formData request.body 'form' urlDecode=true}}{\"access_token\":\"{{form.code}}\",\"token_type\": \"Bearer\",\"expires_in\":\"3600\",\"scope\":\"https://www.googleapis.com/auth/userinfo.profile https://www.googleapis.com/auth/userinfo.email openid\"}")));
+
+    s.stubFor(get(urlPathMatching("/userinfo")).atPriority(1)
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", "application/json")
+            .withBody("""
+                {
+                  "sub": "load-{{regexExtract request.headers.Authorization '[A-Za-z0-9]+$'}}",
+                  "name": "Load {{regexExtract request.headers.Authorization '[A-Za-z0-9]+$'}}",
+                  "given_name": "Load",
+                  "family_name": "{{regexExtract request.headers.Authorization '[A-Za-z0-9]+$'}}",
+                  "picture": "https://lh3.googleusercontent.com/a/ACg8ocJpOe2SqIpirdIMx7KTj1W4OQ45t6FwpUo40K2V2JON=s96-c",
+                  "email": "{{regexExtract request.headers.Authorization '[A-Za-z0-9]+$'}}@ucsb.edu",
+                  "email_verified": true,
+                  "locale": "en",
+                  "hd": "ucsb.edu"
+                }
+                """)));
+  }
+
+  @AfterAll
+  void stopWiremock() {
+    // the server is started by the wiremock profile and would otherwise keep port 8090
+    wiremockService.getWiremockServer().stop();
+  }
+
+  @Test
+  public void mixed_workload() throws Exception {
+    setupSyntheticUserMocks(wiremockService.getWiremockServer());
+    setupUsers();
+
+    log.info("warming up for {} at {} requests/s", warmup, rate);
+    run(warmup, new LatencyRecorder());
+
+    log.info("measuring for {} at {} requests/s", duration, rate);
+    LatencyRecorder recorder = new LatencyRecorder();
+    Duration elapsed = run(duration, recorder);
+
+    String mode = virtualThreads ? "virtual" : "platform";
+    String report = "%s threads, %d JDBC connections, %d students, %d professors, target %d requests/s%n%s".formatted(
+        mode, poolSize, students, professors, rate, recorder.report(elapsed));
+    log.info("load test: {}", report);
+    Files.writeString(Path.of("target", "load-test-report-" + mode + ".txt"), report);
+    assertEquals(0, recorder.totalErrors(), "requests that did not return 2xx");
+  }
+
+  private void setupUsers() throws Exception {
+    String baseUrl = "http://localhost:" + port;
+    LoadTestClient admin = new LoadTestClient(baseUrl, OAUTH_URL);
+    admin.login("admingaucho");
+
+    for (int i = 0; i < professors; i++) {
+      LoadTestClient professor = new LoadTestClient(baseUrl, OAUTH_URL);
+      professor.login("loadprofessor" + i);
+      HttpResponse<String> toggled = admin.post("/api/admin/users/toggleProfessor?id=" + professor.getUserId());
+      assertEquals(200, toggled.statusCode(), toggled.body());
+      professorClients.add(professor);
+      pendingByProfessor.put(professor.getUserId(), new ConcurrentLinkedQueue<>());
+    }
+    for (int i = 0; i < students; i++) {
+      LoadTestClient student = new LoadTestClient(baseUrl, OAUTH_URL);
+      student.login("loadstudent" + i);
+      studentClients.add(student);
+    }
+
+    for (JsonNode requestType : LoadTestClient.MAPPER.readTree(studentClients.get(0).get("/api/requesttypes/all").body())) {
+      requestTypes.add(requestType.get("requestType").asText());
+    }
+    requestTypes.add("Other");
+  }
+
+  /**
+   * Sends operations at the target rate for a while.  Operations are started
+   * on schedule whether or not earlier ones have finished, and latency is
+   * measured from when an operation was due, so a slow server shows up as
+   * latency rather than as a lower request rate.
+   */
+  private Duration run(Duration length, LatencyRecorder recorder) {
+    long period = 1_000_000_000L / rate;
+    long operations = length.toNanos() / period;
+    long start = System.nanoTime();
+    try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (long i = 0; i < operations; i++) {
+        long due = start + i * period;
+        LockSupport.parkNanos(due - System.nanoTime());
+        workers.submit(() -> perform(Operation.pick(), due, recorder));
+      }
+    }
+    return Duration.ofNanos(System.nanoTime() - start);
+  }
+
+  private void perform(Operation operation, long due, LatencyRecorder recorder) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    LoadTestClient student = studentClients.get(random.nextInt(studentClients.size()));
+    LoadTestClient professor = professorClients.get(random.nextInt(professorClients.size()));
+    String endpoint = "";
+    try {
+      HttpResponse<String> response = switch (operation) {
+        case CURRENT_USER -> {
+          endpoint = "GET /api/currentUser";
+          yield student.get("/api/currentUser");
+        }
+        case LIST_PROFESSORS -> {
+          endpoint = "GET /api/admin/users/professors";
+          yield student.get("/api/admin/users/professors");
+        }
+        case CREATE_REQUEST -> {
+          endpoint = "POST /api/recommendationrequest/post";
+          yield createRequest(student, professor);
+        }
+        case LIST_REQUESTER_REQUESTS -> {
+          endpoint = "GET /api/recommendationrequest/requester/all";
+          yield student.get("/api/recommendationrequest/requester/all");
+        }
+        case LIST_PROFESSOR_REQUESTS -> {
+          endpoint = "GET /api/recommendationrequest/professor/all";
+          yield professor.get("/api/recommendationrequest/professor/all");
+        }
+        case UPDATE_STATUS -> {
+          Long id = pendingByProfessor.get(professor.getUserId()).poll();
+          if (id == null) {
+            // nothing to update yet; the professor looks at the list instead
+            endpoint = "GET /api/recommendationrequest/professor/all";
+            yield professor.get("/api/recommendationrequest/professor/all");
+          }
+          endpoint = "PUT /api/recommendationrequest/professor";
+          yield professor.put("/api/recommendationrequest/professor?id=" + id,
+              Map.of("status", random.nextBoolean() ? "COMPLETED" : "DENIED"));
+        }
+      };
+      recorder.record(endpoint, System.nanoTime() - due, response.statusCode() / 100 == 2);
+    } catch (Exception e) {
+      log.warn("{} failed: {}", endpoint, e.toString());
+      recorder.record(endpoint, System.nanoTime() - due, false);
+    }
+  }
+
+  private HttpResponse<String> createRequest(LoadTestClient student, LoadTestClient professor) throws Exception {
+    String requestType = requestTypes.get(ThreadLocalRandom.current().nextInt(requestTypes.size()));
+    HttpResponse<String> response = student.post("/api/recommendationrequest/post?" + LoadTestClient.form(Map.of(
+        "professorId", String.valueOf(professor.getUserId()),
+        "recommendationType", requestType,
+        "details", "Load test request for " + requestType,
+        "dueDate", LocalDateTime.now().plusMonths(1).withNano(0).toString())));
+    if (response.statusCode() == 200) {
+      long id = LoadTestClient.MAPPER.readTree(response.body()).get("id").asLong();
+      pendingByProfessor.get(professor.getUserId()).add(id);
+    }
+    return response;
+  }
+}
@@ -0,0 +1,167 @@
+package edu.ucsb.cs156.rec.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import edu.ucsb.cs156.rec.services.wiremock.WiremockService;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Offline throughput test of GET /api/recommendationrequest/requester/all,
+ * the list every student opens, to measure what the role cache of
+ * RoleResolutionService saves on a whole request rather than in
+ * RoleInterceptor alone (see RoleInterceptorBenchmark).
+ *
+ * Unlike LoadTestIT, which sends requests at a fixed rate, each client thread
+ * sends its next request as soon as the previous one returns, so the result
+ * is the highest rate the server sustains.  UncachedRolesThroughputIT runs the
+ * same test with roles read from the users table on every request, e.g.
+ * <pre>
+ * mvn test-compile failsafe:integration-test -Dit.test='*ThroughputIT' -Dloadtest=true -Dthroughput.threads=16
+ * </pre>
+ * and compare target/requester-list-throughput-cached.txt with
+ * target/requester-list-throughput-uncached.txt.
+ */
+@Slf4j
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT, properties = {
+    // SQL logging of the integration profile would dominate the response times
+    "logging.level.sql=WARN",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@ActiveProfiles({ "wiremock", "integration" })
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext
+public class RequesterListThroughputIT {
+
+  static final String ENDPOINT = "/api/recommendationrequest/requester/all";
+
+  /** Number of synthetic students */
+  final int students = Integer.getInteger("throughput.students", 50);
+  /** Requests each student has made */
+  final int requestsPerStudent = Integer.getInteger("throughput.requests", 5);
+  /** Number of client threads sending requests back to back */
+  final int threads = Integer.getInteger("throughput.threads", 16);
+  /** Length of the warmup, which is not measured */
+  final Duration warmup = Duration.parse(System.getProperty("throughput.warmup", "PT30S"));
+  /** Length of each measurement */
+  final Duration duration = Duration.parse(System.getProperty("throughput.duration", "PT20S"));
+  /** Number of measurements */
+  final int rounds = Integer.getInteger("throughput.rounds", 3);
+
+  @LocalServerPort
+  int port;
+
+  @Autowired
+  WiremockService wiremockService;
+
+  @Value("${app.roleCache.ttl}")
+  Duration roleCacheTtl;
+
+  List<LoadTestClient> studentClients = new ArrayList<>();
+
+  @AfterAll
+  void stopWiremock() {
+    // the server is started by the wiremock profile and would otherwise keep port 8090
+    wiremockService.getWiremockServer().stop();
+  }
+
+  @Test
+  public void requester_list_throughput() throws Exception {
+    LoadTestIT.setupSyntheticUserMocks(wiremockService.getWiremockServer());
+    setupUsers();
+
+    log.info("warming up for {} with {} threads", warmup, threads);
+    run(warmup, new LatencyRecorder());
+
+    String mode = roleCacheTtl.isZero() ? "uncached" : "cached";
+    StringBuilder report = new StringBuilder("roles %s, %d threads, %d students with %d requests each%n".formatted(
+        mode, threads, students, requestsPerStudent));
+    int errors = 0;
+    for (int round = 1; round <= rounds; round++) {
+      log.info("measuring round {} for {}", round, duration);
+      LatencyRecorder recorder = new LatencyRecorder();
+      Duration elapsed = run(duration, recorder);
+      report.append("round ").append(round).append(System.lineSeparator()).append(recorder.report(elapsed));
+      errors += recorder.totalErrors();
+    }
+    log.info("throughput test: {}", report);
+    Files.writeString(Path.of("target", "requester-list-throughput-" + mode + ".txt"), report);
+    assertEquals(0, errors, "requests that did not return 2xx");
+  }
+
+  private void setupUsers() throws Exception {
+    String baseUrl = "http://localhost:" + port;
+    LoadTestClient admin = new LoadTestClient(baseUrl, LoadTestIT.OAUTH_URL);
+    admin.login("admingaucho");
+    LoadTestClient professor = new LoadTestClient(baseUrl, LoadTestIT.OAUTH_URL);
+    professor.login("throughputprofessor");
+    HttpResponse<String> toggled = admin.post("/api/admin/users/toggleProfessor?id=" + professor.getUserId());
+    assertEquals(200, toggled.statusCode(), toggled.body());
+
+    for (int i = 0; i < students; i++) {
+      LoadTestClient student = new LoadTestClient(baseUrl, LoadTestIT.OAUTH_URL);
+      student.login("throughputstudent" + i);
+      for (int j = 0; j < requestsPerStudent; j++) {
+        HttpResponse<String> created = student.post("/api/recommendationrequest/post?" + LoadTestClient.form(Map.of(
+            "professorId", String.valueOf(professor.getUserId()),
+            "recommendationType", "Other",
+            "details", "Throughput test request " + j,
+            "dueDate", LocalDateTime.now().plusMonths(1).withNano(0).toString())));
+        assertEquals(200, created.statusCode(), created.body());
+      }
+      studentClients.add(student);
+    }
+  }
+
+  /**
+   * Sends requests from every client thread, back to back, for a while.
+   */
+  private Duration run(Duration length, LatencyRecorder recorder) {
+    long start = System.nanoTime();
+    long end = start + length.toNanos();
+    try (ExecutorService clients = Executors.newFixedThreadPool(threads)) {
+      for (int t = 0; t < threads; t++) {
+        clients.submit(() -> {
+          while (System.nanoTime() < end) {
+            LoadTestClient student = studentClients.get(ThreadLocalRandom.current().nextInt(studentClients.size()));
+            long sent = System.nanoTime();
+            try {
+              HttpResponse<String> response = student.get(ENDPOINT);
+              recorder.record("GET " + ENDPOINT, System.nanoTime() - sent, response.statusCode() == 200);
+            } catch (Exception e) {
+              log.warn("GET {} failed: {}", ENDPOINT, e.toString());
+              recorder.record("GET " + ENDPOINT, System.nanoTime() - sent, false);
+            }
+          }
+        });
+      }
+    }
+    return Duration.ofNanos(System.nanoTime() - start);
+  }
+}
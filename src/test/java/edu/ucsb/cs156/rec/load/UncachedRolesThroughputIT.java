@@ -0,0 +1,12 @@
+package edu.ucsb.cs156.rec.load;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * The same throughput test as RequesterListThroughputIT, with cached roles
+ * expiring at once, so RoleInterceptor reads them from the users table on
+ * every request as it did before RoleResolutionService cached them.
+ */
+@TestPropertySource(properties = "app.roleCache.ttl=PT0S")
+public class UncachedRolesThroughputIT extends RequesterListThroughputIT {
+}
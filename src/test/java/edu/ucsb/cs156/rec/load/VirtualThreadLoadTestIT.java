@@ -0,0 +1,16 @@
+package edu.ucsb.cs156.rec.load;
+
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * The same load test as LoadTestIT, with requests served on virtual threads
+ * (the virtual profile).  Run both at a high rate to compare throughput and
+ * tail latency, e.g.
+ * <pre>
+ * mvn test-compile failsafe:integration-test -Dit.test='*LoadTestIT' -Dloadtest=true -Dload.rate=1000 -Dload.students=200
+ * </pre>
+ * and compare target/load-test-report-platform.txt with target/load-test-report-virtual.txt.
+ */
+@ActiveProfiles("virtual")
+public class VirtualThreadLoadTestIT extends LoadTestIT {
+}
@@ -0,0 +1,156 @@
+package edu.ucsb.cs156.rec.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import edu.ucsb.cs156.rec.services.wiremock.WiremockService;
+
+/**
+ * Checks, with EXPLAIN on H2, that every query issued by the repositories
+ * is answered from one of the indexes created by the Liquibase changelog
+ * rather than by a full table scan.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+public class IndexUsageTests {
+
+  @Autowired
+  DataSource dataSource;
+
+  @MockBean
+  WiremockService mockWiremockService;
+
+  JdbcTemplate jdbcTemplate;
+
+  @BeforeEach
+  void setup() {
+    jdbcTemplate = new JdbcTemplate(dataSource);
+  }
+
+  private String explain(String sql) {
+    return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+  }
+
+  private void assertUsesIndex(String indexName, String sql) {
+    String plan = explain(sql);
+    assertTrue(plan.contains(indexName), "expected " + indexName + " in plan:\n" + plan);
+  }
+
+  /*
+   * H2 creates its own index for every foreign key, and with empty tables it
+   * may pick either that one or ours, so for those queries we only check that
+   * the plan is not a table scan.
+   */
+  private void assertNoTableScan(String sql) {
+    String plan = explain(sql);
+    assertFalse(plan.contains("tableScan"), "expected an index in plan:\n" + plan);
+  }
+
+  @Test
+  public void findByEmail_uses_unique_email_index() {
+    assertUsesIndex("USERS_EMAIL_UNIQUE_IDX",
+        "SELECT * FROM USERS WHERE EMAIL = 'joe@ucsb.edu'");
+  }
+
+  @Test
+  public void findProfessorSummaries_uses_professor_index() {
+    assertUsesIndex("USERS_PROFESSOR_IDX",
+        "SELECT ID, FULL_NAME FROM USERS WHERE PROFESSOR = TRUE ORDER BY ID");
+  }
+
+  @Test
+  public void findByRequestType_uses_unique_request_type_index() {
+    assertUsesIndex("REQUESTTYPE_REQUEST_TYPE_UNIQUE_IDX",
+        "SELECT * FROM REQUESTTYPE WHERE REQUEST_TYPE = 'PhD program'");
+  }
+
+  @Test
+  public void findPageByRequesterId_uses_requester_index() {
+    assertNoTableScan("""
+        SELECT * FROM RECOMMENDATIONREQUEST WHERE REQUESTER_ID = 1
+          AND SUBMISSION_DATE <= TIMESTAMP '2025-01-01 00:00:00'
+          AND (SUBMISSION_DATE < TIMESTAMP '2025-01-01 00:00:00' OR ID < 10)
+        ORDER BY SUBMISSION_DATE DESC, ID DESC FETCH FIRST 11 ROWS ONLY
+        """);
+  }
+
+  @Test
+  public void findPageByProfessorId_uses_professor_index() {
+    assertNoTableScan("""
+        SELECT * FROM RECOMMENDATIONREQUEST WHERE PROFESSOR_ID = 1
+          AND SUBMISSION_DATE <= TIMESTAMP '2025-01-01 00:00:00'
+          AND (SUBMISSION_DATE < TIMESTAMP '2025-01-01 00:00:00' OR ID < 10)
+        ORDER BY SUBMISSION_DATE DESC, ID DESC FETCH FIRST 11 ROWS ONLY
+        """);
+  }
+
+  @Test
+  public void findPageByProfessorIdAndStatus_uses_professor_status_index() {
+    assertNoTableScan("""
+        SELECT * FROM RECOMMENDATIONREQUEST WHERE PROFESSOR_ID = 1 AND STATUS = 'PENDING'
+          AND SUBMISSION_DATE <= TIMESTAMP '2025-01-01 00:00:00'
+          AND (SUBMISSION_DATE < TIMESTAMP '2025-01-01 00:00:00' OR ID < 10)
+        ORDER BY SUBMISSION_DATE DESC, ID DESC FETCH FIRST 11 ROWS ONLY
+        """);
+  }
+
+  @Test
+  public void findPage_uses_submission_index() {
+    assertUsesIndex("RECOMMENDATIONREQUEST_SUBMISSION_IDX",
+        """
+        SELECT * FROM RECOMMENDATIONREQUEST
+        WHERE SUBMISSION_DATE <= TIMESTAMP '2025-01-01 00:00:00'
+          AND (SUBMISSION_DATE < TIMESTAMP '2025-01-01 00:00:00' OR ID < 10)
+        ORDER BY SUBMISSION_DATE DESC, ID DESC FETCH FIRST 11 ROWS ONLY
+        """);
+  }
+
+  @Test
+  public void findSummaries_by_due_date_uses_due_index() {
+    assertUsesIndex("RECOMMENDATIONREQUEST_DUE_IDX",
+        """
+        SELECT * FROM RECOMMENDATIONREQUEST
+        WHERE DUE_DATE >= TIMESTAMP '2025-01-01 00:00:00' AND DUE_DATE < TIMESTAMP '2025-02-01 00:00:00'
+        ORDER BY DUE_DATE, ID FETCH FIRST 11 ROWS ONLY
+        """);
+  }
+
+  @Test
+  public void findSummaries_after_a_due_date_cursor_uses_due_index() {
+    assertUsesIndex("RECOMMENDATIONREQUEST_DUE_IDX",
+        """
+        SELECT * FROM RECOMMENDATIONREQUEST
+        WHERE DUE_DATE IS NOT NULL AND DUE_DATE >= TIMESTAMP '2025-01-01 00:00:00'
+          AND (DUE_DATE > TIMESTAMP '2025-01-01 00:00:00' OR ID > 10)
+        ORDER BY DUE_DATE, ID FETCH FIRST 11 ROWS ONLY
+        """);
+  }
+
+  @Test
+  public void findSummaries_without_a_due_date_uses_due_index() {
+    assertUsesIndex("RECOMMENDATIONREQUEST_DUE_IDX",
+        """
+        SELECT * FROM RECOMMENDATIONREQUEST WHERE DUE_DATE IS NULL AND ID > 10
+        ORDER BY DUE_DATE, ID FETCH FIRST 11 ROWS ONLY
+        """);
+  }
+
+  @Test
+  public void findSummaries_of_a_professor_by_due_date_uses_professor_due_index() {
+    assertNoTableScan("""
+        SELECT * FROM RECOMMENDATIONREQUEST WHERE PROFESSOR_ID = 1
+          AND DUE_DATE >= TIMESTAMP '2025-01-01 00:00:00' AND DUE_DATE < TIMESTAMP '2025-02-01 00:00:00'
+        ORDER BY DUE_DATE, ID FETCH FIRST 11 ROWS ONLY
+        """);
+  }
+}
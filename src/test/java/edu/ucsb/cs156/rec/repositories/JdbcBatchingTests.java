@@ -0,0 +1,134 @@
+package edu.ucsb.cs156.rec.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import edu.ucsb.cs156.rec.entities.RecommendationRequest;
+import edu.ucsb.cs156.rec.entities.RequestType;
+import edu.ucsb.cs156.rec.entities.User;
+import edu.ucsb.cs156.rec.services.wiremock.WiremockService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Checks that saving many entities sends one batched statement per table,
+ * counting the statements Hibernate prepares: without batching it prepares
+ * one per row.  Blocks of sequence ids are shared with the other tests, so a
+ * save may also need a sequence call.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class JdbcBatchingTests {
+
+  @Autowired
+  UserRepository userRepository;
+
+  @Autowired
+  RequestTypeRepository requestTypeRepository;
+
+  @Autowired
+  RecommendationRequestRepository recommendationRequestRepository;
+
+  @Autowired
+  EntityManager entityManager;
+
+  @Autowired
+  EntityManagerFactory entityManagerFactory;
+
+  @MockBean
+  WiremockService mockWiremockService;
+
+  Statistics statistics;
+
+  @BeforeEach
+  void setup() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+
+  private List<User> users(int count) {
+    return IntStream.range(0, count)
+        .mapToObj(i -> User.builder().email("student" + i + "@ucsb.edu").build())
+        .toList();
+  }
+
+  /**
+   * @return statements prepared by the flush, after clearing the session
+   */
+  private long flush() {
+    entityManager.flush();
+    entityManager.clear();
+    return statistics.getPrepareStatementCount();
+  }
+
+  @Test
+  public void saving_many_users_is_one_insert_batch() {
+    statistics.clear();
+
+    userRepository.saveAll(users(40));
+
+    // one batched insert, and a call to USERS_SEQ if the block of 50 ids in use runs out
+    assertTrue(flush() <= 2, statistics.getPrepareStatementCount() + " statements");
+    assertEquals(40, statistics.getEntityInsertCount());
+  }
+
+  @Test
+  public void saving_many_request_types_is_one_insert_batch() {
+    statistics.clear();
+
+    requestTypeRepository.saveAll(IntStream.range(0, 30)
+        .mapToObj(i -> RequestType.builder().requestType("Type " + i).build())
+        .toList());
+
+    assertTrue(flush() <= 2, statistics.getPrepareStatementCount() + " statements");
+    assertEquals(30, statistics.getEntityInsertCount());
+  }
+
+  @Test
+  public void inserts_into_several_tables_are_ordered_into_one_batch_per_table() {
+    User professor = userRepository.save(User.builder().email("prof@ucsb.edu").professor(true).build());
+    recommendationRequestRepository.save(RecommendationRequest.builder()
+        .requester(professor).professor(professor).status("PENDING").build());
+    flush();
+    professor = userRepository.findById(professor.getId()).get();
+    statistics.clear();
+
+    // students and their requests are saved alternately
+    for (User student : users(20)) {
+      userRepository.save(student);
+      recommendationRequestRepository.save(RecommendationRequest.builder()
+          .requester(student).professor(professor).status("PENDING").build());
+    }
+
+    // one batched insert per table, and the sequence calls of blocks that run out
+    assertTrue(flush() <= 4, statistics.getPrepareStatementCount() + " statements");
+    assertEquals(40, statistics.getEntityInsertCount());
+  }
+
+  @Test
+  public void updating_many_users_is_one_update_batch() {
+    List<User> saved = users(20);
+    userRepository.saveAll(saved);
+    flush();
+    Iterable<User> loaded = userRepository.findAllById(saved.stream().map(User::getId).toList());
+    statistics.clear();
+
+    loaded.forEach(user -> user.setFullName("Renamed"));
+
+    assertEquals(1, flush());
+    assertEquals(20, statistics.getEntityUpdateCount());
+  }
+}
@@ -0,0 +1,98 @@
+package edu.ucsb.cs156.rec.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import edu.ucsb.cs156.rec.entities.RecommendationRequest;
+import edu.ucsb.cs156.rec.entities.User;
+import edu.ucsb.cs156.rec.models.RequestParticipants;
+import edu.ucsb.cs156.rec.services.wiremock.WiremockService;
+
+/**
+ * Checks that bulk status updates only touch the requests addressed to the
+ * professor, and set the dates that auditing would set for a single update.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(RecommendationRequestFixtures.class)
+public class RecommendationRequestBulkUpdateTests {
+
+  @Autowired
+  RecommendationRequestRepository recommendationRequestRepository;
+
+  @Autowired
+  RecommendationRequestFixtures fixtures;
+
+  @MockBean
+  WiremockService mockWiremockService;
+
+  @Test
+  public void participants_are_only_found_for_the_professors_requests() {
+    User student = fixtures.user("student@ucsb.edu", false);
+    User professor = fixtures.user("prof@ucsb.edu", true);
+    User otherProfessor = fixtures.user("other@ucsb.edu", true);
+    RecommendationRequest mine = fixtures.request(student, professor);
+    RecommendationRequest theirs = fixtures.request(student, otherProfessor);
+
+    List<RequestParticipants> participants = recommendationRequestRepository.findParticipantsByIdInAndProfessorId(
+        List.of(mine.getId(), theirs.getId(), 12345L), professor.getId());
+
+    assertEquals(List.of(new RequestParticipants(mine.getId(), student.getId(), professor.getId())), participants);
+  }
+
+  @Test
+  public void completing_sets_the_status_and_dates_of_the_professors_requests_only() {
+    User student = fixtures.user("student@ucsb.edu", false);
+    User professor = fixtures.user("prof@ucsb.edu", true);
+    User otherProfessor = fixtures.user("other@ucsb.edu", true);
+    RecommendationRequest first = fixtures.request(student, professor);
+    RecommendationRequest second = fixtures.request(student, professor);
+    RecommendationRequest theirs = fixtures.request(student, otherProfessor);
+    LocalDateTime now = LocalDateTime.parse("2025-03-01T12:00:00");
+
+    int updated = recommendationRequestRepository.updateStatusByIdInAndProfessorId(
+        List.of(first.getId(), second.getId(), theirs.getId()), professor.getId(), "COMPLETED", now, now);
+
+    assertEquals(2, updated);
+    for (long id : List.of(first.getId(), second.getId())) {
+      RecommendationRequest reloaded = recommendationRequestRepository.findById(id).get();
+      assertEquals("COMPLETED", reloaded.getStatus());
+      assertEquals(now, reloaded.getCompletionDate());
+      assertEquals(now, reloaded.getLastModifiedDate());
+    }
+    RecommendationRequest untouched = recommendationRequestRepository.findById(theirs.getId()).get();
+    assertEquals("PENDING", untouched.getStatus());
+    assertNull(untouched.getCompletionDate());
+    assertTrue(untouched.getLastModifiedDate().isAfter(now));
+  }
+
+  @Test
+  public void setting_pending_keeps_the_completion_date() {
+    User student = fixtures.user("student@ucsb.edu", false);
+    User professor = fixtures.user("prof@ucsb.edu", true);
+    RecommendationRequest request = fixtures.request(student, professor);
+    LocalDateTime completed = LocalDateTime.parse("2025-03-01T12:00:00");
+    LocalDateTime reopened = LocalDateTime.parse("2025-03-02T12:00:00");
+    recommendationRequestRepository.updateStatusByIdInAndProfessorId(
+        List.of(request.getId()), professor.getId(), "DENIED", completed, completed);
+
+    recommendationRequestRepository.updateStatusByIdInAndProfessorId(
+        List.of(request.getId()), professor.getId(), "PENDING", null, reopened);
+
+    RecommendationRequest reloaded = recommendationRequestRepository.findById(request.getId()).get();
+    assertEquals("PENDING", reloaded.getStatus());
+    assertEquals(completed, reloaded.getCompletionDate());
+    assertEquals(reopened, reloaded.getLastModifiedDate());
+  }
+}
@@ -0,0 +1,135 @@
+package edu.ucsb.cs156.rec.repositories;
+
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import edu.ucsb.cs156.rec.entities.RecommendationRequest;
+import edu.ucsb.cs156.rec.entities.RecommendationRequest.RecommendationRequestBuilder;
+import edu.ucsb.cs156.rec.entities.User;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Saves the users and recommendation requests that repository and service
+ * tests run against.  A {@code @DataJpaTest} uses it with
+ * {@code @Import(RecommendationRequestFixtures.class)}.
+ */
+@TestComponent
+public class RecommendationRequestFixtures {
+
+  /** Due date of the requests built by {@link #pending(User, User)} */
+  public static final LocalDateTime DUE_DATE = LocalDateTime.parse("2025-06-01T00:00:00");
+
+  @Autowired
+  UserRepository userRepository;
+
+  @Autowired
+  RecommendationRequestRepository recommendationRequestRepository;
+
+  @Autowired
+  EntityManager entityManager;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  /**
+   * Saves a user with only an email.
+   * @param email email of the user
+   * @param professor whether the user is a professor
+   * @return the saved user
+   */
+  public User user(String email, boolean professor) {
+    return user(email, null, professor);
+  }
+
+  /**
+   * Saves a user with an email and a full name.
+   * @param email email of the user
+   * @param fullName full name of the user
+   * @param professor whether the user is a professor
+   * @return the saved user
+   */
+  public User user(String email, String fullName, boolean professor) {
+    return userRepository.save(User.builder().email(email).fullName(fullName).professor(professor).build());
+  }
+
+  /**
+   * Saves a user with every profile field set, as after a Google login.
+   * @param email email of the user
+   * @param professor whether the user is a professor
+   * @return the saved user
+   */
+  public User googleUser(String email, boolean professor) {
+    return userRepository.save(User.builder()
+        .email(email)
+        .googleSub("115856948234298493496")
+        .pictureUrl("https://lh3.googleusercontent.com/a/ACg8ocJpOe2SqIpirdIMx7KTj1W4OQ45t6FwpUo40K2V2JON=s96-c")
+        .fullName("Full Name " + email)
+        .givenName("Given")
+        .familyName("Family")
+        .emailVerified(true)
+        .locale("en")
+        .hostedDomain("ucsb.edu")
+        .professor(professor)
+        .build());
+  }
+
+  /**
+   * @param requester the student
+   * @param professor the professor
+   * @return a builder of a pending request for a PhD program, due on {@link #DUE_DATE}
+   */
+  public static RecommendationRequestBuilder pending(User requester, User professor) {
+    return RecommendationRequest.builder()
+        .requester(requester)
+        .professor(professor)
+        .status("PENDING")
+        .recommendationType("PhD program")
+        .dueDate(DUE_DATE);
+  }
+
+  /**
+   * Saves a request and flushes it, so that queries and JDBC see it.
+   * @param request the request to save
+   * @return the saved request
+   */
+  public RecommendationRequest save(RecommendationRequestBuilder request) {
+    RecommendationRequest saved = recommendationRequestRepository.save(request.build());
+    entityManager.flush();
+    return saved;
+  }
+
+  /**
+   * Saves a pending request.
+   * @param requester the student
+   * @param professor the professor
+   * @return the saved request
+   */
+  public RecommendationRequest request(User requester, User professor) {
+    return save(pending(requester, professor));
+  }
+
+  /**
+   * Saves a request with a status.
+   * @param requester the student
+   * @param professor the professor
+   * @param status status of the request
+   * @return the saved request
+   */
+  public RecommendationRequest request(User requester, User professor, String status) {
+    return save(pending(requester, professor).status(status));
+  }
+
+  /**
+   * Sets the submission date of a saved request, which auditing sets to the
+   * time of the insert.
+   * @param request the request
+   * @param submissionDate the submission date, e.g. 2025-05-01T10:00:00
+   */
+  public void submitted(RecommendationRequest request, String submissionDate) {
+    jdbcTemplate.update("UPDATE recommendationrequest SET submission_date = ? WHERE id = ?",
+        LocalDateTime.parse(submissionDate), request.getId());
+  }
+}
@@ -0,0 +1,88 @@
+package edu.ucsb.cs156.rec.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import edu.ucsb.cs156.rec.entities.RecommendationRequest;
+import edu.ucsb.cs156.rec.entities.User;
+import edu.ucsb.cs156.rec.models.ListVersion;
+import edu.ucsb.cs156.rec.services.wiremock.WiremockService;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Checks that the ListVersion of a list changes whenever a row of the list is
+ * created, updated or deleted, and only then.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(RecommendationRequestFixtures.class)
+public class RecommendationRequestListVersionTests {
+
+  @Autowired
+  RecommendationRequestRepository recommendationRequestRepository;
+
+  @Autowired
+  RecommendationRequestFixtures fixtures;
+
+  @Autowired
+  EntityManager entityManager;
+
+  @MockBean
+  WiremockService mockWiremockService;
+
+  @Test
+  public void empty_lists_have_no_last_modified_date() {
+    ListVersion version = recommendationRequestRepository.findListVersion();
+
+    assertEquals(0L, version.count());
+    assertNull(version.lastModified());
+  }
+
+  @Test
+  public void versions_are_scoped_to_the_list() {
+    User student = fixtures.user("student@ucsb.edu", false);
+    User other = fixtures.user("other@ucsb.edu", false);
+    User professor = fixtures.user("prof@ucsb.edu", true);
+    RecommendationRequest pending = fixtures.request(student, professor, "PENDING");
+    fixtures.request(other, professor, "COMPLETED");
+
+    assertEquals(2L, recommendationRequestRepository.findListVersion().count());
+    assertEquals(1L, recommendationRequestRepository.findListVersionByRequesterId(student.getId()).count());
+    assertEquals(2L, recommendationRequestRepository.findListVersionByProfessorId(professor.getId()).count());
+    ListVersion pendingVersion = recommendationRequestRepository.findListVersionByProfessorIdAndStatus(professor.getId(), "PENDING");
+    assertEquals(1L, pendingVersion.count());
+    entityManager.clear();
+    assertEquals(recommendationRequestRepository.findById(pending.getId()).get().getLastModifiedDate(),
+        pendingVersion.lastModified());
+  }
+
+  @Test
+  public void updates_and_deletes_change_the_version() {
+    User student = fixtures.user("student@ucsb.edu", false);
+    User professor = fixtures.user("prof@ucsb.edu", true);
+    RecommendationRequest first = fixtures.request(student, professor, "PENDING");
+    RecommendationRequest second = fixtures.request(student, professor, "PENDING");
+    ListVersion created = recommendationRequestRepository.findListVersionByRequesterId(student.getId());
+
+    first.setDetails("new details");
+    recommendationRequestRepository.save(first);
+    entityManager.flush();
+    ListVersion updated = recommendationRequestRepository.findListVersionByRequesterId(student.getId());
+
+    recommendationRequestRepository.delete(second);
+    entityManager.flush();
+    ListVersion deleted = recommendationRequestRepository.findListVersionByRequesterId(student.getId());
+
+    assertNotEquals(created.etag(), updated.etag());
+    assertNotEquals(updated.etag(), deleted.etag());
+    assertEquals(deleted.etag(), recommendationRequestRepository.findListVersionByRequesterId(student.getId()).etag());
+  }
+}
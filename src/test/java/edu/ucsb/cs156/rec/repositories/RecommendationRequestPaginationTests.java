@@ -0,0 +1,69 @@
+package edu.ucsb.cs156.rec.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import edu.ucsb.cs156.rec.entities.RecommendationRequest;
+import edu.ucsb.cs156.rec.models.PageCursor;
+import edu.ucsb.cs156.rec.models.RecommendationRequestSummary;
+import edu.ucsb.cs156.rec.services.wiremock.WiremockService;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Checks that keyset pagination by (submissionDate, id) cannot leave a request
+ * out: every request has a submission date.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+public class RecommendationRequestPaginationTests {
+
+  @Autowired
+  RecommendationRequestRepository recommendationRequestRepository;
+
+  @Autowired
+  EntityManager entityManager;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @MockBean
+  WiremockService mockWiremockService;
+
+  @Test
+  public void requests_saved_without_a_submission_date_get_one_and_are_listed() {
+    RecommendationRequest request = recommendationRequestRepository.save(
+        RecommendationRequest.builder().status("PENDING").build());
+    entityManager.flush();
+    entityManager.clear();
+
+    List<RecommendationRequestSummary> page = recommendationRequestRepository.findSummaryPage(
+        PageCursor.FIRST.submissionDate(), PageCursor.FIRST.id(), Limit.of(10));
+
+    assertEquals(1, page.size());
+    assertEquals(request.getId(), page.get(0).id());
+    assertNotNull(page.get(0).submissionDate());
+  }
+
+  @Test
+  public void a_null_submission_date_is_rejected() {
+    RecommendationRequest request = recommendationRequestRepository.save(RecommendationRequest.builder()
+        .status("PENDING").submissionDate(LocalDateTime.parse("2025-05-01T10:00:00")).build());
+    entityManager.flush();
+
+    assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+        "UPDATE recommendationrequest SET submission_date = NULL WHERE id = ?", request.getId()));
+  }
+}
@@ -0,0 +1,185 @@
+package edu.ucsb.cs156.rec.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import edu.ucsb.cs156.rec.entities.RecommendationRequest;
+import edu.ucsb.cs156.rec.entities.User;
+import edu.ucsb.cs156.rec.models.PageCursor;
+import edu.ucsb.cs156.rec.models.RecommendationRequestSummary;
+import edu.ucsb.cs156.rec.services.wiremock.WiremockService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Uses Hibernate statistics to check that loading a list of recommendation
+ * requests takes the same number of queries no matter how many rows (and
+ * distinct requesters and professors) are returned, i.e. that there is no N+1.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(RecommendationRequestFixtures.class)
+public class RecommendationRequestQueryCountTests {
+
+  @Autowired
+  RecommendationRequestRepository recommendationRequestRepository;
+
+  @Autowired
+  UserRepository userRepository;
+
+  @Autowired
+  RecommendationRequestFixtures fixtures;
+
+  @Autowired
+  EntityManager entityManager;
+
+  @Autowired
+  EntityManagerFactory entityManagerFactory;
+
+  @MockBean
+  WiremockService mockWiremockService;
+
+  Statistics statistics;
+
+  User professor;
+
+  @BeforeEach
+  void setup() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    professor = fixtures.user("prof@ucsb.edu", "Prof", true);
+  }
+
+  /** Saves n requests to the professor, each from a different student */
+  private void saveRequests(int n) {
+    for (int i = 0; i < n; i++) {
+      fixtures.request(fixtures.user("student" + i + "@ucsb.edu", false), professor);
+    }
+    entityManager.clear();
+  }
+
+  /** Runs a query and returns the number of JDBC statements it needed */
+  private long countQueries(Supplier<Iterable<RecommendationRequest>> query, int expectedRows) {
+    statistics.clear();
+    Iterable<RecommendationRequest> rows = query.get();
+    int count = 0;
+    for (RecommendationRequest row : rows) {
+      row.getRequester().getEmail();
+      row.getProfessor().getEmail();
+      count++;
+    }
+    assertEquals(expectedRows, count);
+    long statements = statistics.getPrepareStatementCount();
+    entityManager.clear();
+    return statements;
+  }
+
+  private void assertConstantQueryCount(int n, Supplier<Iterable<RecommendationRequest>> query) {
+    saveRequests(n);
+    assertEquals(1, countQueries(query, n));
+  }
+
+  @Test
+  public void findPageByProfessorId_is_a_single_query() {
+    PageCursor first = PageCursor.FIRST;
+    assertConstantQueryCount(20, () -> recommendationRequestRepository.findPageByProfessorId(
+        professor.getId(), first.submissionDate(), first.id(), Limit.of(100)));
+  }
+
+  @Test
+  public void findPageByProfessorIdAndStatus_is_a_single_query() {
+    PageCursor first = PageCursor.FIRST;
+    assertConstantQueryCount(20, () -> recommendationRequestRepository.findPageByProfessorIdAndStatus(
+        professor.getId(), "PENDING", first.submissionDate(), first.id(), Limit.of(100)));
+  }
+
+  @Test
+  public void findPage_is_a_single_query() {
+    PageCursor first = PageCursor.FIRST;
+    assertConstantQueryCount(20, () -> recommendationRequestRepository.findPage(
+        first.submissionDate(), first.id(), Limit.of(100)));
+  }
+
+  @Test
+  public void findPageByRequesterId_is_a_single_query() {
+    saveRequests(3);
+    User student = userRepository.findByEmail("student1@ucsb.edu").get();
+    PageCursor first = PageCursor.FIRST;
+    assertEquals(1, countQueries(() -> recommendationRequestRepository.findPageByRequesterId(
+        student.getId(), first.submissionDate(), first.id(), Limit.of(100)), 1));
+  }
+
+  @Test
+  public void findAll_is_a_single_query() {
+    assertConstantQueryCount(20, () -> recommendationRequestRepository.findAll());
+  }
+
+  @Test
+  public void query_count_does_not_grow_with_result_size() {
+    saveRequests(2);
+    PageCursor first = PageCursor.FIRST;
+    long small = countQueries(() -> recommendationRequestRepository.findPageByProfessorId(
+        professor.getId(), first.submissionDate(), first.id(), Limit.of(100)), 2);
+    for (int i = 2; i < 30; i++) {
+      fixtures.request(fixtures.user("more" + i + "@ucsb.edu", false), professor);
+    }
+    entityManager.clear();
+    long large = countQueries(() -> recommendationRequestRepository.findPageByProfessorId(
+        professor.getId(), first.submissionDate(), first.id(), Limit.of(100)), 30);
+    assertEquals(small, large);
+  }
+
+  /** Runs a summary query and returns the number of JDBC statements it needed */
+  private long countSummaryQueries(Supplier<List<RecommendationRequestSummary>> query, int expectedRows) {
+    statistics.clear();
+    assertEquals(expectedRows, query.get().size());
+    return statistics.getPrepareStatementCount();
+  }
+
+  @Test
+  public void findSummaryPage_is_a_single_query() {
+    saveRequests(20);
+    PageCursor first = PageCursor.FIRST;
+    assertEquals(1, countSummaryQueries(() -> recommendationRequestRepository.findSummaryPage(
+        first.submissionDate(), first.id(), Limit.of(100)), 20));
+  }
+
+  @Test
+  public void findSummaryPageByProfessorId_is_a_single_query() {
+    saveRequests(20);
+    PageCursor first = PageCursor.FIRST;
+    assertEquals(1, countSummaryQueries(() -> recommendationRequestRepository.findSummaryPageByProfessorId(
+        professor.getId(), first.submissionDate(), first.id(), Limit.of(100)), 20));
+  }
+
+  @Test
+  public void findSummaryPageByProfessorIdAndStatus_is_a_single_query() {
+    saveRequests(20);
+    PageCursor first = PageCursor.FIRST;
+    assertEquals(1, countSummaryQueries(() -> recommendationRequestRepository.findSummaryPageByProfessorIdAndStatus(
+        professor.getId(), "PENDING", first.submissionDate(), first.id(), Limit.of(100)), 20));
+  }
+
+  @Test
+  public void findSummaryPageByRequesterId_is_a_single_query() {
+    saveRequests(3);
+    User student = userRepository.findByEmail("student1@ucsb.edu").get();
+    PageCursor first = PageCursor.FIRST;
+    assertEquals(1, countSummaryQueries(() -> recommendationRequestRepository.findSummaryPageByRequesterId(
+        student.getId(), first.submissionDate(), first.id(), Limit.of(100)), 1));
+  }
+}
@@ -0,0 +1,395 @@
+package edu.ucsb.cs156.rec.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import edu.ucsb.cs156.rec.entities.RecommendationRequest;
+import edu.ucsb.cs156.rec.entities.User;
+import edu.ucsb.cs156.rec.models.QueryCursor;
+import edu.ucsb.cs156.rec.models.RankedId;
+import edu.ucsb.cs156.rec.models.RecommendationRequestQuery;
+import edu.ucsb.cs156.rec.models.RecommendationRequestSort;
+import edu.ucsb.cs156.rec.models.RecommendationRequestSummary;
+import edu.ucsb.cs156.rec.models.SearchCursor;
+import edu.ucsb.cs156.rec.services.wiremock.WiremockService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Query;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Checks the queries built from RecommendationRequestSpecifications: each
+ * criterion, both orders, and paging through them with a QueryCursor; and the
+ * full-text search of the details.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(RecommendationRequestFixtures.class)
+public class RecommendationRequestSearchTests {
+
+  static final RecommendationRequestQuery ALL = query(null, null, null, null);
+
+  @Autowired
+  RecommendationRequestRepository recommendationRequestRepository;
+
+  @Autowired
+  RecommendationRequestFixtures fixtures;
+
+  @Autowired
+  EntityManager entityManager;
+
+  @Autowired
+  EntityManagerFactory entityManagerFactory;
+
+  @MockBean
+  WiremockService mockWiremockService;
+
+  User student;
+  User otherStudent;
+  User professor;
+  User otherProfessor;
+
+  @BeforeEach
+  void setup() {
+    student = fixtures.user("sam@ucsb.edu", "Sam Student", false);
+    otherStudent = fixtures.user("alex_100%@ucsb.edu", "Alex Other", false);
+    professor = fixtures.user("prof@ucsb.edu", "Pat Professor", true);
+    otherProfessor = fixtures.user("other@ucsb.edu", true);
+  }
+
+  private static RecommendationRequestQuery query(Long professorId, Set<String> statuses,
+      String recommendationType, String requester) {
+    return new RecommendationRequestQuery(professorId, statuses, recommendationType, requester,
+        null, null, null, null);
+  }
+
+  private RecommendationRequest request(String details, User requester, User professor, String status,
+      String type, String due, String submitted) {
+    RecommendationRequest request = fixtures.save(RecommendationRequestFixtures.pending(requester, professor)
+        .recommendationType(type)
+        .details(details)
+        .status(status)
+        .dueDate(due == null ? null : LocalDateTime.parse(due)));
+    fixtures.submitted(request, submitted);
+    return request;
+  }
+
+  private RecommendationRequest request(String details, String due, String submitted) {
+    return request(details, student, professor, "PENDING", "PhD program", due, submitted);
+  }
+
+  private List<String> find(RecommendationRequestQuery query, RecommendationRequestSort sort) {
+    return details(find(query, null, sort, 100));
+  }
+
+  private List<RecommendationRequestSummary> find(RecommendationRequestQuery query, QueryCursor cursor,
+      RecommendationRequestSort sort, int limit) {
+    entityManager.clear();
+    return recommendationRequestRepository.findSummaries(query, cursor, sort, Limit.of(limit));
+  }
+
+  private static List<String> details(List<RecommendationRequestSummary> rows) {
+    return rows.stream().map(RecommendationRequestSummary::details).toList();
+  }
+
+  /**
+   * @return the details of every row, reading pages of the given size with the
+   * cursor of the last row of each page, encoded and decoded as by the controller
+   */
+  private List<String> page(RecommendationRequestQuery query, RecommendationRequestSort sort, int size) {
+    List<String> all = new ArrayList<>();
+    QueryCursor cursor = null;
+    while (true) {
+      List<RecommendationRequestSummary> rows = find(query, cursor, sort, size);
+      all.addAll(details(rows));
+      if (rows.size() < size) {
+        return all;
+      }
+      cursor = QueryCursor.decode(sort.cursorOf(rows.get(size - 1)).encode(), sort);
+    }
+  }
+
+  @Test
+  public void every_request_is_found_newest_first_without_criteria() {
+    request("older", "2026-03-01T00:00:00", "2026-01-01T00:00:00");
+    request("newer", null, "2026-02-01T00:00:00");
+    request(null, null, null, null, null, null, "2026-01-15T00:00:00");
+
+    List<RecommendationRequestSummary> rows = find(ALL, null, RecommendationRequestSort.SUBMISSION_DATE, 10);
+
+    assertEquals(3, rows.size());
+    assertEquals("newer", rows.get(0).details());
+    assertEquals("Sam Student", rows.get(0).requester().fullName());
+    assertEquals("Pat Professor", rows.get(0).professor().fullName());
+    assertNull(rows.get(1).requester());
+    assertNull(rows.get(1).professor());
+    assertEquals("older", rows.get(2).details());
+  }
+
+  @Test
+  public void requests_are_filtered_by_professor_status_and_type() {
+    request("match", student, professor, "PENDING", "PhD program", null, "2026-01-01T00:00:00");
+    request("completed", student, professor, "COMPLETED", "PhD program", null, "2026-01-02T00:00:00");
+    request("denied", student, professor, "DENIED", "PhD program", null, "2026-01-03T00:00:00");
+    request("other professor", student, otherProfessor, "PENDING", "PhD program", null, "2026-01-04T00:00:00");
+    request("other type", student, professor, "PENDING", "Internship", null, "2026-01-05T00:00:00");
+
+    assertEquals(List.of("match"),
+        find(query(professor.getId(), Set.of("PENDING"), "PhD program", null), RecommendationRequestSort.SUBMISSION_DATE));
+    assertEquals(List.of("other type", "denied", "match"),
+        find(query(professor.getId(), Set.of("PENDING", "DENIED"), null, null), RecommendationRequestSort.SUBMISSION_DATE));
+    assertEquals(5, find(query(null, Set.of(), null, null), RecommendationRequestSort.SUBMISSION_DATE).size());
+  }
+
+  @Test
+  public void requests_are_filtered_by_requester_name_or_email_ignoring_case() {
+    request("sam", student, professor, "PENDING", "PhD program", null, "2026-01-01T00:00:00");
+    request("alex", otherStudent, professor, "PENDING", "PhD program", null, "2026-01-02T00:00:00");
+
+    assertEquals(List.of("sam"), find(query(null, null, null, " STUDENT "), RecommendationRequestSort.SUBMISSION_DATE));
+    assertEquals(List.of("alex"), find(query(null, null, null, "Alex_"), RecommendationRequestSort.SUBMISSION_DATE));
+    assertEquals(List.of("alex", "sam"), find(query(null, null, null, "@ucsb"), RecommendationRequestSort.SUBMISSION_DATE));
+    assertEquals(List.of("alex", "sam"), find(query(null, null, null, " "), RecommendationRequestSort.SUBMISSION_DATE));
+  }
+
+  @Test
+  public void like_wildcards_in_the_requester_text_are_matched_literally() {
+    request("sam", student, professor, "PENDING", "PhD program", null, "2026-01-01T00:00:00");
+    request("alex", otherStudent, professor, "PENDING", "PhD program", null, "2026-01-02T00:00:00");
+
+    assertEquals(List.of("alex"), find(query(null, null, null, "100%"), RecommendationRequestSort.SUBMISSION_DATE));
+    assertEquals(List.of("alex"), find(query(null, null, null, "x_1"), RecommendationRequestSort.SUBMISSION_DATE));
+    assertEquals(List.of("alex"), find(query(null, null, null, "%"), RecommendationRequestSort.SUBMISSION_DATE));
+    assertEquals(List.of(), find(query(null, null, null, "s_m"), RecommendationRequestSort.SUBMISSION_DATE));
+    assertEquals(List.of(), find(query(null, null, null, "a\\"), RecommendationRequestSort.SUBMISSION_DATE));
+  }
+
+  @Test
+  public void the_requester_filter_reuses_the_requester_join() {
+    request("sam", "2026-03-01T00:00:00", "2026-01-01T00:00:00");
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    assertEquals(List.of("sam"), find(query(professor.getId(), null, null, "sam"), RecommendationRequestSort.DUE_DATE));
+
+    // the requests with a due date, then those without
+    assertEquals(2, statistics.getPrepareStatementCount());
+    assertEquals(0, statistics.getEntityLoadCount());
+    for (String sql : statistics.getQueries()) {
+      // the requester and the professor
+      assertEquals(2, sql.split(" join ", -1).length - 1, sql);
+    }
+  }
+
+  @Test
+  public void the_requester_filter_joins_the_requester_in_a_query_without_the_join() {
+    request("sam", student, professor, "PENDING", "PhD program", null, "2026-01-01T00:00:00");
+    request("alex", otherStudent, professor, "PENDING", "PhD program", null, "2026-01-02T00:00:00");
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Long> count = cb.createQuery(Long.class);
+    Root<RecommendationRequest> root = count.from(RecommendationRequest.class);
+    count.select(cb.count(root)).where(RecommendationRequestSpecifications.requesterContains("alex")
+        .toPredicate(root, count, cb));
+
+    assertEquals(1L, entityManager.createQuery(count).getSingleResult());
+  }
+
+  @Test
+  public void requests_are_filtered_by_due_and_submission_dates() {
+    request("due before", "2026-03-31T23:59:59", "2026-01-01T00:00:00");
+    request("due first day", "2026-04-01T00:00:00", "2026-01-02T00:00:00");
+    request("due last day", "2026-04-30T23:59:59", "2026-01-03T00:00:00");
+    request("due after", "2026-05-01T00:00:00", "2026-01-04T00:00:00");
+    request("no due date", null, "2026-01-05T00:00:00");
+
+    LocalDateTime april = LocalDateTime.parse("2026-04-01T00:00:00");
+    LocalDateTime may = LocalDateTime.parse("2026-05-01T00:00:00");
+    assertEquals(List.of("due first day", "due last day"), find(
+        new RecommendationRequestQuery(null, null, null, null, april, may, null, null), RecommendationRequestSort.DUE_DATE));
+    assertEquals(List.of("due before", "due first day", "due last day"), find(
+        new RecommendationRequestQuery(null, null, null, null, null, may, null, null), RecommendationRequestSort.DUE_DATE));
+    assertEquals(List.of("due first day", "due last day", "due after"), find(
+        new RecommendationRequestQuery(null, null, null, null, april, null, null, null), RecommendationRequestSort.DUE_DATE));
+    assertEquals(List.of("due last day", "due first day"), find(
+        new RecommendationRequestQuery(null, null, null, null, null, null,
+            LocalDateTime.parse("2026-01-02T00:00:00"), LocalDateTime.parse("2026-01-04T00:00:00")),
+        RecommendationRequestSort.SUBMISSION_DATE));
+  }
+
+  @Test
+  public void due_date_order_is_soonest_first_then_requests_without_a_due_date() {
+    RecommendationRequest noDueFirst = request("no due date 1", null, "2026-01-01T00:00:00");
+    request("later", "2026-05-01T00:00:00", "2026-01-02T00:00:00");
+    request("sooner", "2026-04-01T00:00:00", "2026-01-03T00:00:00");
+    RecommendationRequest noDueSecond = request("no due date 2", null, "2026-01-04T00:00:00");
+    request("sooner too", "2026-04-01T00:00:00", "2026-01-05T00:00:00");
+
+    assertEquals(List.of("sooner", "sooner too", "later",
+        noDueFirst.getId() < noDueSecond.getId() ? "no due date 1" : "no due date 2",
+        noDueFirst.getId() < noDueSecond.getId() ? "no due date 2" : "no due date 1"),
+        find(ALL, RecommendationRequestSort.DUE_DATE));
+  }
+
+  @Test
+  public void pages_of_every_size_cover_every_request_once_in_order() {
+    request("a", "2026-04-01T00:00:00", "2026-01-01T00:00:00");
+    request("b", "2026-04-01T00:00:00", "2026-01-01T00:00:00");
+    request("c", null, "2026-01-02T00:00:00");
+    request("d", "2026-03-01T00:00:00", "2026-01-02T00:00:00");
+    request("e", null, "2026-01-03T00:00:00");
+    request("f", null, "2026-01-01T00:00:00");
+    request("g", "2026-05-01T00:00:00", "2026-01-04T00:00:00");
+
+    for (RecommendationRequestSort sort : RecommendationRequestSort.values()) {
+      List<String> expected = find(ALL, sort);
+      assertEquals(7, expected.size());
+      for (int size = 1; size <= 8; size++) {
+        assertEquals(expected, page(ALL, sort, size), sort + " in pages of " + size);
+      }
+    }
+  }
+
+  @Test
+  public void due_date_keysets_are_ranges_of_the_due_date_index() {
+    RecommendationRequest first = request("a", "2026-04-01T00:00:00", "2026-01-01T00:00:00");
+    request("b", "2026-04-01T00:00:00", "2026-01-02T00:00:00");
+    RecommendationRequest undated = request("c", null, "2026-01-03T00:00:00");
+    request("d", null, "2026-01-04T00:00:00");
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+    statistics.clear();
+    assertEquals(List.of("b"), details(find(ALL,
+        new QueryCursor(RecommendationRequestSort.DUE_DATE, first.getDueDate(), first.getId()),
+        RecommendationRequestSort.DUE_DATE, 1)));
+    // a full page of requests with a due date does not read those without
+    assertEquals(1, statistics.getPrepareStatementCount());
+    String sql = statistics.getQueries()[0];
+    assertTrue(sql.contains("rr1_0.due_date>=?"), sql);
+    assertFalse(sql.contains("due_date is null"), sql);
+
+    statistics.clear();
+    assertEquals(List.of("d"), details(find(ALL,
+        new QueryCursor(RecommendationRequestSort.DUE_DATE, null, undated.getId()),
+        RecommendationRequestSort.DUE_DATE, 2)));
+    // a cursor without a due date only reads the requests without one
+    assertEquals(1, statistics.getPrepareStatementCount());
+  }
+
+  @Test
+  public void sorts_are_named_by_their_property() {
+    assertEquals(RecommendationRequestSort.SUBMISSION_DATE, RecommendationRequestSort.of("submissionDate"));
+    assertEquals(RecommendationRequestSort.DUE_DATE, RecommendationRequestSort.of("dueDate"));
+    assertEquals("dueDate", RecommendationRequestSort.DUE_DATE.getProperty());
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        () -> RecommendationRequestSort.of("status"));
+    assertEquals("Invalid sort: status", e.getMessage());
+  }
+
+  private static String encode(String raw) {
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void cursors_round_trip_and_the_first_page_has_none() {
+    QueryCursor dated = new QueryCursor(RecommendationRequestSort.SUBMISSION_DATE, LocalDateTime.parse("2026-01-01T09:30:00"), 7);
+    QueryCursor undated = new QueryCursor(RecommendationRequestSort.DUE_DATE, null, 8);
+
+    assertEquals(dated, QueryCursor.decode(dated.encode(), RecommendationRequestSort.SUBMISSION_DATE));
+    assertEquals(undated, QueryCursor.decode(undated.encode(), RecommendationRequestSort.DUE_DATE));
+    assertNull(QueryCursor.decode(null, RecommendationRequestSort.DUE_DATE));
+    assertNull(QueryCursor.decode("", RecommendationRequestSort.DUE_DATE));
+  }
+
+  @Test
+  public void malformed_cursors_are_rejected() {
+    for (String cursor : List.of(
+        "not base64!",
+        encode("DUE_DATE|2026-01-01T00:00"),
+        encode("SUBMISSION_DATE|2026-01-01T00:00|7"),
+        encode("DUE_DATE|yesterday|7"),
+        encode("DUE_DATE|2026-01-01T00:00|seven"))) {
+      IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+          () -> QueryCursor.decode(cursor, RecommendationRequestSort.DUE_DATE));
+      assertEquals("Invalid cursor: " + cursor, e.getMessage());
+    }
+    String undated = encode("SUBMISSION_DATE||7");
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        () -> QueryCursor.decode(undated, RecommendationRequestSort.SUBMISSION_DATE));
+    assertEquals("Invalid cursor: " + undated, e.getMessage());
+  }
+
+  /*
+   * The details of requests are only searched by the database on PostgreSQL,
+   * so here the native query is only checked against a mock EntityManager.
+   */
+  private RecommendationRequestSearchImpl searchWithRows(Query query, List<Object[]> rows) {
+    EntityManager mockEntityManager = mock(EntityManager.class);
+    when(mockEntityManager.createNativeQuery(anyString(), eq(Object[].class))).thenReturn(query);
+    when(query.setMaxResults(11)).thenReturn(query);
+    when(query.getResultList()).thenReturn(new ArrayList<>(rows));
+    RecommendationRequestSearchImpl search = new RecommendationRequestSearchImpl();
+    search.entityManager = mockEntityManager;
+    return search;
+  }
+
+  @Test
+  public void details_are_searched_with_the_tsvector_of_one_professor() {
+    Query query = mock(Query.class);
+    RecommendationRequestSearchImpl search = searchWithRows(query,
+        List.of(new Object[] { 9L, 0.5f }, new Object[] { BigInteger.valueOf(4), 0.25d }));
+
+    List<RankedId> hits = search.searchDetails("cmpsc 156", 7L, new SearchCursor(0.75f, 12L), Limit.of(11));
+
+    assertEquals(List.of(new RankedId(9L, 0.5f), new RankedId(4L, 0.25f)), hits);
+    verify(search.entityManager).createNativeQuery(
+        RecommendationRequestSearchImpl.SEARCH_DETAILS.formatted("AND r.professor_id = :professorId"), Object[].class);
+    verify(query).setParameter("text", "cmpsc 156");
+    verify(query).setParameter("rank", 0.75f);
+    verify(query).setParameter("id", 12L);
+    verify(query).setParameter("professorId", 7L);
+  }
+
+  @Test
+  public void details_of_every_professor_are_searched_without_a_professor_parameter() {
+    Query query = mock(Query.class);
+    RecommendationRequestSearchImpl search = searchWithRows(query, List.of());
+
+    assertEquals(List.of(), search.searchDetails("phd", null, SearchCursor.FIRST, Limit.of(11)));
+
+    verify(search.entityManager).createNativeQuery(RecommendationRequestSearchImpl.SEARCH_DETAILS.formatted(""), Object[].class);
+    verify(query, times(0)).setParameter(eq("professorId"), any());
+  }
+}
@@ -0,0 +1,134 @@
+package edu.ucsb.cs156.rec.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import edu.ucsb.cs156.rec.entities.RecommendationRequest;
+import edu.ucsb.cs156.rec.entities.User;
+import edu.ucsb.cs156.rec.models.PageCursor;
+import edu.ucsb.cs156.rec.models.RecommendationRequestSummary;
+import edu.ucsb.cs156.rec.services.wiremock.WiremockService;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Checks the RecommendationRequestSummary projection against the entities it
+ * replaces in request lists, and records how much smaller and faster to
+ * serialize a page of summaries is.
+ */
+@Slf4j
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(RecommendationRequestFixtures.class)
+public class RecommendationRequestSummaryTests {
+
+  @Autowired
+  RecommendationRequestRepository recommendationRequestRepository;
+
+  @Autowired
+  RecommendationRequestFixtures fixtures;
+
+  @Autowired
+  EntityManager entityManager;
+
+  @MockBean
+  WiremockService mockWiremockService;
+
+  ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+  private void saveRequests(int n) {
+    User professor = fixtures.googleUser("prof@ucsb.edu", true);
+    for (int i = 0; i < n; i++) {
+      fixtures.save(RecommendationRequestFixtures.pending(fixtures.googleUser("student" + i + "@ucsb.edu", false), professor)
+          .details("Applying to the PhD program in Computer Science"));
+    }
+    entityManager.clear();
+  }
+
+  @Test
+  public void summaries_match_the_entities() {
+    saveRequests(3);
+    PageCursor first = PageCursor.FIRST;
+
+    List<RecommendationRequest> full = recommendationRequestRepository.findPage(
+        first.submissionDate(), first.id(), Limit.of(10));
+    List<RecommendationRequestSummary> summaries = recommendationRequestRepository.findSummaryPage(
+        first.submissionDate(), first.id(), Limit.of(10));
+
+    assertEquals(full.size(), summaries.size());
+    for (int i = 0; i < full.size(); i++) {
+      RecommendationRequest r = full.get(i);
+      RecommendationRequestSummary s = summaries.get(i);
+      assertEquals(r.getId(), s.id());
+      assertEquals(r.getSubmissionDate(), s.submissionDate());
+      assertEquals(r.getDetails(), s.details());
+      assertEquals(r.getRequester().getFullName(), s.requester().fullName());
+      assertEquals(r.getRequester().getEmail(), s.requester().email());
+      assertEquals(r.getProfessor().getId(), s.professor().id());
+    }
+  }
+
+  @Test
+  public void missing_users_are_null() {
+    recommendationRequestRepository.save(RecommendationRequest.builder().status("PENDING").build());
+    entityManager.flush();
+    entityManager.clear();
+    PageCursor first = PageCursor.FIRST;
+
+    RecommendationRequestSummary summary = recommendationRequestRepository.findSummaryPage(
+        first.submissionDate(), first.id(), Limit.of(10)).get(0);
+
+    assertNull(summary.requester());
+    assertNull(summary.professor());
+  }
+
+  /** Serializes a list a number of times and returns the average time in nanoseconds */
+  private long serializationNanos(List<?> rows, int repetitions) throws Exception {
+    long start = System.nanoTime();
+    for (int i = 0; i < repetitions; i++) {
+      mapper.writeValueAsBytes(rows);
+    }
+    return (System.nanoTime() - start) / repetitions;
+  }
+
+  @Test
+  public void summary_payload_is_smaller_per_1000_rows() throws Exception {
+    saveRequests(1000);
+    PageCursor first = PageCursor.FIRST;
+
+    List<RecommendationRequest> full = new ArrayList<>(recommendationRequestRepository.findPage(
+        first.submissionDate(), first.id(), Limit.of(1000)));
+    List<RecommendationRequestSummary> summaries = recommendationRequestRepository.findSummaryPage(
+        first.submissionDate(), first.id(), Limit.of(1000));
+    assertEquals(1000, full.size());
+    assertEquals(1000, summaries.size());
+
+    int fullBytes = mapper.writeValueAsBytes(full).length;
+    int summaryBytes = mapper.writeValueAsBytes(summaries).length;
+    // warm up before timing
+    serializationNanos(full, 5);
+    serializationNanos(summaries, 5);
+    long fullNanos = serializationNanos(full, 20);
+    long summaryNanos = serializationNanos(summaries, 20);
+
+    log.info("1000 rows: full view {} bytes in {} us, summary view {} bytes in {} us",
+        fullBytes, fullNanos / 1000, summaryBytes, summaryNanos / 1000);
+    assertTrue(summaryBytes * 2 < fullBytes,
+        "summary payload " + summaryBytes + " bytes should be less than half of " + fullBytes);
+  }
+}
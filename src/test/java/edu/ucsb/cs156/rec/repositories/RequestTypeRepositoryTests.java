@@ -0,0 +1,65 @@
+package edu.ucsb.cs156.rec.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import edu.ucsb.cs156.rec.entities.RequestType;
+import edu.ucsb.cs156.rec.services.wiremock.WiremockService;
+
+/**
+ * Checks the uniqueness lookups of RequestTypeRepository against the unique
+ * index created by the Liquibase changelog.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+public class RequestTypeRepositoryTests {
+
+  @Autowired
+  RequestTypeRepository requestTypeRepository;
+
+  @MockBean
+  WiremockService mockWiremockService;
+
+  @Test
+  public void existsByRequestType_finds_saved_names() {
+    requestTypeRepository.save(RequestType.builder().requestType("Uniqueness test").build());
+
+    assertTrue(requestTypeRepository.existsByRequestType("Uniqueness test"));
+    assertFalse(requestTypeRepository.existsByRequestType("Something else"));
+  }
+
+  @Test
+  public void existsByRequestTypeAndIdNot_ignores_the_given_id() {
+    RequestType saved = requestTypeRepository.save(RequestType.builder().requestType("Uniqueness test").build());
+
+    assertFalse(requestTypeRepository.existsByRequestTypeAndIdNot("Uniqueness test", saved.getId()));
+    assertTrue(requestTypeRepository.existsByRequestTypeAndIdNot("Uniqueness test", saved.getId() + 1));
+  }
+
+  /**
+   * Ids come from a sequence, so the insert only reaches the index when the
+   * transaction of save commits; as in RequestTypeController, there is no
+   * surrounding transaction here.
+   */
+  @Test
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public void unique_index_rejects_duplicate_names() {
+    RequestType saved = requestTypeRepository.save(RequestType.builder().requestType("Uniqueness test").build());
+    try {
+      assertThrows(DataIntegrityViolationException.class,
+          () -> requestTypeRepository.save(RequestType.builder().requestType("Uniqueness test").build()));
+    } finally {
+      requestTypeRepository.delete(saved);
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package edu.ucsb.cs156.rec.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import edu.ucsb.cs156.rec.entities.User;
+import edu.ucsb.cs156.rec.models.ProfessorSummary;
+import edu.ucsb.cs156.rec.services.wiremock.WiremockService;
+
+@DataJpaTest
+@ActiveProfiles("test")
+public class UserRepositoryTests {
+
+  @Autowired
+  UserRepository userRepository;
+
+  @MockBean
+  WiremockService mockWiremockService;
+
+  @Test
+  public void findProfessorSummaries_returns_only_professors_in_id_order() {
+    User second = userRepository.save(User.builder().email("b@ucsb.edu").fullName("Prof B").professor(true).build());
+    userRepository.save(User.builder().email("student@ucsb.edu").fullName("Student").build());
+    User first = userRepository.save(User.builder().email("a@ucsb.edu").fullName("Prof A").professor(true).build());
+
+    assertEquals(List.of(
+        new ProfessorSummary(second.getId(), "Prof B"),
+        new ProfessorSummary(first.getId(), "Prof A")),
+        userRepository.findProfessorSummaries());
+  }
+
+  @Test
+  public void users_can_be_streamed_and_paged_by_id() {
+    User a = userRepository.save(User.builder().email("a@ucsb.edu").build());
+    User b = userRepository.save(User.builder().email("b@ucsb.edu").build());
+    User c = userRepository.save(User.builder().email("c@ucsb.edu").build());
+
+    assertEquals(List.of(b.getId(), c.getId()), userRepository.findIdsByIdGreaterThan(a.getId(), Limit.of(5)));
+    try (Stream<User> users = userRepository.streamByIdGreaterThan(a.getId(), Limit.of(1))) {
+      assertEquals(List.of("b@ucsb.edu"), users.map(User::getEmail).toList());
+    }
+    try (Stream<User> users = userRepository.streamByIdGreaterThan(0L, Limit.unlimited())) {
+      assertEquals(List.of(a, b, c), users.toList());
+    }
+  }
+}
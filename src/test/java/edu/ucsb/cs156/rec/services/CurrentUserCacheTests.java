@@ -0,0 +1,242 @@
+package edu.ucsb.cs156.rec.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import edu.ucsb.cs156.rec.entities.User;
+
+class CurrentUserCacheTests {
+
+  /** A clock that tests can move forward by hand */
+  static class MutableClock extends Clock {
+    Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+
+  MutableClock clock;
+  CurrentUserCache cache;
+
+  User joe = User.builder().id(1L).email("joe@ucsb.edu").build();
+  User ann = User.builder().id(2L).email("ann@ucsb.edu").build();
+  User bob = User.builder().id(3L).email("bob@ucsb.edu").build();
+
+  @BeforeEach
+  void setup() {
+    clock = new MutableClock();
+    cache = new CurrentUserCache(Duration.ofMinutes(5), 2, clock);
+  }
+
+  @Test
+  void miss_then_hit() {
+    assertTrue(cache.get("joe@ucsb.edu").isEmpty());
+    cache.put(joe);
+    assertEquals(joe, cache.get("joe@ucsb.edu").get());
+    assertEquals(1, cache.getHits());
+    assertEquals(1, cache.getMisses());
+  }
+
+  @Test
+  void hits_are_copies_that_do_not_share_changes() {
+    User admin = User.builder().id(5L).email("admin@ucsb.edu").fullName("Admin").googleSub("sub")
+        .pictureUrl("picture").givenName("Ad").familyName("Min").emailVerified(true).locale("en")
+        .hostedDomain("ucsb.edu").admin(true).professor(true).build();
+    cache.put(admin);
+    admin.setFullName("Changed after put");
+
+    User first = cache.get("admin@ucsb.edu").get();
+    first.setAdmin(false);
+    User second = cache.get("admin@ucsb.edu").get();
+
+    assertNotSame(first, second);
+    assertEquals("Admin", second.getFullName());
+    assertEquals(true, second.getAdmin());
+    assertEquals(User.builder().id(5L).email("admin@ucsb.edu").fullName("Admin").googleSub("sub")
+        .pictureUrl("picture").givenName("Ad").familyName("Min").emailVerified(true).locale("en")
+        .hostedDomain("ucsb.edu").admin(true).professor(true).build(), second);
+  }
+
+  @Test
+  void null_email_is_a_miss_and_is_not_stored() {
+    assertTrue(cache.get(null).isEmpty());
+    cache.put(User.builder().id(4L).build());
+    assertEquals(0, cache.size());
+    assertEquals(1, cache.getMisses());
+  }
+
+  @Test
+  void entries_expire_after_ttl() {
+    cache.put(joe);
+    clock.now = clock.now.plus(Duration.ofMinutes(5));
+    assertTrue(cache.get("joe@ucsb.edu").isEmpty());
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void invalidate_removes_by_email_and_by_id() {
+    cache.put(joe);
+    cache.invalidate(joe);
+    assertTrue(cache.get("joe@ucsb.edu").isEmpty());
+    assertEquals(1, cache.getEvictions());
+
+    cache.put(ann);
+    cache.invalidate(User.builder().id(2L).build());
+    assertTrue(cache.get("ann@ucsb.edu").isEmpty());
+    assertEquals(2, cache.getEvictions());
+
+    cache.put(joe);
+    cache.invalidate(bob);
+    assertEquals(joe, cache.get("joe@ucsb.edu").get());
+    assertEquals(2, cache.getEvictions());
+    // joe changed his email since he was cached under the old one
+    cache.put(User.builder().id(1L).email("joseph@ucsb.edu").build());
+    cache.invalidate(User.builder().id(1L).email("joe@ucsb.edu").build());
+    assertEquals(0, cache.size());
+    assertEquals(4, cache.getEvictions());
+  }
+
+  @Test
+  void invalidateAll_clears_everything() {
+    cache.put(joe);
+    cache.put(ann);
+    cache.invalidateAll();
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void size_is_bounded_by_evicting_oldest_entry() {
+    cache.put(joe);
+    clock.now = clock.now.plusSeconds(1);
+    cache.put(ann);
+    clock.now = clock.now.plusSeconds(1);
+    cache.put(bob);
+
+    assertEquals(2, cache.size());
+    assertTrue(cache.get("joe@ucsb.edu").isEmpty());
+    assertFalse(cache.get("ann@ucsb.edu").isEmpty());
+    assertFalse(cache.get("bob@ucsb.edu").isEmpty());
+    assertEquals(1, cache.getEvictions());
+  }
+
+  @Test
+  void size_bound_prefers_evicting_expired_entries() {
+    cache.put(joe);
+    clock.now = clock.now.plus(Duration.ofMinutes(4));
+    cache.put(ann);
+    clock.now = clock.now.plus(Duration.ofMinutes(2));
+    cache.put(bob);
+
+    assertEquals(2, cache.size());
+    assertFalse(cache.get("ann@ucsb.edu").isEmpty());
+    assertEquals(1, cache.getEvictions());
+  }
+
+  @Test
+  void every_expired_entry_counts_as_an_eviction() {
+    cache = new CurrentUserCache(Duration.ofMinutes(5), 3, clock);
+    cache.put(joe);
+    cache.put(ann);
+    clock.now = clock.now.plus(Duration.ofMinutes(4));
+    cache.put(bob);
+    clock.now = clock.now.plus(Duration.ofMinutes(2));
+    cache.put(User.builder().id(4L).email("sue@ucsb.edu").build());
+
+    assertEquals(2, cache.size());
+    assertEquals(2, cache.getEvictions());
+  }
+
+  @Test
+  void a_full_cache_of_expired_entries_is_emptied() {
+    cache.put(joe);
+    cache.put(ann);
+    clock.now = clock.now.plus(Duration.ofMinutes(6));
+    cache.put(bob);
+
+    assertEquals(1, cache.size());
+    assertEquals(2, cache.getEvictions());
+  }
+
+  @Test
+  void a_new_email_replaces_the_old_one_of_the_same_user() {
+    cache.put(joe);
+    cache.put(User.builder().id(1L).email("joseph@ucsb.edu").build());
+
+    assertTrue(cache.get("joe@ucsb.edu").isEmpty());
+    assertFalse(cache.get("joseph@ucsb.edu").isEmpty());
+    assertEquals(1, cache.getEvictions());
+  }
+
+  @Test
+  void replacing_an_entry_restarts_its_expiry() {
+    cache.put(joe);
+    clock.now = clock.now.plusSeconds(1);
+    cache.put(ann);
+    cache.put(joe);
+    cache.put(bob);
+
+    assertTrue(cache.get("ann@ucsb.edu").isEmpty());
+    assertFalse(cache.get("joe@ucsb.edu").isEmpty());
+  }
+
+  @Test
+  void a_cache_without_room_keeps_only_the_latest_entry() {
+    cache = new CurrentUserCache(Duration.ofMinutes(5), 0, clock);
+    cache.put(joe);
+    cache.put(ann);
+
+    assertEquals(1, cache.size());
+    assertFalse(cache.get("ann@ucsb.edu").isEmpty());
+  }
+
+  @Test
+  void replacing_an_existing_entry_does_not_evict() {
+    cache.put(joe);
+    cache.put(ann);
+    cache.put(joe);
+    assertEquals(2, cache.size());
+    assertEquals(0, cache.getEvictions());
+  }
+
+  @Test
+  void metrics_follow_the_counters() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    cache.bindTo(registry);
+
+    cache.get("joe@ucsb.edu");
+    cache.put(joe);
+    cache.get("joe@ucsb.edu");
+    cache.put(ann);
+    cache.put(bob);
+
+    assertEquals(1, registry.get("rec.user.cache.requests").tag("result", "hit").functionCounter().count());
+    assertEquals(1, registry.get("rec.user.cache.requests").tag("result", "miss").functionCounter().count());
+    assertEquals(1, registry.get("rec.user.cache.evictions").functionCounter().count());
+    assertEquals(2, registry.get("rec.user.cache.size").gauge().value());
+  }
+}
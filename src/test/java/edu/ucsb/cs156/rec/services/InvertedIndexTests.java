@@ -0,0 +1,91 @@
+package edu.ucsb.cs156.rec.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ucsb.cs156.rec.models.RankedId;
+import edu.ucsb.cs156.rec.models.RecommendationRequestText;
+import edu.ucsb.cs156.rec.models.SearchCursor;
+
+class InvertedIndexTests {
+
+  InvertedIndex index;
+
+  @BeforeEach
+  void setup() {
+    index = new InvertedIndex();
+  }
+
+  private List<Long> ids(String text) {
+    return index.search(text, null, SearchCursor.FIRST, 100).stream().map(RankedId::id).toList();
+  }
+
+  @Test
+  void words_are_lower_case_letters_and_digits_without_stop_words() {
+    assertEquals(List.of("cmpsc", "156", "phd", "program", "école"),
+        InvertedIndex.words("  CMPSC-156, the PhD program at École"));
+    assertEquals(List.of(), InvertedIndex.words(null));
+    assertEquals(List.of(), InvertedIndex.words("... of the"));
+  }
+
+  @Test
+  void rare_and_repeated_words_rank_higher() {
+    index.put(new RecommendationRequestText(1L, 7L, "PhD program"));
+    index.put(new RecommendationRequestText(2L, 7L, "PhD program, PhD"));
+    index.put(new RecommendationRequestText(3L, 7L, "Master's program"));
+    index.put(new RecommendationRequestText(4L, 7L, "Master's program"));
+
+    List<RankedId> hits = index.search("program phd", null, SearchCursor.FIRST, 100);
+
+    assertEquals(List.of(2L, 1L), hits.stream().map(RankedId::id).toList());
+    assertTrue(hits.get(0).rank() > hits.get(1).rank());
+    assertEquals(List.of(1L), index.search("program phd", null, new SearchCursor(hits.get(0).rank(), hits.get(0).id()), 100)
+        .stream().map(RankedId::id).toList());
+    // program is in every request, so it counts less than master's
+    assertTrue(index.search("master's", null, SearchCursor.FIRST, 100).get(0).rank()
+        > index.search("program", null, SearchCursor.FIRST, 100).get(0).rank());
+  }
+
+  @Test
+  void ties_are_broken_by_id_and_pages_start_after_the_cursor() {
+    for (long id = 1; id <= 5; id++) {
+      index.put(new RecommendationRequestText(id, 7L, "Internship"));
+    }
+    RankedId third = index.search("internship", null, SearchCursor.FIRST, 3).get(2);
+
+    assertEquals(List.of(5L, 4L, 3L), index.search("internship", null, SearchCursor.FIRST, 3).stream().map(RankedId::id).toList());
+    assertEquals(List.of(2L, 1L), index.search("internship", null, new SearchCursor(third.rank(), third.id()), 3)
+        .stream().map(RankedId::id).toList());
+  }
+
+  @Test
+  void requests_of_other_professors_and_without_a_professor_are_left_out() {
+    index.put(new RecommendationRequestText(1L, 7L, "Internship"));
+    index.put(new RecommendationRequestText(2L, 8L, "Internship"));
+    index.put(new RecommendationRequestText(3L, null, "Internship"));
+
+    assertEquals(List.of(1L), index.search("internship", 7L, SearchCursor.FIRST, 100).stream().map(RankedId::id).toList());
+  }
+
+  @Test
+  void put_replaces_the_text_and_remove_forgets_it() {
+    index.put(new RecommendationRequestText(1L, 7L, "Internship at a startup"));
+    index.put(new RecommendationRequestText(2L, 7L, "Internship at a bank"));
+    index.put(new RecommendationRequestText(1L, 7L, "PhD program"));
+
+    assertEquals(List.of(2L), ids("internship"));
+    assertEquals(List.of(), ids("startup"));
+    assertEquals(List.of(1L), ids("phd"));
+
+    index.remove(2L);
+    index.remove(3L);
+
+    assertEquals(List.of(), ids("internship"));
+    assertEquals(1, index.size());
+  }
+}
@@ -0,0 +1,108 @@
+package edu.ucsb.cs156.rec.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.DigestUtils;
+
+import edu.ucsb.cs156.rec.models.ProfessorSummary;
+import edu.ucsb.cs156.rec.repositories.UserRepository;
+
+class ProfessorDirectoryTests {
+
+  UserRepository userRepository;
+  ProfessorDirectory professorDirectory;
+
+  ProfessorSummary conrad = new ProfessorSummary(1L, "Phill Conrad");
+  ProfessorSummary kharitonova = new ProfessorSummary(2L, "Yekaterina Kharitonova");
+
+  @BeforeEach
+  void setup() {
+    userRepository = mock(UserRepository.class);
+    professorDirectory = new ProfessorDirectory();
+    professorDirectory.userRepository = userRepository;
+  }
+
+  @Test
+  void listing_is_loaded_once() {
+    when(userRepository.findProfessorSummaries()).thenReturn(List.of(conrad));
+
+    ProfessorDirectory.Listing listing = professorDirectory.getListing();
+
+    assertSame(listing, professorDirectory.getListing());
+    assertEquals(List.of(conrad), listing.professors());
+    verify(userRepository, times(1)).findProfessorSummaries();
+  }
+
+  @Test
+  void invalidate_bumps_version_and_forces_reload() {
+    when(userRepository.findProfessorSummaries()).thenReturn(List.of(conrad));
+    ProfessorDirectory.Listing before = professorDirectory.getListing();
+
+    when(userRepository.findProfessorSummaries()).thenReturn(List.of(conrad, kharitonova));
+    professorDirectory.invalidate();
+    ProfessorDirectory.Listing after = professorDirectory.getListing();
+
+    assertEquals(before.version() + 1, after.version());
+    assertEquals(professorDirectory.getVersion(), after.version());
+    assertNotEquals(before.etag(), after.etag());
+    assertEquals(List.of(conrad, kharitonova), after.professors());
+  }
+
+  @Test
+  void etag_is_an_md5_digest_of_the_professors() {
+    when(userRepository.findProfessorSummaries()).thenReturn(List.of(conrad, kharitonova));
+
+    String raw = "1|Phill Conrad\n2|Yekaterina Kharitonova";
+    assertEquals("\"" + DigestUtils.md5DigestAsHex(raw.getBytes(StandardCharsets.UTF_8)) + "\"",
+        professorDirectory.getListing().etag());
+  }
+
+  @Test
+  void professors_with_equal_hash_codes_have_different_etags() {
+    ProfessorSummary aa = new ProfessorSummary(3L, "Aa");
+    ProfessorSummary bb = new ProfessorSummary(3L, "BB");
+    assertEquals(List.of(aa).hashCode(), List.of(bb).hashCode());
+
+    when(userRepository.findProfessorSummaries()).thenReturn(List.of(aa));
+    String etag = professorDirectory.getListing().etag();
+    professorDirectory.invalidate();
+    when(userRepository.findProfessorSummaries()).thenReturn(List.of(bb));
+
+    assertNotEquals(etag, professorDirectory.getListing().etag());
+  }
+
+  @Test
+  void etag_depends_only_on_contents() {
+    when(userRepository.findProfessorSummaries()).thenReturn(List.of(conrad));
+    String etag = professorDirectory.getListing().etag();
+
+    professorDirectory.invalidate();
+
+    assertEquals(etag, professorDirectory.getListing().etag());
+  }
+
+  @Test
+  void listing_loaded_during_an_invalidation_is_not_kept() {
+    when(userRepository.findProfessorSummaries()).thenAnswer(invocation -> {
+      professorDirectory.invalidate();
+      return List.of(conrad);
+    });
+    professorDirectory.getListing();
+
+    when(userRepository.findProfessorSummaries()).thenReturn(List.of(kharitonova));
+
+    assertEquals(List.of(kharitonova), professorDirectory.getListing().professors());
+    verify(userRepository, times(2)).findProfessorSummaries();
+  }
+}
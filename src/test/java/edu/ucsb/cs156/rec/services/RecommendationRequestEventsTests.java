@@ -0,0 +1,282 @@
+package edu.ucsb.cs156.rec.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import edu.ucsb.cs156.rec.models.RecommendationRequestEvent;
+import edu.ucsb.cs156.rec.models.RecommendationRequestEvent.Type;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RecommendationRequestEventsTests {
+
+  /**
+   * An emitter that records what is sent instead of writing a response, and
+   * keeps the callbacks that Spring MVC would call
+   */
+  static class RecordingEmitter extends SseEmitter {
+    final List<String> sent = new CopyOnWriteArrayList<>();
+    volatile boolean completed;
+    Runnable completionCallback;
+    Runnable timeoutCallback;
+    Consumer<Throwable> errorCallback;
+
+    @Override
+    public void send(SseEventBuilder builder) throws IOException {
+      sent.add(builder.build().stream().map(d -> d.getData().toString()).collect(Collectors.joining()));
+    }
+
+    @Override
+    public void complete() {
+      completed = true;
+    }
+
+    @Override
+    public void onCompletion(Runnable callback) {
+      completionCallback = callback;
+    }
+
+    @Override
+    public void onTimeout(Runnable callback) {
+      timeoutCallback = callback;
+    }
+
+    @Override
+    public void onError(Consumer<Throwable> callback) {
+      errorCallback = callback;
+    }
+  }
+
+  List<RecordingEmitter> emitters;
+  RecommendationRequestEvents events;
+
+  @BeforeEach
+  void setup() {
+    emitters = new CopyOnWriteArrayList<>();
+    events = new RecommendationRequestEvents() {
+      @Override
+      SseEmitter newEmitter() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitters.add(emitter);
+        return emitter;
+      }
+    };
+    events.heartbeat = Duration.ofHours(1);
+    events.start();
+  }
+
+  @AfterEach
+  void teardown() {
+    events.stop();
+  }
+
+  private static void await(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+    while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertTrue(condition.getAsBoolean());
+  }
+
+  private RecordingEmitter subscribe(long userId) throws InterruptedException {
+    events.subscribe(userId);
+    RecordingEmitter emitter = emitters.get(emitters.size() - 1);
+    await(() -> emitter.sent.size() == 1);
+    assertTrue(emitter.sent.get(0).contains(":connected"));
+    assertTrue(emitter.sent.get(0).contains("retry:3600000"));
+    return emitter;
+  }
+
+  private static String event(Type type, String status) {
+    return "event:" + type.name().toLowerCase() + "\ndata:"
+        + new RecommendationRequestEvent(type, 7L, status, 1L, 2L);
+  }
+
+  @Test
+  void events_go_to_the_requester_and_the_professor_only() throws Exception {
+    RecordingEmitter requester = subscribe(1);
+    RecordingEmitter professor = subscribe(2);
+    RecordingEmitter other = subscribe(3);
+
+    events.publish(new RecommendationRequestEvent(Type.CREATED, 7L, "PENDING", 1L, 2L));
+    events.publish(new RecommendationRequestEvent(Type.UPDATED, 7L, "COMPLETED", 1L, 2L));
+
+    await(() -> requester.sent.size() == 3 && professor.sent.size() == 3);
+    assertEquals("id:1\n" + event(Type.CREATED, "PENDING") + "\n\n", requester.sent.get(1));
+    assertEquals("id:2\n" + event(Type.UPDATED, "COMPLETED") + "\n\n", requester.sent.get(2));
+    assertEquals(requester.sent, professor.sent);
+    Thread.sleep(50);
+    assertEquals(1, other.sent.size());
+  }
+
+  @Test
+  void a_user_who_requests_from_themselves_gets_each_event_once() throws Exception {
+    RecordingEmitter emitter = subscribe(4);
+
+    events.publish(new RecommendationRequestEvent(Type.DELETED, 8L, "PENDING", 4L, 4L));
+
+    await(() -> emitter.sent.size() == 2);
+    Thread.sleep(50);
+    assertEquals(2, emitter.sent.size());
+    assertTrue(emitter.sent.get(1).contains("event:deleted"));
+  }
+
+  @Test
+  void every_stream_of_a_user_gets_the_events() throws Exception {
+    RecordingEmitter first = subscribe(1);
+    RecordingEmitter second = subscribe(1);
+    assertEquals(2, events.getSubscriberCount());
+
+    events.publish(new RecommendationRequestEvent(Type.CREATED, 7L, "PENDING", 1L, 2L));
+
+    await(() -> first.sent.size() == 2 && second.sent.size() == 2);
+    assertEquals(first.sent, second.sent);
+  }
+
+  @Test
+  void heartbeats_are_sent_to_every_stream() throws Exception {
+    RecordingEmitter first = subscribe(1);
+    RecordingEmitter second = subscribe(2);
+
+    events.sendHeartbeats();
+
+    await(() -> first.sent.size() == 2 && second.sent.size() == 2);
+    assertEquals(":heartbeat\n\n", first.sent.get(1));
+    assertEquals(":heartbeat\n\n", second.sent.get(1));
+  }
+
+  @Test
+  void heartbeats_are_scheduled() throws Exception {
+    events.stop();
+    events.heartbeat = Duration.ofMillis(100);
+    events.start();
+    events.subscribe(1);
+    RecordingEmitter emitter = emitters.get(0);
+
+    await(() -> emitter.sent.size() >= 3);
+    assertEquals(":heartbeat\n\n", emitter.sent.get(1));
+  }
+
+  @Test
+  void completed_timed_out_and_failed_streams_are_removed() throws Exception {
+    RecordingEmitter completed = subscribe(1);
+    RecordingEmitter timedOut = subscribe(1);
+    RecordingEmitter failed = subscribe(2);
+    assertEquals(3, events.getSubscriberCount());
+
+    completed.completionCallback.run();
+    assertEquals(2, events.getSubscriberCount());
+    timedOut.timeoutCallback.run();
+    failed.errorCallback.accept(new IOException("Broken pipe"));
+    assertEquals(0, events.getSubscriberCount());
+
+    // removing twice is harmless
+    failed.completionCallback.run();
+    events.publish(new RecommendationRequestEvent(Type.CREATED, 7L, "PENDING", 1L, 2L));
+    Thread.sleep(50);
+    assertEquals(1, completed.sent.size());
+    assertEquals(1, failed.sent.size());
+  }
+
+  @Test
+  void a_stream_that_cannot_be_written_is_removed() throws Exception {
+    events.stop();
+    events = new RecommendationRequestEvents() {
+      @Override
+      SseEmitter newEmitter() {
+        return new RecordingEmitter() {
+          @Override
+          public void send(SseEventBuilder builder) throws IOException {
+            throw new IOException("Broken pipe");
+          }
+        };
+      }
+    };
+    events.start();
+
+    events.subscribe(5);
+
+    await(() -> events.getSubscriberCount() == 0);
+  }
+
+  @Test
+  void a_slow_stream_is_disconnected_instead_of_blocking() throws Exception {
+    CountDownLatch sending = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    RecordingEmitter slow = new RecordingEmitter() {
+      @Override
+      public void send(SseEventBuilder builder) throws IOException {
+        sending.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          throw new IllegalStateException("ResponseBodyEmitter has already completed");
+        }
+      }
+    };
+    events.stop();
+    events = new RecommendationRequestEvents() {
+      @Override
+      SseEmitter newEmitter() {
+        return slow;
+      }
+    };
+    events.bufferSize = 2;
+    events.start();
+    events.subscribe(1);
+    sending.await();
+
+    // the connected comment is being sent; two events fit in the queue, the third does not
+    for (int i = 0; i < 3; i++) {
+      events.publish(new RecommendationRequestEvent(Type.UPDATED, 7L, "PENDING", 1L, 2L));
+    }
+
+    assertTrue(slow.completed);
+    assertEquals(0, events.getSubscriberCount());
+    release.countDown();
+  }
+
+  @Test
+  void stop_completes_every_stream() throws Exception {
+    RecordingEmitter first = subscribe(1);
+    RecordingEmitter second = subscribe(2);
+
+    events.stop();
+
+    assertTrue(first.completed);
+    assertTrue(second.completed);
+    assertEquals(0, events.getSubscriberCount());
+    events.start();
+  }
+
+  @Test
+  void new_emitters_use_the_timeout() {
+    RecommendationRequestEvents plain = new RecommendationRequestEvents();
+    plain.timeout = Duration.ofMinutes(5);
+
+    assertEquals(300_000L, plain.newEmitter().getTimeout());
+  }
+
+  @Test
+  void subscribers_are_published_as_a_gauge() throws Exception {
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    events.bindTo(meterRegistry);
+    subscribe(1);
+    subscribe(2);
+
+    assertEquals(2.0, meterRegistry.get("rec.events.subscribers").gauge().value());
+  }
+}
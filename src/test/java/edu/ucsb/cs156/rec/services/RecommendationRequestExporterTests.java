@@ -0,0 +1,308 @@
+package edu.ucsb.cs156.rec.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import edu.ucsb.cs156.rec.entities.RecommendationRequest;
+import edu.ucsb.cs156.rec.entities.User;
+import edu.ucsb.cs156.rec.models.RecommendationRequestFilter;
+import edu.ucsb.cs156.rec.models.RecommendationRequestSummary;
+import edu.ucsb.cs156.rec.repositories.RecommendationRequestFixtures;
+import edu.ucsb.cs156.rec.repositories.RecommendationRequestRepository;
+import edu.ucsb.cs156.rec.services.RecommendationRequestExporter.Format;
+import edu.ucsb.cs156.rec.services.wiremock.WiremockService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * The exporter is built here by hand around the test database; the test
+ * transaction stands in for the one of its proxy.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(RecommendationRequestFixtures.class)
+public class RecommendationRequestExporterTests {
+
+  static final RecommendationRequestFilter ALL = new RecommendationRequestFilter(null, null, null, null);
+
+  @Autowired
+  RecommendationRequestRepository recommendationRequestRepository;
+
+  @Autowired
+  RecommendationRequestFixtures fixtures;
+
+  @Autowired
+  EntityManager entityManager;
+
+  @Autowired
+  EntityManagerFactory entityManagerFactory;
+
+  @MockBean
+  WiremockService mockWiremockService;
+
+  RecommendationRequestExporter exporter;
+  User student;
+  User professor;
+  User otherProfessor;
+
+  @BeforeEach
+  void setup() {
+    exporter = new RecommendationRequestExporter();
+    exporter.recommendationRequestRepository = recommendationRequestRepository;
+    student = fixtures.user("student@ucsb.edu", "Sam Student", false);
+    professor = fixtures.user("prof@ucsb.edu", "Pat Professor", true);
+    otherProfessor = fixtures.user("other@ucsb.edu", true);
+  }
+
+  private RecommendationRequest request(User professor, String status, String details, String submitted) {
+    RecommendationRequest request = fixtures.save(RecommendationRequestFixtures.pending(student, professor)
+        .details(details)
+        .status(status)
+        .dueDate(LocalDateTime.parse("2026-12-01T17:00:00")));
+    fixtures.submitted(request, submitted);
+    return request;
+  }
+
+  private byte[] export(Format format, RecommendationRequestFilter filter) throws Exception {
+    entityManager.flush();
+    entityManager.clear();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    exporter.export(format, filter, out);
+    return out.toByteArray();
+  }
+
+  private List<CSVRecord> csv(RecommendationRequestFilter filter) throws Exception {
+    String text = new String(export(Format.CSV, filter), StandardCharsets.UTF_8);
+    return CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build()
+        .parse(new StringReader(text)).getRecords();
+  }
+
+  private List<String> details(List<CSVRecord> records) {
+    return records.stream().map(record -> record.get("details")).toList();
+  }
+
+  @Test
+  public void csv_has_every_column_newest_first() throws Exception {
+    RecommendationRequest older = request(professor, "COMPLETED", "Older, \"quoted\"", "2026-01-10T09:00:00");
+    request(professor, "PENDING", "Newer", "2026-02-10T09:00:00");
+
+    List<CSVRecord> records = csv(ALL);
+
+    assertEquals(List.of("Newer", "Older, \"quoted\""), details(records));
+    CSVRecord record = records.get(1);
+    assertEquals(RecommendationRequestExporter.COLUMNS, record.getParser().getHeaderNames());
+    assertEquals(String.valueOf(older.getId()), record.get("id"));
+    assertEquals("student@ucsb.edu", record.get("requesterEmail"));
+    assertEquals("Sam Student", record.get("requesterName"));
+    assertEquals("prof@ucsb.edu", record.get("professorEmail"));
+    assertEquals("Pat Professor", record.get("professorName"));
+    assertEquals("PhD program", record.get("recommendationType"));
+    assertEquals("COMPLETED", record.get("status"));
+    assertEquals("2026-01-10T09:00", record.get("submissionDate"));
+    assertEquals("2026-12-01T17:00", record.get("dueDate"));
+    assertEquals("", record.get("completionDate"));
+  }
+
+  @Test
+  public void csv_can_be_imported_again() throws Exception {
+    request(professor, "PENDING", "Again", "2026-01-10T09:00:00");
+
+    List<CSVRecord> records = csv(ALL);
+
+    assertTrue(records.get(0).getParser().getHeaderNames().containsAll(RecommendationRequestImporter.COLUMNS));
+  }
+
+  @Test
+  public void only_requests_that_match_the_filter_are_exported() throws Exception {
+    request(professor, "PENDING", "too early", "2026-01-31T23:59:59");
+    request(professor, "PENDING", "first day", "2026-02-01T00:00:00");
+    request(professor, "COMPLETED", "completed", "2026-02-10T00:00:00");
+    request(otherProfessor, "PENDING", "other professor", "2026-02-10T00:00:00");
+    request(professor, "PENDING", "last day", "2026-02-28T23:59:59");
+    request(professor, "PENDING", "too late", "2026-03-01T00:00:00");
+
+    List<CSVRecord> records = csv(new RecommendationRequestFilter(professor.getId(), "PENDING",
+        LocalDateTime.parse("2026-02-01T00:00:00"), LocalDateTime.parse("2026-03-01T00:00:00")));
+
+    assertEquals(List.of("last day", "first day"), details(records));
+    assertEquals(6, csv(ALL).size());
+  }
+
+  @Test
+  public void only_the_given_criteria_reach_the_query() throws Exception {
+    request(professor, "PENDING", "mine", "2026-02-10T00:00:00");
+    request(otherProfessor, "PENDING", "theirs", "2026-02-10T00:00:00");
+    RecommendationRequestFilter mine = new RecommendationRequestFilter(professor.getId(), null, null, null);
+    entityManager.flush();
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    assertEquals(1L, recommendationRequestRepository.countForExport(mine));
+    assertEquals(List.of("mine"), details(csv(mine)));
+
+    // export and count share the where clause
+    String sql = statistics.getQueries()[0];
+    assertTrue(sql.endsWith("where rr1_0.professor_id=?"), sql);
+  }
+
+  @Test
+  public void requests_without_requester_or_professor_have_empty_user_columns() throws Exception {
+    fixtures.save(RecommendationRequest.builder().status("PENDING"));
+
+    CSVRecord record = csv(ALL).get(0);
+
+    assertEquals("", record.get("requesterEmail"));
+    assertEquals("", record.get("requesterName"));
+    assertEquals("", record.get("professorEmail"));
+    assertEquals("", record.get("professorName"));
+  }
+
+  @Test
+  public void rows_are_read_without_loading_entities() throws Exception {
+    for (int i = 0; i < 20; i++) {
+      request(professor, "PENDING", "request " + i, "2026-01-10T09:00:00");
+    }
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    assertEquals(20, csv(ALL).size());
+
+    assertEquals(1, statistics.getPrepareStatementCount());
+    assertEquals(0, statistics.getEntityLoadCount());
+  }
+
+  @Test
+  public void xlsx_has_a_header_and_typed_cells() throws Exception {
+    RecommendationRequest request = request(professor, "PENDING", "Spreadsheet", "2026-01-10T09:00:00");
+    request(null, "DENIED", null, "2026-01-09T09:00:00");
+
+    try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(export(Format.XLSX, ALL)))) {
+      Sheet sheet = workbook.getSheet(RecommendationRequestExporter.SHEET_NAME);
+      assertEquals(2, sheet.getLastRowNum());
+      Row header = sheet.getRow(0);
+      for (int i = 0; i < RecommendationRequestExporter.COLUMNS.size(); i++) {
+        assertEquals(RecommendationRequestExporter.COLUMNS.get(i), header.getCell(i).getStringCellValue());
+      }
+      Row row = sheet.getRow(1);
+      assertEquals(request.getId(), (long) row.getCell(0).getNumericCellValue());
+      assertEquals("student@ucsb.edu", row.getCell(1).getStringCellValue());
+      assertEquals("Spreadsheet", row.getCell(6).getStringCellValue());
+      assertEquals(LocalDateTime.parse("2026-01-10T09:00:00"), row.getCell(8).getLocalDateTimeCellValue());
+      assertEquals(RecommendationRequestExporter.DATE_FORMAT, row.getCell(8).getCellStyle().getDataFormatString());
+      assertEquals(CellType.BLANK, row.getCell(10).getCellType());
+      assertEquals(CellType.STRING, row.getCell(7).getCellType());
+      assertEquals(CellType.BLANK, sheet.getRow(2).getCell(3).getCellType());
+    }
+  }
+
+  @Test
+  public void xlsx_is_refused_when_too_many_requests_match() throws Exception {
+    exporter.maxXlsxRows = 1;
+    request(professor, "PENDING", "one", "2026-01-10T09:00:00");
+    request(professor, "PENDING", "two", "2026-01-11T09:00:00");
+    entityManager.clear();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        () -> exporter.export(Format.XLSX, ALL, out));
+
+    assertEquals("more than 1 recommendation requests match; export them as CSV or narrow the filter", e.getMessage());
+    assertEquals(0, out.size());
+  }
+
+  @Test
+  public void xlsx_is_refused_before_any_request_is_read() throws Exception {
+    exporter.maxXlsxRows = 1;
+    request(professor, "PENDING", "one", "2026-01-10T09:00:00");
+    request(professor, "PENDING", "two", "2026-01-11T09:00:00");
+    entityManager.flush();
+    entityManager.clear();
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    assertThrows(IllegalArgumentException.class,
+        () -> exporter.export(Format.XLSX, ALL, new ByteArrayOutputStream()));
+
+    // only the count
+    assertEquals(1, statistics.getPrepareStatementCount());
+  }
+
+  @Test
+  public void xlsx_is_refused_when_requests_arrive_after_the_count() throws Exception {
+    RecommendationRequestSummary summary = new RecommendationRequestSummary(1L, null, null, null, null, null, null,
+        "PhD program", "late", "PENDING", null, null, null, null);
+    RecommendationRequestRepository repository = mock(RecommendationRequestRepository.class);
+    when(repository.countForExport(ALL)).thenReturn(1L);
+    when(repository.streamForExport(ALL)).thenReturn(Stream.of(summary, summary));
+    exporter.recommendationRequestRepository = repository;
+    exporter.maxXlsxRows = 1;
+
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        () -> exporter.export(Format.XLSX, ALL, new ByteArrayOutputStream()));
+
+    assertEquals("more than 1 recommendation requests match; export them as CSV or narrow the filter", e.getMessage());
+  }
+
+  @Test
+  public void csv_cells_are_never_read_as_formulas() throws Exception {
+    User mallory = fixtures.user("mallory@ucsb.edu", "@SUM(1+1)", false);
+    fixtures.save(RecommendationRequestFixtures.pending(mallory, professor)
+        .recommendationType("+cmd")
+        .details("=HYPERLINK(\"http://example.com\")"));
+
+    CSVRecord record = csv(ALL).get(0);
+
+    assertEquals("'@SUM(1+1)", record.get("requesterName"));
+    assertEquals("'+cmd", record.get("recommendationType"));
+    assertEquals("'=HYPERLINK(\"http://example.com\")", record.get("details"));
+    assertEquals("mallory@ucsb.edu", record.get("requesterEmail"));
+  }
+
+  @Test
+  public void neutralized_text_is_restored() {
+    for (String text : List.of("=1+1", "+1", "-1", "@A1", "\tx", "\rx", "'quoted", "''", "plain", "", "'")) {
+      assertEquals(text, RecommendationRequestExporter.restore(RecommendationRequestExporter.neutralize(text)));
+    }
+    assertEquals("'-1", RecommendationRequestExporter.neutralize("-1"));
+    assertEquals("plain", RecommendationRequestExporter.neutralize("plain"));
+    assertEquals("'plain", RecommendationRequestExporter.restore("'plain"));
+  }
+
+  @Test
+  public void formats_are_named_by_their_extension() {
+    assertEquals(Format.CSV, Format.of("csv"));
+    assertEquals(Format.XLSX, Format.of("xlsx"));
+    assertEquals("text/csv;charset=UTF-8", Format.CSV.getContentType());
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> Format.of("pdf"));
+    assertEquals("Invalid format: pdf", e.getMessage());
+  }
+}
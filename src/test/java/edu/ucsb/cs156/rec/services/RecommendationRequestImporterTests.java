@@ -0,0 +1,200 @@
+package edu.ucsb.cs156.rec.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import edu.ucsb.cs156.rec.entities.User;
+import edu.ucsb.cs156.rec.models.CsvImportResult;
+import edu.ucsb.cs156.rec.models.CsvImportResult.RowError;
+import edu.ucsb.cs156.rec.models.RecommendationRequestEvent;
+import edu.ucsb.cs156.rec.repositories.RequestTypeRepository;
+import edu.ucsb.cs156.rec.repositories.UserRepository;
+import edu.ucsb.cs156.rec.services.wiremock.WiremockService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * The importer is built here by hand around the test database, with a
+ * publisher that records the events.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class RecommendationRequestImporterTests {
+
+  static final String HEADER = "requesterEmail,professorEmail,recommendationType,details,dueDate\n";
+
+  @Autowired
+  EntityManager entityManager;
+
+  @Autowired
+  EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  TransactionTemplate transactionTemplate;
+
+  @Autowired
+  UserRepository userRepository;
+
+  @Autowired
+  RequestTypeRepository requestTypeRepository;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @MockBean
+  WiremockService mockWiremockService;
+
+  RecommendationRequestImporter importer;
+  List<Object> events;
+  User student;
+  User professor;
+
+  @BeforeEach
+  void setup() {
+    RequestTypeCatalog requestTypeCatalog = new RequestTypeCatalog();
+    requestTypeCatalog.requestTypeRepository = requestTypeRepository;
+    events = new ArrayList<>();
+    importer = new RecommendationRequestImporter();
+    importer.entityManager = entityManager;
+    importer.transactionTemplate = transactionTemplate;
+    importer.userRepository = userRepository;
+    importer.requestTypeCatalog = requestTypeCatalog;
+    importer.applicationEventPublisher = events::add;
+    student = userRepository.save(User.builder().email("student@ucsb.edu").build());
+    professor = userRepository.save(User.builder().email("prof@ucsb.edu").professor(true).build());
+    userRepository.save(User.builder().email("notprof@ucsb.edu").build());
+  }
+
+  private CsvImportResult importCsv(String csv) throws Exception {
+    CsvImportResult result = importer.importCsv(new StringReader(csv));
+    entityManager.clear();
+    return result;
+  }
+
+  private int count(String sql) {
+    return jdbcTemplate.queryForObject(sql, Integer.class);
+  }
+
+  @Test
+  public void valid_rows_are_imported_as_pending_requests() throws Exception {
+    CsvImportResult result = importCsv(HEADER
+        + "student@ucsb.edu,prof@ucsb.edu,PhD program,\"Applying to PhD programs, fall 2026\",2026-12-01T17:00:00\n"
+        + "\n"
+        + "student@ucsb.edu,prof@ucsb.edu,Other,Summer internship,2026-11-15\n");
+
+    assertEquals(new CsvImportResult(2, List.of()), result);
+    List<java.util.Map<String, Object>> rows = jdbcTemplate.queryForList(
+        "SELECT * FROM recommendationrequest ORDER BY id");
+    assertEquals(2, rows.size());
+    assertEquals("Applying to PhD programs, fall 2026", rows.get(0).get("DETAILS"));
+    assertEquals("PENDING", rows.get(0).get("STATUS"));
+    assertEquals(student.getId(), rows.get(0).get("REQUESTER_ID"));
+    assertEquals(professor.getId(), rows.get(0).get("PROFESSOR_ID"));
+    assertEquals(java.sql.Timestamp.valueOf(LocalDateTime.parse("2026-11-15T00:00:00")), rows.get(1).get("DUE_DATE"));
+    assertEquals(List.of(
+        new RecommendationRequestEvent(RecommendationRequestEvent.Type.CREATED, (Long) rows.get(0).get("ID"), "PENDING",
+            student.getId(), professor.getId()),
+        new RecommendationRequestEvent(RecommendationRequestEvent.Type.CREATED, (Long) rows.get(1).get("ID"), "PENDING",
+            student.getId(), professor.getId())),
+        events);
+  }
+
+  @Test
+  public void columns_can_be_in_any_order() throws Exception {
+    CsvImportResult result = importCsv("dueDate,details,recommendationType,professorEmail,requesterEmail\n"
+        + "2026-11-15,Summer internship,Other,prof@ucsb.edu,student@ucsb.edu\n");
+
+    assertEquals(1, result.imported());
+    assertEquals(1, count("SELECT COUNT(*) FROM recommendationrequest WHERE details = 'Summer internship'"));
+  }
+
+  @Test
+  public void exported_formula_quotes_are_removed() throws Exception {
+    CsvImportResult result = importCsv(HEADER
+        + "student@ucsb.edu,prof@ucsb.edu,Other,'=1+1,2026-11-15\n");
+
+    assertEquals(1, result.imported());
+    assertEquals(1, count("SELECT COUNT(*) FROM recommendationrequest WHERE details = '=1+1'"));
+  }
+
+  @Test
+  public void invalid_rows_are_reported_and_skipped() throws Exception {
+    CsvImportResult result = importCsv(HEADER
+        + "student@ucsb.edu,prof@ucsb.edu,PhD program,ok,2026-12-01\n"
+        + "nobody@ucsb.edu,notprof@ucsb.edu,Astronaut,bad,tomorrow\n"
+        + "student@ucsb.edu,prof@ucsb.edu,PhD program\n"
+        + "student@ucsb.edu,prof@ucsb.edu,Other,ok,2026-12-01T25:00:00\n");
+
+    assertEquals(new CsvImportResult(1, List.of(
+        new RowError(2, "unknown requester nobody@ucsb.edu; unknown professor notprof@ucsb.edu; "
+            + "unknown recommendation type Astronaut; invalid dueDate tomorrow"),
+        new RowError(3, "expected 5 columns but found 3"),
+        new RowError(4, "invalid dueDate 2026-12-01T25:00:00"))), result);
+    assertEquals(1, count("SELECT COUNT(*) FROM recommendationrequest"));
+    assertEquals(1, events.size());
+  }
+
+  @Test
+  public void a_malformed_file_stops_the_import_where_it_becomes_unreadable() throws Exception {
+    importer.batchSize = 2;
+
+    CsvImportResult result = importCsv(HEADER
+        + "student@ucsb.edu,prof@ucsb.edu,Other,one,2026-12-01\n"
+        + "student@ucsb.edu,prof@ucsb.edu,Other,two,2026-12-01\n"
+        + "student@ucsb.edu,prof@ucsb.edu,Other,three,2026-12-01\n"
+        + "student@ucsb.edu,prof@ucsb.edu,Other,\"four,2026-12-01\n");
+
+    assertEquals(3, result.imported());
+    assertEquals(1, result.errors().size());
+    assertEquals(4, result.errors().get(0).row());
+    assertTrue(result.errors().get(0).message().startsWith("malformed CSV: "), result.errors().get(0).message());
+    assertEquals(3, count("SELECT COUNT(*) FROM recommendationrequest"));
+  }
+
+  @Test
+  public void a_header_without_every_column_is_rejected() {
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        () -> importCsv("requesterEmail,professorEmail,details\nstudent@ucsb.edu,prof@ucsb.edu,x\n"));
+
+    assertEquals("CSV header is missing the columns recommendationType, dueDate", e.getMessage());
+    assertThrows(IllegalArgumentException.class, () -> importCsv(""));
+  }
+
+  @Test
+  public void rows_are_inserted_in_jdbc_batches() throws Exception {
+    importer.batchSize = 50;
+    StringBuilder csv = new StringBuilder(HEADER);
+    for (int i = 0; i < 150; i++) {
+      csv.append("student@ucsb.edu,prof@ucsb.edu,Other,request ").append(i).append(",2026-12-01\n");
+    }
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    CsvImportResult result = importCsv(csv.toString());
+
+    assertEquals(150, result.imported());
+    assertEquals(150, count("SELECT COUNT(*) FROM recommendationrequest"));
+    // per batch of 50: one requester lookup, about one sequence call and one batched insert
+    long statements = statistics.getPrepareStatementCount();
+    assertTrue(statements <= 12, statements + " statements");
+  }
+}
@@ -0,0 +1,235 @@
+package edu.ucsb.cs156.rec.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import edu.ucsb.cs156.rec.entities.RecommendationRequest;
+import edu.ucsb.cs156.rec.entities.User;
+import edu.ucsb.cs156.rec.models.RankedId;
+import edu.ucsb.cs156.rec.models.RecommendationRequestEvent;
+import edu.ucsb.cs156.rec.models.RecommendationRequestSummary;
+import edu.ucsb.cs156.rec.models.RecommendationRequestText;
+import edu.ucsb.cs156.rec.models.SearchCursor;
+import edu.ucsb.cs156.rec.models.SearchHit;
+import edu.ucsb.cs156.rec.repositories.RecommendationRequestFixtures;
+import edu.ucsb.cs156.rec.repositories.RecommendationRequestRepository;
+import edu.ucsb.cs156.rec.services.wiremock.WiremockService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * The search is built here by hand around the test database, which is H2, so
+ * it uses the in-process index; the PostgreSQL path is checked against a mock
+ * repository.  Events are passed to onChange directly, since the test
+ * transaction never commits.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(RecommendationRequestFixtures.class)
+public class RecommendationRequestTextSearchTests {
+
+  static final Limit ALL = Limit.of(100);
+
+  @Autowired
+  RecommendationRequestRepository recommendationRequestRepository;
+
+  @Autowired
+  RecommendationRequestFixtures fixtures;
+
+  @Autowired
+  EntityManager entityManager;
+
+  @Autowired
+  EntityManagerFactory entityManagerFactory;
+
+  @MockBean
+  WiremockService mockWiremockService;
+
+  RecommendationRequestTextSearch search;
+  User student;
+  User professor;
+  User otherProfessor;
+
+  @BeforeEach
+  void setup() {
+    search = new RecommendationRequestTextSearch();
+    search.recommendationRequestRepository = recommendationRequestRepository;
+    search.entityManagerFactory = entityManagerFactory;
+    search.detectDatabase();
+    student = fixtures.user("student@ucsb.edu", "Sam Student", false);
+    professor = fixtures.user("prof@ucsb.edu", true);
+    otherProfessor = fixtures.user("other@ucsb.edu", true);
+  }
+
+  private RecommendationRequest request(User professor, String details) {
+    return fixtures.save(RecommendationRequestFixtures.pending(student, professor).details(details));
+  }
+
+  private void changed(RecommendationRequest request) {
+    search.onChange(new RecommendationRequestEvent(RecommendationRequestEvent.Type.UPDATED, request.getId(),
+        request.getStatus(), student.getId(), professor.getId()));
+  }
+
+  private List<String> details(String text, Long professorId) {
+    return search.search(text, professorId, SearchCursor.FIRST, ALL).stream()
+        .map(hit -> hit.request().details()).toList();
+  }
+
+  @Test
+  public void h2_is_searched_in_process() {
+    assertFalse(search.postgres);
+  }
+
+  @Test
+  public void requests_with_every_word_are_found_best_match_first() {
+    request(professor, "Applying to the PhD program in Computer Science");
+    request(professor, "PhD program, then a PhD: the PhD is in Physics");
+    request(professor, "Master's program in Physics");
+    request(professor, "Internship at a startup");
+    request(professor, null);
+
+    assertEquals(List.of("PhD program, then a PhD: the PhD is in Physics",
+        "Applying to the PhD program in Computer Science"), details("phd PROGRAM", null));
+    assertEquals(List.of(), details("phd internship", null));
+    assertEquals(List.of(), details("of the", null));
+    assertEquals(List.of(), details("chemistry", null));
+  }
+
+  @Test
+  public void hits_have_their_summary_and_rank() {
+    RecommendationRequest request = request(professor, "CMPSC 156 project");
+
+    List<SearchHit> hits = search.search("cmpsc 156", null, SearchCursor.FIRST, ALL);
+
+    assertEquals(1, hits.size());
+    assertEquals(request.getId(), hits.get(0).request().id());
+    assertEquals("student@ucsb.edu", hits.get(0).request().requester().email());
+    assertTrue(hits.get(0).rank() > 0);
+  }
+
+  @Test
+  public void requests_can_be_limited_to_one_professor() {
+    request(professor, "CMPSC 156 project");
+    request(otherProfessor, "CMPSC 156 grader");
+
+    assertEquals(List.of("CMPSC 156 project"), details("cmpsc", professor.getId()));
+    assertEquals(2, details("cmpsc", null).size());
+  }
+
+  @Test
+  public void pages_cover_every_hit_once_in_rank_order() {
+    for (int i = 0; i < 7; i++) {
+      request(professor, "CMPSC 156" + " CMPSC".repeat(i % 3));
+    }
+    List<SearchHit> expected = search.search("cmpsc", null, SearchCursor.FIRST, ALL);
+
+    List<SearchHit> paged = new ArrayList<>();
+    SearchCursor cursor = SearchCursor.FIRST;
+    while (true) {
+      List<SearchHit> page = search.search("cmpsc", null, cursor, Limit.of(3));
+      paged.addAll(page);
+      if (page.size() < 3) {
+        break;
+      }
+      SearchHit last = page.get(2);
+      cursor = SearchCursor.decode(new SearchCursor(last.rank(), last.request().id()).encode());
+    }
+
+    assertEquals(7, expected.size());
+    assertEquals(expected, paged);
+  }
+
+  @Test
+  public void changes_are_read_again_at_the_next_search() {
+    RecommendationRequest renamed = request(professor, "Internship at a startup");
+    RecommendationRequest deleted = request(professor, "Internship at a bank");
+    assertEquals(2, details("internship", null).size());
+
+    RecommendationRequest created = request(professor, "Internship in a lab");
+    renamed.setDetails("PhD program");
+    recommendationRequestRepository.save(renamed);
+    recommendationRequestRepository.delete(deleted);
+    entityManager.flush();
+    // the index has the old text until the changes are committed, but hits are read from the database
+    assertEquals(List.of("PhD program"), details("internship", null));
+
+    changed(created);
+    changed(renamed);
+    changed(deleted);
+
+    assertEquals(List.of("Internship in a lab"), details("internship", null));
+    assertEquals(List.of("PhD program"), details("phd", null));
+    assertTrue(search.changed.isEmpty());
+  }
+
+  @Test
+  public void an_unchanged_index_is_searched_without_reading_the_database_again() {
+    RecommendationRequestRepository repository = mock(RecommendationRequestRepository.class);
+    search.recommendationRequestRepository = repository;
+    RecommendationRequestSummary summary = new RecommendationRequestSummary(1L, null, null, null, null, null, null,
+        null, "PhD program", "PENDING", null, null, null, null);
+    when(repository.streamTexts()).thenReturn(Stream.of(new RecommendationRequestText(1L, null, "PhD program")));
+    when(repository.findSummariesByIdIn(List.of(1L))).thenReturn(List.of(summary));
+
+    search.search("phd", null, SearchCursor.FIRST, ALL);
+    search.search("program", null, SearchCursor.FIRST, ALL);
+
+    verify(repository, times(1)).streamTexts();
+    verify(repository, times(0)).findTextsByIdIn(any());
+  }
+
+  @Test
+  public void postgres_searches_in_the_database() {
+    RecommendationRequestRepository repository = mock(RecommendationRequestRepository.class);
+    search.recommendationRequestRepository = repository;
+    search.postgres = true;
+    RecommendationRequestSummary first = new RecommendationRequestSummary(9L, null, null, null, null, null, null,
+        null, "first", "PENDING", null, null, null, null);
+    RecommendationRequestSummary second = new RecommendationRequestSummary(4L, null, null, null, null, null, null,
+        null, "second", "PENDING", null, null, null, null);
+    SearchCursor after = new SearchCursor(0.5f, 12L);
+    when(repository.searchDetails("phd", 7L, after, Limit.of(4)))
+        .thenReturn(List.of(new RankedId(9L, 0.4f), new RankedId(5L, 0.3f), new RankedId(4L, 0.2f)));
+    // request 5 was deleted after it was found
+    when(repository.findSummariesByIdIn(List.of(9L, 5L, 4L))).thenReturn(List.of(second, first));
+
+    List<SearchHit> hits = search.search("phd", 7L, after, Limit.of(4));
+
+    assertEquals(List.of(new SearchHit(first, 0.4f), new SearchHit(second, 0.2f)), hits);
+    verify(repository, times(0)).streamTexts();
+  }
+
+  @Test
+  public void postgres_needs_no_index_and_ignores_changes() {
+    RecommendationRequestRepository repository = mock(RecommendationRequestRepository.class);
+    search.recommendationRequestRepository = repository;
+    search.postgres = true;
+    when(repository.searchDetails("nothing", null, SearchCursor.FIRST, ALL)).thenReturn(List.of());
+
+    changed(request(professor, "PhD program"));
+
+    assertEquals(List.of(), search.search("nothing", null, SearchCursor.FIRST, ALL));
+    assertEquals(Set.of(), search.changed);
+    verify(repository, times(0)).findSummariesByIdIn(any());
+  }
+}
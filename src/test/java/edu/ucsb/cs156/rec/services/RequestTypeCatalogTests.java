@@ -0,0 +1,146 @@
+package edu.ucsb.cs156.rec.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.DigestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import edu.ucsb.cs156.rec.entities.RequestType;
+import edu.ucsb.cs156.rec.repositories.RequestTypeRepository;
+import edu.ucsb.cs156.rec.services.CurrentUserCacheTests.MutableClock;
+
+class RequestTypeCatalogTests {
+
+  RequestTypeRepository requestTypeRepository;
+  RequestTypeCatalog requestTypeCatalog;
+  MutableClock clock;
+
+  RequestType phd = RequestType.builder().id(1L).requestType("PhD program").build();
+  RequestType internship = RequestType.builder().id(2L).requestType("Internship").build();
+
+  @BeforeEach
+  void setup() {
+    requestTypeRepository = mock(RequestTypeRepository.class);
+    clock = new MutableClock();
+    requestTypeCatalog = new RequestTypeCatalog();
+    requestTypeCatalog.requestTypeRepository = requestTypeRepository;
+    requestTypeCatalog.clock = clock;
+  }
+
+  @Test
+  void snapshot_is_built_once_and_indexed() {
+    when(requestTypeRepository.findAll()).thenReturn(List.of(phd, internship));
+
+    RequestTypeCatalog.Snapshot snapshot = requestTypeCatalog.getSnapshot();
+
+    assertSame(snapshot, requestTypeCatalog.getSnapshot());
+    assertEquals(List.of(phd, internship), snapshot.requestTypes());
+    assertEquals(internship, requestTypeCatalog.findById(2L).get());
+    assertEquals(phd, requestTypeCatalog.findByRequestType("PhD program").get());
+    assertTrue(requestTypeCatalog.findByRequestType("Other").isEmpty());
+    verify(requestTypeRepository, times(1)).findAll();
+  }
+
+  @Test
+  void snapshot_holds_copies() {
+    when(requestTypeRepository.findAll()).thenReturn(List.of(phd));
+
+    RequestType cached = requestTypeCatalog.findById(1L).get();
+    phd.setRequestType("changed");
+
+    assertNotSame(phd, cached);
+    assertEquals("PhD program", cached.getRequestType());
+  }
+
+  @Test
+  void unnamed_request_types_are_not_indexed_by_name() {
+    when(requestTypeRepository.findAll()).thenReturn(List.of(RequestType.builder().id(3L).build()));
+
+    assertEquals(0, requestTypeCatalog.getSnapshot().byName().size());
+    assertTrue(requestTypeCatalog.findById(3L).isPresent());
+  }
+
+  @Test
+  void etag_depends_only_on_contents() {
+    when(requestTypeRepository.findAll()).thenReturn(List.of(phd));
+    String etag = requestTypeCatalog.refresh().etag();
+
+    when(requestTypeRepository.findAll()).thenReturn(List.of(phd, internship));
+    assertNotEquals(etag, requestTypeCatalog.refresh().etag());
+
+    when(requestTypeRepository.findAll()).thenReturn(List.of(phd));
+    assertEquals(etag, requestTypeCatalog.refresh().etag());
+  }
+
+  @Test
+  void etag_is_an_md5_digest_of_the_request_types() {
+    when(requestTypeRepository.findAll()).thenReturn(List.of(phd, internship));
+
+    String raw = "1|PhD program\n2|Internship";
+    assertEquals("\"" + DigestUtils.md5DigestAsHex(raw.getBytes(StandardCharsets.UTF_8)) + "\"",
+        requestTypeCatalog.refresh().etag());
+  }
+
+  @Test
+  void request_types_with_equal_hash_codes_have_different_etags() {
+    RequestType aa = RequestType.builder().id(1L).requestType("Aa").build();
+    RequestType bb = RequestType.builder().id(1L).requestType("BB").build();
+    assertEquals(List.of(aa).hashCode(), List.of(bb).hashCode());
+
+    when(requestTypeRepository.findAll()).thenReturn(List.of(aa));
+    String etag = requestTypeCatalog.refresh().etag();
+    when(requestTypeRepository.findAll()).thenReturn(List.of(bb));
+
+    assertNotEquals(etag, requestTypeCatalog.refresh().etag());
+  }
+
+  @Test
+  void invalidate_forces_a_rebuild() {
+    when(requestTypeRepository.findAll()).thenReturn(List.of(phd));
+    requestTypeCatalog.getSnapshot();
+
+    requestTypeCatalog.invalidate();
+    requestTypeCatalog.getSnapshot();
+
+    verify(requestTypeRepository, times(2)).findAll();
+  }
+
+  @Test
+  void age_is_time_since_last_rebuild() {
+    assertEquals(Duration.ZERO, requestTypeCatalog.getAge());
+
+    requestTypeCatalog.refresh();
+    clock.now = clock.now.plusSeconds(90);
+    assertEquals(Duration.ofSeconds(90), requestTypeCatalog.getAge());
+
+    requestTypeCatalog.refresh();
+    assertEquals(Duration.ZERO, requestTypeCatalog.getAge());
+  }
+
+  @Test
+  void age_is_published_as_a_gauge() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    requestTypeCatalog.bindTo(registry);
+
+    requestTypeCatalog.refresh();
+    clock.now = clock.now.plusSeconds(90);
+
+    assertEquals(90, registry.get("rec.requesttype.catalog.age").timeGauge().value(TimeUnit.SECONDS));
+  }
+}
@@ -0,0 +1,212 @@
+package edu.ucsb.cs156.rec.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import edu.ucsb.cs156.rec.entities.User;
+import edu.ucsb.cs156.rec.repositories.UserRepository;
+import edu.ucsb.cs156.rec.services.CurrentUserCacheTests.MutableClock;
+import edu.ucsb.cs156.rec.services.RoleResolutionService.UserRoles;
+
+class RoleResolutionServiceTests {
+
+  UserRepository userRepository;
+  RoleResolutionService roleResolutionService;
+
+  User prof = User.builder().id(1L).email("prof@ucsb.edu").admin(false).professor(true).build();
+  User admin = User.builder().id(2L).email("admin@ucsb.edu").admin(true).professor(false).build();
+
+  @BeforeEach
+  void setup() {
+    userRepository = mock(UserRepository.class);
+    roleResolutionService = new RoleResolutionService();
+    roleResolutionService.userRepository = userRepository;
+    roleResolutionService.maxSize = 1;
+  }
+
+  @Test
+  void roles_are_loaded_once() {
+    when(userRepository.findByEmail("prof@ucsb.edu")).thenReturn(Optional.of(prof));
+
+    assertEquals(Optional.of(new UserRoles(false, true)), roleResolutionService.getRoles("prof@ucsb.edu"));
+    assertEquals(Optional.of(new UserRoles(false, true)), roleResolutionService.getRoles("prof@ucsb.edu"));
+
+    verify(userRepository, times(1)).findByEmail("prof@ucsb.edu");
+  }
+
+  @Test
+  void roles_expire_after_ttl() {
+    MutableClock clock = new MutableClock();
+    roleResolutionService.clock = clock;
+    roleResolutionService.ttl = Duration.ofMinutes(1);
+    when(userRepository.findByEmail("prof@ucsb.edu")).thenReturn(Optional.of(prof));
+
+    roleResolutionService.getRoles("prof@ucsb.edu");
+    clock.now = clock.now.plusSeconds(59);
+    roleResolutionService.getRoles("prof@ucsb.edu");
+    verify(userRepository, times(1)).findByEmail("prof@ucsb.edu");
+
+    // e.g. the flag was changed directly in the database
+    when(userRepository.findByEmail("prof@ucsb.edu")).thenReturn(Optional.of(admin));
+    clock.now = clock.now.plusSeconds(1);
+    assertEquals(Optional.of(new UserRoles(true, false)), roleResolutionService.getRoles("prof@ucsb.edu"));
+    verify(userRepository, times(2)).findByEmail("prof@ucsb.edu");
+  }
+
+  @Test
+  void admin_emails_are_admins_whatever_the_database_says() {
+    roleResolutionService.adminEmails = List.of("prof@ucsb.edu");
+    when(userRepository.findByEmail("prof@ucsb.edu")).thenReturn(Optional.of(prof));
+
+    assertEquals(Optional.of(new UserRoles(true, true)), roleResolutionService.getRoles("prof@ucsb.edu"));
+  }
+
+  @Test
+  void unknown_users_are_not_cached() {
+    assertTrue(roleResolutionService.getRoles("new@ucsb.edu").isEmpty());
+    assertTrue(roleResolutionService.getRoles("new@ucsb.edu").isEmpty());
+
+    verify(userRepository, times(2)).findByEmail("new@ucsb.edu");
+  }
+
+  @Test
+  void invalidate_bumps_version_and_forces_reload() {
+    when(userRepository.findByEmail("prof@ucsb.edu")).thenReturn(Optional.of(prof));
+    roleResolutionService.getRoles("prof@ucsb.edu");
+    long version = roleResolutionService.getVersion();
+
+    roleResolutionService.invalidate(prof);
+    roleResolutionService.getRoles("prof@ucsb.edu");
+
+    assertEquals(version + 1, roleResolutionService.getVersion());
+    verify(userRepository, times(2)).findByEmail("prof@ucsb.edu");
+  }
+
+  @Test
+  void invalidate_keeps_other_users_cached() {
+    roleResolutionService.maxSize = 2;
+    when(userRepository.findByEmail("prof@ucsb.edu")).thenReturn(Optional.of(prof));
+    when(userRepository.findByEmail("admin@ucsb.edu")).thenReturn(Optional.of(admin));
+    roleResolutionService.getRoles("prof@ucsb.edu");
+    roleResolutionService.getRoles("admin@ucsb.edu");
+
+    roleResolutionService.invalidate(prof);
+    roleResolutionService.getRoles("prof@ucsb.edu");
+    roleResolutionService.getRoles("admin@ucsb.edu");
+
+    verify(userRepository, times(2)).findByEmail("prof@ucsb.edu");
+    verify(userRepository, times(1)).findByEmail("admin@ucsb.edu");
+  }
+
+  @Test
+  void roles_loaded_during_an_invalidation_are_reloaded() {
+    when(userRepository.findByEmail("prof@ucsb.edu")).thenAnswer(invocation -> {
+      // an admin changes a user while the roles are being read
+      roleResolutionService.invalidateAll();
+      return Optional.of(prof);
+    }).thenReturn(Optional.of(prof));
+
+    roleResolutionService.getRoles("prof@ucsb.edu");
+    roleResolutionService.getRoles("prof@ucsb.edu");
+    roleResolutionService.getRoles("prof@ucsb.edu");
+
+    verify(userRepository, times(2)).findByEmail("prof@ucsb.edu");
+  }
+
+  @Test
+  void cache_is_bounded() {
+    when(userRepository.findByEmail("prof@ucsb.edu")).thenReturn(Optional.of(prof));
+    when(userRepository.findByEmail("admin@ucsb.edu")).thenReturn(Optional.of(admin));
+
+    roleResolutionService.getRoles("prof@ucsb.edu");
+    assertEquals(Optional.of(new UserRoles(true, false)), roleResolutionService.getRoles("admin@ucsb.edu"));
+    roleResolutionService.getRoles("prof@ucsb.edu");
+
+    verify(userRepository, times(2)).findByEmail("prof@ucsb.edu");
+  }
+
+  @Test
+  void a_cache_without_room_keeps_only_the_latest_entry() {
+    roleResolutionService.maxSize = 0;
+    when(userRepository.findByEmail("prof@ucsb.edu")).thenReturn(Optional.of(prof));
+    when(userRepository.findByEmail("admin@ucsb.edu")).thenReturn(Optional.of(admin));
+
+    roleResolutionService.getRoles("prof@ucsb.edu");
+    roleResolutionService.getRoles("admin@ucsb.edu");
+
+    assertEquals(1, roleResolutionService.size());
+  }
+
+  @Test
+  void a_full_cache_evicts_only_the_oldest_entry() {
+    roleResolutionService.maxSize = 2;
+    User student = User.builder().id(3L).email("student@ucsb.edu").admin(false).professor(false).build();
+    when(userRepository.findByEmail("prof@ucsb.edu")).thenReturn(Optional.of(prof));
+    when(userRepository.findByEmail("admin@ucsb.edu")).thenReturn(Optional.of(admin));
+    when(userRepository.findByEmail("student@ucsb.edu")).thenReturn(Optional.of(student));
+
+    roleResolutionService.getRoles("prof@ucsb.edu");
+    roleResolutionService.getRoles("admin@ucsb.edu");
+    roleResolutionService.getRoles("student@ucsb.edu");
+    roleResolutionService.getRoles("admin@ucsb.edu");
+    roleResolutionService.getRoles("prof@ucsb.edu");
+
+    verify(userRepository, times(2)).findByEmail("prof@ucsb.edu");
+    verify(userRepository, times(1)).findByEmail("admin@ucsb.edu");
+  }
+
+  @Test
+  void a_full_cache_evicts_every_expired_entry() {
+    MutableClock clock = new MutableClock();
+    roleResolutionService.clock = clock;
+    roleResolutionService.ttl = Duration.ofMinutes(1);
+    roleResolutionService.maxSize = 3;
+    User student = User.builder().id(3L).email("student@ucsb.edu").admin(false).professor(false).build();
+    when(userRepository.findByEmail("prof@ucsb.edu")).thenReturn(Optional.of(prof));
+    when(userRepository.findByEmail("admin@ucsb.edu")).thenReturn(Optional.of(admin));
+    when(userRepository.findByEmail("student@ucsb.edu")).thenReturn(Optional.of(student));
+    User other = User.builder().id(4L).email("other@ucsb.edu").admin(false).professor(false).build();
+    when(userRepository.findByEmail("other@ucsb.edu")).thenReturn(Optional.of(other));
+
+    roleResolutionService.getRoles("prof@ucsb.edu");
+    roleResolutionService.getRoles("admin@ucsb.edu");
+    clock.now = clock.now.plusSeconds(30);
+    roleResolutionService.getRoles("student@ucsb.edu");
+    clock.now = clock.now.plusSeconds(30);
+    // prof and admin have expired, so both make room and student stays
+    roleResolutionService.getRoles("other@ucsb.edu");
+    roleResolutionService.getRoles("student@ucsb.edu");
+
+    verify(userRepository, times(1)).findByEmail("student@ucsb.edu");
+    assertEquals(2, roleResolutionService.size());
+  }
+
+  @Test
+  void hits_and_misses_are_counted() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    roleResolutionService.bindTo(registry);
+    when(userRepository.findByEmail("prof@ucsb.edu")).thenReturn(Optional.of(prof));
+
+    roleResolutionService.getRoles("prof@ucsb.edu");
+    roleResolutionService.getRoles("prof@ucsb.edu");
+    roleResolutionService.getRoles("prof@ucsb.edu");
+
+    assertEquals(2, roleResolutionService.getHits());
+    assertEquals(1, roleResolutionService.getMisses());
+    assertEquals(2, registry.get("rec.role.cache.requests").tag("result", "hit").functionCounter().count());
+    assertEquals(1, registry.get("rec.role.cache.requests").tag("result", "miss").functionCounter().count());
+  }
+}
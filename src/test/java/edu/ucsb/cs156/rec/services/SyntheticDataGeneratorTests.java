@@ -0,0 +1,234 @@
+package edu.ucsb.cs156.rec.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import edu.ucsb.cs156.rec.entities.RecommendationRequest;
+import edu.ucsb.cs156.rec.entities.User;
+import edu.ucsb.cs156.rec.repositories.RecommendationRequestRepository;
+import edu.ucsb.cs156.rec.repositories.UserRepository;
+import edu.ucsb.cs156.rec.services.wiremock.WiremockService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * The generator is only a bean with the generate profile, which would also
+ * run it at startup, so it is built here by hand around the test database.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+public class SyntheticDataGeneratorTests {
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  TransactionTemplate transactionTemplate;
+
+  @Autowired
+  EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  RecommendationRequestRepository recommendationRequestRepository;
+
+  @Autowired
+  UserRepository userRepository;
+
+  @Autowired
+  EntityManager entityManager;
+
+  @MockBean
+  WiremockService mockWiremockService;
+
+  SyntheticDataGenerator syntheticDataGenerator;
+
+  @BeforeEach
+  void setup() {
+    syntheticDataGenerator = new SyntheticDataGenerator();
+    syntheticDataGenerator.jdbcTemplate = jdbcTemplate;
+    syntheticDataGenerator.transactionTemplate = transactionTemplate;
+    syntheticDataGenerator.entityManagerFactory = entityManagerFactory;
+    syntheticDataGenerator.professors = 4;
+    syntheticDataGenerator.students = 25;
+    syntheticDataGenerator.requests = 2500;
+    syntheticDataGenerator.days = 90;
+    syntheticDataGenerator.batchSize = 1000;
+    syntheticDataGenerator.seed = 156;
+  }
+
+  private int count(String sql, Object... args) {
+    return jdbcTemplate.queryForObject(sql, Integer.class, args);
+  }
+
+  @Test
+  public void generates_the_configured_numbers_of_rows() {
+    syntheticDataGenerator.generate();
+
+    assertEquals(4, count("SELECT COUNT(*) FROM users WHERE professor = TRUE AND email LIKE 'synthetic-professor-%'"));
+    assertEquals(25, count("SELECT COUNT(*) FROM users WHERE professor = FALSE AND email LIKE 'synthetic-student-%'"));
+    assertEquals(2500, count("SELECT COUNT(*) FROM recommendationrequest"));
+    assertEquals(2500, count("""
+        SELECT COUNT(*) FROM recommendationrequest r
+        JOIN users p ON p.id = r.professor_id AND p.professor = TRUE
+        JOIN users s ON s.id = r.requester_id AND s.professor = FALSE
+        """));
+  }
+
+  @Test
+  public void requests_without_professors_or_students_are_refused() {
+    syntheticDataGenerator.professors = 0;
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class, syntheticDataGenerator::generate);
+    assertEquals("app.generate.requests is 2500 but there would be no synthetic professors or students; "
+        + "set app.generate.professors and app.generate.students above 0", e.getMessage());
+
+    syntheticDataGenerator.professors = 4;
+    syntheticDataGenerator.students = 0;
+    assertThrows(IllegalArgumentException.class, syntheticDataGenerator::generate);
+    assertEquals(0, count("SELECT COUNT(*) FROM users"));
+  }
+
+  @Test
+  public void requests_can_be_added_for_existing_users_only() {
+    syntheticDataGenerator.generate();
+    syntheticDataGenerator.professors = 0;
+    syntheticDataGenerator.students = 0;
+    syntheticDataGenerator.requests = 10;
+
+    syntheticDataGenerator.generate();
+
+    assertEquals(29, count("SELECT COUNT(*) FROM users"));
+    assertEquals(2510, count("SELECT COUNT(*) FROM recommendationrequest"));
+  }
+
+  @Test
+  public void users_alone_can_be_generated() {
+    syntheticDataGenerator.professors = 0;
+    syntheticDataGenerator.requests = 0;
+
+    syntheticDataGenerator.generate();
+
+    assertEquals(25, count("SELECT COUNT(*) FROM users"));
+  }
+
+  @Test
+  public void dates_and_statuses_are_consistent() {
+    LocalDateTime before = LocalDateTime.now().minusDays(90).minusSeconds(1);
+    syntheticDataGenerator.generate();
+    LocalDateTime after = LocalDateTime.now().plusSeconds(1);
+
+    List<Map<String, Object>> rows = jdbcTemplate.queryForList("SELECT * FROM recommendationrequest");
+    for (Map<String, Object> row : rows) {
+      LocalDateTime submitted = ((Timestamp) row.get("SUBMISSION_DATE")).toLocalDateTime();
+      LocalDateTime due = ((Timestamp) row.get("DUE_DATE")).toLocalDateTime();
+      Timestamp completed = (Timestamp) row.get("COMPLETION_DATE");
+      assertTrue(submitted.isAfter(before) && submitted.isBefore(after));
+      assertTrue(due.isAfter(submitted.plusDays(13)) && due.isBefore(submitted.plusDays(91)));
+      if ("PENDING".equals(row.get("STATUS"))) {
+        assertNull(completed);
+        assertEquals(row.get("SUBMISSION_DATE"), row.get("LAST_MODIFIED_DATE"));
+      } else {
+        assertTrue(completed.toLocalDateTime().isAfter(submitted));
+        assertTrue(completed.toLocalDateTime().isBefore(after));
+        assertEquals(completed, row.get("LAST_MODIFIED_DATE"));
+      }
+    }
+    // recent requests are mostly pending, older ones mostly done
+    int recentPending = count("SELECT COUNT(*) FROM recommendationrequest WHERE status = 'PENDING' AND submission_date > ?",
+        Timestamp.valueOf(LocalDateTime.now().minusDays(SyntheticDataGenerator.RECENT_DAYS)));
+    int pending = count("SELECT COUNT(*) FROM recommendationrequest WHERE status = 'PENDING'");
+    assertTrue(recentPending * 2 > pending, recentPending + " of " + pending + " pending requests are recent");
+    assertTrue(count("SELECT COUNT(*) FROM recommendationrequest WHERE status = 'DENIED'") > 0);
+  }
+
+  @Test
+  public void requests_use_the_request_types_and_other() {
+    syntheticDataGenerator.generate();
+
+    assertTrue(count("SELECT COUNT(*) FROM recommendationrequest WHERE recommendation_type = 'Other'") > 0);
+    assertTrue(count("SELECT COUNT(*) FROM recommendationrequest WHERE recommendation_type = 'PhD program'") > 0);
+    assertEquals(0, count("""
+        SELECT COUNT(*) FROM recommendationrequest
+        WHERE recommendation_type <> 'Other' AND recommendation_type NOT IN (SELECT request_type FROM requesttype)
+        """));
+  }
+
+  @Test
+  public void without_request_types_every_request_is_other() {
+    jdbcTemplate.update("DELETE FROM requesttype");
+
+    syntheticDataGenerator.generate();
+
+    assertEquals(2500, count("SELECT COUNT(*) FROM recommendationrequest WHERE recommendation_type = 'Other'"));
+  }
+
+  @Test
+  public void a_few_professors_get_most_requests() {
+    syntheticDataGenerator.generate();
+
+    List<Integer> perProfessor = jdbcTemplate.queryForList(
+        "SELECT COUNT(*) FROM recommendationrequest GROUP BY professor_id ORDER BY professor_id", Integer.class);
+    assertEquals(4, perProfessor.size());
+    assertTrue(perProfessor.get(0) > 2 * perProfessor.get(3));
+  }
+
+  @Test
+  public void small_batches_insert_the_same_rows() {
+    syntheticDataGenerator.batchSize = 100;
+
+    syntheticDataGenerator.generate();
+
+    assertEquals(25, count("SELECT COUNT(*) FROM users WHERE email LIKE 'synthetic-student-%'"));
+    assertEquals(2500, count("SELECT COUNT(*) FROM recommendationrequest"));
+  }
+
+  @Test
+  public void running_again_adds_more_users() {
+    syntheticDataGenerator.generate();
+    syntheticDataGenerator.generate();
+
+    assertEquals(50, count("SELECT COUNT(DISTINCT email) FROM users WHERE email LIKE 'synthetic-student-%'"));
+    assertEquals(1, count("SELECT COUNT(*) FROM users WHERE email = 'synthetic-student-49@synthetic.ucsb.edu'"));
+    assertEquals(5000, count("SELECT COUNT(*) FROM recommendationrequest"));
+  }
+
+  @Test
+  public void ids_come_from_the_sequences_like_the_applications() {
+    syntheticDataGenerator.requests = 120;
+    User student = userRepository.save(User.builder().email("student@ucsb.edu").build());
+    User professor = userRepository.save(User.builder().email("prof@ucsb.edu").professor(true).build());
+    RecommendationRequest before = recommendationRequestRepository.save(RecommendationRequest.builder()
+        .requester(student).professor(professor).status("PENDING").build());
+    entityManager.flush();
+
+    syntheticDataGenerator.generate();
+    // the application keeps using the blocks of ids it already took from the sequences
+    User otherStudent = userRepository.save(User.builder().email("other@ucsb.edu").build());
+    RecommendationRequest after = recommendationRequestRepository.save(RecommendationRequest.builder()
+        .requester(student).professor(professor).status("PENDING").build());
+    entityManager.flush();
+
+    assertEquals(professor.getId() + 1, otherStudent.getId());
+    assertEquals(before.getId() + 1, after.getId());
+    assertEquals(122, count("SELECT COUNT(*) FROM recommendationrequest"));
+    assertTrue(count("SELECT MIN(id) FROM recommendationrequest WHERE details LIKE 'Synthetic%'")
+        >= before.getId() + SyntheticDataGenerator.ID_BLOCK_SIZE);
+    assertTrue(count("SELECT MIN(id) FROM users WHERE email LIKE 'synthetic-%'")
+        >= student.getId() + SyntheticDataGenerator.ID_BLOCK_SIZE);
+  }
+}
@@ -0,0 +1,70 @@
+package edu.ucsb.cs156.rec.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+
+class VirtualThreadPinningMonitorTests {
+
+  SimpleMeterRegistry meterRegistry;
+  VirtualThreadPinningMonitor monitor;
+
+  @BeforeEach
+  void setup() {
+    meterRegistry = new SimpleMeterRegistry();
+    monitor = new VirtualThreadPinningMonitor();
+    monitor.meterRegistry = meterRegistry;
+    monitor.threshold = Duration.ofMillis(10);
+    monitor.start();
+  }
+
+  @AfterEach
+  void teardown() {
+    monitor.stop();
+  }
+
+  private double pinned() {
+    return meterRegistry.get("rec.virtual.pinned").counter().count();
+  }
+
+  @Test
+  void sleeping_inside_synchronized_is_counted() throws Exception {
+    Object lock = new Object();
+    Thread.ofVirtual().start(() -> {
+      synchronized (lock) {
+        try {
+          Thread.sleep(50);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }).join();
+
+    // JFR streams events about once a second
+    long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+    while (pinned() == 0 && System.nanoTime() < deadline) {
+      Thread.sleep(100);
+    }
+    assertTrue(pinned() >= 1);
+  }
+
+  @Test
+  void events_without_a_stack_trace_are_counted() {
+    RecordedEvent event = mock(RecordedEvent.class);
+    when(event.getDuration()).thenReturn(Duration.ofMillis(30));
+
+    monitor.onPinned(event);
+
+    assertEquals(1, pinned());
+  }
+}
@@ -7,13 +7,18 @@ import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 
 
+import edu.ucsb.cs156.rec.services.CurrentUserCache;
 import edu.ucsb.cs156.rec.services.CurrentUserService;
 import edu.ucsb.cs156.rec.services.GrantedAuthoritiesService;
+import edu.ucsb.cs156.rec.services.ProfessorDirectory;
+import edu.ucsb.cs156.rec.services.RecommendationRequestEvents;
+import edu.ucsb.cs156.rec.services.RequestTypeCatalog;
+import edu.ucsb.cs156.rec.services.RoleResolutionService;
 import org.springframework.context.annotation.Import;
 
 @TestConfiguration
 @AutoConfigureDataJpa //added so that automatic lastModifiedDate and createdDate fields are set with jpa auditing (@EnableJpaAuditing(dateTimeProviderRef = "utcDateTimeProvider"))
-@Import(SecurityConfig.class)
+@Import({SecurityConfig.class, CurrentUserCache.class, RoleResolutionService.class, RequestTypeCatalog.class, ProfessorDirectory.class, RecommendationRequestEvents.class})
 public class TestConfig {
 
     @Bean
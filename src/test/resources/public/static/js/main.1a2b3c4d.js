@@ -0,0 +1 @@
+console.log("proj-rec test bundle");